@@ -0,0 +1,142 @@
+/**
+ * BattleBenchmark - 戰鬥迴圈的 JMH 效能測試
+ *
+ * 測試項目：
+ * - instanceofDispatch：原本 RPG.main 用 instanceof 判斷 Paladin / ShieldSwordsMan / Magician 的分派成本
+ * - policyDispatch：改用預先查好的 ActionPolicy / 能力遮罩之後的分派成本
+ * - fullBattle：一場完整的 3 對 3 戰鬥（角色使用預設的 NONE 監聽器，不輸出任何文字）
+ * - pooledBattle：同樣的戰鬥，但角色從 RolePool 取得、打完 reset 後歸還（比較 -prof gc 的配置量）
+ *
+ * 執行：mvn -Pbench package && java -jar target/benchmarks.jar BattleBenchmark -prof gc
+ */
+package com.rpg.bench;
+
+import com.rpg.action.ActionPolicy;
+import com.rpg.core.BattleRandom;
+import com.rpg.core.Role;
+import com.rpg.roles.melee.Paladin;
+import com.rpg.roles.melee.ShieldSwordsMan;
+import com.rpg.roles.melee.SwordsMan;
+import com.rpg.roles.ranged.Archer;
+import com.rpg.roles.ranged.Magician;
+import com.rpg.sim.Battle;
+import com.rpg.sim.RolePool;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BattleBenchmark {
+    private Role[] gameRoles;
+    private ActionPolicy[] policies;
+    private RolePool.Lane[] heroLanes;
+    private RolePool.Lane[] casterLanes;
+    private long battleIndex;
+
+    @Setup
+    public void setUp() {
+        gameRoles = new Role[] {
+            new SwordsMan("光明劍士", 100, 20, 5),
+            new ShieldSwordsMan("持盾劍士", 120, 18, 8, 10),
+            new Magician("光明法師", 80, 15, 10, 8, 100),
+            new Archer("精靈射手", 90, 18, 10, 80, 30),
+            new Paladin("聖騎士", 110, 17, 6, 12, 12, 100),
+        };
+        policies = new ActionPolicy[gameRoles.length];
+        for (int i = 0; i < gameRoles.length; i++) {
+            policies[i] = ActionPolicy.forRole(gameRoles[i]);
+        }
+
+        RolePool pool = new RolePool();
+        Supplier<Role> archer = () -> new Archer("精靈射手", 90, 18, 10, 80, 30);
+        heroLanes = new RolePool.Lane[] {
+            pool.lane(() -> new SwordsMan("光明劍士", 100, 20, 5)),
+            pool.lane(() -> new ShieldSwordsMan("持盾劍士", 120, 18, 8, 10)),
+            pool.lane(() -> new Paladin("聖騎士", 110, 17, 6, 12, 12, 100)),
+        };
+        casterLanes = new RolePool.Lane[] {
+            pool.lane(() -> new Magician("光明法師", 80, 15, 10, 8, 100)),
+            pool.lane(archer),
+            pool.lane(archer),
+        };
+    }
+
+    // 與原本 RPG.main 相同的 instanceof 判斷順序，回傳選到的分支
+    @Benchmark
+    public int instanceofDispatch() {
+        int sum = 0;
+        for (Role role : gameRoles) {
+            if (role instanceof Paladin) {
+                sum += 1;
+            } else if (role instanceof ShieldSwordsMan) {
+                sum += 2;
+            } else if (role instanceof Magician) {
+                sum += 3;
+            } else {
+                sum += 4;
+            }
+        }
+        return sum;
+    }
+
+    // 查表取得策略，讀取策略資料（單一 final 類別，呼叫點永遠是單型）
+    @Benchmark
+    public double policyDispatch() {
+        double sum = 0;
+        for (int i = 0; i < policies.length; i++) {
+            ActionPolicy policy = policies[i];
+            sum += policy.getDefendChance() + policy.getHealChance();
+        }
+        return sum;
+    }
+
+    // 每次都建立全新角色，打一場到分出勝負的戰鬥
+    @Benchmark
+    public int fullBattle() {
+        Role[] heroes = {
+            new SwordsMan("光明劍士", 100, 20, 5),
+            new ShieldSwordsMan("持盾劍士", 120, 18, 8, 10),
+            new Paladin("聖騎士", 110, 17, 6, 12, 12, 100),
+        };
+        Role[] casters = {
+            new Magician("光明法師", 80, 15, 10, 8, 100),
+            new Archer("精靈射手", 90, 18, 10, 80, 30),
+            new Archer("精靈射手", 90, 18, 10, 80, 30),
+        };
+        Battle battle = new Battle(heroes, casters, BattleRandom.forBattle(42L, battleIndex++));
+        return battle.fight(Battle.DEFAULT_MAX_ROUNDS);
+    }
+
+    // 角色從物件池取得，打完 reset 後歸還
+    @Benchmark
+    public int pooledBattle() {
+        Role[] heroes = new Role[heroLanes.length];
+        Role[] casters = new Role[casterLanes.length];
+        for (int i = 0; i < heroes.length; i++) {
+            heroes[i] = heroLanes[i].acquire();
+            casters[i] = casterLanes[i].acquire();
+        }
+        Battle battle = new Battle(heroes, casters, BattleRandom.forBattle(42L, battleIndex++));
+        int winner = battle.fight(Battle.DEFAULT_MAX_ROUNDS);
+        for (int i = 0; i < heroes.length; i++) {
+            heroLanes[i].release(heroes[i]);
+            casterLanes[i].release(casters[i]);
+        }
+        return winner;
+    }
+}
@@ -0,0 +1,125 @@
+/**
+ * DamageBatchBenchmark - 逐擊結算與批次結算的 JMH 效能比較
+ *
+ * 測試情境：
+ * - 32 個目標（一半是有護甲的劍士、一半是沒有護甲的弓箭手）
+ * - 每次測試命中 256 次（每個目標 8 次），傷害 18
+ * - perHit：每一擊都呼叫 takeDamage（近戰角色先經過 calculateDefense）
+ * - batched：全部放進 DamageBatch，再一次 resolve
+ *
+ * - listener：none 代表沒有監聽器；tally 代表統計傷害的監聽器（像 Battle 的傷害統計）；
+ *   log 代表每個事件組一行文字的監聽器（像 ConsoleCombatListener，但不真的輸出）
+ *   逐擊結算時每一擊都要通知，批次結算時每個目標只通知一次
+ *
+ * 兩邊都會在測試開始時補滿生命值，這個動作也算在量測時間內。
+ *
+ * 執行：mvn -Pbench package && java -jar target/benchmarks.jar DamageBatchBenchmark -prof gc
+ */
+package com.rpg.bench;
+
+import com.rpg.core.CombatEventListener;
+import com.rpg.core.DamageBatch;
+import com.rpg.core.Role;
+import com.rpg.roles.melee.SwordsMan;
+import com.rpg.roles.ranged.Archer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DamageBatchBenchmark {
+    // 生命值夠高，測試中不會觸發 onDeath
+    private static final int HEALTH = 1_000_000;
+    private static final int TARGETS = 32;
+    private static final int HITS_PER_TARGET = 8;
+    private static final int DAMAGE = 18;
+
+    @Param({"none", "tally", "log"})
+    public String listener;
+
+    private Role[] targets;
+    private DamageBatch batch;
+    // 監聽器統計到的總傷害與被護甲擋下的傷害
+    private long damage;
+    private long mitigated;
+    // 監聽器組出的文字總長度
+    private long logged;
+
+    private final CombatEventListener tally = new CombatEventListener() {
+        @Override
+        public void onDamage(Role target, int amount, int healthAfter) {
+            damage += amount;
+        }
+
+        @Override
+        public void onArmorMitigated(Role target, int amount) {
+            mitigated += amount;
+        }
+    };
+
+    private final CombatEventListener log = new CombatEventListener() {
+        @Override
+        public void onDamage(Role target, int amount, int healthAfter) {
+            logged += (target.getName() + " 受到 " + amount + " 點傷害，剩餘生命值：" + healthAfter).length();
+        }
+
+        @Override
+        public void onArmorMitigated(Role target, int amount) {
+            logged += ("🛡️  護甲減免了 " + amount + " 點傷害").length();
+        }
+    };
+
+    @Setup
+    public void setUp() {
+        targets = new Role[TARGETS];
+        for (int i = 0; i < TARGETS; i++) {
+            targets[i] = i % 2 == 0
+                    ? new SwordsMan("劍士", HEALTH, 20, 5)
+                    : new Archer("弓箭手", HEALTH, 18, 10, 80, 30);
+            if (listener.equals("tally")) {
+                targets[i].setListener(tally);
+            } else if (listener.equals("log")) {
+                targets[i].setListener(log);
+            }
+        }
+        batch = new DamageBatch(TARGETS * HITS_PER_TARGET);
+    }
+
+    @Benchmark
+    public int perHit() {
+        for (Role target : targets) target.setHealth(HEALTH);
+        for (int hit = 0; hit < HITS_PER_TARGET; hit++) {
+            for (Role target : targets) {
+                target.takeDamage(DAMAGE);
+            }
+        }
+        return targets[0].getHealth();
+    }
+
+    @Benchmark
+    public int batched() {
+        for (Role target : targets) target.setHealth(HEALTH);
+        for (int hit = 0; hit < HITS_PER_TARGET; hit++) {
+            for (Role target : targets) {
+                batch.add(target, DAMAGE);
+            }
+        }
+        batch.resolve();
+        return targets[0].getHealth();
+    }
+}
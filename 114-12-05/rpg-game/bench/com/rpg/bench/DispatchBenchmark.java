@@ -0,0 +1,88 @@
+/**
+ * DispatchBenchmark - 虛擬呼叫與產生的靜態分派表（RoleDispatch）的 JMH 效能測試
+ *
+ * 情境：1,024 名角色、五種職業隨機排列（同一個呼叫點會看到五種類別，虛擬呼叫是 megamorphic）
+ * - virtualTurn / dispatchedTurn：每名角色 prepareBattle + afterBattle（回合前後的 template method）
+ * - virtualAttack / dispatchedAttack：每名角色攻擊同一個血量很多的目標
+ *
+ * 執行：mvn -Pbench package && java -jar target/benchmarks.jar DispatchBenchmark
+ */
+package com.rpg.bench;
+
+import com.rpg.archetype.ArchetypeRegistry;
+import com.rpg.core.BattleRandom;
+import com.rpg.core.Role;
+import com.rpg.core.RoleDispatch;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DispatchBenchmark {
+    private static final int ROLES = 1_024;
+    // 目標每次都補到這個血量，攻擊永遠打不死它
+    private static final int TARGET_HEALTH = 1_000_000_000;
+
+    private Role[] roles;
+    private Role target;
+
+    @Setup
+    public void setUp() {
+        ArchetypeRegistry archetypes = ArchetypeRegistry.defaults();
+        String[] ids = archetypes.ids().toArray(new String[0]);
+        BattleRandom random = new BattleRandom(1L);
+        roles = new Role[ROLES];
+        for (int i = 0; i < ROLES; i++) {
+            roles[i] = archetypes.spawn(ids[random.nextInt(ids.length)]);
+        }
+        target = archetypes.spawn("swordsman");
+    }
+
+    @Benchmark
+    public void virtualTurn() {
+        for (Role role : roles) {
+            role.prepareBattle();
+            role.afterBattle();
+        }
+    }
+
+    @Benchmark
+    public void dispatchedTurn() {
+        for (Role role : roles) {
+            RoleDispatch.prepareBattle(role);
+            RoleDispatch.afterBattle(role);
+        }
+    }
+
+    @Benchmark
+    public int virtualAttack() {
+        target.setHealth(TARGET_HEALTH);
+        for (Role role : roles) {
+            role.attack(target);
+        }
+        return target.getHealth();
+    }
+
+    @Benchmark
+    public int dispatchedAttack() {
+        target.setHealth(TARGET_HEALTH);
+        for (Role role : roles) {
+            RoleDispatch.attack(role, target);
+        }
+        return target.getHealth();
+    }
+}
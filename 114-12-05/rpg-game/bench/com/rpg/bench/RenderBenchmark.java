@@ -0,0 +1,71 @@
+/**
+ * RenderBenchmark - 角色文字描述與技能卡片的 JMH 效能測試
+ *
+ * 測試項目（監控面板輪詢角色狀態的情境）：
+ * - concatenatedToString：原本的做法，每次都用 + 串出 Paladin 的描述（對照組）
+ * - cachedToString：狀態沒變時的 toString（直接回傳快取）
+ * - toStringAfterChange：每次先改變聖能再呼叫 toString（快取失效、重新產生）
+ * - cachedSkillCard / skillCardAfterChange：技能卡片的同樣兩種情境
+ *
+ * 執行：mvn -Pbench package && java -jar target/benchmarks.jar RenderBenchmark -prof gc
+ */
+package com.rpg.bench;
+
+import com.rpg.roles.melee.Paladin;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RenderBenchmark {
+    private Paladin paladin;
+
+    @Setup
+    public void setUp() {
+        paladin = new Paladin("聖騎士", 110, 17, 6, 12, 12, 100);
+    }
+
+    @Benchmark
+    public String concatenatedToString() {
+        return "角色名稱: " + paladin.getName() + ", 生命值: " + paladin.getHealth()
+                + ", 護甲值: " + paladin.getArmor() + ", 防禦力: " + paladin.getDefenseCapacity()
+                + ", 治療力: " + paladin.getHealPower() + ", 聖能: " + paladin.getHolyPower() + "/" + paladin.getMaxHolyPower();
+    }
+
+    @Benchmark
+    public String cachedToString() {
+        return paladin.toString();
+    }
+
+    // 戰後恢復聖能（已經是上限也算一次改變）
+    @Benchmark
+    public String toStringAfterChange() {
+        paladin.afterBattle();
+        return paladin.toString();
+    }
+
+    @Benchmark
+    public String cachedSkillCard() {
+        return paladin.getSkillCard();
+    }
+
+    @Benchmark
+    public String skillCardAfterChange() {
+        paladin.afterBattle();
+        return paladin.getSkillCard();
+    }
+}
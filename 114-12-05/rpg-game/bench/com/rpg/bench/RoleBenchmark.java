@@ -0,0 +1,98 @@
+/**
+ * RoleBenchmark - 角色單一動作的 JMH 效能測試
+ *
+ * 測試項目：
+ * - Role.takeDamage（沒有護甲的遠程角色）
+ * - MeleeRole.takeDamage（先經過 calculateDefense 扣護甲）
+ * - Archer.attack（檢查箭矢、消耗能量、造成傷害）
+ * - Paladin.heal / Paladin.defend（消耗聖能）
+ *
+ * 為了讓每次呼叫都走「成功」的路徑，測試方法裡會補回生命值、能量或聖能，
+ * 這些補充動作也算在量測時間內。
+ *
+ * 執行：mvn -Pbench package && java -jar target/benchmarks.jar RoleBenchmark -prof gc
+ */
+package com.rpg.bench;
+
+import com.rpg.core.Role;
+import com.rpg.roles.melee.Paladin;
+import com.rpg.roles.melee.SwordsMan;
+import com.rpg.roles.ranged.Archer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoleBenchmark {
+    // 生命值夠高，測試中不會觸發 onDeath
+    private static final int HEALTH = 1_000_000;
+
+    private Archer archer;
+    private SwordsMan swordsMan;
+    private Paladin paladin;
+    private Role target;
+
+    @Setup
+    public void setUp() {
+        archer = new Archer("精靈射手", HEALTH, 18, 10, 80, 30);
+        swordsMan = new SwordsMan("光明劍士", HEALTH, 20, 5);
+        paladin = new Paladin("聖騎士", HEALTH, 17, 6, 12, 12, 100);
+        target = new Archer("標靶", HEALTH, 1, 1, 1, 1);
+    }
+
+    @Benchmark
+    public int roleTakeDamage() {
+        target.setHealth(HEALTH);
+        target.takeDamage(18);
+        return target.getHealth();
+    }
+
+    @Benchmark
+    public int meleeTakeDamageWithArmor() {
+        swordsMan.setHealth(HEALTH);
+        swordsMan.takeDamage(18);
+        return swordsMan.getHealth();
+    }
+
+    @Benchmark
+    public int archerAttack() {
+        target.setHealth(HEALTH);
+        archer.setEnergy(archer.getMaxEnergy());
+        archer.reloadArrows(1);
+        archer.attack(target);
+        return target.getHealth();
+    }
+
+    // 治療消耗 15 點聖能，再用兩次戰後恢復（每次 +10）補回來
+    @Benchmark
+    public int paladinHeal() {
+        target.setHealth(HEALTH);
+        paladin.heal(target);
+        paladin.afterBattle();
+        paladin.afterBattle();
+        return target.getHealth();
+    }
+
+    // 防禦消耗 10 點聖能，再用一次戰後恢復補回來
+    @Benchmark
+    public int paladinDefend() {
+        paladin.setHealth(HEALTH);
+        paladin.defend();
+        paladin.afterBattle();
+        return paladin.getHealth();
+    }
+}
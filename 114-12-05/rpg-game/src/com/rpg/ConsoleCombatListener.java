@@ -0,0 +1,115 @@
+/**
+ * ConsoleCombatListener - 把戰鬥事件輸出到主控台
+ *
+ * 角色本身不再直接呼叫 System.out.println，
+ * RPG 展示程式把這個監聽器設定給每個角色，才會看到戰鬥過程。
+ * 批次模擬則使用預設的 CombatEventListener.NONE，完全不輸出。
+ */
+package com.rpg;
+
+import com.rpg.core.CombatEventListener;
+import com.rpg.core.EffectType;
+import com.rpg.core.Role;
+
+public class ConsoleCombatListener implements CombatEventListener {
+
+    @Override
+    public void onDamage(Role target, int damage, int healthAfter) {
+        System.out.println("💥 " + target.getName() + " 受到 " + damage + " 點傷害！目前生命值：" + healthAfter);
+    }
+
+    @Override
+    public void onArmorMitigated(Role target, int mitigated) {
+        System.out.println("🛡️  護甲減免 " + mitigated + " 點傷害！");
+    }
+
+    @Override
+    public void onHeal(Role healer, Role target, int healthBefore, int healthAfter) {
+        System.out.println("💚 恢復 " + (healthAfter - healthBefore) + " 點生命值 (" +
+                         healthBefore + " → " + healthAfter + ")");
+    }
+
+    @Override
+    public void onDefend(Role defender, int healthBefore, int healthAfter) {
+        System.out.println("💚 恢復 " + (healthAfter - healthBefore) + " 點生命值 (" +
+                         healthBefore + " → " + healthAfter + ")");
+    }
+
+    @Override
+    public void onEnergyConsumed(Role role, int amount, int remaining, int max) {
+        System.out.println("💫 消耗 " + amount + " 點能量，剩餘：" + remaining + "/" + max);
+    }
+
+    @Override
+    public void onEnergyShortage(Role role, int required, int available) {
+        System.out.println("❌ 能量不足！需要 " + required + "，目前只有 " + available);
+    }
+
+    @Override
+    public void onEnergyRestored(Role role, int before, int after, int max) {
+        System.out.println("✨ 恢復 " + (after - before) + " 點能量 (" + before + " → " + after + ")");
+    }
+
+    @Override
+    public void onHolyPowerConsumed(Role role, int amount, int remaining, int max) {
+        System.out.println("✨ 消耗 " + amount + " 點聖能，剩餘：" + remaining + "/" + max);
+    }
+
+    @Override
+    public void onHolyPowerShortage(Role role, int required, int available) {
+        System.out.println("❌ 聖能不足！需要 " + required + "，目前只有 " + available);
+    }
+
+    @Override
+    public void onHolyPowerRestored(Role role, int before, int after, int max) {
+        System.out.println("🌟 恢復 " + (after - before) + " 點聖能 (" + before + " → " + after + ")");
+    }
+
+    @Override
+    public void onArrowShot(Role role, int remaining, int max) {
+        System.out.println("📊 剩餘箭矢：" + remaining + "/" + max);
+    }
+
+    @Override
+    public void onArrowsReloaded(Role role, int before, int after) {
+        System.out.println("🏹 補充箭矢 " + (after - before) + " 支 (" + before + " → " + after + ")");
+    }
+
+    @Override
+    public void onShieldAbsorbed(Role target, int absorbed, int remaining) {
+        System.out.println("🔰 " + target.getName() + " 的護盾吸收了 " + absorbed + " 點傷害（剩餘護盾：" + remaining + "）");
+    }
+
+    @Override
+    public void onEffectApplied(Role target, EffectType type, int magnitude, int duration) {
+        switch (type) {
+            case STUN:
+                System.out.println("💫 " + target.getName() + " 被暈眩 " + duration + " 回合！");
+                break;
+            case DAMAGE_OVER_TIME:
+                System.out.println("🔥 " + target.getName() + " 每回合受到 " + magnitude + " 點持續傷害，持續 " + duration + " 回合");
+                break;
+            case SHIELD:
+                System.out.println("🔰 " + target.getName() + " 獲得 " + magnitude + " 點護盾，持續 " + duration + " 回合");
+                break;
+            case REGEN:
+                System.out.println("🌿 " + target.getName() + " 每回合恢復 " + magnitude + " 點生命值，持續 " + duration + " 回合");
+                break;
+        }
+    }
+
+    @Override
+    public void onEffectExpired(Role target, EffectType type) {
+        System.out.println("⌛ " + target.getName() + " 身上的 " + type + " 效果結束了");
+    }
+
+    @Override
+    public boolean isNarrating() {
+        return true;
+    }
+
+    @Override
+    public void onNarration(Role role, String line) {
+        System.out.println(line);
+    }
+}
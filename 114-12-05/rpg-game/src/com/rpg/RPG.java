@@ -1,9 +1,17 @@
 package com.rpg;
 
+import com.rpg.action.ActionPolicy;
+import com.rpg.action.BattleContext;
+import com.rpg.archetype.ArchetypeRegistry;
+import com.rpg.core.BattleRandom;
+import com.rpg.core.CombatEventListener;
+import com.rpg.core.CombatEventMulticaster;
 import com.rpg.core.Role;
 import com.rpg.interfaces.*;
-import com.rpg.roles.melee.*;
-import com.rpg.roles.ranged.*;
+import com.rpg.party.Party;
+import com.rpg.sched.TurnScheduler;
+
+import java.util.SplittableRandom;
 
 public class RPG {
     public static void main(String[] args) {
@@ -30,15 +38,56 @@ public class RPG {
         System.out.println("════════════════════════════════════════");
         System.out.println();
 
-        // 建立角色
-        SwordsMan swordsMan = new SwordsMan("光明劍士", 100, 20, 5);
-        ShieldSwordsMan shieldSwordsMan = new ShieldSwordsMan("持盾劍士", 120, 18, 8, 10);
-        Magician magician = new Magician("光明法師", 80, 15, 10, 8, 100);
-        Archer archer = new Archer("精靈射手", 90, 18, 10, 80, 30);
-        Paladin paladin = new Paladin("聖騎士", 110, 17, 6, 12, 12, 100);
+        // 建立角色：數值來自原型定義檔（調整平衡不需要重新編譯）
+        ArchetypeRegistry archetypes = ArchetypeRegistry.defaults();
+        Role swordsMan = archetypes.spawn("swordsman");
+        Role shieldSwordsMan = archetypes.spawn("shieldSwordsman");
+        Role magician = archetypes.spawn("magician");
+        Role archer = archetypes.spawn("archer");
+        Role paladin = archetypes.spawn("paladin");
 
         Role[] gameRoles = {swordsMan, shieldSwordsMan, magician, archer, paladin};
 
+        // 兩個陣營：存活人數、總生命值、補師 / 防禦者人數隨戰鬥事件即時更新，
+        // 判斷勝負、挑選目標不必每回合掃描全部角色
+        Party light = new Party("光明陣營", gameRoles.length);
+        Party iron = new Party("鐵壁陣營", gameRoles.length);
+        // 行動排程：角色倒下時移除，復活時重新排入
+        TurnScheduler scheduler = new TurnScheduler(gameRoles.length);
+        CombatEventListener scheduleTracker = new CombatEventListener() {
+            @Override
+            public void onDeath(Role role) {
+                scheduler.remove(role.getId());
+            }
+
+            @Override
+            public void onRevive(Role role) {
+                scheduler.schedule(role.getId(), scheduler.now() + TurnScheduler.interval(role.getSpeed()), role.getSpeed());
+            }
+        };
+
+        // 戰鬥過程透過監聽器輸出到主控台
+        CombatEventListener listener = CombatEventMulticaster.of(
+                CombatEventMulticaster.of(light, iron),
+                CombatEventMulticaster.of(scheduleTracker, new ConsoleCombatListener()));
+
+        // 建立名單時就查好每個角色的能力遮罩與行動策略，之後不再做 instanceof 判斷
+        int[] capabilities = new int[gameRoles.length];
+        ActionPolicy[] policies = new ActionPolicy[gameRoles.length];
+        for (int i = 0; i < gameRoles.length; i++) {
+            gameRoles[i].setId(i);
+            gameRoles[i].setListener(listener);
+            capabilities[i] = Capabilities.of(gameRoles[i]);
+            policies[i] = ActionPolicy.forRole(gameRoles[i]);
+        }
+
+        // 劍士、魔法師、弓箭手對上持盾劍士、聖騎士
+        light.add(swordsMan);
+        light.add(magician);
+        light.add(archer);
+        iron.add(shieldSwordsMan);
+        iron.add(paladin);
+
         // ========== 展示介面能力 ==========
         System.out.println("════════════════════════════════════════");
         System.out.println("          🔍 介面能力展示");
@@ -47,7 +96,7 @@ public class RPG {
 
         System.out.println("【可防禦角色 (Defendable)】");
         for (Role role : gameRoles) {
-            if (role instanceof Defendable) {
+            if (Capabilities.has(capabilities[role.getId()], Capabilities.DEFENDABLE)) {
                 Defendable defender = (Defendable) role;
                 System.out.println("✅ " + role.getName() + 
                                  " - 防禦力：" + defender.getDefenseCapacity() + 
@@ -58,7 +107,7 @@ public class RPG {
 
         System.out.println("【可治療角色 (Healable)】");
         for (Role role : gameRoles) {
-            if (role instanceof Healable) {
+            if (Capabilities.has(capabilities[role.getId()], Capabilities.HEALABLE)) {
                 Healable healer = (Healable) role;
                 System.out.println("✅ " + role.getName() + 
                                  " - 治療力：" + healer.getHealPower() + 
@@ -69,7 +118,7 @@ public class RPG {
 
         System.out.println("【多重能力角色】");
         for (Role role : gameRoles) {
-            if (role instanceof Defendable && role instanceof Healable) {
+            if (Capabilities.has(capabilities[role.getId()], Capabilities.DEFENDABLE | Capabilities.HEALABLE)) {
                 System.out.println("⭐ " + role.getName() + 
                                  " - 同時擁有防禦和治療能力！");
             }
@@ -93,82 +142,62 @@ public class RPG {
         System.out.println();
 
         // ========== 戰鬥模擬 ==========
-        System.out.println("⚔️  戰鬥開始！");
+        // 可以從命令列指定種子，重播同一場戰鬥
+        long seed = args.length > 0 ? Long.parseLong(args[0]) : new SplittableRandom().nextLong();
+        BattleRandom random = new BattleRandom(seed);
+
+        // 陣營對戰：只攻擊對方陣營（對方還有補師時先打補師），只治療自己陣營
+        BattleContext context = new BattleContext() {
+            @Override
+            public BattleRandom random() {
+                return random;
+            }
+
+            @Override
+            public Role randomEnemy(Role self) {
+                return getRandomAliveTarget(light.contains(self) ? iron : light, random);
+            }
+
+            @Override
+            public Role randomAlly(Role self) {
+                return (light.contains(self) ? light : iron).randomAlive(random);
+            }
+        };
+
+        System.out.println("⚔️  戰鬥開始！（亂數種子：" + seed + "）");
+        System.out.println("🔵 " + light);
+        System.out.println("🔴 " + iron);
         System.out.println();
 
+        // 依速度排程：快的角色行動比較頻繁，打到其中一個陣營全滅為止
+        // 開場時每個角色在 [0, 行動間隔) 之間隨機錯開
+        for (Role role : gameRoles) {
+            scheduler.schedule(role.getId(), random.nextInt((int) TurnScheduler.interval(role.getSpeed())), role.getSpeed());
+        }
+
         int round = 1;
-        int maxRounds = 6;
+        // 行動次數上限：補血角色可能讓戰鬥拖很久
+        int maxRounds = 60;
 
-        for (Role currentRole : gameRoles) {
-            if (round > maxRounds) break;
-            if (!currentRole.isAlive()) continue;
+        while (round <= maxRounds && light.isAlive() && iron.isAlive()) {
+            Role currentRole = gameRoles[scheduler.poll()];
 
-            System.out.println("━━━━━━━━━━ 第 " + round + " 回合 ━━━━━━━━━━");
+            System.out.println("━━━━━━━━━━ 第 " + round + " 回合（時間 " + scheduler.now() + "）━━━━━━━━━━");
             
             // 戰前準備
             currentRole.prepareBattle();
             System.out.println();
 
-            // 執行動作
-            if (currentRole instanceof Paladin) {
-                // 聖騎士：展示多重能力
-                Paladin p = (Paladin) currentRole;
-                double action = Math.random();
-                
-                if (action < 0.3) {
-                    // 30% 防禦
-                    p.defend();
-                } else if (action < 0.6) {
-                    // 30% 治療
-                    Role ally = getRandomAliveRole(gameRoles);
-                    if (ally != null) {
-                        p.heal(ally);
-                    }
-                } else {
-                    // 40% 攻擊
-                    Role target = getRandomAliveTarget(gameRoles, currentRole);
-                    if (target != null) {
-                        currentRole.attack(target);
-                    }
-                }
-            } else if (currentRole instanceof ShieldSwordsMan) {
-                // 持盾劍士：可能防禦
-                ShieldSwordsMan shield = (ShieldSwordsMan) currentRole;
-                if (Math.random() < 0.3) {
-                    shield.defend();
-                    System.out.println();
-                }
-                Role target = getRandomAliveTarget(gameRoles, currentRole);
-                if (target != null) {
-                    currentRole.attack(target);
-                }
-            } else if (currentRole instanceof Magician) {
-                // 魔法師：攻擊或治療
-                Magician mage = (Magician) currentRole;
-                if (Math.random() < 0.6) {
-                    Role target = getRandomAliveTarget(gameRoles, currentRole);
-                    if (target != null) {
-                        currentRole.attack(target);
-                    }
-                } else {
-                    Role ally = getRandomAliveRole(gameRoles);
-                    if (ally != null) {
-                        mage.heal(ally);
-                    }
-                }
-            } else {
-                // 其他角色：直接攻擊
-                Role target = getRandomAliveTarget(gameRoles, currentRole);
-                if (target != null) {
-                    currentRole.attack(target);
-                }
-            }
+            // 執行動作：策略在建立名單時就決定好了
+            policies[currentRole.getId()].act(currentRole, context);
 
             System.out.println();
 
-            // 戰後行為
+            // 戰後行為，並排入下一次行動
             if (currentRole.isAlive()) {
                 currentRole.afterBattle();
+                scheduler.schedule(currentRole.getId(),
+                        scheduler.now() + TurnScheduler.interval(currentRole.getSpeed()), currentRole.getSpeed());
             }
 
             System.out.println();
@@ -181,15 +210,25 @@ public class RPG {
         System.out.println("════════════════════════════════════════");
         System.out.println();
         
+        if (light.isAlive() != iron.isAlive()) {
+            System.out.println("🏆 勝方：" + (light.isAlive() ? light : iron).getName());
+        } else {
+            System.out.println("🤝 回合數用完，雙方都還有人存活，平手");
+        }
+        System.out.println("🔵 " + light);
+        System.out.println("🔴 " + iron);
+        System.out.println();
+
         System.out.println("【最終狀態】");
         for (Role role : gameRoles) {
             if (role.isAlive()) {
                 String abilities = "";
-                if (role instanceof Defendable && role instanceof Healable) {
+                int mask = capabilities[role.getId()];
+                if (Capabilities.has(mask, Capabilities.DEFENDABLE | Capabilities.HEALABLE)) {
                     abilities = " [防禦+治療]";
-                } else if (role instanceof Defendable) {
+                } else if (Capabilities.has(mask, Capabilities.DEFENDABLE)) {
                     abilities = " [防禦]";
-                } else if (role instanceof Healable) {
+                } else if (Capabilities.has(mask, Capabilities.HEALABLE)) {
                     abilities = " [治療]";
                 }
                 
@@ -206,31 +245,11 @@ public class RPG {
         System.out.println("════════════════════════════════════════");
     }
 
-    private static Role getRandomAliveTarget(Role[] roles, Role self) {
-        Role[] aliveRoles = new Role[roles.length];
-        int count = 0;
-        
-        for (Role role : roles) {
-            if (role != self && role.isAlive()) {
-                aliveRoles[count++] = role;
-            }
-        }
-        
-        if (count == 0) return null;
-        return aliveRoles[(int) (Math.random() * count)];
-    }
-
-    private static Role getRandomAliveRole(Role[] roles) {
-        Role[] aliveRoles = new Role[roles.length];
-        int count = 0;
-        
-        for (Role role : roles) {
-            if (role.isAlive()) {
-                aliveRoles[count++] = role;
-            }
+    // 對方陣營還有補師時優先攻擊補師，否則隨機挑一個存活的敵人（都是 O(1)）
+    private static Role getRandomAliveTarget(Party enemies, BattleRandom random) {
+        if (enemies.getAliveHealers() > 0) {
+            return enemies.randomAliveHealer(random);
         }
-        
-        if (count == 0) return null;
-        return aliveRoles[(int) (Math.random() * count)];
+        return enemies.randomAlive(random);
     }
 }
@@ -0,0 +1,99 @@
+/**
+ * SimulationDemo - 批次戰鬥模擬，之後依序執行各個功能的展示（com.rpg.demo）
+ *
+ * 依序：近戰隊對遠程隊的批次模擬、循環賽、大規模戰鬥、速度排程、重播檔、共享世界、
+ * 對戰伺服器、空間索引、狀態效果、存檔與分岔、自動平衡、效用 AI
+ *
+ * 執行：java com.rpg.SimulationDemo [場數]（預設 1,000,000，其他展示的規模依場數調整）
+ */
+package com.rpg;
+
+import com.rpg.archetype.ArchetypeRegistry;
+import com.rpg.core.Role;
+import com.rpg.demo.AutoBalanceDemo;
+import com.rpg.demo.BattleServerDemo;
+import com.rpg.demo.BossRaidDemo;
+import com.rpg.demo.CheckpointDemo;
+import com.rpg.demo.MassBattleDemo;
+import com.rpg.demo.ReplayDemo;
+import com.rpg.demo.ScheduledBattleDemo;
+import com.rpg.demo.SpatialDemo;
+import com.rpg.demo.StatusEffectDemo;
+import com.rpg.demo.TournamentDemo;
+import com.rpg.demo.UtilityAiDemo;
+import com.rpg.sim.BattleSimulator;
+import com.rpg.sim.RoleSpec;
+import com.rpg.sim.SimulationResult;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.function.Supplier;
+
+public class SimulationDemo {
+    public static void main(String[] args) throws IOException {
+        int battles = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        System.out.println("════════════════════════════════════════");
+        System.out.println("        🎲 批次戰鬥模擬");
+        System.out.println("════════════════════════════════════════");
+        System.out.println();
+
+        // 與 RPG.main 相同的角色原型（共用同一份不可變的數值）
+        ArchetypeRegistry archetypes = ArchetypeRegistry.defaults();
+        List<Supplier<? extends Role>> heroes = List.of(
+                archetypes.factory("swordsman"),
+                archetypes.factory("shieldSwordsman"),
+                archetypes.factory("paladin"));
+        List<Supplier<? extends Role>> casters = List.of(
+                archetypes.factory("magician"),
+                archetypes.factory("archer"),
+                archetypes.factory("archer"));
+
+        BattleSimulator simulator = new BattleSimulator(heroes, casters);
+        // 暖身，讓 JIT 編譯熱點程式碼
+        simulator.run(Math.min(battles, 50_000));
+
+        long start = System.nanoTime();
+        SimulationResult result = simulator.run(battles);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.println("【近戰隊 (A) vs 遠程隊 (B)】");
+        System.out.println(result);
+        System.out.printf("⏱️  耗時 %.2f 秒，約每分鐘 %,.0f 場%n", seconds, battles / seconds * 60);
+        System.out.println();
+
+        List<RoleSpec> roster = TournamentDemo.roster(archetypes);
+        TournamentDemo.run(roster, Math.max(1, battles / 10));
+        System.out.println();
+
+        MassBattleDemo.run(50_000);
+        System.out.println();
+
+        ScheduledBattleDemo.run(5_000);
+        System.out.println();
+
+        // 錄製同一組對戰（模擬器接著上面的批次模擬）
+        ReplayDemo.run(simulator, Math.max(1, battles / 10));
+        System.out.println();
+
+        BossRaidDemo.run(Math.max(1_000, battles / 10));
+        System.out.println();
+
+        BattleServerDemo.run(Math.max(1_000, battles / 10));
+        System.out.println();
+
+        SpatialDemo.run(5_000);
+        System.out.println();
+
+        StatusEffectDemo.run(10_000);
+        System.out.println();
+
+        CheckpointDemo.run(Math.max(100, battles / 1_000));
+        System.out.println();
+
+        AutoBalanceDemo.run(roster, Math.max(1_000, battles / 50));
+        System.out.println();
+
+        UtilityAiDemo.run(Math.max(1_000, battles / 10));
+    }
+}
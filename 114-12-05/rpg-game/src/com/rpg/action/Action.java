@@ -0,0 +1,13 @@
+/**
+ * Action - 角色一回合要做的事（由 ActionChooser 決定）
+ */
+package com.rpg.action;
+
+public enum Action {
+    // 攻擊隨機一個敵人
+    ATTACK,
+    // 防禦（角色必須實作 Defendable）
+    DEFEND,
+    // 治療最需要治療的隊友（角色必須實作 Healable）
+    HEAL
+}
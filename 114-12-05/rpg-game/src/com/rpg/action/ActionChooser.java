@@ -0,0 +1,20 @@
+/**
+ * ActionChooser - 依戰場狀況決定行動的策略（例如 com.rpg.ai.UtilityAI）
+ *
+ * 與固定機率的 ActionPolicy 不同，選擇時會讀取角色與隊友目前的狀態；
+ * 用 new ActionPolicy(chooser, attackAfterDefend) 包裝後就能放進任何戰鬥。
+ */
+package com.rpg.action;
+
+import com.rpg.core.Role;
+
+public interface ActionChooser {
+
+    /**
+     * 決定這一回合的行動
+     * @param self 行動的角色（沒有暈眩）
+     * @param context 戰場
+     * @return 行動；DEFEND / HEAL 只能在角色 canDefend() / canHeal() 時回傳
+     */
+    Action choose(Role self, BattleContext context);
+}
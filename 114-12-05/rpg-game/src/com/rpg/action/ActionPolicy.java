@@ -0,0 +1,188 @@
+/**
+ * ActionPolicy - 角色每回合的行動策略
+ *
+ * 為什麼需要？
+ * - RPG.main 原本用 instanceof Paladin / ShieldSwordsMan / Magician 一路判斷再轉型
+ * - 每新增一個職業，每個回合都要多做一次型別判斷
+ *
+ * 設計說明：
+ * - 策略是「資料」而不是子類別：防禦機率、治療機率、防禦後是否繼續攻擊
+ * - 只有這一個 final 類別，所以每回合的 policy.act(...) 呼叫永遠是單型（monomorphic），
+ *   JIT 可以直接內聯，不會因為職業變多而變慢
+ * - 建立名單時用 forRole() 查一次策略並存起來，之後每回合不再做型別判斷
+ * - 攻擊、防禦、治療透過 RoleSwitch 呼叫：對 sealed 的 MeleeRole / RangedRole 窮舉 switch 到確切的類別，
+ *   職業再多也不會變成 megamorphic 呼叫，新增職業沒處理時無法編譯
+ *
+ * 暈眩中的角色（Role.isStunned）整回合不行動，也不擲骰
+ *
+ * 擲骰方式（每回合最多擲一次 0 ~ 1 的亂數 roll）：
+ * - roll < defendChance：防禦
+ * - healFrom <= roll < healFrom + healChance：治療隊友
+ * - 其他：攻擊
+ * 治療區間的起點可以指定，所以同一個種子重播時，每個 roll 對應的行動與原本 RPG.main 完全一樣
+ *
+ * 預設策略（依能力決定，與原本 RPG.main 的行為相同）：
+ * - 可防禦 + 可治療（聖騎士）：[0, 0.3) 防禦、[0.3, 0.6) 治療隊友、其餘攻擊
+ * - 可防禦（持盾劍士）：[0, 0.3) 先防禦，之後一定攻擊
+ * - 可治療（魔法師）：[0, 0.6) 攻擊、[0.6, 1) 治療隊友
+ * - 其他：直接攻擊，不擲骰
+ *
+ * 也可以改由 ActionChooser 依戰場狀況決定（例如 com.rpg.ai.UtilityAI），這時不擲骰：
+ * - DEFEND：防禦（attackAfterDefend 時接著攻擊）
+ * - HEAL：治療戰場上血量比例最低的隊友（戰場不提供時改成隨機隊友）
+ * - ATTACK：攻擊
+ */
+package com.rpg.action;
+
+import com.rpg.core.Role;
+import com.rpg.interfaces.Capabilities;
+import com.rpg.roles.RoleSwitch;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class ActionPolicy {
+    // ========== 預設策略 ==========
+    public static final ActionPolicy ATTACK = new ActionPolicy(0, 0, 0, false);
+    public static final ActionPolicy GUARD_THEN_ATTACK = new ActionPolicy(0.3, 0, 0, true);
+    public static final ActionPolicy ATTACK_OR_HEAL = new ActionPolicy(0, 0.6, 0.4, false);
+    public static final ActionPolicy DEFEND_HEAL_OR_ATTACK = new ActionPolicy(0.3, 0.3, 0.3, false);
+
+    // 每個類別對應的策略（第一次查詢時依能力決定，也可以用 register 指定）
+    private static final Map<Class<?>, ActionPolicy> REGISTRY = new ConcurrentHashMap<>();
+
+    private final double defendChance;
+    private final double healFrom;
+    private final double healChance;
+    private final boolean attackAfterDefend;
+    // 依戰場狀況決定行動的策略（null 代表用上面的機率擲骰）
+    private final ActionChooser chooser;
+
+    /**
+     * 建構子
+     * @param defendChance 防禦的機率（roll 落在 [0, defendChance)）
+     * @param healFrom 治療區間的起點（有治療機率時不能小於 defendChance）
+     * @param healChance 治療隊友的機率（roll 落在 [healFrom, healFrom + healChance)）
+     * @param attackAfterDefend 防禦之後是否還要攻擊
+     */
+    public ActionPolicy(double defendChance, double healFrom, double healChance, boolean attackAfterDefend) {
+        if (defendChance < 0 || defendChance > 1 || healChance < 0 || healFrom + healChance > 1
+                || (healChance > 0 && healFrom < defendChance)) {
+            throw new IllegalArgumentException("機率必須介於 0 ~ 1，且防禦與治療的區間不能重疊");
+        }
+        this.defendChance = defendChance;
+        this.healFrom = healFrom;
+        this.healChance = healChance;
+        this.attackAfterDefend = attackAfterDefend;
+        this.chooser = null;
+    }
+
+    /**
+     * 建構子：由 chooser 決定每回合的行動，不擲骰
+     * @param chooser 決定行動的策略
+     * @param attackAfterDefend 防禦之後是否還要攻擊
+     */
+    public ActionPolicy(ActionChooser chooser, boolean attackAfterDefend) {
+        if (chooser == null) {
+            throw new IllegalArgumentException("chooser 不能是 null");
+        }
+        this.defendChance = 0;
+        this.healFrom = 0;
+        this.healChance = 0;
+        this.attackAfterDefend = attackAfterDefend;
+        this.chooser = chooser;
+    }
+
+    /**
+     * 取得角色類別的策略（建立名單時呼叫一次即可）
+     */
+    public static ActionPolicy forRole(Role role) {
+        return REGISTRY.computeIfAbsent(role.getClass(), type -> byCapabilities(Capabilities.of(role)));
+    }
+
+    /**
+     * 指定某個類別的策略（例如新職業想用不同的機率）
+     */
+    public static void register(Class<? extends Role> type, ActionPolicy policy) {
+        REGISTRY.put(type, policy);
+    }
+
+    // 依能力選擇預設策略
+    private static ActionPolicy byCapabilities(int capabilities) {
+        boolean canDefend = Capabilities.has(capabilities, Capabilities.DEFENDABLE);
+        boolean canHeal = Capabilities.has(capabilities, Capabilities.HEALABLE);
+        if (canDefend && canHeal) return DEFEND_HEAL_OR_ATTACK;
+        if (canDefend) return GUARD_THEN_ATTACK;
+        if (canHeal) return ATTACK_OR_HEAL;
+        return ATTACK;
+    }
+
+    /**
+     * 執行一回合的行動
+     * @param self 行動的角色（必須實作策略會用到的介面）
+     * @param context 戰場
+     */
+    public void act(Role self, BattleContext context) {
+        // 暈眩中直接跳過，不擲骰（沒有人被暈眩時亂數的使用順序與原本相同）
+        if (self.isStunned()) return;
+
+        if (chooser != null) {
+            switch (chooser.choose(self, context)) {
+                case DEFEND:
+                    RoleSwitch.defend(self);
+                    if (!attackAfterDefend) return;
+                    break;
+                case HEAL:
+                    Role ally = context.weakestAlly(self);
+                    if (ally == null) {
+                        ally = context.randomAlly(self);
+                    }
+                    if (ally != null) {
+                        RoleSwitch.heal(self, ally);
+                    }
+                    return;
+                default:
+                    break;
+            }
+        } else if (defendChance + healChance > 0) {
+            // 只會攻擊的角色不需要擲骰
+            double roll = context.random().nextDouble();
+            if (roll < defendChance) {
+                RoleSwitch.defend(self);
+                if (!attackAfterDefend) return;
+            } else if (roll >= healFrom && roll < healFrom + healChance) {
+                Role ally = context.randomAlly(self);
+                if (ally != null) {
+                    RoleSwitch.heal(self, ally);
+                }
+                return;
+            }
+        }
+
+        Role target = context.randomEnemy(self);
+        if (target != null) {
+            RoleSwitch.attack(self, target);
+        }
+    }
+
+    public double getDefendChance() {
+        return defendChance;
+    }
+
+    public double getHealFrom() {
+        return healFrom;
+    }
+
+    public double getHealChance() {
+        return healChance;
+    }
+
+    public boolean isAttackAfterDefend() {
+        return attackAfterDefend;
+    }
+
+    // 決定行動的策略（用機率擲骰時為 null）
+    public ActionChooser getChooser() {
+        return chooser;
+    }
+}
@@ -0,0 +1,36 @@
+/**
+ * BattleContext - 行動策略看到的戰場
+ *
+ * 策略只需要知道「能打誰、能治療誰、用哪個亂數」，
+ * 不需要知道是兩方對戰（Battle）、陣營對戰（RPG.main）還是對戰伺服器（Match）。
+ */
+package com.rpg.action;
+
+import com.rpg.core.BattleRandom;
+import com.rpg.core.Role;
+
+public interface BattleContext {
+
+    // 這場戰鬥使用的亂數產生器
+    BattleRandom random();
+
+    /**
+     * 隨機挑一個 self 可以攻擊的存活角色
+     * @return 目標；沒有可攻擊的對象時回傳 null
+     */
+    Role randomEnemy(Role self);
+
+    /**
+     * 隨機挑一個 self 可以治療的存活角色（可能是自己）
+     * @return 目標；沒有可治療的對象時回傳 null
+     */
+    Role randomAlly(Role self);
+
+    /**
+     * 生命值比例最低的存活隊友（可能是自己，用於決定要不要治療、治療誰）
+     * @return 目標；沒有可治療的對象、或這個戰場不提供時回傳 null
+     */
+    default Role weakestAlly(Role self) {
+        return null;
+    }
+}
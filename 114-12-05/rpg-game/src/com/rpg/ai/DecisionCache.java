@@ -0,0 +1,178 @@
+/**
+ * DecisionCache - 固定容量的決策快取（CLOCK 淘汰）
+ *
+ * 為什麼需要？
+ * - 模擬上百萬場戰鬥時，同樣的狀況（量化後的血量、資源、能力）會一再出現，
+ *   每次都重新評分是重複的工作
+ * - 狀況的組合很多，不能無限制地記下來，需要固定容量、自動淘汰
+ *
+ * 設計說明：
+ * - 鍵是 int（量化後的狀況編號），值是 0 ~ 127 的決策編號，全部存在基本型別陣列裡，查詢不產生任何物件
+ * - 索引是開放定址的雜湊表（線性探測），存放項目所在的格子；刪除時往回搬移後面的項目，不留墓碑
+ * - 淘汰用 CLOCK（近似 LRU）：命中時只設定參考位元；滿了之後指針繞著格子轉，
+ *   清掉遇到的參考位元，第一個沒有被參考的格子就是被淘汰的項目
+ * - 不是執行緒安全的：UtilityAI 每個執行緒各用一個，統計數字在模擬結束後才讀取
+ *
+ * 使用範例：
+ *   int decision = cache.get(key);
+ *   if (decision < 0) {
+ *       decision = score(key);
+ *       cache.put(key, decision);
+ *   }
+ */
+package com.rpg.ai;
+
+public final class DecisionCache {
+    // 查詢不到時 get 的回傳值
+    public static final int MISS = -1;
+
+    private final int capacity;
+    // 每一格的鍵、值、參考位元
+    private final int[] keys;
+    private final byte[] values;
+    private final boolean[] referenced;
+    // 雜湊索引：存放「格子編號 + 1」，0 代表空位（大小是 2 的次方，至少是容量的兩倍）
+    private final int[] index;
+    private final int mask;
+    // 已使用的格子數
+    private int size;
+    // CLOCK 指針
+    private int hand;
+
+    // 統計
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * 建構子
+     * @param capacity 最多記住幾個決策
+     */
+    public DecisionCache(int capacity) {
+        if (capacity <= 0 || capacity > 1 << 28) {
+            throw new IllegalArgumentException("容量必須介於 1 ~ 2^28：" + capacity);
+        }
+        this.capacity = capacity;
+        this.keys = new int[capacity];
+        this.values = new byte[capacity];
+        this.referenced = new boolean[capacity];
+        this.index = new int[Integer.highestOneBit(capacity) << 2];
+        this.mask = index.length - 1;
+    }
+
+    /**
+     * 查詢決策（命中時標記為最近用過）
+     * @param key 狀況編號
+     * @return 決策編號；沒有記錄時回傳 MISS
+     */
+    public int get(int key) {
+        int slot = find(key);
+        if (slot < 0) {
+            misses++;
+            return MISS;
+        }
+        hits++;
+        referenced[slot] = true;
+        return values[slot];
+    }
+
+    /**
+     * 記下決策（已存在時覆寫；滿了時用 CLOCK 淘汰一個）
+     * @param key 狀況編號
+     * @param value 決策編號（0 ~ 127）
+     */
+    public void put(int key, int value) {
+        if (value < 0 || value > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("決策編號必須介於 0 ~ 127：" + value);
+        }
+        int slot = find(key);
+        if (slot >= 0) {
+            values[slot] = (byte) value;
+            return;
+        }
+
+        if (size < capacity) {
+            slot = size++;
+        } else {
+            slot = victim();
+            unindex(keys[slot]);
+            evictions++;
+        }
+        keys[slot] = key;
+        values[slot] = (byte) value;
+        referenced[slot] = false;
+
+        int i = home(key);
+        while (index[i] != 0) {
+            i = (i + 1) & mask;
+        }
+        index[i] = slot + 1;
+    }
+
+    // 轉動 CLOCK 指針，找出第一個沒有被參考的格子
+    private int victim() {
+        while (referenced[hand]) {
+            referenced[hand] = false;
+            hand = hand + 1 == capacity ? 0 : hand + 1;
+        }
+        int slot = hand;
+        hand = hand + 1 == capacity ? 0 : hand + 1;
+        return slot;
+    }
+
+    // 鍵所在的格子，找不到時回傳 -1
+    private int find(int key) {
+        for (int i = home(key); index[i] != 0; i = (i + 1) & mask) {
+            int slot = index[i] - 1;
+            if (keys[slot] == key) return slot;
+        }
+        return -1;
+    }
+
+    // 從雜湊索引移除鍵，並把後面同一串的項目往回搬，讓查詢不會提早碰到空位
+    private void unindex(int key) {
+        int gap = home(key);
+        while (keys[index[gap] - 1] != key) {
+            gap = (gap + 1) & mask;
+        }
+        for (int i = (gap + 1) & mask; index[i] != 0; i = (i + 1) & mask) {
+            int home = home(keys[index[i] - 1]);
+            // 項目的原本位置不在 (gap, i] 之間時，搬到空位上不會讓它找不到
+            if (((i - home) & mask) >= ((i - gap) & mask)) {
+                index[gap] = index[i];
+                gap = i;
+            }
+        }
+        index[gap] = 0;
+    }
+
+    private int home(int key) {
+        int h = key * 0x9E3779B9;
+        return (h ^ h >>> 16) & mask;
+    }
+
+    // 容量
+    public int getCapacity() {
+        return capacity;
+    }
+
+    // 目前記住的決策數
+    public int size() {
+        return size;
+    }
+
+    // 命中次數
+    public long getHits() {
+        return hits;
+    }
+
+    // 沒有命中的次數
+    public long getMisses() {
+        return misses;
+    }
+
+    // 被淘汰的決策數
+    public long getEvictions() {
+        return evictions;
+    }
+}
@@ -0,0 +1,243 @@
+/**
+ * UtilityAI - 依戰場狀況替行動評分的 AI（決策結果依量化後的狀況快取）
+ *
+ * 為什麼需要？
+ * - ActionPolicy 的預設策略是固定機率：聖騎士滿血時也會防禦、隊友滿血時魔法師也會去治療
+ * - 依狀況評分比較合理，但每回合都重新評分，在上百萬場模擬裡大部分都是在重算同樣的狀況
+ *
+ * 設計說明：
+ * - 只讀取量化後的狀況：自己的血量比例、血量比例最低的隊友（BattleContext.weakestAlly）、
+ *   資源比例（聖能 / 能量 / 箭矢，對 sealed 的 MeleeRole / RangedRole 窮舉 switch 讀取）、canDefend()、canHeal()；
+ *   每一項切成 levels 個等級，組成一個 int 狀況編號
+ * - 評分只用狀況編號算出來（不看原始數值），所以相同編號的決策永遠相同，
+ *   快取不會改變任何戰鬥結果，同一個種子重播的結果與不用快取時完全一樣
+ * - 評分：攻擊固定 ATTACK_UTILITY；防禦 = DEFEND_WEIGHT × 已損失的血量比例；
+ *   治療 = HEAL_WEIGHT × 隊友已損失的血量比例 × 資源比例；取最高分，同分時優先攻擊
+ *   （防禦 / 治療的權重不能太高，否則一對一時會一直防禦、治療自己而打成平手）
+ * - 決策存在每個執行緒各自的 DecisionCache（CLOCK 淘汰），不需要鎖；
+ *   getHitRatio / getEvictions 等統計是所有執行緒的總和
+ * - 不會防禦也不會治療的角色直接攻擊，不查快取
+ *
+ * 使用範例：
+ *   UtilityAI ai = new UtilityAI();
+ *   ActionPolicy.register(Paladin.class, ai.policyFor(paladin));
+ *   ...（模擬）
+ *   System.out.println(ai);   // 命中率、淘汰數
+ */
+package com.rpg.ai;
+
+import com.rpg.action.Action;
+import com.rpg.action.ActionChooser;
+import com.rpg.action.ActionPolicy;
+import com.rpg.action.BattleContext;
+import com.rpg.core.Role;
+import com.rpg.interfaces.Capabilities;
+import com.rpg.interfaces.Defendable;
+import com.rpg.interfaces.Healable;
+import com.rpg.roles.melee.MeleeRole;
+import com.rpg.roles.melee.Paladin;
+import com.rpg.roles.melee.ShieldSwordsMan;
+import com.rpg.roles.melee.SwordsMan;
+import com.rpg.roles.ranged.Archer;
+import com.rpg.roles.ranged.Magician;
+import com.rpg.roles.ranged.RangedRole;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public final class UtilityAI implements ActionChooser {
+    // 預設每一項狀況切成幾個等級、每個執行緒的快取容量
+    public static final int DEFAULT_LEVELS = 16;
+    public static final int DEFAULT_CAPACITY = 4_096;
+    // 等級數的上限（狀況編號必須放得進 int）
+    public static final int MAX_LEVELS = 64;
+
+    // 評分權重
+    public static final double ATTACK_UTILITY = 0.35;
+    public static final double DEFEND_WEIGHT = 0.5;
+    public static final double HEAL_WEIGHT = 0.8;
+
+    private static final Action[] ACTIONS = Action.values();
+
+    private final int levels;
+    private final int capacity;
+    // 每個執行緒各自的快取，以及所有建立過的快取（統計用）
+    private final ThreadLocal<DecisionCache> caches;
+    private final List<DecisionCache> allCaches = new CopyOnWriteArrayList<>();
+
+    public UtilityAI() {
+        this(DEFAULT_LEVELS, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * 建構子
+     * @param levels 每一項狀況切成幾個等級（2 ~ MAX_LEVELS，越多越細、快取命中率越低）
+     * @param capacity 每個執行緒最多快取幾個決策
+     */
+    public UtilityAI(int levels, int capacity) {
+        if (levels < 2 || levels > MAX_LEVELS) {
+            throw new IllegalArgumentException("等級數必須介於 2 ~ " + MAX_LEVELS + "：" + levels);
+        }
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("快取容量必須大於 0：" + capacity);
+        }
+        this.levels = levels;
+        this.capacity = capacity;
+        this.caches = ThreadLocal.withInitial(() -> {
+            DecisionCache cache = new DecisionCache(capacity);
+            allCaches.add(cache);
+            return cache;
+        });
+    }
+
+    /**
+     * 用這個 AI 決定行動的策略（不會防禦也不會治療的職業維持只攻擊）
+     * 只會防禦的職業與預設策略相同：防禦之後接著攻擊
+     * @param role 職業的任一角色
+     */
+    public ActionPolicy policyFor(Role role) {
+        int capabilities = Capabilities.of(role);
+        boolean canDefend = Capabilities.has(capabilities, Capabilities.DEFENDABLE);
+        boolean canHeal = Capabilities.has(capabilities, Capabilities.HEALABLE);
+        if (!canDefend && !canHeal) {
+            return ActionPolicy.ATTACK;
+        }
+        return new ActionPolicy(this, canDefend && !canHeal);
+    }
+
+    @Override
+    public Action choose(Role self, BattleContext context) {
+        boolean canDefend = self instanceof Defendable && ((Defendable) self).canDefend();
+        boolean canHeal = self instanceof Healable && ((Healable) self).canHeal();
+        if (!canDefend && !canHeal) {
+            return Action.ATTACK;
+        }
+
+        // 不能治療時隊友的狀況不影響決策，記成「沒有隊友」讓更多狀況共用同一筆快取
+        Role ally = canHeal ? context.weakestAlly(self) : null;
+        int key = key(level(self.getHealth(), self.getInitialHealth()),
+                ally == null ? levels : level(ally.getHealth(), ally.getInitialHealth()),
+                resource(self), canDefend, canHeal);
+
+        DecisionCache cache = caches.get();
+        int decision = cache.get(key);
+        if (decision == DecisionCache.MISS) {
+            decision = score(key).ordinal();
+            cache.put(key, decision);
+        }
+        return ACTIONS[decision];
+    }
+
+    // 依職業讀取資源的等級（沒有資源的職業視為滿的；sealed，不寫 default，新增職業沒處理時無法編譯）
+    private int resource(Role self) {
+        if (self instanceof MeleeRole melee) {
+            return switch (melee) {
+                case ShieldSwordsMan shieldSwordsMan -> levels - 1;
+                case SwordsMan swordsMan -> levels - 1;
+                case Paladin paladin -> level(paladin.getHolyPower(), paladin.getMaxHolyPower());
+            };
+        }
+        if (self instanceof RangedRole ranged) {
+            return switch (ranged) {
+                case Magician magician -> level(magician.getEnergy(), magician.getMaxEnergy());
+                case Archer archer -> level(archer.getArrowCount(), archer.getMaxArrows());
+            };
+        }
+        throw new IllegalArgumentException("不支援的角色類別：" + self.getClass().getSimpleName());
+    }
+
+    // 目前值 / 最大值 換算成 0 ~ levels-1 的等級
+    private int level(int value, int max) {
+        if (max <= 0 || value >= max) return levels - 1;
+        if (value <= 0) return 0;
+        return (int) ((long) value * levels / max);
+    }
+
+    // 組成狀況編號：隊友等級多一個「沒有隊友」（levels）
+    private int key(int self, int ally, int resource, boolean canDefend, boolean canHeal) {
+        int key = (self * (levels + 1) + ally) * levels + resource;
+        return key << 2 | (canDefend ? 2 : 0) | (canHeal ? 1 : 0);
+    }
+
+    /**
+     * 替狀況評分（只依狀況編號，相同編號的結果永遠相同）
+     * @param key 狀況編號
+     * @return 分數最高的行動
+     */
+    Action score(int key) {
+        boolean canHeal = (key & 1) != 0;
+        boolean canDefend = (key & 2) != 0;
+        int rest = key >>> 2;
+        int resource = rest % levels;
+        rest /= levels;
+        int ally = rest % (levels + 1);
+        int self = rest / (levels + 1);
+
+        Action best = Action.ATTACK;
+        double bestScore = ATTACK_UTILITY;
+        if (canHeal && ally < levels) {
+            double heal = HEAL_WEIGHT * (1 - ratio(ally)) * ratio(resource);
+            if (heal > bestScore) {
+                best = Action.HEAL;
+                bestScore = heal;
+            }
+        }
+        if (canDefend) {
+            double defend = DEFEND_WEIGHT * (1 - ratio(self));
+            if (defend > bestScore) {
+                best = Action.DEFEND;
+            }
+        }
+        return best;
+    }
+
+    // 等級的代表比例（等級區間的中點）
+    private double ratio(int level) {
+        return (level + 0.5) / levels;
+    }
+
+    // 每一項狀況的等級數
+    public int getLevels() {
+        return levels;
+    }
+
+    // 每個執行緒的快取容量
+    public int getCapacity() {
+        return capacity;
+    }
+
+    // 所有執行緒的快取命中次數
+    public long getHits() {
+        long hits = 0;
+        for (DecisionCache cache : allCaches) hits += cache.getHits();
+        return hits;
+    }
+
+    // 所有執行緒的快取未命中次數（也就是實際評分的次數）
+    public long getMisses() {
+        long misses = 0;
+        for (DecisionCache cache : allCaches) misses += cache.getMisses();
+        return misses;
+    }
+
+    // 所有執行緒被淘汰的決策數
+    public long getEvictions() {
+        long evictions = 0;
+        for (DecisionCache cache : allCaches) evictions += cache.getEvictions();
+        return evictions;
+    }
+
+    // 快取命中率（還沒有查詢時為 0）
+    public double getHitRatio() {
+        long hits = getHits();
+        long total = hits + getMisses();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    // 快取的統計（模擬結束後再讀取，執行中讀到的數字可能不完整）
+    @Override
+    public String toString() {
+        return String.format("決策快取：命中率 %.2f%%（命中 %,d、評分 %,d、淘汰 %,d），%d 個執行緒 × 容量 %,d，每項狀況 %d 級",
+                getHitRatio() * 100, getHits(), getMisses(), getEvictions(), allCaches.size(), capacity, levels);
+    }
+}
@@ -0,0 +1,298 @@
+/**
+ * ArchetypeRegistry - 角色原型登錄表
+ *
+ * 為什麼需要？
+ * - 角色數值原本寫死在 RPG.main 的建構子呼叫裡，例如 new Paladin("聖騎士", 110, 17, 6, 12, 12, 100)
+ * - 每次調整平衡都要改程式、重新編譯
+ * - 每個角色物件也各自存了一份其實都一樣的數值
+ *
+ * 設計說明：
+ * - 從文字檔載入原型定義（格式見 archetypes.txt），載入時就「編譯」成不可變的 RoleStats
+ * - 同一個原型的所有角色共用同一份 RoleStats，生成角色時只配置會變的狀態
+ * - 每個原型的工廠（Supplier）也只建立一次並快取起來，
+ *   所以同一個原型在 RolePool 裡永遠對應到同一條 Lane
+ * - 載入完成後登錄表不會再改變，可以被多個執行緒同時使用
+ *
+ * 使用範例：
+ *   ArchetypeRegistry registry = ArchetypeRegistry.defaults();
+ *   Role paladin = registry.spawn("paladin");
+ *   Supplier<Role> archers = registry.factory("archer");
+ */
+package com.rpg.archetype;
+
+import com.rpg.core.Role;
+import com.rpg.core.RoleKind;
+import com.rpg.core.RoleStats;
+import com.rpg.roles.melee.Paladin;
+import com.rpg.roles.melee.ShieldSwordsMan;
+import com.rpg.roles.melee.SwordsMan;
+import com.rpg.roles.ranged.Archer;
+import com.rpg.roles.ranged.Magician;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+public final class ArchetypeRegistry {
+    // 指定外部原型定義檔的系統屬性
+    public static final String FILE_PROPERTY = "rpg.archetypes";
+    // 內建的原型定義檔（與這個類別放在同一個套件）
+    static final String DEFAULT_RESOURCE = "archetypes.txt";
+
+    // 原型代號 → 編譯好的數值（保持檔案中的順序）
+    private final Map<String, RoleStats> stats;
+    // 原型代號 → 快取的工廠
+    private final Map<String, Supplier<Role>> factories;
+
+    private ArchetypeRegistry(Map<String, RoleStats> stats) {
+        this.stats = Collections.unmodifiableMap(stats);
+        Map<String, Supplier<Role>> compiled = new LinkedHashMap<>();
+        for (Map.Entry<String, RoleStats> entry : stats.entrySet()) {
+            RoleStats shared = entry.getValue();
+            compiled.put(entry.getKey(), () -> spawn(shared));
+        }
+        this.factories = Collections.unmodifiableMap(compiled);
+    }
+
+    // 延遲載入的預設登錄表
+    private static final class DefaultHolder {
+        static final ArchetypeRegistry INSTANCE = loadDefault();
+    }
+
+    /**
+     * 取得預設登錄表（第一次呼叫時載入，之後共用同一份）
+     * 有設定 -Drpg.archetypes=路徑 時讀取該檔案，否則讀取內建的 archetypes.txt
+     */
+    public static ArchetypeRegistry defaults() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    private static ArchetypeRegistry loadDefault() {
+        try {
+            String file = System.getProperty(FILE_PROPERTY);
+            if (file != null) {
+                return load(Path.of(file));
+            }
+            InputStream in = ArchetypeRegistry.class.getResourceAsStream(DEFAULT_RESOURCE);
+            if (in == null) {
+                throw new IllegalStateException("找不到內建的原型定義檔：" + DEFAULT_RESOURCE);
+            }
+            try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+                return parse(reader, DEFAULT_RESOURCE);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("無法載入原型定義檔", e);
+        }
+    }
+
+    /**
+     * 由已經建立好的數值建立登錄表（例如平衡調整後的數值）
+     * @param stats 原型代號 → 數值（依迭代順序登錄）
+     */
+    public static ArchetypeRegistry of(Map<String, RoleStats> stats) {
+        return new ArchetypeRegistry(new LinkedHashMap<>(stats));
+    }
+
+    /**
+     * 從檔案載入原型定義（UTF-8）
+     * @param file 原型定義檔
+     */
+    public static ArchetypeRegistry load(Path file) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return parse(reader, file.toString());
+        }
+    }
+
+    /**
+     * 解析原型定義
+     * @param reader 原型定義的內容
+     * @param source 來源名稱（錯誤訊息用）
+     * @throws IllegalArgumentException 格式錯誤、欄位不存在或數值不合法
+     */
+    public static ArchetypeRegistry parse(Reader reader, String source) throws IOException {
+        Map<String, RoleStats> stats = new LinkedHashMap<>();
+        Map<String, String> fields = null;
+        // 欄位 → 所在的行號（錯誤訊息指向欄位自己的那一行）
+        Map<String, Integer> fieldLines = null;
+        String id = null;
+        int sectionLine = 0;
+
+        BufferedReader lines = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        String line;
+        int lineNumber = 0;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            line = line.strip();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+
+            if (line.startsWith("[") && line.endsWith("]")) {
+                if (id != null) {
+                    stats.put(id, compile(id, fields, fieldLines, source, sectionLine));
+                }
+                id = line.substring(1, line.length() - 1).strip();
+                if (id.isEmpty() || stats.containsKey(id)) {
+                    throw error(source, lineNumber, "原型代號空白或重複：" + line);
+                }
+                fields = new LinkedHashMap<>();
+                fieldLines = new LinkedHashMap<>();
+                sectionLine = lineNumber;
+                continue;
+            }
+
+            int equals = line.indexOf('=');
+            if (equals < 0) {
+                throw error(source, lineNumber, "應該是「欄位 = 數值」：" + line);
+            }
+            if (id == null) {
+                throw error(source, lineNumber, "欄位必須寫在 [原型代號] 之後");
+            }
+            String key = line.substring(0, equals).strip();
+            if (fields.put(key, line.substring(equals + 1).strip()) != null) {
+                throw error(source, lineNumber, "欄位重複：" + key);
+            }
+            fieldLines.put(key, lineNumber);
+        }
+        if (id != null) {
+            stats.put(id, compile(id, fields, fieldLines, source, sectionLine));
+        }
+        return new ArchetypeRegistry(stats);
+    }
+
+    /**
+     * 把一個區段的欄位編譯成 RoleStats
+     * 個別欄位的錯誤指向欄位所在的行，缺少欄位（例如沒寫 health）的錯誤指向區段標題那一行
+     */
+    private static RoleStats compile(String id, Map<String, String> fields, Map<String, Integer> fieldLines,
+                                     String source, int sectionLine) {
+        String kindName = fields.remove("kind");
+        String name = fields.remove("name");
+        if (kindName == null || name == null) {
+            throw error(source, sectionLine, "[" + id + "] 缺少 kind 或 name");
+        }
+        RoleKind kind;
+        try {
+            kind = RoleKind.valueOf(kindName);
+        } catch (IllegalArgumentException e) {
+            throw error(source, fieldLines.get("kind"), "[" + id + "] 未知的職業：" + kindName);
+        }
+
+        RoleStats.Builder builder = RoleStats.builder(kind, name);
+        for (Map.Entry<String, String> field : fields.entrySet()) {
+            String key = field.getKey();
+            int line = fieldLines.get(key);
+            int value;
+            try {
+                value = Integer.parseInt(field.getValue());
+            } catch (NumberFormatException e) {
+                throw error(source, line, "[" + id + "] " + key + " 不是整數：" + field.getValue());
+            }
+            if (!set(builder, key, value)) {
+                throw error(source, line, "[" + id + "] 未知的欄位：" + key);
+            }
+            // 與 RoleStats.Builder.build 相同的檢查，在這裡先做才知道是哪一行
+            if (value < 0 || (value == 0 && (key.equals("health") || key.equals("speed")))) {
+                throw error(source, line, "[" + id + "] " + key + " 不合法：" + value
+                        + (value < 0 ? "（不能是負數）" : "（必須大於 0）"));
+            }
+        }
+        try {
+            return builder.build();
+        } catch (IllegalArgumentException e) {
+            throw error(source, sectionLine, "[" + id + "] " + e.getMessage());
+        }
+    }
+
+    // 依欄位名稱設定數值，欄位不存在時回傳 false
+    private static boolean set(RoleStats.Builder builder, String key, int value) {
+        switch (key) {
+            case "health": builder.health(value); return true;
+            case "attackPower": builder.attackPower(value); return true;
+            case "speed": builder.speed(value); return true;
+            case "armor": builder.armor(value); return true;
+            case "defenseCapacity": builder.defenseCapacity(value); return true;
+            case "oneHandedPenalty": builder.oneHandedPenalty(value); return true;
+            case "healPower": builder.healPower(value); return true;
+            case "range": builder.range(value); return true;
+            case "maxEnergy": builder.maxEnergy(value); return true;
+            case "energyRecovery": builder.energyRecovery(value); return true;
+            case "attackEnergyCost": builder.attackEnergyCost(value); return true;
+            case "healEnergyCost": builder.healEnergyCost(value); return true;
+            case "maxArrows": builder.maxArrows(value); return true;
+            case "arrowReload": builder.arrowReload(value); return true;
+            case "maxHolyPower": builder.maxHolyPower(value); return true;
+            case "holyDefendCost": builder.holyDefendCost(value); return true;
+            case "holyHealCost": builder.holyHealCost(value); return true;
+            case "holyOnHit": builder.holyOnHit(value); return true;
+            case "holyRecovery": builder.holyRecovery(value); return true;
+            case "judgmentCost": builder.judgmentCost(value); return true;
+            case "judgmentBurn": builder.judgmentBurn(value); return true;
+            case "judgmentDuration": builder.judgmentDuration(value); return true;
+            default: return false;
+        }
+    }
+
+    private static IllegalArgumentException error(String source, int line, String message) {
+        return new IllegalArgumentException(source + " 第 " + line + " 行：" + message);
+    }
+
+    /**
+     * 依共用數值建立對應職業的角色（只配置角色會變的狀態）
+     * @param stats 共用的角色數值
+     */
+    public static Role spawn(RoleStats stats) {
+        switch (stats.getKind()) {
+            case SWORDSMAN: return new SwordsMan(stats);
+            case SHIELD_SWORDSMAN: return new ShieldSwordsMan(stats);
+            case PALADIN: return new Paladin(stats);
+            case MAGICIAN: return new Magician(stats);
+            case ARCHER: return new Archer(stats);
+            default: throw new IllegalArgumentException("未知的職業：" + stats.getKind());
+        }
+    }
+
+    /**
+     * 建立某個原型的新角色
+     * @param id 原型代號（例如 "paladin"）
+     */
+    public Role spawn(String id) {
+        return spawn(get(id));
+    }
+
+    /**
+     * 取得原型的共用數值
+     * @param id 原型代號
+     * @throws IllegalArgumentException 沒有這個原型
+     */
+    public RoleStats get(String id) {
+        RoleStats found = stats.get(id);
+        if (found == null) {
+            throw new IllegalArgumentException("沒有這個原型：" + id + "（可用：" + stats.keySet() + "）");
+        }
+        return found;
+    }
+
+    /**
+     * 取得原型的工廠（同一個原型每次都回傳同一個物件，可以當作 RolePool 的鍵）
+     * @param id 原型代號
+     */
+    public Supplier<Role> factory(String id) {
+        get(id);
+        return factories.get(id);
+    }
+
+    // 所有原型代號（依檔案中的順序）
+    public Set<String> ids() {
+        return stats.keySet();
+    }
+}
@@ -0,0 +1,143 @@
+/**
+ * BattleRandom - 可指定種子、可分流的戰鬥亂數產生器
+ *
+ * 為什麼不用 Math.random()？
+ * 1. Math.random() 背後是一個全域共用的 Random，多執行緒會互相搶同一個種子
+ * 2. 無法指定種子，所以無法重播某一場戰鬥
+ *
+ * 設計說明：
+ * - 演算法與 java.util.SplittableRandom 相同（SplitMix64：狀態每次加上 gamma 再混合），
+ *   實作 java.util.random.RandomGenerator，可以直接傳給接受 RandomGenerator 的 API
+ * - 自己實作是為了能讀取內部狀態，方便重播與存檔：
+ *   new BattleRandom(random.getState(), random.getGamma()) 會從同一個位置接著產生完全相同的亂數
+ * - split() 與 SplittableRandom.split 相同，子亂數流用新的種子和新的 gamma，
+ *   不會只是父亂數流換個起點（同一個 gamma 的兩條流只差一個位移，彼此相關）
+ * - nextInt(bound) 用乘法取代取餘數，落在不均勻的尾端時重抽（Lemire 的拒絕取樣），結果沒有偏差；
+ *   絕大多數情況只消耗一次亂數
+ * - 每場戰鬥用 forBattle(種子, 場次) 取得獨立的亂數流，
+ *   不管用幾個執行緒、怎麼切工作，第 k 場的結果永遠一樣
+ * - 不是執行緒安全的：一場戰鬥（一個執行緒）使用一個實例
+ */
+package com.rpg.core;
+
+import java.util.random.RandomGenerator;
+
+public class BattleRandom implements RandomGenerator {
+    // 黃金比例常數，只用種子建立時的步長
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private long state;
+    // 每次前進的步長（一定是奇數）
+    private final long gamma;
+
+    /**
+     * 建構子
+     * @param seed 種子
+     */
+    public BattleRandom(long seed) {
+        this(seed, GOLDEN_GAMMA);
+    }
+
+    /**
+     * 建構子（還原存檔用）
+     * @param state getState() 的值
+     * @param gamma getGamma() 的值（必須是奇數）
+     */
+    public BattleRandom(long state, long gamma) {
+        if ((gamma & 1) == 0) {
+            throw new IllegalArgumentException("gamma 必須是奇數：" + Long.toHexString(gamma));
+        }
+        this.state = state;
+        this.gamma = gamma;
+    }
+
+    /**
+     * 取得第 index 場戰鬥專用的亂數產生器
+     * @param seed 整批模擬的主種子
+     * @param index 戰鬥場次（從 0 開始）
+     */
+    public static BattleRandom forBattle(long seed, long index) {
+        return new BattleRandom(mix64(seed ^ mix64(index * GOLDEN_GAMMA + GOLDEN_GAMMA)));
+    }
+
+    /**
+     * 由主種子推導出子種子（例如循環賽每一格用不同的種子）
+     */
+    public static long deriveSeed(long seed, long index) {
+        return mix64(seed + mix64(index + 1) * GOLDEN_GAMMA);
+    }
+
+    // 取得內部狀態（存檔用，搭配 getGamma）
+    public long getState() {
+        return state;
+    }
+
+    // 取得步長（存檔用）
+    public long getGamma() {
+        return gamma;
+    }
+
+    // 下一個 64 位元亂數
+    @Override
+    public long nextLong() {
+        state += gamma;
+        return mix64(state);
+    }
+
+    // 下一個 [0, 1) 之間的亂數
+    @Override
+    public double nextDouble() {
+        return (nextLong() >>> 11) * 0x1.0p-53;
+    }
+
+    /**
+     * 下一個 [0, bound) 之間的整數（沒有偏差）
+     * 取 32 位元亂數乘上 bound，高 32 位元就是結果；
+     * 低 32 位元落在 2^32 mod bound 以下的值會讓某些結果多出現一次，遇到時重抽
+     */
+    @Override
+    public int nextInt(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("bound 必須大於 0");
+        }
+        long product = (nextLong() >>> 32) * bound;
+        long low = product & 0xFFFF_FFFFL;
+        if (low < bound) {
+            // 2^32 mod bound
+            long threshold = (0x1_0000_0000L - bound) % bound;
+            while (low < threshold) {
+                product = (nextLong() >>> 32) * bound;
+                low = product & 0xFFFF_FFFFL;
+            }
+        }
+        return (int) (product >>> 32);
+    }
+
+    // 下一個 true / false
+    @Override
+    public boolean nextBoolean() {
+        return nextLong() < 0;
+    }
+
+    // 分出一個獨立的亂數流（新的種子、新的 gamma）
+    public BattleRandom split() {
+        long seed = nextLong();
+        return new BattleRandom(seed, mixGamma(nextLong()));
+    }
+
+    // SplitMix64 的混合函數
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    // 產生新的 gamma（與 SplittableRandom 相同）：一定是奇數，且 0/1 交替夠多，避免步長太規律
+    private static long mixGamma(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        z = (z ^ (z >>> 33)) | 1L;
+        int transitions = Long.bitCount(z ^ (z >>> 1));
+        return transitions < 24 ? z ^ 0xaaaaaaaaaaaaaaaaL : z;
+    }
+}
@@ -0,0 +1,165 @@
+/**
+ * CombatEventListener - 戰鬥事件監聽器
+ *
+ * 為什麼需要這個介面？
+ * 1. 角色原本直接呼叫 System.out.println，每次受傷都要組字串、搶主控台的鎖
+ * 2. 批次模擬根本不需要文字，只需要數字
+ * 3. 把「發生了什麼事」和「怎麼顯示」分開：角色只負責發出事件
+ *
+ * 設計說明：
+ * - 每一種事件都是一個方法，參數只用角色參考、基本型別（int）與列舉常數（EffectType），不會產生任何物件
+ * - 所有方法都是預設方法（default method），實作者只要覆寫關心的事件
+ * - NONE 是什麼都不做的預設監聽器，角色一建立就使用它
+ *
+ * 旁白（narration）：
+ * - 死亡、戰前準備等「劇情文字」不是數據，只有主控台需要
+ * - 角色會先問 isNarrating()，回傳 false 時完全不會組出這些字串
+ */
+package com.rpg.core;
+
+public interface CombatEventListener {
+
+    // 什麼都不做的監聽器（預設值）
+    CombatEventListener NONE = new CombatEventListener() {
+    };
+
+    /**
+     * 攻擊動作：attacker 對 target 出手
+     * 逐擊結算時傷害事件緊接在後；DamageBatch 結算時要等整批結算才發出，中間可能穿插其他 onAttack，
+     * 持續傷害等效果則完全沒有 onAttack。要判斷傷害歸屬時依 onDamage 的目標，不要依最近一次 onAttack
+     */
+    default void onAttack(Role attacker, Role target) {
+    }
+
+    /**
+     * 受到傷害
+     * @param target 受傷的角色
+     * @param damage 實際扣除的生命值（已扣除護甲）
+     * @param healthAfter 受傷後的生命值
+     */
+    default void onDamage(Role target, int damage, int healthAfter) {
+    }
+
+    /**
+     * 護甲減免了部分傷害
+     * @param target 受傷的角色
+     * @param mitigated 被護甲擋下的傷害
+     */
+    default void onArmorMitigated(Role target, int mitigated) {
+    }
+
+    /**
+     * 角色死亡（在角色自己的 onDeath() 之前通知）
+     */
+    default void onDeath(Role role) {
+    }
+
+    /**
+     * 角色復活（生命值從 0 以下被治療回正數）
+     */
+    default void onRevive(Role role) {
+    }
+
+    /**
+     * 治療
+     * @param healer 施放治療的角色
+     * @param target 被治療的角色
+     * @param healthBefore 治療前生命值
+     * @param healthAfter 治療後生命值
+     */
+    default void onHeal(Role healer, Role target, int healthBefore, int healthAfter) {
+    }
+
+    /**
+     * 防禦（持盾劍士、聖騎士的防禦會恢復生命值）
+     */
+    default void onDefend(Role defender, int healthBefore, int healthAfter) {
+    }
+
+    /**
+     * 消耗能量成功
+     */
+    default void onEnergyConsumed(Role role, int amount, int remaining, int max) {
+    }
+
+    /**
+     * 能量不足，動作失敗
+     */
+    default void onEnergyShortage(Role role, int required, int available) {
+    }
+
+    /**
+     * 恢復能量
+     */
+    default void onEnergyRestored(Role role, int before, int after, int max) {
+    }
+
+    /**
+     * 消耗聖能成功
+     */
+    default void onHolyPowerConsumed(Role role, int amount, int remaining, int max) {
+    }
+
+    /**
+     * 聖能不足，動作失敗
+     */
+    default void onHolyPowerShortage(Role role, int required, int available) {
+    }
+
+    /**
+     * 恢復聖能
+     */
+    default void onHolyPowerRestored(Role role, int before, int after, int max) {
+    }
+
+    /**
+     * 射出一支箭
+     */
+    default void onArrowShot(Role role, int remaining, int max) {
+    }
+
+    /**
+     * 補充箭矢
+     */
+    default void onArrowsReloaded(Role role, int before, int after) {
+    }
+
+    /**
+     * 護盾吸收了部分傷害
+     * @param target 受傷的角色
+     * @param absorbed 被護盾吸收的傷害
+     * @param remaining 剩下的護盾值
+     */
+    default void onShieldAbsorbed(Role target, int absorbed, int remaining) {
+    }
+
+    /**
+     * 套上狀態效果
+     * @param target 被套上效果的角色
+     * @param type 效果種類
+     * @param magnitude 效果強度（每次傷害 / 治療量、護盾值；暈眩為 0）
+     * @param duration 持續回合數
+     */
+    default void onEffectApplied(Role target, EffectType type, int magnitude, int duration) {
+    }
+
+    /**
+     * 狀態效果結束（到期、被取消，或持續效果的目標已經倒下）
+     */
+    default void onEffectExpired(Role target, EffectType type) {
+    }
+
+    /**
+     * 是否需要旁白文字
+     * @return true 時角色才會組出劇情文字並呼叫 onNarration
+     */
+    default boolean isNarrating() {
+        return false;
+    }
+
+    /**
+     * 旁白：一行劇情文字
+     */
+    default void onNarration(Role role, String line) {
+    }
+}
@@ -0,0 +1,158 @@
+/**
+ * CombatEventMulticaster - 把戰鬥事件同時轉送給兩個監聽器
+ *
+ * 為什麼需要？
+ * - 每個角色只有一個監聽器欄位
+ * - 但一場戰鬥可能同時需要：主控台輸出、存活名單維護、統計...
+ * - 用 of(a, b) 串起來，要幾個就串幾層
+ *
+ * 類似 java.awt.AWTEventMulticaster 的做法。
+ */
+package com.rpg.core;
+
+public class CombatEventMulticaster implements CombatEventListener {
+    private final CombatEventListener first;
+    private final CombatEventListener second;
+
+    private CombatEventMulticaster(CombatEventListener first, CombatEventListener second) {
+        this.first = first;
+        this.second = second;
+    }
+
+    /**
+     * 合併兩個監聽器（事件會先送給 first，再送給 second）
+     * 其中一個是 NONE 或 null 時，直接回傳另一個，不多包一層
+     */
+    public static CombatEventListener of(CombatEventListener first, CombatEventListener second) {
+        if (first == null || first == CombatEventListener.NONE) {
+            return second == null ? CombatEventListener.NONE : second;
+        }
+        if (second == null || second == CombatEventListener.NONE) {
+            return first;
+        }
+        return new CombatEventMulticaster(first, second);
+    }
+
+    @Override
+    public void onAttack(Role attacker, Role target) {
+        first.onAttack(attacker, target);
+        second.onAttack(attacker, target);
+    }
+
+    @Override
+    public void onDamage(Role target, int damage, int healthAfter) {
+        first.onDamage(target, damage, healthAfter);
+        second.onDamage(target, damage, healthAfter);
+    }
+
+    @Override
+    public void onArmorMitigated(Role target, int mitigated) {
+        first.onArmorMitigated(target, mitigated);
+        second.onArmorMitigated(target, mitigated);
+    }
+
+    @Override
+    public void onDeath(Role role) {
+        first.onDeath(role);
+        second.onDeath(role);
+    }
+
+    @Override
+    public void onRevive(Role role) {
+        first.onRevive(role);
+        second.onRevive(role);
+    }
+
+    @Override
+    public void onHeal(Role healer, Role target, int healthBefore, int healthAfter) {
+        first.onHeal(healer, target, healthBefore, healthAfter);
+        second.onHeal(healer, target, healthBefore, healthAfter);
+    }
+
+    @Override
+    public void onDefend(Role defender, int healthBefore, int healthAfter) {
+        first.onDefend(defender, healthBefore, healthAfter);
+        second.onDefend(defender, healthBefore, healthAfter);
+    }
+
+    @Override
+    public void onEnergyConsumed(Role role, int amount, int remaining, int max) {
+        first.onEnergyConsumed(role, amount, remaining, max);
+        second.onEnergyConsumed(role, amount, remaining, max);
+    }
+
+    @Override
+    public void onEnergyShortage(Role role, int required, int available) {
+        first.onEnergyShortage(role, required, available);
+        second.onEnergyShortage(role, required, available);
+    }
+
+    @Override
+    public void onEnergyRestored(Role role, int before, int after, int max) {
+        first.onEnergyRestored(role, before, after, max);
+        second.onEnergyRestored(role, before, after, max);
+    }
+
+    @Override
+    public void onHolyPowerConsumed(Role role, int amount, int remaining, int max) {
+        first.onHolyPowerConsumed(role, amount, remaining, max);
+        second.onHolyPowerConsumed(role, amount, remaining, max);
+    }
+
+    @Override
+    public void onHolyPowerShortage(Role role, int required, int available) {
+        first.onHolyPowerShortage(role, required, available);
+        second.onHolyPowerShortage(role, required, available);
+    }
+
+    @Override
+    public void onHolyPowerRestored(Role role, int before, int after, int max) {
+        first.onHolyPowerRestored(role, before, after, max);
+        second.onHolyPowerRestored(role, before, after, max);
+    }
+
+    @Override
+    public void onArrowShot(Role role, int remaining, int max) {
+        first.onArrowShot(role, remaining, max);
+        second.onArrowShot(role, remaining, max);
+    }
+
+    @Override
+    public void onArrowsReloaded(Role role, int before, int after) {
+        first.onArrowsReloaded(role, before, after);
+        second.onArrowsReloaded(role, before, after);
+    }
+
+    @Override
+    public void onShieldAbsorbed(Role target, int absorbed, int remaining) {
+        first.onShieldAbsorbed(target, absorbed, remaining);
+        second.onShieldAbsorbed(target, absorbed, remaining);
+    }
+
+    @Override
+    public void onEffectApplied(Role target, EffectType type, int magnitude, int duration) {
+        first.onEffectApplied(target, type, magnitude, duration);
+        second.onEffectApplied(target, type, magnitude, duration);
+    }
+
+    @Override
+    public void onEffectExpired(Role target, EffectType type) {
+        first.onEffectExpired(target, type);
+        second.onEffectExpired(target, type);
+    }
+
+    @Override
+    public boolean isNarrating() {
+        return first.isNarrating() || second.isNarrating();
+    }
+
+    @Override
+    public void onNarration(Role role, String line) {
+        if (first.isNarrating()) {
+            first.onNarration(role, line);
+        }
+        if (second.isNarrating()) {
+            second.onNarration(role, line);
+        }
+    }
+}
@@ -0,0 +1,225 @@
+/**
+ * DamageBatch - 批次傷害結算
+ *
+ * 為什麼需要？
+ * - MeleeRole.takeDamage 一次只處理一擊：calculateDefense 扣護甲、發事件，
+ *   再呼叫 Role.takeDamage 扣血、發事件、檢查死亡
+ * - 範圍技能（例如弓箭手的多重箭矢）一次命中很多目標，
+ *   每一擊都要走完整條虛擬方法呼叫與事件通知
+ *
+ * 設計說明：
+ * - 每個目標在這一輪佔一個槽位，資料都放在基本型別陣列裡（累計傷害、被擋下的傷害、護甲、受傷下限）
+ * - add() 只收集原始傷害：每一擊依序寫進命中陣列（原始傷害、目標的護甲與受傷下限、槽位），
+ *   不做減免、不呼叫任何角色方法、不發事件
+ * - resolve() 分四個階段：
+ *   1. 減免：對整個命中陣列跑一次 max(下限, 傷害 - 護甲)，陣列進、陣列出，
+ *      迴圈裡沒有分支也沒有間接索引，C2 會自動向量化（SuperWord），不需要 Vector API
+ *   2. 累計：依槽位把每一擊的實際傷害與被擋下的傷害加到目標上
+ *   3. 每個目標只扣一次血（先扣護盾）、只發一次 onArmorMitigated / onDamage
+ *   4. 最後一次結算死亡：只有這一輪讓生命值從正數跨到 0 以下的目標觸發 onDeath
+ * - 護甲以這一輪第一次命中該目標時的數值計算，規則與 MeleeRole.calculateDefense 相同
+ * - 與逐擊結算的差別：同一個目標在一輪內的多次命中合併成一次事件，
+ *   監聽器收到的是這一輪的總傷害與結算後的生命值；
+ *   所有 onAttack 都在結算之前發出，監聽器要依受傷的目標判斷傷害歸屬（Battle、ReplayRecorder 都是這樣做），
+ *   所以同一個批次可以混合雙方的命中
+ * - 目標的槽位直接記在角色身上（連同這一輪的編號），加入命中不需要查表；
+ *   清空時只要換一個新的輪次編號，不必逐一清除角色身上的記錄
+ * - 所以同一個角色同一時間只能在一個尚未結算的批次裡，否則槽位會被另一個批次覆蓋
+ * - 不是執行緒安全的：每條執行緒（或每場戰鬥）使用自己的 DamageBatch；
+ *   目標本身開啟執行緒安全模式時，扣血與死亡判定仍然是原子的
+ *
+ * 使用範例：
+ *   DamageBatch batch = new DamageBatch();
+ *   archer.multiShot(enemies, batch);
+ *   batch.resolve();
+ */
+package com.rpg.core;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+public final class DamageBatch {
+    // 預設容量（超過時自動加倍）
+    private static final int DEFAULT_CAPACITY = 64;
+    // 所有批次共用的輪次編號，每一輪都不重複（0 保留給「從未加入過批次」）
+    private static final AtomicLong ROUNDS = new AtomicLong();
+
+    // 目前這一輪的編號：角色身上記的輪次相同，代表它已經在這一輪有槽位
+    private long round = ROUNDS.incrementAndGet();
+
+    // 尚未結算的命中數
+    private int hits;
+
+    // ========== 每一擊（索引 = 命中順序） ==========
+    // 原始傷害、目標的護甲與受傷下限（從槽位複製，減免迴圈不需要間接索引）、目標槽位
+    private int[] hitDamage;
+    private int[] hitArmor;
+    private int[] hitFloor;
+    private int[] hitSlot;
+    // 減免後的實際傷害（resolve 第 1 階段的輸出）
+    private int[] hitDealt;
+
+    // ========== 每個目標（索引 = 目標槽位） ==========
+    private Role[] targets;
+    private int[] dealt;
+    private int[] mitigated;
+    // 扣血前的生命值（resolve 第 1 階段的輸出）
+    private int[] healthBefore;
+    // 加入第一擊時的護甲與受傷下限（同一輪內同一個目標只查一次）
+    private int[] targetArmor;
+    private int[] targetFloor;
+    private int targetCount;
+
+    public DamageBatch() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * 建構子
+     * @param capacity 預計一輪的目標數
+     */
+    public DamageBatch(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("容量必須大於 0");
+        }
+        targets = new Role[capacity];
+        dealt = new int[capacity];
+        mitigated = new int[capacity];
+        healthBefore = new int[capacity];
+        targetArmor = new int[capacity];
+        targetFloor = new int[capacity];
+        hitDamage = new int[capacity];
+        hitArmor = new int[capacity];
+        hitFloor = new int[capacity];
+        hitSlot = new int[capacity];
+        hitDealt = new int[capacity];
+    }
+
+    /**
+     * 記錄一次命中（護甲以這一輪第一次命中這個目標時的數值計算，減免與扣血都等到 resolve 才結算）
+     * @param target 被命中的角色
+     * @param damage 扣護甲前的傷害
+     */
+    public void add(Role target, int damage) {
+        int slot = slotOf(target);
+        if (hits == hitDamage.length) {
+            growHits();
+        }
+        hitDamage[hits] = damage;
+        hitArmor[hits] = targetArmor[slot];
+        hitFloor[hits] = targetFloor[slot];
+        hitSlot[hits] = slot;
+        hits++;
+    }
+
+    // 命中陣列滿了：加倍（放在另一個方法，讓 add 保持夠小可以被內聯）
+    private void growHits() {
+        int capacity = hits * 2;
+        hitDamage = Arrays.copyOf(hitDamage, capacity);
+        hitArmor = Arrays.copyOf(hitArmor, capacity);
+        hitFloor = Arrays.copyOf(hitFloor, capacity);
+        hitSlot = Arrays.copyOf(hitSlot, capacity);
+        hitDealt = Arrays.copyOf(hitDealt, capacity);
+    }
+
+    // 取得目標的槽位，第一次出現時分配一個（槽位記在角色身上，不需要查表）
+    private int slotOf(Role target) {
+        if (target.batchRound == round) {
+            return target.batchSlot;
+        }
+        return newSlot(target);
+    }
+
+    // 第一次命中這個目標：分配槽位並記下護甲（放在另一個方法，讓 add 保持夠小可以被內聯）
+    private int newSlot(Role target) {
+        if (targetCount == targets.length) {
+            int capacity = targetCount * 2;
+            targets = Arrays.copyOf(targets, capacity);
+            dealt = Arrays.copyOf(dealt, capacity);
+            mitigated = Arrays.copyOf(mitigated, capacity);
+            healthBefore = Arrays.copyOf(healthBefore, capacity);
+            targetArmor = Arrays.copyOf(targetArmor, capacity);
+            targetFloor = Arrays.copyOf(targetFloor, capacity);
+        }
+        targets[targetCount] = target;
+        targetArmor[targetCount] = target.getArmor();
+        targetFloor[targetCount] = target.getDamageFloor();
+        target.batchRound = round;
+        target.batchSlot = targetCount;
+        return targetCount++;
+    }
+
+    /**
+     * 結算這一輪所有的命中，結算完自動清空
+     * @return 這一輪倒下的角色數
+     */
+    public int resolve() {
+        // 1. 減免：整批一次，陣列進、陣列出（可以自動向量化）
+        mitigate(hitDamage, hitArmor, hitFloor, hitDealt, hits);
+
+        // 2. 依槽位累計到目標上
+        for (int h = 0; h < hits; h++) {
+            int slot = hitSlot[h];
+            dealt[slot] += hitDealt[h];
+            mitigated[slot] += hitDamage[h] - hitDealt[h];
+        }
+
+        // 3. 每個目標扣一次血
+        for (int t = 0; t < targetCount; t++) {
+            Role target = targets[t];
+            if (mitigated[t] > 0) {
+                target.getListener().onArmorMitigated(target, mitigated[t]);
+            }
+            dealt[t] = target.absorbShield(dealt[t]);
+            healthBefore[t] = target.applyResolvedDamage(dealt[t]);
+        }
+
+        // 4. 結算死亡
+        int deaths = 0;
+        for (int t = 0; t < targetCount; t++) {
+            int before = healthBefore[t];
+            if (before > 0 && before - dealt[t] <= 0) {
+                targets[t].resolveDeath();
+                deaths++;
+            }
+        }
+
+        clear();
+        return deaths;
+    }
+
+    /**
+     * 減免迴圈：dealt[i] = max(floor[i], damage[i] - armor[i])
+     * 獨立成一個靜態方法、只用區域變數，C2 才看得出陣列之間沒有別名問題、可以展開成 SIMD 指令
+     */
+    static void mitigate(int[] damage, int[] armor, int[] floor, int[] dealt, int count) {
+        for (int i = 0; i < count; i++) {
+            dealt[i] = Math.max(floor[i], damage[i] - armor[i]);
+        }
+    }
+
+    // 捨棄所有尚未結算的命中
+    public void clear() {
+        round = ROUNDS.incrementAndGet();
+        Arrays.fill(targets, 0, targetCount, null);
+        Arrays.fill(dealt, 0, targetCount, 0);
+        Arrays.fill(mitigated, 0, targetCount, 0);
+        targetCount = 0;
+        hits = 0;
+    }
+
+    // 尚未結算的命中數
+    public int size() {
+        return hits;
+    }
+
+    // 尚未結算的不同目標數
+    public int getTargetCount() {
+        return targetCount;
+    }
+
+    // 是否沒有尚未結算的命中
+    public boolean isEmpty() {
+        return hits == 0;
+    }
+}
@@ -0,0 +1,21 @@
+/**
+ * Dispatched - 標記要加入靜態分派表（RoleDispatch）的角色類別
+ *
+ * 編譯時由 com.rpg.processor.CombatDispatchProcessor 讀取所有標記的類別，產生 RoleDispatch：
+ * 每個類別一個編號，戰鬥迴圈用 switch 依編號直接呼叫該類別的 attack / prepareBattle / afterBattle。
+ *
+ * 規則：
+ * - 只能標在具體（非 abstract）的 Role 子類別上，違反時編譯失敗
+ * - 只比對「確切的類別」：沒有標記的類別（例如直接繼承 Role 的測試用假角色）走原本的虛擬呼叫，行為不變
+ */
+package com.rpg.core;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface Dispatched {
+}
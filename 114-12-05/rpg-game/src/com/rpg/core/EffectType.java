@@ -0,0 +1,17 @@
+/**
+ * EffectType - 狀態效果的種類
+ *
+ * 由 effect.EffectEngine 套用到角色身上，監聽器的 onEffectApplied / onEffectExpired 也用它分辨效果。
+ */
+package com.rpg.core;
+
+public enum EffectType {
+    // 暈眩：期間內無法行動
+    STUN,
+    // 持續傷害：每隔固定回合受到一次真實傷害（不經過護甲）
+    DAMAGE_OVER_TIME,
+    // 護盾：受傷時先扣護盾值，到期時移除剩下的護盾
+    SHIELD,
+    // 再生：每隔固定回合恢復一次生命值
+    REGEN
+}
@@ -0,0 +1,137 @@
+/**
+ * LiveRoster - 存活角色名單
+ *
+ * 為什麼需要？
+ * - 原本每次選目標都 new 一個 Role[]，再掃過全部角色找出存活者
+ * - 大型戰鬥每個動作都這樣做，會產生大量短命的陣列（GC 壓力）
+ *
+ * 設計說明：
+ * - alive 陣列的前 size 格就是目前存活的角色（順序不重要）
+ * - position[id] 記錄角色在 alive 陣列中的位置，-1 代表不在名單中
+ * - 移除時把最後一個角色搬到被移除的位置（swap-remove），O(1)
+ * - 隨機挑選只要取一個 [0, size) 的亂數，O(1) 而且不產生任何物件
+ *
+ * 使用方式：
+ * - 名單不會自己偵測死亡，由戰鬥在收到 onDeath / onRevive 事件時呼叫 remove / add
+ * - 角色必須先用 Role.setId() 指派 0 ~ capacity-1 的編號
+ */
+package com.rpg.core;
+
+import java.util.Arrays;
+
+public class LiveRoster {
+    private final Role[] alive;
+    private final int[] position;
+    private int size;
+
+    /**
+     * 建構子
+     * @param capacity 角色編號的上限（編號必須小於這個值）
+     */
+    public LiveRoster(int capacity) {
+        this.alive = new Role[capacity];
+        this.position = new int[capacity];
+        Arrays.fill(position, -1);
+    }
+
+    /**
+     * 建立名單並加入所有存活的角色
+     * @param roles 角色（必須已經指派編號）
+     * @param capacity 角色編號的上限
+     */
+    public static LiveRoster of(Role[] roles, int capacity) {
+        LiveRoster roster = new LiveRoster(capacity);
+        for (Role role : roles) {
+            if (role.isAlive()) {
+                roster.add(role);
+            }
+        }
+        return roster;
+    }
+
+    // 加入存活角色（已在名單中則忽略）
+    public void add(Role role) {
+        int id = role.getId();
+        if (position[id] >= 0) return;
+        alive[size] = role;
+        position[id] = size;
+        size++;
+    }
+
+    // 移除角色（不在名單中則忽略）
+    public void remove(Role role) {
+        int id = role.getId();
+        int index = position[id];
+        if (index < 0) return;
+
+        // 把最後一個角色搬到空出來的位置
+        size--;
+        Role last = alive[size];
+        alive[index] = last;
+        position[last.getId()] = index;
+        alive[size] = null;
+        position[id] = -1;
+    }
+
+    // 角色是否在存活名單中
+    public boolean contains(Role role) {
+        int id = role.getId();
+        return id >= 0 && id < position.length && position[id] >= 0;
+    }
+
+    // 存活人數
+    public int size() {
+        return size;
+    }
+
+    // 是否已全滅
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // 取得第 index 個存活角色（0 ~ size-1，順序會因移除而改變）
+    public Role get(int index) {
+        return alive[index];
+    }
+
+    /**
+     * 隨機挑一個存活角色
+     * @return 存活角色；全滅時回傳 null
+     */
+    public Role randomAlive(BattleRandom random) {
+        if (size == 0) return null;
+        return alive[random.nextInt(size)];
+    }
+
+    /**
+     * 生命值比例（目前 / 最大）最低的存活角色，比例相同時取名單中較前面的一個
+     * 需要掃過整份名單（O(n)），只給依狀況決定行動的 AI 使用
+     * @return 存活角色；全滅時回傳 null
+     */
+    public Role weakest() {
+        Role weakest = null;
+        for (int i = 0; i < size; i++) {
+            Role role = alive[i];
+            // 交叉相乘比較比例，不用浮點數
+            if (weakest == null || (long) role.getHealth() * weakest.getInitialHealth()
+                    < (long) weakest.getHealth() * role.getInitialHealth()) {
+                weakest = role;
+            }
+        }
+        return weakest;
+    }
+
+    /**
+     * 隨機挑一個自己以外的存活角色
+     * 做法：在 size-1 個位置中挑，挑到自己就換成最後一個
+     * @return 存活角色；沒有其他存活者時回傳 null
+     */
+    public Role randomAliveExcept(Role self, BattleRandom random) {
+        if (!contains(self)) {
+            return randomAlive(random);
+        }
+        if (size <= 1) return null;
+        Role pick = alive[random.nextInt(size - 1)];
+        return pick == self ? alive[size - 1] : pick;
+    }
+}
@@ -1,61 +1,557 @@
 package com.rpg.core;
 
+import java.lang.invoke.MethodHandles;
+import java.nio.ByteBuffer;
+import java.lang.invoke.VarHandle;
+
 public abstract class Role {
-    // 角色名稱
-    private String name;
+    // 預設速度
+    public static final int DEFAULT_SPEED = 100;
+
+    // 不會變的數值（名稱、最大生命值、攻擊力...），同一種原型的角色共用同一份
+    private final RoleStats stats;
     // 生命值
     private int health;
-    // 攻擊力
-    private int attackPower;
+    // 速度：越快越常行動（由 TurnScheduler 換算成行動間隔）
+    private int speed;
+    // 護盾值：受傷時先扣護盾（由狀態效果給予）
+    private int shield;
+    // 身上的暈眩效果數：大於 0 時無法行動（用計數而不是布林，重疊的暈眩各自結束）
+    private int stuns;
+    // 戰場座標（放進 SpatialGrid 之後要用 SpatialGrid.move 移動）
+    private int x;
+    private int y;
+    // 戰鬥編號：由戰鬥指派，同一場戰鬥內不重複（-1 代表尚未參戰）
+    private int id = -1;
+    // 戰鬥事件監聽器：預設什麼都不做
+    private CombatEventListener listener = CombatEventListener.NONE;
+    // 執行緒安全模式：多個執行緒會同時攻擊 / 治療這個角色時開啟
+    private boolean threadSafe;
+    // 在 RoleDispatch 分派表中的編號（建立時依確切的類別查一次，-1 代表走虛擬呼叫）
+    final int dispatchSlot = RoleDispatch.slotOf(getClass());
+    // 最後一次收集這個角色命中的 DamageBatch 輪次與槽位（由 DamageBatch 管理，省去查表）
+    long batchRound;
+    int batchSlot;
+    // 顯示用狀態（生命值、護甲、能量、聖能、箭矢）的版本號，每次改變都會遞增
+    // （執行緒安全模式下生命值與資源的改變不遞增，見 resourceChanged）
+    private int stateVersion;
+    // 快取的 toString 與技能卡片文字（版本號與產生時相同才沿用）
+    private Rendered renderedText;
+    private Rendered renderedCard;
 
-    // 建構子：初始化角色的名稱、生命值和攻擊力
-    public Role(String name, int health, int attackPower) {
-        this.name = name;
-        this.health = health;
-        this.attackPower = attackPower;
+    // 執行緒安全模式下，用 CAS 更新生命值、護盾、暈眩數與版本號
+    private static final VarHandle HEALTH;
+    private static final VarHandle SHIELD;
+    private static final VarHandle STUNS;
+    private static final VarHandle STATE_VERSION;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            HEALTH = lookup.findVarHandle(Role.class, "health", int.class);
+            SHIELD = lookup.findVarHandle(Role.class, "shield", int.class);
+            STUNS = lookup.findVarHandle(Role.class, "stuns", int.class);
+            STATE_VERSION = lookup.findVarHandle(Role.class, "stateVersion", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    // 建構子：依共用的數值初始化角色（生命值、速度從數值的初始值開始）
+    protected Role(RoleStats stats) {
+        this.stats = stats;
+        this.health = stats.getHealth();
+        this.speed = stats.getSpeed();
+    }
+
+    // 取得共用的數值
+    public RoleStats getStats() {
+        return stats;
     }
 
     // 取得角色名稱
     public String getName() {
-        return name;
+        return stats.getName();
     }
 
     // 取得生命值
     public int getHealth() {
-        return health;
+        return threadSafe ? (int) HEALTH.getVolatile(this) : health;
+    }
+
+    // 取得初始生命值
+    public int getInitialHealth() {
+        return stats.getHealth();
     }
 
     // 取得攻擊力
     public int getAttackPower() {
-        return attackPower;
+        return stats.getAttackPower();
     }
     
-    // 設定生命值
+    // 設定生命值（從倒下恢復到大於 0 時，通知監聽器角色復活）
     public void setHealth(int health) {
+        int before = threadSafe ? (int) HEALTH.getAndSet(this, health) : swapHealth(health);
+        resourceChanged();
+        if (before <= 0 && health > 0) {
+            listener.onRevive(this);
+        }
+    }
+
+    private int swapHealth(int health) {
+        int before = this.health;
         this.health = health;
+        return before;
+    }
+
+    /**
+     * 增減生命值（治療、防禦回血用），回傳變動後的生命值
+     * 執行緒安全模式下是一次原子的「讀取-修改-寫入」，多個治療者同時治療不會遺失任何一次
+     * 從倒下恢復到大於 0 時，只有造成這次跨越的呼叫會通知監聽器角色復活
+     *
+     * @param delta 變動量（正數回血，負數扣血但不觸發死亡）
+     * @return 變動後的生命值
+     */
+    public int addHealth(int delta) {
+        int before;
+        if (threadSafe) {
+            before = (int) HEALTH.getAndAdd(this, delta);
+        } else {
+            before = health;
+            health = before + delta;
+        }
+        resourceChanged();
+        int after = before + delta;
+        if (before <= 0 && after > 0) {
+            listener.onRevive(this);
+        }
+        return after;
+    }
+
+    // 取得護甲值：預設沒有護甲（近戰角色覆寫）
+    public int getArmor() {
+        return 0;
+    }
+
+    // 受傷下限：護甲最多把傷害擋到這個值（預設不限制；近戰角色為 0）
+    protected int getDamageFloor() {
+        return Integer.MIN_VALUE;
+    }
+
+    // 取得速度
+    public int getSpeed() {
+        return speed;
+    }
+
+    // 設定速度（必須大於 0）
+    public void setSpeed(int speed) {
+        if (speed <= 0) {
+            throw new IllegalArgumentException("速度必須大於 0：" + speed);
+        }
+        this.speed = speed;
+    }
+
+    // 取得護盾值
+    public int getShield() {
+        return threadSafe ? (int) SHIELD.getVolatile(this) : shield;
+    }
+
+    /**
+     * 增減護盾值（由 EffectEngine 套用或移除護盾效果時呼叫），不會低於 0
+     * 執行緒安全模式下用 CAS 更新，與同時進行的護盾吸收不會互相蓋掉
+     *
+     * @param amount 變動量
+     * @return 變動後的護盾值
+     */
+    public int addShield(int amount) {
+        if (!threadSafe) {
+            shield = Math.max(0, shield + amount);
+            return shield;
+        }
+        int current;
+        int updated;
+        do {
+            current = (int) SHIELD.getVolatile(this);
+            updated = Math.max(0, current + amount);
+        } while (!SHIELD.compareAndSet(this, current, updated));
+        return updated;
+    }
+
+    // 是否處於暈眩狀態（暈眩時 ActionPolicy 會跳過這個角色的回合）
+    public boolean isStunned() {
+        return (threadSafe ? (int) STUNS.getVolatile(this) : stuns) > 0;
+    }
+
+    // 套上一個暈眩效果（由 EffectEngine 呼叫）
+    public void addStun() {
+        if (threadSafe) {
+            STUNS.getAndAdd(this, 1);
+        } else {
+            stuns++;
+        }
+    }
+
+    // 解除一個暈眩效果（由 EffectEngine 呼叫），暈眩數不會低於 0
+    public void removeStun() {
+        if (!threadSafe) {
+            if (stuns > 0) {
+                stuns--;
+            }
+            return;
+        }
+        int current;
+        do {
+            current = (int) STUNS.getVolatile(this);
+            if (current <= 0) {
+                return;
+            }
+        } while (!STUNS.compareAndSet(this, current, current - 1));
+    }
+
+    // 取得 X 座標
+    public int getX() {
+        return x;
+    }
+
+    // 取得 Y 座標
+    public int getY() {
+        return y;
+    }
+
+    // 設定座標（角色已經在 SpatialGrid 中時，改用 SpatialGrid.move，索引才會跟著更新）
+    public void setPosition(int x, int y) {
+        this.x = x;
+        this.y = y;
+    }
+
+    // 與另一個角色的距離平方（比較距離時不需要開根號）
+    public long distanceSquaredTo(Role other) {
+        long dx = (long) other.x - x;
+        long dy = (long) other.y - y;
+        return dx * dx + dy * dy;
+    }
+
+    // 取得戰鬥編號
+    public int getId() {
+        return id;
+    }
+
+    // 設定戰鬥編號（由戰鬥或 LiveRoster 的使用者指派）
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    // 取得戰鬥事件監聽器
+    public CombatEventListener getListener() {
+        return listener;
+    }
+
+    // 設定戰鬥事件監聽器（傳入 null 代表不監聽）
+    public void setListener(CombatEventListener listener) {
+        this.listener = listener == null ? CombatEventListener.NONE : listener;
+    }
+
+    // 是否為執行緒安全模式
+    public boolean isThreadSafe() {
+        return threadSafe;
+    }
+
+    /**
+     * 切換執行緒安全模式
+     * - 開啟後，生命值、護盾、暈眩數與各種資源（能量、聖能、箭矢）都用 VarHandle 的 CAS 更新，
+     *   多個執行緒同時攻擊或治療同一個角色也不會遺失更新，而且不會用到任何鎖
+     * - 死亡事件只會由「讓生命值從正數跨到 0 以下」的那一次傷害發出，不會重複
+     * - 同時命中有護盾的角色時，每一點護盾只會吸收一次傷害
+     * - 必須在角色交給其他執行緒之前設定（例如在啟動工作執行緒之前）
+     * - reset、loadState 會一次改寫所有狀態，只能在沒有其他執行緒使用這個角色時呼叫
+     * - 監聽器本身也必須是執行緒安全的
+     *
+     * @param threadSafe true 開啟、false 關閉（單執行緒戰鬥不需要開啟）
+     */
+    public void setThreadSafe(boolean threadSafe) {
+        this.threadSafe = threadSafe;
+    }
+
+    /**
+     * 顯示用狀態的版本號：生命值或資源每改變一次就遞增
+     * 監控面板可以記住上次看到的版本號，沒有變化就不必重新讀取或顯示這個角色
+     * 執行緒安全模式下只有護甲、reset、loadState 這類寫入會遞增，生命值與資源的改變不會（見 resourceChanged）
+     */
+    public int getStateVersion() {
+        return threadSafe ? (int) STATE_VERSION.getVolatile(this) : stateVersion;
+    }
+
+    /**
+     * 顯示用的狀態（toString 或技能卡片上的數值）改變之後呼叫，讓快取的文字失效
+     * 必須在改完欄位「之後」呼叫：產生文字時先讀版本號再讀狀態，才不會把舊的內容當成新的快取
+     */
+    protected final void stateChanged() {
+        if (threadSafe) {
+            STATE_VERSION.getAndAdd(this, 1);
+        } else {
+            stateVersion++;
+        }
+    }
+
+    /**
+     * 生命值或資源（renderedValue 列出的數值）改變之後呼叫
+     * 一般模式下與 stateChanged 相同；執行緒安全模式下什麼都不做：
+     * 共用的角色每次命中、治療都已經對生命值做一次原子操作，再遞增版本號會讓同一條快取線多搶一次，
+     * 快取的文字改成記下產生時讀到的這些數值，使用前逐一比對
+     */
+    protected final void resourceChanged() {
+        if (!threadSafe) {
+            stateVersion++;
+        }
+    }
+
+    /**
+     * 執行緒安全模式下，快取的文字要比對的數值個數（生命值，再加上子類別的資源）
+     * 子類別的 describe 或技能卡片用到會在戰鬥中改變的資源時覆寫，回傳 super 的個數 + 自己的個數
+     */
+    protected int renderedValueCount() {
+        return 1;
+    }
+
+    /**
+     * 第 index 個要比對的數值：0 是生命值；子類別處理自己的編號，其他交給 super
+     * 這些數值改變時呼叫 resourceChanged，其他顯示用的狀態改變時呼叫 stateChanged
+     */
+    protected int renderedValue(int index) {
+        return getHealth();
+    }
+
+    // 快取的文字是否還能用：版本號相同，執行緒安全模式下生命值與資源也都與產生時相同
+    private boolean isCurrent(Rendered cached, int version) {
+        if (cached == null || cached.version != version) {
+            return false;
+        }
+        int[] values = cached.values;
+        if (values == null) {
+            // 一般模式產生的快取：切換成執行緒安全模式之後不再可靠
+            return !threadSafe;
+        }
+        for (int i = 0; i < values.length; i++) {
+            if (renderedValue(i) != values[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // 產生文字前先讀好要比對的數值（一般模式不需要）
+    private int[] captureRenderedValues() {
+        if (!threadSafe) {
+            return null;
+        }
+        int[] values = new int[renderedValueCount()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = renderedValue(i);
+        }
+        return values;
+    }
+
+    // 監聽器是否需要旁白文字，子類別組字串前先檢查
+    protected boolean isNarrating() {
+        return listener.isNarrating();
+    }
+
+    // 送出一行旁白文字
+    protected void narrate(String line) {
+        listener.onNarration(this, line);
     }
 
     // 檢查角色是否存活
     public boolean isAlive() {
-        return health > 0;
+        return getHealth() > 0;
+    }
+
+    /**
+     * 恢復成剛建立時的狀態，讓同一個物件可以用在下一場戰鬥（RolePool 重複使用角色時呼叫）
+     * 會清除戰鬥編號、座標、護盾、暈眩與監聽器，不會發出任何事件；速度是角色設定而不是戰鬥狀態，不會被重設
+     * 執行緒安全模式下，生命值與資源一樣經由 VarHandle 寫入，之後其他執行緒讀到的是重設後的值；
+     * 但整個角色的狀態不是一次原子地換掉，只能在沒有其他執行緒正在使用這個角色時呼叫（戰鬥開始前、結束後）
+     * 角色身上還有 EffectEngine 的效果時，要先取消那些效果再重複使用角色
+     * 子類別有會在戰鬥中變動的欄位時，覆寫此方法並先呼叫 super.reset()
+     */
+    public void reset() {
+        writeHealth(stats.getHealth());
+        this.id = -1;
+        writeEffects(0, 0);
+        this.x = 0;
+        this.y = 0;
+        this.listener = CombatEventListener.NONE;
+        stateChanged();
+    }
+
+    // 直接寫入生命值，不發出事件（reset、loadState 用；執行緒安全模式下經由 VarHandle）
+    private void writeHealth(int health) {
+        if (threadSafe) {
+            HEALTH.setVolatile(this, health);
+        } else {
+            this.health = health;
+        }
+    }
+
+    // 直接寫入護盾與暈眩數（reset、loadState 用；執行緒安全模式下經由 VarHandle）
+    private void writeEffects(int shield, int stuns) {
+        if (threadSafe) {
+            SHIELD.setVolatile(this, shield);
+            STUNS.setVolatile(this, stuns);
+        } else {
+            this.shield = shield;
+            this.stuns = stuns;
+        }
+    }
+
+    // ========== 存檔（BattleSnapshot 使用） ==========
+
+    /**
+     * saveState 寫入的位元組數
+     * 子類別有自己的戰鬥狀態時覆寫為 super.getStateBytes() + 自己的大小
+     */
+    public int getStateBytes() {
+        return 6 * Integer.BYTES;
+    }
+
+    /**
+     * 把戰鬥中會變動的狀態寫進 out：生命值、速度、護盾、暈眩數、座標
+     * 戰鬥編號與監聽器由戰鬥重新指派，不寫入；
+     * 子類別覆寫時先呼叫 super.saveState(out) 再寫自己的欄位，順序必須與 loadState 相同
+     */
+    public void saveState(ByteBuffer out) {
+        int stunCount = threadSafe ? (int) STUNS.getVolatile(this) : stuns;
+        out.putInt(getHealth()).putInt(speed).putInt(getShield()).putInt(stunCount).putInt(x).putInt(y);
+    }
+
+    /**
+     * 從 in 讀回 saveState 寫入的狀態
+     * 與 reset 一樣直接設定欄位，不會發出任何事件（包括復活），也一樣只能在沒有其他執行緒使用這個角色時呼叫；
+     * 子類別覆寫時先呼叫 super.loadState(in) 再讀自己的欄位
+     */
+    public void loadState(ByteBuffer in) {
+        writeHealth(in.getInt());
+        this.speed = in.getInt();
+        int savedShield = in.getInt();
+        writeEffects(savedShield, in.getInt());
+        this.x = in.getInt();
+        this.y = in.getInt();
+        stateChanged();
     }
 
     // 抽象方法：攻擊對手
     public abstract void attack(Role opponent);
 
-    // 抽象方法：展示角色的特殊技能
+    // 抽象方法：展示角色的特殊技能（通常直接印出 getSkillCard()）
     public abstract void showSpecialSkill();
 
-    // 具體方法：受到傷害
+    /**
+     * 取得技能卡片的文字（含行尾換行）
+     * 狀態版本號沒變（執行緒安全模式下還要生命值與資源沒變）時直接回傳上次產生的字串，不會重新組字串
+     */
+    public String getSkillCard() {
+        int version = getStateVersion();
+        Rendered cached = renderedCard;
+        if (isCurrent(cached, version)) {
+            return cached.text;
+        }
+        int[] values = captureRenderedValues();
+        String card = renderSkillCard();
+        renderedCard = new Rendered(version, values, card);
+        return card;
+    }
+
+    // 抽象方法：產生技能卡片的文字（通常用類別共用的 SkillCard 樣板）
+    protected abstract String renderSkillCard();
+
+    // 具體方法：受到傷害（子類別可以覆寫，例如近戰角色先扣護甲）
     public void takeDamage(int damage) {
+        takeTrueDamage(damage);
+    }
+
+    /**
+     * 受到真實傷害：不經過護甲（持續傷害等效果使用），但仍然先扣護盾
+     * @param damage 傷害
+     */
+    public final void takeTrueDamage(int damage) {
+        damage = absorbShield(damage);
+        if (threadSafe) {
+            takeDamageAtomically(damage);
+            return;
+        }
         this.health -= damage;
-        System.out.println("💥 " + name + " 受到 " + damage + " 點傷害！目前生命值：" + health);
+        resourceChanged();
+        listener.onDamage(this, damage, health);
         
         if (!isAlive()) {
+            listener.onDeath(this);
+            onDeath();
+        }
+    }
+
+    // 執行緒安全模式的受傷：原子扣血，只有跨過 0 的那一次觸發死亡
+    private void takeDamageAtomically(int damage) {
+        int before = (int) HEALTH.getAndAdd(this, -damage);
+        resourceChanged();
+        int after = before - damage;
+        listener.onDamage(this, damage, after);
+
+        if (before > 0 && after <= 0) {
+            listener.onDeath(this);
             onDeath();
         }
     }
 
+    /**
+     * 用護盾吸收傷害，回傳剩下要扣生命值的傷害（DamageBatch 也會呼叫）
+     * 執行緒安全模式下用 CAS 扣護盾：同時命中的傷害各自吸收不同的護盾，不會重複吸收或遺失
+     */
+    int absorbShield(int damage) {
+        if (damage <= 0) {
+            return damage;
+        }
+        if (!threadSafe) {
+            if (shield <= 0) {
+                return damage;
+            }
+            int absorbed = Math.min(shield, damage);
+            shield -= absorbed;
+            listener.onShieldAbsorbed(this, absorbed, shield);
+            return damage - absorbed;
+        }
+        int current;
+        int absorbed;
+        do {
+            current = (int) SHIELD.getVolatile(this);
+            if (current <= 0) {
+                return damage;
+            }
+            absorbed = Math.min(current, damage);
+        } while (!SHIELD.compareAndSet(this, current, current - absorbed));
+        listener.onShieldAbsorbed(this, absorbed, current - absorbed);
+        return damage - absorbed;
+    }
+
+    // 批次結算用：套用已經扣過護甲、護盾的傷害並通知 onDamage，回傳受傷前的生命值（死亡由 DamageBatch 統一結算）
+    int applyResolvedDamage(int damage) {
+        int before;
+        if (threadSafe) {
+            before = (int) HEALTH.getAndAdd(this, -damage);
+        } else {
+            before = health;
+            health = before - damage;
+        }
+        resourceChanged();
+        listener.onDamage(this, damage, before - damage);
+        return before;
+    }
+
+    // 批次結算用：通知角色死亡
+    void resolveDeath() {
+        listener.onDeath(this);
+        onDeath();
+    }
+
     // 抽象方法：死亡時的處理
     public abstract void onDeath();
 
@@ -65,8 +561,46 @@ public abstract class Role {
     // 抽象方法：戰鬥後的行為
     public abstract void afterBattle();
 
+    /**
+     * 角色的文字描述
+     * 依狀態版本號快取：生命值、資源都沒變時直接回傳上次的字串；
+     * 子類別要加上自己的欄位時覆寫 describe，不要覆寫這個方法
+     */
     @Override
     public String toString() {
-        return "角色名稱: " + name + ", 生命值: " + health;
+        int version = getStateVersion();
+        Rendered cached = renderedText;
+        if (isCurrent(cached, version)) {
+            return cached.text;
+        }
+        int[] values = captureRenderedValues();
+        StringBuilder text = new StringBuilder(96);
+        describe(text);
+        String result = text.toString();
+        renderedText = new Rendered(version, values, result);
+        return result;
+    }
+
+    /**
+     * 把角色的描述寫進 text（子類別先呼叫 super.describe 再加上自己的欄位）
+     * 描述裡會變的數值都必須在改變後呼叫 stateChanged（生命值與資源是 resourceChanged，並列在 renderedValue 裡），
+     * 否則快取不會更新
+     */
+    protected void describe(StringBuilder text) {
+        text.append("角色名稱: ").append(getName()).append(", 生命值: ").append(getHealth());
+    }
+
+    // 快取的文字與產生時的版本號、生命值與資源（放在同一個不可變物件裡，多執行緒讀取時不會拿到不一致的組合）
+    private static final class Rendered {
+        final int version;
+        // 執行緒安全模式下產生文字前讀到的 renderedValue；一般模式為 null
+        final int[] values;
+        final String text;
+
+        Rendered(int version, int[] values, String text) {
+            this.version = version;
+            this.values = values;
+            this.text = text;
+        }
     }
 }
@@ -0,0 +1,19 @@
+/**
+ * RoleKind - 職業種類
+ *
+ * 原型定義檔用它決定要建立哪一個類別，RoleStats 也用它決定各項資源消耗的預設值。
+ */
+package com.rpg.core;
+
+public enum RoleKind {
+    // 劍士
+    SWORDSMAN,
+    // 持盾劍士
+    SHIELD_SWORDSMAN,
+    // 聖騎士
+    PALADIN,
+    // 魔法師
+    MAGICIAN,
+    // 弓箭手
+    ARCHER
+}
@@ -0,0 +1,449 @@
+/**
+ * RoleStats - 不可變的角色數值（flyweight）
+ *
+ * 為什麼需要？
+ * - 原本每個角色物件都各自存一份名稱、最大生命值、攻擊力、射程、能量上限...
+ * - 上千名同職業的角色，這些數值其實都一樣
+ * - 把「不會變的數值」抽成一個不可變物件，同一種原型的角色共用同一份；
+ *   角色物件只剩下會變的狀態（生命值、能量、箭矢、聖能、護甲、速度）
+ *
+ * 設計說明：
+ * - 所有欄位都是 final，建立後不能修改，可以安全地被多個執行緒共用
+ * - 用 builder(kind, name) 建立，沒有指定的欄位使用該職業的預設值
+ *   （預設值與原本寫死在各類別裡的數字相同）；toBuilder 以現有的數值為起點
+ * - 通常由 ArchetypeRegistry 從原型定義檔載入，不需要自己建立
+ */
+package com.rpg.core;
+
+public final class RoleStats {
+    private final RoleKind kind;
+    private final String name;
+    private final int health;
+    private final int attackPower;
+    private final int speed;
+    // 近戰
+    private final int armor;
+    private final int defenseCapacity;
+    private final int oneHandedPenalty;
+    // 治療
+    private final int healPower;
+    // 遠程
+    private final int range;
+    private final int maxEnergy;
+    private final int energyRecovery;
+    private final int attackEnergyCost;
+    private final int healEnergyCost;
+    // 弓箭手
+    private final int maxArrows;
+    private final int arrowReload;
+    // 聖騎士
+    private final int maxHolyPower;
+    private final int holyDefendCost;
+    private final int holyHealCost;
+    private final int holyOnHit;
+    private final int holyRecovery;
+    private final int judgmentCost;
+    private final int judgmentBurn;
+    private final int judgmentDuration;
+
+    private RoleStats(Builder builder) {
+        this.kind = builder.kind;
+        this.name = builder.name;
+        this.health = builder.health;
+        this.attackPower = builder.attackPower;
+        this.speed = builder.speed;
+        this.armor = builder.armor;
+        this.defenseCapacity = builder.defenseCapacity;
+        this.oneHandedPenalty = builder.oneHandedPenalty;
+        this.healPower = builder.healPower;
+        this.range = builder.range;
+        this.maxEnergy = builder.maxEnergy;
+        this.energyRecovery = builder.energyRecovery;
+        this.attackEnergyCost = builder.attackEnergyCost;
+        this.healEnergyCost = builder.healEnergyCost;
+        this.maxArrows = builder.maxArrows;
+        this.arrowReload = builder.arrowReload;
+        this.maxHolyPower = builder.maxHolyPower;
+        this.holyDefendCost = builder.holyDefendCost;
+        this.holyHealCost = builder.holyHealCost;
+        this.holyOnHit = builder.holyOnHit;
+        this.holyRecovery = builder.holyRecovery;
+        this.judgmentCost = builder.judgmentCost;
+        this.judgmentBurn = builder.judgmentBurn;
+        this.judgmentDuration = builder.judgmentDuration;
+    }
+
+    /**
+     * 開始建立一份數值
+     * @param kind 職業種類（決定資源消耗的預設值）
+     * @param name 角色名稱
+     */
+    public static Builder builder(RoleKind kind, String name) {
+        return new Builder(kind, name);
+    }
+
+    /**
+     * 以這份數值為起點建立新的數值（例如平衡調整時只改其中幾個欄位）
+     * @param name 新數值的角色名稱
+     */
+    public Builder toBuilder(String name) {
+        Builder builder = new Builder(kind, name);
+        builder.health = health;
+        builder.attackPower = attackPower;
+        builder.speed = speed;
+        builder.armor = armor;
+        builder.defenseCapacity = defenseCapacity;
+        builder.oneHandedPenalty = oneHandedPenalty;
+        builder.healPower = healPower;
+        builder.range = range;
+        builder.maxEnergy = maxEnergy;
+        builder.energyRecovery = energyRecovery;
+        builder.attackEnergyCost = attackEnergyCost;
+        builder.healEnergyCost = healEnergyCost;
+        builder.maxArrows = maxArrows;
+        builder.arrowReload = arrowReload;
+        builder.maxHolyPower = maxHolyPower;
+        builder.holyDefendCost = holyDefendCost;
+        builder.holyHealCost = holyHealCost;
+        builder.holyOnHit = holyOnHit;
+        builder.holyRecovery = holyRecovery;
+        builder.judgmentCost = judgmentCost;
+        builder.judgmentBurn = judgmentBurn;
+        builder.judgmentDuration = judgmentDuration;
+        return builder;
+    }
+
+    // 職業種類
+    public RoleKind getKind() {
+        return kind;
+    }
+
+    /**
+     * 確認職業種類與要建立的類別相符（具體職業類別的建構子用，RoleSwitch.kindOf 依類別回傳種類）
+     * @param expected 類別對應的職業種類
+     * @return 這份數值本身
+     * @throws IllegalArgumentException 職業種類不符
+     */
+    public RoleStats requireKind(RoleKind expected) {
+        if (kind != expected) {
+            throw new IllegalArgumentException(name + "：職業種類是 " + kind + "，不能用來建立 " + expected);
+        }
+        return this;
+    }
+
+    // 角色名稱
+    public String getName() {
+        return name;
+    }
+
+    // 最大（初始）生命值
+    public int getHealth() {
+        return health;
+    }
+
+    // 攻擊力
+    public int getAttackPower() {
+        return attackPower;
+    }
+
+    // 初始速度
+    public int getSpeed() {
+        return speed;
+    }
+
+    // 初始護甲值
+    public int getArmor() {
+        return armor;
+    }
+
+    // 防禦時恢復的生命值
+    public int getDefenseCapacity() {
+        return defenseCapacity;
+    }
+
+    // 單手持劍（持盾劍士）的攻擊力減少量
+    public int getOneHandedPenalty() {
+        return oneHandedPenalty;
+    }
+
+    // 治療量
+    public int getHealPower() {
+        return healPower;
+    }
+
+    // 射程
+    public int getRange() {
+        return range;
+    }
+
+    // 能量上限
+    public int getMaxEnergy() {
+        return maxEnergy;
+    }
+
+    // 每次戰後恢復的能量
+    public int getEnergyRecovery() {
+        return energyRecovery;
+    }
+
+    // 攻擊消耗的能量
+    public int getAttackEnergyCost() {
+        return attackEnergyCost;
+    }
+
+    // 治療消耗的能量
+    public int getHealEnergyCost() {
+        return healEnergyCost;
+    }
+
+    // 箭矢上限
+    public int getMaxArrows() {
+        return maxArrows;
+    }
+
+    // 每次戰後補充的箭矢
+    public int getArrowReload() {
+        return arrowReload;
+    }
+
+    // 聖能上限
+    public int getMaxHolyPower() {
+        return maxHolyPower;
+    }
+
+    // 聖盾防禦消耗的聖能
+    public int getHolyDefendCost() {
+        return holyDefendCost;
+    }
+
+    // 聖光治療消耗的聖能
+    public int getHolyHealCost() {
+        return holyHealCost;
+    }
+
+    // 每次攻擊恢復的聖能
+    public int getHolyOnHit() {
+        return holyOnHit;
+    }
+
+    // 每次戰後恢復的聖能
+    public int getHolyRecovery() {
+        return holyRecovery;
+    }
+
+    // 神聖審判消耗的聖能
+    public int getJudgmentCost() {
+        return judgmentCost;
+    }
+
+    // 神聖審判每回合的聖光灼燒傷害（0 代表沒有灼燒）
+    public int getJudgmentBurn() {
+        return judgmentBurn;
+    }
+
+    // 神聖審判灼燒的持續回合數
+    public int getJudgmentDuration() {
+        return judgmentDuration;
+    }
+
+    @Override
+    public String toString() {
+        return kind + "(" + name + ", 生命值: " + health + ", 攻擊力: " + attackPower + ")";
+    }
+
+    /**
+     * Builder - 建立 RoleStats（只在載入時使用，建立完就丟掉）
+     */
+    public static final class Builder {
+        private final RoleKind kind;
+        private final String name;
+        private int health;
+        private int attackPower;
+        private int speed = Role.DEFAULT_SPEED;
+        private int armor;
+        private int defenseCapacity;
+        private int oneHandedPenalty;
+        private int healPower;
+        private int range;
+        private int maxEnergy;
+        private int energyRecovery;
+        private int attackEnergyCost;
+        private int healEnergyCost;
+        private int maxArrows;
+        private int arrowReload;
+        private int maxHolyPower;
+        private int holyDefendCost;
+        private int holyHealCost;
+        private int holyOnHit;
+        private int holyRecovery;
+        private int judgmentCost;
+        private int judgmentBurn;
+        private int judgmentDuration;
+
+        private Builder(RoleKind kind, String name) {
+            if (kind == null || name == null) {
+                throw new IllegalArgumentException("職業種類和名稱不能是 null");
+            }
+            this.kind = kind;
+            this.name = name;
+            // 各職業原本寫死在類別裡的數字
+            switch (kind) {
+                case SHIELD_SWORDSMAN:
+                    oneHandedPenalty = 5;
+                    break;
+                case PALADIN:
+                    holyDefendCost = 10;
+                    holyHealCost = 15;
+                    holyOnHit = 5;
+                    holyRecovery = 10;
+                    judgmentCost = 20;
+                    judgmentBurn = 5;
+                    judgmentDuration = 3;
+                    break;
+                case MAGICIAN:
+                    energyRecovery = 10;
+                    attackEnergyCost = 15;
+                    healEnergyCost = 10;
+                    break;
+                case ARCHER:
+                    energyRecovery = 10;
+                    attackEnergyCost = 10;
+                    arrowReload = 5;
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        public Builder health(int health) {
+            this.health = health;
+            return this;
+        }
+
+        public Builder attackPower(int attackPower) {
+            this.attackPower = attackPower;
+            return this;
+        }
+
+        public Builder speed(int speed) {
+            this.speed = speed;
+            return this;
+        }
+
+        public Builder armor(int armor) {
+            this.armor = armor;
+            return this;
+        }
+
+        public Builder defenseCapacity(int defenseCapacity) {
+            this.defenseCapacity = defenseCapacity;
+            return this;
+        }
+
+        public Builder oneHandedPenalty(int oneHandedPenalty) {
+            this.oneHandedPenalty = oneHandedPenalty;
+            return this;
+        }
+
+        public Builder healPower(int healPower) {
+            this.healPower = healPower;
+            return this;
+        }
+
+        public Builder range(int range) {
+            this.range = range;
+            return this;
+        }
+
+        public Builder maxEnergy(int maxEnergy) {
+            this.maxEnergy = maxEnergy;
+            return this;
+        }
+
+        public Builder energyRecovery(int energyRecovery) {
+            this.energyRecovery = energyRecovery;
+            return this;
+        }
+
+        public Builder attackEnergyCost(int attackEnergyCost) {
+            this.attackEnergyCost = attackEnergyCost;
+            return this;
+        }
+
+        public Builder healEnergyCost(int healEnergyCost) {
+            this.healEnergyCost = healEnergyCost;
+            return this;
+        }
+
+        public Builder maxArrows(int maxArrows) {
+            this.maxArrows = maxArrows;
+            return this;
+        }
+
+        public Builder arrowReload(int arrowReload) {
+            this.arrowReload = arrowReload;
+            return this;
+        }
+
+        public Builder maxHolyPower(int maxHolyPower) {
+            this.maxHolyPower = maxHolyPower;
+            return this;
+        }
+
+        public Builder holyDefendCost(int holyDefendCost) {
+            this.holyDefendCost = holyDefendCost;
+            return this;
+        }
+
+        public Builder holyHealCost(int holyHealCost) {
+            this.holyHealCost = holyHealCost;
+            return this;
+        }
+
+        public Builder holyOnHit(int holyOnHit) {
+            this.holyOnHit = holyOnHit;
+            return this;
+        }
+
+        public Builder holyRecovery(int holyRecovery) {
+            this.holyRecovery = holyRecovery;
+            return this;
+        }
+
+        public Builder judgmentCost(int judgmentCost) {
+            this.judgmentCost = judgmentCost;
+            return this;
+        }
+
+        public Builder judgmentBurn(int judgmentBurn) {
+            this.judgmentBurn = judgmentBurn;
+            return this;
+        }
+
+        public Builder judgmentDuration(int judgmentDuration) {
+            this.judgmentDuration = judgmentDuration;
+            return this;
+        }
+
+        /**
+         * 建立不可變的數值
+         * @throws IllegalArgumentException 生命值或速度不大於 0、或有負數的數值
+         */
+        public RoleStats build() {
+            if (health <= 0) {
+                throw new IllegalArgumentException(name + "：生命值必須大於 0");
+            }
+            if (speed <= 0) {
+                throw new IllegalArgumentException(name + "：速度必須大於 0");
+            }
+            if (attackPower < 0 || armor < 0 || defenseCapacity < 0 || oneHandedPenalty < 0 || healPower < 0 || range < 0
+                    || maxEnergy < 0 || energyRecovery < 0 || attackEnergyCost < 0 || healEnergyCost < 0
+                    || maxArrows < 0 || arrowReload < 0 || maxHolyPower < 0 || holyDefendCost < 0
+                    || holyHealCost < 0 || holyOnHit < 0 || holyRecovery < 0
+                    || judgmentCost < 0 || judgmentBurn < 0 || judgmentDuration < 0) {
+                throw new IllegalArgumentException(name + "：數值不能是負數");
+            }
+            return new RoleStats(this);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/**
+ * SkillCard - 技能卡片的文字樣板
+ *
+ * 為什麼需要？
+ * - 每個職業的 showSpecialSkill 每次呼叫都用 + 重新串出整張卡片（外框、技能名稱、數值），
+ *   其中絕大部分是永遠不變的外框與說明文字
+ * - 監控面板一次要顯示上千個單位的卡片，這些字串每次都重新配置
+ *
+ * 設計說明：
+ * - 每個職業類別只在載入時建立一次樣板（private static final），
+ *   樣板把卡片切成固定的文字片段，只在 {name}（角色名稱）與 {}（數值）的位置插入會變的內容
+ * - 相鄰的固定行在建立時就合併成一個片段，產生卡片時只需要幾次 append
+ * - 產生出來的文字由 Role.getSkillCard 依角色的狀態版本號快取，狀態沒變時不會重新產生
+ * - 行尾使用 System.lineSeparator()，與逐行 System.out.println 的輸出完全相同
+ * - 建立後不會再改變，可以被多個執行緒同時使用
+ *
+ * 使用範例：
+ *   private static final SkillCard SKILL_CARD = SkillCard.of(
+ *           "║ {name} 的特殊技能 ║",
+ *           "║ 護甲值：+{} 點 ║");
+ *   SKILL_CARD.render(getName(), getArmor());
+ */
+package com.rpg.core;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class SkillCard {
+    // 插入角色名稱的位置
+    private static final String NAME = "{name}";
+    // 依序插入數值的位置
+    private static final String VALUE = "{}";
+
+    // 固定的文字片段，插入位置在片段之間（片段數 = 插入位置數 + 1）
+    private final String[] literals;
+    // 每個插入位置是否為角色名稱（否則是下一個數值）
+    private final boolean[] nameSlots;
+    // 需要的數值個數
+    private final int valueCount;
+    // 固定文字的總長度（配置 StringBuilder 用）
+    private final int literalLength;
+
+    private SkillCard(String[] literals, boolean[] nameSlots, int valueCount) {
+        this.literals = literals;
+        this.nameSlots = nameSlots;
+        this.valueCount = valueCount;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    /**
+     * 依每一行的樣板建立卡片（每行結尾自動加上換行）
+     * @param lines 卡片的每一行，可以包含 {name} 與 {}
+     */
+    public static SkillCard of(String... lines) {
+        StringBuilder template = new StringBuilder();
+        for (String line : lines) {
+            template.append(line).append(System.lineSeparator());
+        }
+
+        List<String> literals = new ArrayList<>();
+        List<Boolean> slots = new ArrayList<>();
+        int values = 0;
+        int from = 0;
+        while (true) {
+            int name = template.indexOf(NAME, from);
+            int value = template.indexOf(VALUE, from);
+            if (name < 0 && value < 0) break;
+            boolean isName = name >= 0 && (value < 0 || name < value);
+            int at = isName ? name : value;
+            literals.add(template.substring(from, at));
+            slots.add(isName);
+            if (!isName) values++;
+            from = at + (isName ? NAME.length() : VALUE.length());
+        }
+        literals.add(template.substring(from));
+
+        boolean[] nameSlots = new boolean[slots.size()];
+        for (int i = 0; i < nameSlots.length; i++) {
+            nameSlots[i] = slots.get(i);
+        }
+        return new SkillCard(literals.toArray(new String[0]), nameSlots, values);
+    }
+
+    /**
+     * 產生卡片文字
+     * @param name 角色名稱（填入每個 {name}）
+     * @param values 依序填入每個 {} 的數值
+     * @throws IllegalArgumentException 數值個數與樣板不符
+     */
+    public String render(String name, int... values) {
+        if (values.length != valueCount) {
+            throw new IllegalArgumentException("技能卡片需要 " + valueCount + " 個數值：" + values.length);
+        }
+        StringBuilder card = new StringBuilder(literalLength + nameSlots.length * 12);
+        card.append(literals[0]);
+        int next = 0;
+        for (int i = 0; i < nameSlots.length; i++) {
+            if (nameSlots[i]) {
+                card.append(name);
+            } else {
+                card.append(values[next++]);
+            }
+            card.append(literals[i + 1]);
+        }
+        return card.toString();
+    }
+
+    // 需要的數值個數
+    public int getValueCount() {
+        return valueCount;
+    }
+}
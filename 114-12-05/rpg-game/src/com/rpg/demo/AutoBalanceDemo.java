@@ -0,0 +1,49 @@
+/**
+ * AutoBalanceDemo - 自動平衡：座標下降搜尋五個職業的數值
+ */
+package com.rpg.demo;
+
+import com.rpg.archetype.ArchetypeRegistry;
+import com.rpg.sim.BalanceOptimizer;
+import com.rpg.sim.BalanceResult;
+import com.rpg.sim.RoleSpec;
+import com.rpg.sim.Tournament;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class AutoBalanceDemo {
+    private AutoBalanceDemo() {
+    }
+
+    /**
+     * 用 BalanceOptimizer 調整五個職業的數值，
+     * 再用另一個種子跑一次循環賽，確認調整後的勝率不是只對搜尋時的亂數有效
+     *
+     * @param roster 循環賽的名單（顯示名稱用）
+     * @param perMatchup 驗證用循環賽每組的場數
+     */
+    public static void run(List<RoleSpec> roster, int perMatchup) {
+        List<String> ids = List.of("swordsman", "shieldSwordsman", "paladin", "magician", "archer");
+        BalanceOptimizer optimizer = new BalanceOptimizer(ArchetypeRegistry.defaults(), ids);
+        optimizer.setSeed(8L);
+
+        long start = System.nanoTime();
+        BalanceResult result = optimizer.optimize();
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.println("【自動平衡】目標：每兩個職業單挑勝率 50%");
+        System.out.print(result);
+        System.out.printf("⏱️  耗時 %.2f 秒%n", seconds);
+
+        ArchetypeRegistry tuned = result.toRegistry();
+        List<RoleSpec> tunedRoster = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            tunedRoster.add(new RoleSpec(roster.get(i).getLabel(), tuned.factory(ids.get(i))));
+        }
+        Tournament check = new Tournament(tunedRoster, perMatchup);
+        check.setSeed(9L);
+        System.out.println("【調整後的循環賽 A 方勝率】每組 " + perMatchup + " 場（與搜尋時不同的種子）");
+        System.out.print(check.run());
+    }
+}
@@ -0,0 +1,118 @@
+/**
+ * BattleServerDemo - 對戰伺服器：同時進行大量戰鬥，每個角色是一個玩家連線
+ */
+package com.rpg.demo;
+
+import com.rpg.archetype.ArchetypeRegistry;
+import com.rpg.core.Role;
+import com.rpg.core.RoleKind;
+import com.rpg.metrics.CombatMetrics;
+import com.rpg.metrics.Histogram;
+import com.rpg.metrics.RoleMetrics;
+import com.rpg.server.BattleServer;
+import com.rpg.server.Command;
+import com.rpg.server.Match;
+
+import java.util.concurrent.CountDownLatch;
+
+public final class BattleServerDemo {
+    // 每個玩家連線最多送出的指令數（雙方都會補血時戰鬥可能打不完）
+    private static final int SESSION_ACTIONS = 200;
+
+    private BattleServerDemo() {
+    }
+
+    /**
+     * 在對戰伺服器上同時開大量 3 對 3 戰鬥，
+     * 每個角色都是一個玩家連線，不斷送出 AUTO 指令，直到角色倒下或戰鬥結束；
+     * 伺服器用預設的虛擬執行緒處理每場戰鬥的信箱
+     *
+     * @param count 同時進行的戰鬥數
+     */
+    public static void run(int count) {
+        ArchetypeRegistry archetypes = ArchetypeRegistry.defaults();
+        String[] heroes = {"swordsman", "shieldSwordsman", "paladin"};
+        String[] casters = {"magician", "archer", "archer"};
+        Histogram latencies = new Histogram();
+        CombatMetrics metrics = new CombatMetrics();
+        metrics.registerMBeans("demo");
+        CountDownLatch sessions = new CountDownLatch(count * (heroes.length + casters.length));
+
+        try (BattleServer server = new BattleServer(metrics)) {
+            // 先開好所有戰鬥，再讓所有玩家連線同時開始送指令
+            Match[] matches = new Match[count];
+            for (int i = 0; i < count; i++) {
+                Role[] sideA = new Role[heroes.length];
+                Role[] sideB = new Role[casters.length];
+                for (int j = 0; j < heroes.length; j++) sideA[j] = archetypes.spawn(heroes[j]);
+                for (int j = 0; j < casters.length; j++) sideB[j] = archetypes.spawn(casters[j]);
+                matches[i] = server.open(sideA, sideB, i);
+            }
+            long start = System.nanoTime();
+            for (Match match : matches) {
+                for (int actor = 0; actor < match.getSize(); actor++) {
+                    new PlayerSession(match, actor, latencies, sessions).next();
+                }
+            }
+            try {
+                sessions.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            System.out.println("【對戰伺服器】同時 " + count + " 場 3 對 3，" + count * 6 + " 個玩家連線，"
+                    + Runtime.getRuntime().availableProcessors() + " 個核心");
+            System.out.printf("⏱️  耗時 %.2f 秒，%,d 個指令（約每秒 %,.0f 個），結束 %,d 場、未分勝負 %,d 場%n",
+                    seconds, latencies.getCount(), latencies.getCount() / seconds,
+                    server.getFinishedMatches(), server.getActiveMatches());
+            System.out.printf("📶 指令延遲 p50 %.3f ms、p99 %.3f ms%n",
+                    latencies.percentile(0.50) / 1e6, latencies.percentile(0.99) / 1e6);
+        }
+
+        // 依職業的統計（同樣的數字也可以用 JConsole 從 com.rpg:type=CombatMetrics 讀取）
+        System.out.println("📈 職業統計（JMX：" + CombatMetrics.DOMAIN + ":type=CombatMetrics,name=\"demo\"）");
+        for (RoleKind kind : RoleKind.values()) {
+            RoleMetrics m = metrics.get(kind);
+            if (m.getActions() == 0) continue;
+            System.out.printf("   %-16s 指令 %,7d（處理 p50 %.1f µs、p99 %.1f µs）受傷 %,8d（p99 %d）治療 %,7d 防禦 %,6d 倒下 %,5d%n",
+                    kind, m.getActions(), m.getActionLatencyP50Micros(), m.getActionLatencyP99Micros(),
+                    m.getDamageTaken(), m.getDamageP99(), m.getHealed(), m.getDefends(), m.getDeaths());
+        }
+        metrics.unregisterMBeans();
+    }
+
+    /**
+     * 一個玩家連線：收到上一個指令的結果才送出下一個
+     * 不替每個連線開一條虛擬執行緒再 join 等結果：單核心上 60 萬條執行緒輪流停放 / 喚醒，
+     * 吞吐量只有回呼寫法的七分之一左右
+     */
+    private static final class PlayerSession {
+        private final Match match;
+        private final int actorId;
+        private final Histogram latencies;
+        private final CountDownLatch done;
+        private int remaining = SESSION_ACTIONS;
+
+        PlayerSession(Match match, int actorId, Histogram latencies, CountDownLatch done) {
+            this.match = match;
+            this.actorId = actorId;
+            this.latencies = latencies;
+            this.done = done;
+        }
+
+        void next() {
+            long sent = System.nanoTime();
+            match.submit(Command.AUTO, actorId, -1).whenComplete((result, error) -> {
+                latencies.record(System.nanoTime() - sent);
+                // 暈眩時回合照樣結束，連線繼續送指令
+                if (error == null && result.isTurnTaken() && result.getWinner() == Match.ONGOING && --remaining > 0) {
+                    next();
+                } else {
+                    done.countDown();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/**
+ * BossRaidDemo - 共享世界：多個執行緒同時攻擊 / 治療同一個魔王
+ */
+package com.rpg.demo;
+
+import com.rpg.archetype.ArchetypeRegistry;
+import com.rpg.core.CombatEventListener;
+import com.rpg.core.Role;
+import com.rpg.core.RoleKind;
+import com.rpg.core.RoleStats;
+import com.rpg.roles.ranged.Magician;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class BossRaidDemo {
+    private BossRaidDemo() {
+    }
+
+    /**
+     * 多個執行緒同時攻擊與治療同一個魔王，檢查沒有遺失任何一次更新
+     * 攻擊者與治療者也各只有一個，被所有執行緒共用（治療者的能量同樣是 CAS 更新）
+     *
+     * @param actionsPerThread 每個執行緒的行動次數
+     */
+    public static void run(int actionsPerThread) {
+        ArchetypeRegistry archetypes = ArchetypeRegistry.defaults();
+        Role boss = ArchetypeRegistry.spawn(RoleStats.builder(RoleKind.PALADIN, "魔王")
+                .health(1_000).attackPower(30).armor(10).defenseCapacity(12).healPower(12)
+                .maxHolyPower(100).build());
+        Role raider = archetypes.spawn("swordsman");
+        Magician healer = (Magician) archetypes.spawn("magician");
+        int healCost = healer.getStats().getHealEnergyCost();
+
+        // 監聽器會被所有執行緒同時呼叫，只用 LongAdder / AtomicInteger 累計
+        LongAdder damage = new LongAdder();
+        LongAdder healed = new LongAdder();
+        AtomicInteger deaths = new AtomicInteger();
+        AtomicInteger revives = new AtomicInteger();
+        CombatEventListener tally = new CombatEventListener() {
+            @Override
+            public void onDamage(Role target, int amount, int healthAfter) {
+                damage.add(amount);
+            }
+
+            @Override
+            public void onHeal(Role healer, Role target, int healthBefore, int healthAfter) {
+                healed.add(healthAfter - healthBefore);
+            }
+
+            @Override
+            public void onDeath(Role role) {
+                deaths.incrementAndGet();
+            }
+
+            @Override
+            public void onRevive(Role role) {
+                revives.incrementAndGet();
+            }
+        };
+        boss.setListener(tally);
+        healer.setListener(tally);
+        // 交給其他執行緒之前開啟執行緒安全模式
+        boss.setThreadSafe(true);
+        raider.setThreadSafe(true);
+        healer.setThreadSafe(true);
+
+        int threads = Math.max(4, Runtime.getRuntime().availableProcessors());
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            boolean attacking = t % 2 == 0;
+            workers[t] = new Thread(() -> {
+                for (int i = 0; i < actionsPerThread; i++) {
+                    if (attacking) {
+                        raider.attack(boss);
+                    } else {
+                        healer.restoreEnergy(healCost);
+                        healer.heal(boss);
+                    }
+                }
+            }, "raid-" + t);
+        }
+
+        long start = System.nanoTime();
+        for (Thread worker : workers) worker.start();
+        for (Thread worker : workers) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        long expected = boss.getInitialHealth() - damage.sum() + healed.sum();
+        System.out.println("【共享世界】" + threads + " 個執行緒，各行動 " + actionsPerThread + " 次，魔王生命值 "
+                + boss.getHealth() + "，倒下 " + deaths.get() + " 次、復活 " + revives.get() + " 次");
+        System.out.printf("⏱️  耗時 %.2f 秒，總傷害 %,d，總治療 %,d%n", seconds, damage.sum(), healed.sum());
+        System.out.println(boss.getHealth() == expected && deaths.get() - revives.get() == (boss.isAlive() ? 0 : 1)
+                ? "✅ 沒有遺失任何一次傷害或治療，死亡與復活事件成對"
+                : "❌ 生命值或死亡事件與預期不一致");
+    }
+}
@@ -0,0 +1,93 @@
+/**
+ * CheckpointDemo - 存檔與分岔：從戰鬥中途的快照續打、分出上千個假設情境
+ */
+package com.rpg.demo;
+
+import com.rpg.archetype.ArchetypeRegistry;
+import com.rpg.core.BattleRandom;
+import com.rpg.core.Role;
+import com.rpg.sim.Battle;
+import com.rpg.sim.BattleSnapshot;
+import com.rpg.sim.SnapshotWriter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+public final class CheckpointDemo {
+    private CheckpointDemo() {
+    }
+
+    /**
+     * 雙方各 100 名的戰鬥打 5 回合後存檔（在背景寫檔，戰鬥不等待）並打完，
+     * 再從檔案還原一場全新的戰鬥接著打，確認結果與沒有中斷的戰鬥完全相同；
+     * 最後從同一個快照換上不同的亂數分岔出 forks 場，統計勝率
+     *
+     * @param forks 分岔的場數
+     */
+    public static void run(int forks) throws IOException {
+        ArchetypeRegistry archetypes = ArchetypeRegistry.defaults();
+        int perSide = 100;
+        // 還原時需要同樣組成的全新角色
+        Supplier<Role[]> teamA = () -> {
+            Role[] side = new Role[perSide];
+            for (int i = 0; i < perSide; i++) {
+                side[i] = archetypes.spawn(i % 2 == 0 ? "shieldSwordsman" : "magician");
+            }
+            return side;
+        };
+        Supplier<Role[]> teamB = () -> {
+            Role[] side = new Role[perSide];
+            for (int i = 0; i < perSide; i++) {
+                side[i] = archetypes.spawn(i % 2 == 0 ? "paladin" : "archer");
+            }
+            return side;
+        };
+
+        Battle battle = new Battle(teamA.get(), teamB.get(), new BattleRandom(6L));
+        battle.fight(5);
+        // 重複建立 1,000 次取平均（第一次包含類別載入）
+        BattleSnapshot snapshot = null;
+        long start = System.nanoTime();
+        for (int i = 0; i < 1_000; i++) {
+            snapshot = battle.snapshot();
+        }
+        double captureMicros = (System.nanoTime() - start) / 1_000 / 1e3;
+
+        Path checkpoint = Files.createTempFile("rpg-checkpoint", ".bin");
+        int winner;
+        CompletableFuture<Path> written;
+        try (SnapshotWriter writer = new SnapshotWriter()) {
+            written = writer.write(snapshot, checkpoint);
+            winner = battle.fight(Battle.DEFAULT_MAX_ROUNDS);
+        }
+        written.join();
+
+        // 模擬當機後從檔案續打
+        Battle resumed = BattleSnapshot.readFrom(checkpoint).restore(teamA.get(), teamB.get());
+        int resumedWinner = resumed.fight(Battle.DEFAULT_MAX_ROUNDS);
+        Files.delete(checkpoint);
+
+        System.out.printf("【存檔與分岔】%d vs %d，第 %d 回合存檔，快照 %,d bytes，建立耗時 %.1f µs%n",
+                perSide, perSide, snapshot.getRounds(), snapshot.size(), captureMicros);
+        System.out.println(winner == resumedWinner && battle.getRounds() == resumed.getRounds()
+                && battle.getDamageByA() == resumed.getDamageByA() && battle.getDamageByB() == resumed.getDamageByB()
+                ? "✅ 從檔案還原後續打的結果與沒有中斷的戰鬥完全相同（" + battle.getRounds() + " 回合）"
+                : "❌ 從檔案還原後續打的結果與沒有中斷的戰鬥不同");
+
+        // 同一個中途狀態，換不同的亂數各打一次
+        int[] wins = new int[3];
+        start = System.nanoTime();
+        for (int k = 0; k < forks; k++) {
+            Battle fork = snapshot.restore(teamA.get(), teamB.get(), BattleRandom.forBattle(7L, k));
+            int result = fork.fight(Battle.DEFAULT_MAX_ROUNDS);
+            wins[result == Battle.SIDE_A ? 0 : result == Battle.SIDE_B ? 1 : 2]++;
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("🔀 分岔 %,d 場：A 勝 %.1f%%，B 勝 %.1f%%，平手 %.1f%%%n",
+                forks, 100.0 * wins[0] / forks, 100.0 * wins[1] / forks, 100.0 * wins[2] / forks);
+        System.out.printf("⏱️  耗時 %.2f 秒，每場 %.2f ms%n", seconds, seconds * 1_000 / forks);
+    }
+}
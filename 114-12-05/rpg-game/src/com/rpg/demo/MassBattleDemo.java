@@ -0,0 +1,36 @@
+/**
+ * MassBattleDemo - 大規模戰鬥：用陣列引擎打一場雙方各數萬名的戰鬥
+ */
+package com.rpg.demo;
+
+import com.rpg.archetype.ArchetypeRegistry;
+import com.rpg.core.BattleRandom;
+import com.rpg.engine.ArrayBattleEngine;
+
+public final class MassBattleDemo {
+    private MassBattleDemo() {
+    }
+
+    /**
+     * 陣列引擎：雙方各 perSide 名（持盾劍士 + 聖騎士 對 魔法師 + 弓箭手）打到分出勝負
+     *
+     * @param perSide 每一方的人數
+     */
+    public static void run(int perSide) {
+        ArchetypeRegistry archetypes = ArchetypeRegistry.defaults();
+        ArrayBattleEngine engine = new ArrayBattleEngine(perSide * 2);
+        engine.addCopies(archetypes.spawn("shieldSwordsman"), ArrayBattleEngine.SIDE_A, perSide / 2);
+        engine.addCopies(archetypes.spawn("paladin"), ArrayBattleEngine.SIDE_A, perSide / 2);
+        engine.addCopies(archetypes.spawn("magician"), ArrayBattleEngine.SIDE_B, perSide / 2);
+        engine.addCopies(archetypes.spawn("archer"), ArrayBattleEngine.SIDE_B, perSide / 2);
+
+        long start = System.nanoTime();
+        int winner = engine.fight(new BattleRandom(1L), 1_000);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.println("【大規模戰鬥】" + perSide + " vs " + perSide + "，勝方："
+                + (winner == ArrayBattleEngine.SIDE_A ? "A" : winner == ArrayBattleEngine.SIDE_B ? "B" : "平手"));
+        System.out.printf("⏱️  耗時 %.2f 秒，A 總傷害 %,d，B 總傷害 %,d%n",
+                seconds, engine.getDamageByA(), engine.getDamageByB());
+    }
+}
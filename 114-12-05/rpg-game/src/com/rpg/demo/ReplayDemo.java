@@ -0,0 +1,55 @@
+/**
+ * ReplayDemo - 錄製重播檔，再用記憶體映射掃描
+ */
+package com.rpg.demo;
+
+import com.rpg.replay.ReplayReader;
+import com.rpg.replay.ReplayRecorder;
+import com.rpg.replay.ReplaySummary;
+import com.rpg.sim.BattleSimulator;
+import com.rpg.sim.SimulationResult;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public final class ReplayDemo {
+    private ReplayDemo() {
+    }
+
+    /**
+     * 用 simulator 錄下 recorded 場戰鬥，再用記憶體映射掃描一次，
+     * 確認重播檔的總傷害與模擬結果相同
+     *
+     * @param simulator 要錄製的模擬器
+     * @param recorded 錄製的場數
+     */
+    public static void run(BattleSimulator simulator, int recorded) throws IOException {
+        Path replayFile = Files.createTempFile("rpg-replay", ".bin");
+        SimulationResult live;
+        long records;
+        long start = System.nanoTime();
+        try (ReplayRecorder recorder = new ReplayRecorder(replayFile)) {
+            live = simulator.record(recorded, recorder);
+            records = recorder.getRecords();
+        }
+        double writeSeconds = (System.nanoTime() - start) / 1e9;
+
+        ReplaySummary summary = new ReplaySummary();
+        start = System.nanoTime();
+        try (ReplayReader reader = new ReplayReader(replayFile)) {
+            reader.scan(summary);
+        }
+        double scanSeconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.println("【重播檔】" + recorded + " 場，" + records + " 筆紀錄，"
+                + Files.size(replayFile) / 1024 + " KB");
+        System.out.print(summary);
+        System.out.printf("⏱️  錄製 %.2f 秒，掃描 %.2f 秒（約每秒 %,.0f 筆）%n",
+                writeSeconds, scanSeconds, records / scanSeconds);
+        System.out.println(summary.getTotalDamage() == live.getDamageByA() + live.getDamageByB()
+                ? "✅ 重播檔的總傷害與模擬結果一致"
+                : "❌ 重播檔的總傷害與模擬結果不一致");
+        Files.delete(replayFile);
+    }
+}
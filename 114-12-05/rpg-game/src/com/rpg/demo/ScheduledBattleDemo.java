@@ -0,0 +1,44 @@
+/**
+ * ScheduledBattleDemo - 依速度排程的大規模戰鬥
+ */
+package com.rpg.demo;
+
+import com.rpg.archetype.ArchetypeRegistry;
+import com.rpg.core.BattleRandom;
+import com.rpg.core.Role;
+import com.rpg.sched.ScheduledBattle;
+import com.rpg.sim.Battle;
+
+public final class ScheduledBattleDemo {
+    private ScheduledBattleDemo() {
+    }
+
+    /**
+     * 雙方各 perSide 名速度不同的物件角色，依速度排程輪流行動
+     *
+     * @param perSide 每一方的人數
+     */
+    public static void run(int perSide) {
+        ArchetypeRegistry archetypes = ArchetypeRegistry.defaults();
+        BattleRandom speedRandom = new BattleRandom(2L);
+        Role[] vanguard = new Role[perSide];
+        Role[] skirmishers = new Role[perSide];
+        for (int i = 0; i < perSide; i++) {
+            vanguard[i] = archetypes.spawn(i % 2 == 0 ? "shieldSwordsman" : "paladin");
+            skirmishers[i] = archetypes.spawn(i % 2 == 0 ? "magician" : "archer");
+            vanguard[i].setSpeed(60 + speedRandom.nextInt(60));
+            skirmishers[i].setSpeed(90 + speedRandom.nextInt(60));
+        }
+        ScheduledBattle scheduled = new ScheduledBattle(vanguard, skirmishers, new BattleRandom(3L));
+
+        long start = System.nanoTime();
+        int winner = scheduled.fight(ScheduledBattle.DEFAULT_MAX_ACTIONS);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.println("【速度排程戰鬥】" + perSide + " vs " + perSide + "，勝方："
+                + (winner == Battle.SIDE_A ? "A" : winner == Battle.SIDE_B ? "B" : "平手")
+                + "，存活 " + scheduled.getAliveA() + " / " + scheduled.getAliveB());
+        System.out.printf("⏱️  耗時 %.2f 秒，共 %,d 次行動，約每秒 %,.0f 次%n",
+                seconds, scheduled.getActions(), scheduled.getActions() / seconds);
+    }
+}
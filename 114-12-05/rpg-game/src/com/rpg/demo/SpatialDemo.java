@@ -0,0 +1,74 @@
+/**
+ * SpatialDemo - 空間索引：上萬個單位的戰場上查詢射程內的敵人
+ */
+package com.rpg.demo;
+
+import com.rpg.archetype.ArchetypeRegistry;
+import com.rpg.core.BattleRandom;
+import com.rpg.core.Role;
+import com.rpg.roles.ranged.RangedRole;
+import com.rpg.spatial.SpatialGrid;
+
+public final class SpatialDemo {
+    private SpatialDemo() {
+    }
+
+    /**
+     * 在 500 × 500 的戰場上隨機放置雙方各 perSide 名單位，
+     * 每個遠程單位用格網查詢射程內的近戰敵人，再與逐一比對全部敵人的結果核對；
+     * 之後所有近戰單位隨機走幾步（增量更新索引），再查詢一次
+     *
+     * @param perSide 每一方的單位數
+     */
+    public static void run(int perSide) {
+        ArchetypeRegistry archetypes = ArchetypeRegistry.defaults();
+        int size = 500;
+        BattleRandom random = new BattleRandom(4L);
+        Role[] melee = new Role[perSide];
+        RangedRole[] ranged = new RangedRole[perSide];
+        // 格子邊長取最遠的射程（弓箭手 10），查詢時最多只看 3 × 3 格
+        SpatialGrid enemies = new SpatialGrid(size, size, 10, perSide);
+        for (int i = 0; i < perSide; i++) {
+            melee[i] = archetypes.spawn(i % 2 == 0 ? "shieldSwordsman" : "paladin");
+            melee[i].setId(i);
+            melee[i].setPosition(random.nextInt(size), random.nextInt(size));
+            enemies.add(melee[i]);
+            ranged[i] = (RangedRole) archetypes.spawn(i % 2 == 0 ? "magician" : "archer");
+            ranged[i].setPosition(random.nextInt(size), random.nextInt(size));
+        }
+
+        Role[] buffer = new Role[64];
+        long indexed = 0;
+        long scanned = 0;
+        double indexedSeconds = 0;
+        double scanSeconds = 0;
+        for (int pass = 0; pass < 2; pass++) {
+            if (pass == 1) {
+                // 每個近戰單位往隨機方向走 0 ~ 3 格
+                for (Role role : melee) {
+                    enemies.move(role, role.getX() + random.nextInt(7) - 3, role.getY() + random.nextInt(7) - 3);
+                }
+            }
+            long start = System.nanoTime();
+            for (RangedRole shooter : ranged) {
+                indexed += enemies.collectWithin(shooter.getX(), shooter.getY(), shooter.getRange(), buffer);
+            }
+            indexedSeconds += (System.nanoTime() - start) / 1e9;
+
+            start = System.nanoTime();
+            for (RangedRole shooter : ranged) {
+                for (Role target : melee) {
+                    if (shooter.isInRange(target)) scanned++;
+                }
+            }
+            scanSeconds += (System.nanoTime() - start) / 1e9;
+        }
+
+        System.out.println("【空間索引】" + perSide + " 名遠程單位 × " + perSide + " 名近戰敵人，查詢兩輪（中間所有敵人移動一次）");
+        System.out.printf("⏱️  格網 %.2f ms，逐一比對 %.2f ms，射程內目標共 %,d 個%n",
+                indexedSeconds * 1e3, scanSeconds * 1e3, indexed);
+        System.out.println(indexed == scanned
+                ? "✅ 格網查詢與逐一比對的結果一致"
+                : "❌ 格網查詢與逐一比對的結果不一致（" + scanned + "）");
+    }
+}
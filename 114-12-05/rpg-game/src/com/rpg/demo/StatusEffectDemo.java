@@ -0,0 +1,119 @@
+/**
+ * StatusEffectDemo - 狀態效果：技能的暈眩與灼燒，以及上萬個效果的時間輪
+ */
+package com.rpg.demo;
+
+import com.rpg.archetype.ArchetypeRegistry;
+import com.rpg.core.BattleRandom;
+import com.rpg.core.EffectType;
+import com.rpg.core.Role;
+import com.rpg.effect.EffectEngine;
+import com.rpg.effect.StatusEffect;
+import com.rpg.roles.melee.Paladin;
+import com.rpg.roles.melee.ShieldSwordsMan;
+
+public final class StatusEffectDemo {
+    private StatusEffectDemo() {
+    }
+
+    /**
+     * 一萬個單位各自身上有好幾個不同長度的狀態效果，一直前進到全部結束
+     * 和「每回合掃過所有效果」的做法比較要處理的次數與時間
+     *
+     * @param units 單位數
+     */
+    public static void run(int units) {
+        ArchetypeRegistry archetypes = ArchetypeRegistry.defaults();
+
+        // 技能：盾牌猛擊暈眩 2 回合、神聖審判的聖光灼燒持續 3 回合
+        ShieldSwordsMan guard = (ShieldSwordsMan) archetypes.spawn("shieldSwordsman");
+        Paladin paladin = (Paladin) archetypes.spawn("paladin");
+        Role orc = archetypes.spawn("swordsman");
+        EffectEngine skills = new EffectEngine();
+        guard.shieldBash(orc, skills);
+        paladin.holyJudgment(orc, skills);
+        int stunnedTicks = 0;
+        int healthAfterHits = orc.getHealth();
+        while (skills.size() > 0) {
+            if (orc.isStunned()) stunnedTicks++;
+            skills.tick();
+        }
+        System.out.println("【狀態效果】" + orc.getName() + " 被盾牌猛擊暈眩 " + stunnedTicks
+                + " 回合，神聖審判的灼燒再造成 " + (healthAfterHits - orc.getHealth()) + " 點傷害");
+
+        // 每個單位：持續傷害、再生（每 5 ~ 10 回合觸發一次）、護盾、暈眩各一個，長度隨機
+        BattleRandom random = new BattleRandom(5L);
+        EffectEngine effects = new EffectEngine();
+        int count = units * 4;
+        Role[] targets = new Role[count];
+        long[] starts = new long[count];
+        long[] ends = new long[count];
+        int[] periods = new int[count];
+        // 每次觸發的生命值變動：持續傷害為負、再生為正
+        int[] deltas = new int[count];
+        int n = 0;
+        for (int i = 0; i < units; i++) {
+            Role unit = archetypes.spawn("paladin");
+            unit.setHealth(1_000_000);
+            StatusEffect[] applied = {
+                    effects.damageOverTime(unit, 1, 5 + random.nextInt(6), 1 + random.nextInt(2_000)),
+                    effects.regen(unit, 2, 5 + random.nextInt(6), 1 + random.nextInt(2_000)),
+                    effects.shield(unit, 30, 1 + random.nextInt(2_000)),
+                    effects.stun(unit, 1 + random.nextInt(100))
+            };
+            for (StatusEffect effect : applied) {
+                targets[n] = unit;
+                starts[n] = effect.getStartTick();
+                ends[n] = effect.getEndTick();
+                periods[n] = effect.getPeriod();
+                deltas[n] = effect.getType() == EffectType.DAMAGE_OVER_TIME ? -effect.getMagnitude() : effect.getMagnitude();
+                n++;
+            }
+        }
+
+        long start = System.nanoTime();
+        int ticks = 0;
+        while (effects.size() > 0) {
+            effects.tick();
+            ticks++;
+        }
+        double wheelSeconds = (System.nanoTime() - start) / 1e9;
+
+        // 對照組：每回合掃過所有還沒結束的效果，逐一檢查是否要觸發或到期（觸發時同樣扣血 / 回血）
+        start = System.nanoTime();
+        long scanned = 0;
+        long scanEvents = 0;
+        int remaining = count;
+        for (long now = 1; remaining > 0; now++) {
+            for (int e = 0; e < remaining; e++) {
+                scanned++;
+                if (periods[e] > 0 && (now - starts[e]) % periods[e] == 0) {
+                    scanEvents++;
+                    if (deltas[e] < 0) {
+                        targets[e].takeTrueDamage(-deltas[e]);
+                    } else {
+                        targets[e].addHealth(deltas[e]);
+                    }
+                }
+                if (now == ends[e]) {
+                    scanEvents++;
+                    remaining--;
+                    starts[e] = starts[remaining];
+                    ends[e] = ends[remaining];
+                    targets[e] = targets[remaining];
+                    periods[e] = periods[remaining];
+                    deltas[e] = deltas[remaining];
+                    e--;
+                }
+            }
+        }
+        double scanSeconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.println("【狀態效果】" + units + " 個單位 × 4 個效果，前進 " + ticks + " 回合直到全部結束");
+        System.out.printf("⏱️  時間輪 %.2f ms 處理 %,d 個事件；逐一掃描 %.2f ms、檢查 %,d 次%n",
+                wheelSeconds * 1e3, effects.getEvents(), scanSeconds * 1e3, scanned);
+        System.out.println(effects.getEvents() == scanEvents
+                ? "✅ 時間輪與逐一掃描處理的事件數一致"
+                : "❌ 時間輪與逐一掃描處理的事件數不一致（" + scanEvents + "）");
+    }
+}
@@ -0,0 +1,48 @@
+/**
+ * TournamentDemo - 循環賽：五個職業兩兩對戰的 A 方勝率矩陣
+ */
+package com.rpg.demo;
+
+import com.rpg.archetype.ArchetypeRegistry;
+import com.rpg.sim.RoleSpec;
+import com.rpg.sim.Tournament;
+import com.rpg.sim.TournamentResult;
+
+import java.util.List;
+
+public final class TournamentDemo {
+    private TournamentDemo() {
+    }
+
+    /**
+     * 五個職業的循環賽名單（自動平衡的展示也用同樣的顯示名稱）
+     * @param archetypes 角色原型
+     */
+    public static List<RoleSpec> roster(ArchetypeRegistry archetypes) {
+        return List.of(
+                new RoleSpec("劍士", archetypes.factory("swordsman")),
+                new RoleSpec("持盾劍士", archetypes.factory("shieldSwordsman")),
+                new RoleSpec("聖騎士", archetypes.factory("paladin")),
+                new RoleSpec("魔法師", archetypes.factory("magician")),
+                new RoleSpec("弓箭手", archetypes.factory("archer")));
+    }
+
+    /**
+     * 5 × 5 職業對戰矩陣，每組在多個核心上平行模擬
+     *
+     * @param roster 循環賽的名單
+     * @param perMatchup 每組的場數
+     */
+    public static void run(List<RoleSpec> roster, int perMatchup) {
+        Tournament tournament = new Tournament(roster, perMatchup);
+
+        long start = System.nanoTime();
+        TournamentResult matrix = tournament.run();
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.println("【循環賽 A 方勝率】每組 " + perMatchup + " 場，使用 "
+                + Runtime.getRuntime().availableProcessors() + " 個核心");
+        System.out.print(matrix);
+        System.out.printf("⏱️  耗時 %.2f 秒，約每分鐘 %,.0f 場%n", seconds, matrix.getTotalBattles() / seconds * 60);
+    }
+}
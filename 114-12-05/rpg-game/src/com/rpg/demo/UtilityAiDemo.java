@@ -0,0 +1,68 @@
+/**
+ * UtilityAiDemo - 效用 AI：依狀況決定防禦 / 治療 / 攻擊，決策依量化後的狀況快取
+ */
+package com.rpg.demo;
+
+import com.rpg.action.ActionPolicy;
+import com.rpg.ai.UtilityAI;
+import com.rpg.archetype.ArchetypeRegistry;
+import com.rpg.core.Role;
+import com.rpg.sim.BattleSimulator;
+import com.rpg.sim.SimulationResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+public final class UtilityAiDemo {
+    private UtilityAiDemo() {
+    }
+
+    /**
+     * 同一組對戰先用預設的機率策略、再改用 UtilityAI 各跑一次（相同種子），
+     * 比較勝率並列出決策快取的命中率與淘汰數；結束後換回預設策略
+     *
+     * @param battles 每種策略的場數
+     */
+    public static void run(int battles) {
+        ArchetypeRegistry archetypes = ArchetypeRegistry.defaults();
+        List<Supplier<? extends Role>> support = List.of(
+                archetypes.factory("paladin"),
+                archetypes.factory("shieldSwordsman"),
+                archetypes.factory("magician"));
+        List<Supplier<? extends Role>> strikers = List.of(
+                archetypes.factory("swordsman"),
+                archetypes.factory("archer"),
+                archetypes.factory("archer"));
+        BattleSimulator simulator = new BattleSimulator(support, strikers);
+        simulator.setSeed(24L);
+        SimulationResult baseline = simulator.run(battles);
+
+        // 只換 A 方的職業（B 方的職業不會防禦也不會治療）
+        UtilityAI ai = new UtilityAI();
+        List<Role> prototypes = List.of(archetypes.spawn("paladin"), archetypes.spawn("shieldSwordsman"),
+                archetypes.spawn("magician"));
+        List<ActionPolicy> defaults = new ArrayList<>();
+        for (Role prototype : prototypes) {
+            defaults.add(ActionPolicy.forRole(prototype));
+            ActionPolicy.register(prototype.getClass(), ai.policyFor(prototype));
+        }
+        try {
+            long start = System.nanoTime();
+            SimulationResult smart = simulator.run(battles);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            System.out.println("【效用 AI】聖騎士 + 持盾劍士 + 魔法師 (A) vs 劍士 + 弓箭手 × 2 (B)，各 " + battles + " 場");
+            System.out.printf("🎲 機率策略：A 勝 %.2f%%，平均 %.2f 回合%n",
+                    baseline.getWinRateA() * 100, baseline.getAverageRounds());
+            System.out.printf("🧠 效用 AI：A 勝 %.2f%%，平均 %.2f 回合%n",
+                    smart.getWinRateA() * 100, smart.getAverageRounds());
+            System.out.println("📦 " + ai);
+            System.out.printf("⏱️  耗時 %.2f 秒%n", seconds);
+        } finally {
+            for (int i = 0; i < prototypes.size(); i++) {
+                ActionPolicy.register(prototypes.get(i).getClass(), defaults.get(i));
+            }
+        }
+    }
+}
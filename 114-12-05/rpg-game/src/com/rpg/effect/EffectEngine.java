@@ -0,0 +1,183 @@
+/**
+ * EffectEngine - 狀態效果引擎（暈眩、持續傷害、護盾、再生）
+ *
+ * 為什麼需要？
+ * - 持盾劍士的「盾牌猛擊」寫著「造成傷害並暈眩」、聖騎士的「神聖審判」是持續的神聖傷害，
+ *   但角色身上沒有任何「持續一段時間」的狀態，技能只能停留在 showSpecialSkill 的說明文字
+ * - 效果一多（一萬個單位、每個身上好幾個效果），每回合逐一檢查是否到期就變成主要成本
+ *
+ * 設計說明：
+ * - 效果的時間以「回合」計算，呼叫 tick() 前進一回合；由戰鬥迴圈決定什麼時候算一回合
+ * - 所有效果排在一個階層式時間輪（TimingWheel）上，tick() 只處理這一回合到期或要觸發的效果，
+ *   成本是 O(到期的效果)，不是 O(全部效果)
+ * - 持續效果（持續傷害、再生）每 period 回合觸發一次，觸發後重新排到下一次（或到期）的回合
+ * - 效果作用在 Role 的狀態上：暈眩用 Role.addStun / removeStun 計數，護盾用 Role.addShield，
+ *   持續傷害走 Role.takeTrueDamage（不經過護甲，但會先扣護盾），再生走 Role.addHealth
+ * - 套用與結束時通知目標的監聽器（onEffectApplied / onEffectExpired）
+ * - 持續效果的目標已經倒下時，效果在下一次觸發時直接結束
+ * - 護盾到期時只移除這個效果還剩下的部分（最多 magnitude 點，已經被打掉的不會重複扣）
+ * - 不是執行緒安全的：與戰鬥一樣只由一條執行緒使用
+ *
+ * 使用範例：
+ *   EffectEngine effects = new EffectEngine();
+ *   shieldSwordsMan.shieldBash(orc, effects);     // 暈眩 2 回合
+ *   effects.regen(magician, 4, 1, 5);             // 每回合回 4 點，持續 5 回合
+ *   while (battleGoesOn) { ...; effects.tick(); }
+ */
+package com.rpg.effect;
+
+import com.rpg.core.EffectType;
+import com.rpg.core.Role;
+
+public class EffectEngine {
+    private final TimingWheel wheel = new TimingWheel();
+    // 累計處理過的事件數（觸發與到期）
+    private long events;
+
+    /**
+     * 暈眩：duration 回合內無法行動
+     * @param target 目標
+     * @param duration 持續回合數
+     */
+    public StatusEffect stun(Role target, int duration) {
+        return apply(EffectType.STUN, target, 0, 0, duration);
+    }
+
+    /**
+     * 持續傷害：每 period 回合受到一次 damage 點真實傷害，持續 duration 回合
+     */
+    public StatusEffect damageOverTime(Role target, int damage, int period, int duration) {
+        requirePositive(damage, "傷害");
+        requirePositive(period, "觸發間隔");
+        return apply(EffectType.DAMAGE_OVER_TIME, target, damage, period, duration);
+    }
+
+    /**
+     * 護盾：獲得 amount 點護盾，duration 回合後移除剩下的部分
+     */
+    public StatusEffect shield(Role target, int amount, int duration) {
+        requirePositive(amount, "護盾值");
+        return apply(EffectType.SHIELD, target, amount, 0, duration);
+    }
+
+    /**
+     * 再生：每 period 回合恢復 heal 點生命值，持續 duration 回合
+     */
+    public StatusEffect regen(Role target, int heal, int period, int duration) {
+        requirePositive(heal, "治療量");
+        requirePositive(period, "觸發間隔");
+        return apply(EffectType.REGEN, target, heal, period, duration);
+    }
+
+    private static void requirePositive(int value, String name) {
+        if (value <= 0) {
+            throw new IllegalArgumentException(name + "必須大於 0：" + value);
+        }
+    }
+
+    private StatusEffect apply(EffectType type, Role target, int magnitude, int period, int duration) {
+        if (duration <= 0 || duration >= TimingWheel.MAX_DELAY) {
+            throw new IllegalArgumentException("持續回合數必須介於 1 ~ " + (TimingWheel.MAX_DELAY - 1) + "：" + duration);
+        }
+        long now = wheel.now();
+        StatusEffect effect = new StatusEffect(type, target, magnitude, period, now, now + duration);
+        effect.due = period > 0 ? Math.min(now + period, effect.getEndTick()) : effect.getEndTick();
+        wheel.schedule(effect);
+
+        if (type == EffectType.STUN) {
+            target.addStun();
+        } else if (type == EffectType.SHIELD) {
+            target.addShield(magnitude);
+        }
+        target.getListener().onEffectApplied(target, type, magnitude, duration);
+        return effect;
+    }
+
+    /**
+     * 提早移除效果（例如驅散），已經結束的效果會被忽略
+     * @return 效果原本是否還在作用中
+     */
+    public boolean cancel(StatusEffect effect) {
+        if (!effect.active) return false;
+        wheel.cancel(effect);
+        expire(effect);
+        return true;
+    }
+
+    /**
+     * 前進一回合：觸發這一回合的持續效果、結束到期的效果
+     * @return 這一回合處理的事件數（觸發與到期各算一次）
+     */
+    public int tick() {
+        int processed = 0;
+        StatusEffect e = wheel.advance();
+        while (e != null) {
+            StatusEffect next = e.next;
+            e.next = null;
+            processed += fire(e);
+            e = next;
+        }
+        events += processed;
+        return processed;
+    }
+
+    // 處理一個到了時間的效果，回傳事件數
+    private int fire(StatusEffect effect) {
+        long now = wheel.now();
+        Role target = effect.getTarget();
+        int processed = 0;
+        // 還沒到期就一定是持續效果的觸發；到期那一回合要看是否剛好落在觸發間隔上
+        boolean periodic = now < effect.getEndTick()
+                || (effect.getPeriod() > 0 && (now - effect.getStartTick()) % effect.getPeriod() == 0);
+        if (periodic) {
+            if (!target.isAlive()) {
+                expire(effect);
+                return 1;
+            }
+            if (effect.getType() == EffectType.DAMAGE_OVER_TIME) {
+                target.takeTrueDamage(effect.getMagnitude());
+            } else {
+                int healed = target.addHealth(effect.getMagnitude());
+                // 再生視為角色治療自己
+                target.getListener().onHeal(target, target, healed - effect.getMagnitude(), healed);
+            }
+            processed++;
+        }
+
+        if (now >= effect.getEndTick() || (effect.getPeriod() > 0 && !target.isAlive())) {
+            expire(effect);
+            return processed + 1;
+        }
+        effect.due = Math.min(now + effect.getPeriod(), effect.getEndTick());
+        wheel.schedule(effect);
+        return processed;
+    }
+
+    // 結束效果：撤銷效果對角色的影響並通知監聽器
+    private void expire(StatusEffect effect) {
+        effect.active = false;
+        Role target = effect.getTarget();
+        if (effect.getType() == EffectType.STUN) {
+            target.removeStun();
+        } else if (effect.getType() == EffectType.SHIELD) {
+            // 剩下的護盾比效果給的少時（已經吸收過傷害），addShield 會停在 0
+            target.addShield(-effect.getMagnitude());
+        }
+        target.getListener().onEffectExpired(target, effect.getType());
+    }
+
+    // 目前的回合
+    public long now() {
+        return wheel.now();
+    }
+
+    // 作用中的效果數
+    public int size() {
+        return wheel.size();
+    }
+
+    // 累計處理過的事件數
+    public long getEvents() {
+        return events;
+    }
+}
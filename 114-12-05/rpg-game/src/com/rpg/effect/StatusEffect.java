@@ -0,0 +1,85 @@
+/**
+ * StatusEffect - 套在角色身上的一個狀態效果
+ *
+ * 由 EffectEngine 建立（stun / damageOverTime / shield / regen），
+ * 呼叫端拿到這個物件後可以用 EffectEngine.cancel 提早移除效果。
+ *
+ * 設計說明：
+ * - 效果本身就是時間輪上的節點（prev / next），排程與取消都不需要另外配置物件
+ * - 持續效果（持續傷害、再生）每 period 回合觸發一次；暈眩與護盾只在套用與到期時有動作
+ */
+package com.rpg.effect;
+
+import com.rpg.core.EffectType;
+import com.rpg.core.Role;
+
+public final class StatusEffect {
+    private final EffectType type;
+    private final Role target;
+    // 每次傷害 / 治療量，或護盾值（暈眩為 0）
+    private final int magnitude;
+    // 觸發間隔（回合），只有持續效果大於 0
+    private final int period;
+    // 套用時的回合與到期的回合
+    private final long startTick;
+    private final long endTick;
+
+    // ========== 時間輪使用的欄位（由 TimingWheel 管理） ==========
+    // 下一次要處理的回合（持續效果的下一次觸發，或到期）
+    long due;
+    StatusEffect prev;
+    StatusEffect next;
+    // 所在的桶子（層 × 64 + 槽），-1 代表不在時間輪上
+    int bucket = -1;
+    // 效果是否還在作用中
+    boolean active = true;
+
+    StatusEffect(EffectType type, Role target, int magnitude, int period, long startTick, long endTick) {
+        this.type = type;
+        this.target = target;
+        this.magnitude = magnitude;
+        this.period = period;
+        this.startTick = startTick;
+        this.endTick = endTick;
+    }
+
+    // 取得效果種類
+    public EffectType getType() {
+        return type;
+    }
+
+    // 取得被套上效果的角色
+    public Role getTarget() {
+        return target;
+    }
+
+    // 取得效果強度
+    public int getMagnitude() {
+        return magnitude;
+    }
+
+    // 取得觸發間隔（非持續效果為 0）
+    public int getPeriod() {
+        return period;
+    }
+
+    // 取得套用時的回合
+    public long getStartTick() {
+        return startTick;
+    }
+
+    // 取得到期的回合
+    public long getEndTick() {
+        return endTick;
+    }
+
+    // 效果是否還在作用中（到期或被取消後為 false）
+    public boolean isActive() {
+        return active;
+    }
+
+    @Override
+    public String toString() {
+        return type + " → " + target.getName() + "（強度 " + magnitude + "，回合 " + startTick + " ~ " + endTick + "）";
+    }
+}
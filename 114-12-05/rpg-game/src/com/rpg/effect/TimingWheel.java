@@ -0,0 +1,134 @@
+/**
+ * TimingWheel - 階層式時間輪（EffectEngine 內部使用）
+ *
+ * 為什麼需要？
+ * - 每回合掃過所有效果檢查是否到期，一萬個單位、每個身上好幾個效果時，
+ *   絕大部分的檢查都是白做的（效果還沒到期）
+ *
+ * 設計說明：
+ * - 4 層，每層 64 個槽：第 0 層每槽 1 回合、第 1 層每槽 64 回合、第 2 層 4096 回合、第 3 層 262144 回合，
+ *   最多可以排到 2^24 回合之後
+ * - 依「距離現在還有幾回合」決定放在哪一層，依到期回合的對應位元決定放在哪一槽
+ * - 每前進一回合只取出第 0 層目前這一槽；每 64 回合把上一層的一個槽「降級」重新分配到下層
+ *   （與 Linux 核心計時器相同的做法），所以每回合的成本是 O(到期的效果 + 被降級的效果)，與效果總數無關
+ * - 槽是雙向鏈結串列，節點就是 StatusEffect 本身：排程、取消都是 O(1)，不配置任何物件
+ * - 不是執行緒安全的
+ */
+package com.rpg.effect;
+
+final class TimingWheel {
+    // 每層的位元數與槽數
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    // 可以排程的最大延遲（不含）
+    static final long MAX_DELAY = 1L << (BITS * LEVELS);
+
+    // 每個桶子（層 × 64 + 槽）的串列開頭
+    private final StatusEffect[] heads = new StatusEffect[LEVELS * SLOTS];
+    // 目前的回合
+    private long now;
+    // 時間輪上的效果數
+    private int size;
+
+    // 目前的回合
+    long now() {
+        return now;
+    }
+
+    // 時間輪上的效果數
+    int size() {
+        return size;
+    }
+
+    /**
+     * 依 effect.due 排程（due 必須晚於目前的回合）
+     * @throws IllegalArgumentException 已經到期或超過 MAX_DELAY
+     */
+    void schedule(StatusEffect effect) {
+        long delay = effect.due - now;
+        if (delay <= 0 || delay >= MAX_DELAY) {
+            throw new IllegalArgumentException("排程的回合必須在 1 ~ " + (MAX_DELAY - 1) + " 回合之後：" + delay);
+        }
+        place(effect);
+        size++;
+    }
+
+    // 從時間輪上移除（不在時間輪上則忽略）
+    void cancel(StatusEffect effect) {
+        if (effect.bucket < 0) return;
+        unlink(effect);
+        size--;
+    }
+
+    /**
+     * 前進一回合
+     * @return 這一回合到期的效果（以 next 串起來的單向串列，已經從時間輪上移除；沒有則為 null）
+     */
+    StatusEffect advance() {
+        now++;
+        // 每 64 回合把上一層對應的槽降級；該層的槽也剛好繞回 0 時，再往上一層
+        if ((now & MASK) == 0) {
+            for (int level = 1; level < LEVELS; level++) {
+                int slot = (int) (now >>> (BITS * level)) & MASK;
+                cascade(level * SLOTS + slot);
+                if (slot != 0) break;
+            }
+        }
+
+        int bucket = (int) now & MASK;
+        StatusEffect expired = heads[bucket];
+        heads[bucket] = null;
+        for (StatusEffect e = expired; e != null; e = e.next) {
+            e.bucket = -1;
+            e.prev = null;
+            size--;
+        }
+        return expired;
+    }
+
+    // 把一個桶子的效果依剩下的回合數重新分配到較低的層
+    private void cascade(int bucket) {
+        StatusEffect e = heads[bucket];
+        heads[bucket] = null;
+        while (e != null) {
+            StatusEffect next = e.next;
+            place(e);
+            e = next;
+        }
+    }
+
+    // 依剩下的回合數放進對應的桶子（降級時 due 可能正好是這一回合，會放進馬上要取出的槽）
+    private void place(StatusEffect effect) {
+        long due = effect.due;
+        long delay = due - now;
+        int level = 0;
+        while (level < LEVELS - 1 && delay >= 1L << (BITS * (level + 1))) {
+            level++;
+        }
+        int bucket = level * SLOTS + ((int) (due >>> (BITS * level)) & MASK);
+        StatusEffect head = heads[bucket];
+        effect.prev = null;
+        effect.next = head;
+        if (head != null) {
+            head.prev = effect;
+        }
+        heads[bucket] = effect;
+        effect.bucket = bucket;
+    }
+
+    private void unlink(StatusEffect effect) {
+        if (effect.prev != null) {
+            effect.prev.next = effect.next;
+        } else {
+            heads[effect.bucket] = effect.next;
+        }
+        if (effect.next != null) {
+            effect.next.prev = effect.prev;
+        }
+        effect.prev = null;
+        effect.next = null;
+        effect.bucket = -1;
+    }
+}
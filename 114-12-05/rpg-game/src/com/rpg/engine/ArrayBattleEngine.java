@@ -0,0 +1,516 @@
+/**
+ * ArrayBattleEngine - 資料導向（Structure of Arrays）的大規模戰鬥引擎
+ *
+ * 為什麼需要另一套引擎？
+ * - 物件導向版本每個角色都是一個物件，攻擊、受傷都要經過好幾層虛擬方法呼叫
+ * - 十萬個單位的戰鬥中，物件分散在記憶體各處，CPU 快取幾乎沒有作用
+ *
+ * 設計說明：
+ * - 每個屬性一個基本型別陣列（health[]、armor[]、energy[]...），單位編號就是陣列索引
+ * - 規則與角色類別完全相同：
+ *   MeleeRole.calculateDefense、ShieldSwordsMan.attack（單手持劍的攻擊力減少）、
+ *   Paladin 的聖能消耗、Magician / Archer 的能量與箭矢...
+ * - 各種消耗與恢復量在 add() 時從角色的 RoleStats 複製到每個單位自己的陣列，
+ *   原型定義檔或平衡調整改過的數值與物件版本一樣生效
+ * - 單一動作（attack / defend / heal / afterBattle）可以逐步對照物件版本
+ * - runRound() 把一回合拆成幾個階段，每個階段都是簡單的陣列迴圈，
+ *   讓 JIT 有機會自動向量化
+ *
+ * 與物件版本的差異：
+ * - runRound() 是「同時結算」：所有單位先決定動作，再一次結算治療與傷害
+ * - 所以整場戰鬥的結果與 Battle 不會逐場相同，但每一個動作的規則相同
+ *   （由 test 目錄的 EngineConformance 驗證）
+ */
+package com.rpg.engine;
+
+import com.rpg.core.BattleRandom;
+import com.rpg.core.Role;
+import com.rpg.core.RoleStats;
+import com.rpg.roles.melee.MeleeRole;
+import com.rpg.roles.melee.Paladin;
+import com.rpg.roles.melee.ShieldSwordsMan;
+import com.rpg.roles.melee.SwordsMan;
+import com.rpg.roles.ranged.Archer;
+import com.rpg.roles.ranged.Magician;
+import com.rpg.roles.ranged.RangedRole;
+
+public class ArrayBattleEngine {
+    // 兵種代碼
+    public static final byte SWORDSMAN = 0;
+    public static final byte SHIELD_SWORDSMAN = 1;
+    public static final byte PALADIN = 2;
+    public static final byte MAGICIAN = 3;
+    public static final byte ARCHER = 4;
+
+    // 勝負結果（與 Battle 相同）
+    public static final int SIDE_A = 0;
+    public static final int SIDE_B = 1;
+    public static final int DRAW = -1;
+
+    // 動作失敗（能量、聖能、箭矢不足）
+    static final int FAILED = Integer.MIN_VALUE;
+
+    private int size;
+
+    // ========== 每個單位的屬性（索引 = 單位編號） ==========
+    private final byte[] kind;
+    private final byte[] side;
+    private final int[] health;
+    private final int[] attackPower;
+    private final int[] armor;
+    // 受傷下限：近戰角色 0（護甲最多擋到 0），遠程角色不限制
+    private final int[] damageFloor;
+    private final int[] defenseCapacity;
+    private final int[] healPower;
+    private final int[] energy;
+    private final int[] maxEnergy;
+    private final int[] arrows;
+    private final int[] maxArrows;
+    private final int[] holyPower;
+    private final int[] maxHolyPower;
+    // 動作的消耗（來自 RoleStats，沒有該動作的單位為 0）
+    private final int[] attackPenalty;
+    private final int[] attackEnergyCost;
+    private final int[] healEnergyCost;
+    private final int[] holyDefendCost;
+    private final int[] holyHealCost;
+    private final int[] holyOnHit;
+    // 每回合結束時恢復的量（沒有該資源的單位為 0）
+    private final int[] energyRegen;
+    private final int[] arrowRegen;
+    private final int[] holyRegen;
+
+    // ========== runRound() 重複使用的工作陣列 ==========
+    private final int[] aliveA;
+    private final int[] aliveB;
+    private final int[] healIn;
+    private final int[] hitAttacker;
+    private final int[] hitTarget;
+    private final int[] hitDamage;
+
+    // 雙方造成的總傷害
+    private long damageByA;
+    private long damageByB;
+
+    /**
+     * 建構子
+     * @param capacity 最多可容納的單位數
+     */
+    public ArrayBattleEngine(int capacity) {
+        kind = new byte[capacity];
+        side = new byte[capacity];
+        health = new int[capacity];
+        attackPower = new int[capacity];
+        armor = new int[capacity];
+        damageFloor = new int[capacity];
+        defenseCapacity = new int[capacity];
+        healPower = new int[capacity];
+        energy = new int[capacity];
+        maxEnergy = new int[capacity];
+        arrows = new int[capacity];
+        maxArrows = new int[capacity];
+        holyPower = new int[capacity];
+        maxHolyPower = new int[capacity];
+        attackPenalty = new int[capacity];
+        attackEnergyCost = new int[capacity];
+        healEnergyCost = new int[capacity];
+        holyDefendCost = new int[capacity];
+        holyHealCost = new int[capacity];
+        holyOnHit = new int[capacity];
+        energyRegen = new int[capacity];
+        arrowRegen = new int[capacity];
+        holyRegen = new int[capacity];
+
+        aliveA = new int[capacity];
+        aliveB = new int[capacity];
+        healIn = new int[capacity];
+        // 每個單位每回合最多一次攻擊
+        hitAttacker = new int[capacity];
+        hitTarget = new int[capacity];
+        hitDamage = new int[capacity];
+    }
+
+    /**
+     * 從物件版本的角色複製目前狀態，加入一個單位
+     * @param role 角色
+     * @param side SIDE_A 或 SIDE_B
+     * @return 單位編號
+     */
+    public int add(Role role, int side) {
+        // 先分派到確切的職業（不支援的類別在這裡就丟出例外，不會留下半個單位）
+        int id = size;
+        RoleStats stats = role.getStats();
+        if (role instanceof MeleeRole melee) {
+            kind[id] = addMelee(melee, id, stats);
+        } else if (role instanceof RangedRole ranged) {
+            kind[id] = addRanged(ranged, id, stats);
+        } else {
+            throw new IllegalArgumentException("不支援的角色類別：" + role.getClass().getSimpleName());
+        }
+        size++;
+        this.side[id] = (byte) side;
+        health[id] = role.getHealth();
+        attackPower[id] = role.getAttackPower();
+        damageFloor[id] = Integer.MIN_VALUE;
+
+        if (role instanceof MeleeRole) {
+            armor[id] = ((MeleeRole) role).getArmor();
+            damageFloor[id] = 0;
+        }
+        if (role instanceof RangedRole) {
+            RangedRole ranged = (RangedRole) role;
+            energy[id] = ranged.getEnergy();
+            maxEnergy[id] = ranged.getMaxEnergy();
+            energyRegen[id] = stats.getEnergyRecovery();
+        }
+        return id;
+    }
+
+    // 近戰職業特有的狀態（sealed，不寫 default，新增職業沒處理時無法編譯）
+    private byte addMelee(MeleeRole role, int id, RoleStats stats) {
+        return switch (role) {
+            case ShieldSwordsMan shieldSwordsMan -> {
+                defenseCapacity[id] = shieldSwordsMan.getDefenseCapacity();
+                attackPenalty[id] = stats.getOneHandedPenalty();
+                yield SHIELD_SWORDSMAN;
+            }
+            case SwordsMan swordsMan -> SWORDSMAN;
+            case Paladin paladin -> {
+                defenseCapacity[id] = paladin.getDefenseCapacity();
+                healPower[id] = paladin.getHealPower();
+                holyPower[id] = paladin.getHolyPower();
+                maxHolyPower[id] = paladin.getMaxHolyPower();
+                holyDefendCost[id] = stats.getHolyDefendCost();
+                holyHealCost[id] = stats.getHolyHealCost();
+                holyOnHit[id] = stats.getHolyOnHit();
+                holyRegen[id] = stats.getHolyRecovery();
+                yield PALADIN;
+            }
+        };
+    }
+
+    // 遠程職業特有的狀態（sealed，不寫 default，新增職業沒處理時無法編譯）
+    private byte addRanged(RangedRole role, int id, RoleStats stats) {
+        return switch (role) {
+            case Magician magician -> {
+                healPower[id] = magician.getHealPower();
+                attackEnergyCost[id] = stats.getAttackEnergyCost();
+                healEnergyCost[id] = stats.getHealEnergyCost();
+                yield MAGICIAN;
+            }
+            case Archer archer -> {
+                arrows[id] = archer.getArrowCount();
+                maxArrows[id] = archer.getMaxArrows();
+                attackEnergyCost[id] = stats.getAttackEnergyCost();
+                arrowRegen[id] = stats.getArrowReload();
+                yield ARCHER;
+            }
+        };
+    }
+
+    /**
+     * 一次加入多個相同的單位（大規模戰鬥用）
+     * @param template 作為範本的角色
+     * @param side SIDE_A 或 SIDE_B
+     * @param count 數量
+     * @throws IllegalArgumentException 數量不大於 0
+     */
+    public void addCopies(Role template, int side, int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("數量必須大於 0：" + count);
+        }
+        int first = add(template, side);
+        for (int i = 1; i < count; i++) {
+            copyUnit(first, size++);
+        }
+    }
+
+    private void copyUnit(int from, int to) {
+        kind[to] = kind[from];
+        side[to] = side[from];
+        health[to] = health[from];
+        attackPower[to] = attackPower[from];
+        armor[to] = armor[from];
+        damageFloor[to] = damageFloor[from];
+        defenseCapacity[to] = defenseCapacity[from];
+        healPower[to] = healPower[from];
+        energy[to] = energy[from];
+        maxEnergy[to] = maxEnergy[from];
+        arrows[to] = arrows[from];
+        maxArrows[to] = maxArrows[from];
+        holyPower[to] = holyPower[from];
+        maxHolyPower[to] = maxHolyPower[from];
+        attackPenalty[to] = attackPenalty[from];
+        attackEnergyCost[to] = attackEnergyCost[from];
+        healEnergyCost[to] = healEnergyCost[from];
+        holyDefendCost[to] = holyDefendCost[from];
+        holyHealCost[to] = holyHealCost[from];
+        holyOnHit[to] = holyOnHit[from];
+        energyRegen[to] = energyRegen[from];
+        arrowRegen[to] = arrowRegen[from];
+        holyRegen[to] = holyRegen[from];
+    }
+
+    // ========== 單一動作：與物件版本逐步對照 ==========
+
+    /**
+     * 受到傷害（近戰單位先扣護甲，同 MeleeRole.takeDamage）
+     * @return 實際扣除的生命值
+     */
+    public int takeDamage(int target, int damage) {
+        int actual = Math.max(damageFloor[target], damage - armor[target]);
+        health[target] -= actual;
+        return actual;
+    }
+
+    /**
+     * 攻擊
+     * @return 實際造成的傷害；能量、箭矢不足時回傳 FAILED
+     */
+    public int attack(int attacker, int target) {
+        int damage = payAttack(attacker);
+        return damage == FAILED ? FAILED : takeDamage(target, damage);
+    }
+
+    // 防禦：持盾劍士直接回血；聖騎士消耗聖能後回血
+    public void defend(int unit) {
+        health[unit] += payDefend(unit);
+    }
+
+    // 治療：聖騎士消耗聖能、魔法師消耗能量
+    public void heal(int healer, int target) {
+        health[target] += payHeal(healer);
+    }
+
+    // 戰後恢復：能量、聖能、箭矢各自恢復 RoleStats 指定的量（皆不超過上限）
+    public void afterBattle(int unit) {
+        energy[unit] = Math.min(energy[unit] + energyRegen[unit], maxEnergy[unit]);
+        arrows[unit] = Math.min(arrows[unit] + arrowRegen[unit], maxArrows[unit]);
+        holyPower[unit] = Math.min(holyPower[unit] + holyRegen[unit], maxHolyPower[unit]);
+    }
+
+    // 支付攻擊成本並回傳攻擊傷害（尚未扣護甲）
+    private int payAttack(int a) {
+        switch (kind[a]) {
+            case SHIELD_SWORDSMAN:
+                return attackPower[a] - attackPenalty[a];
+            case PALADIN:
+                holyPower[a] = Math.min(holyPower[a] + holyOnHit[a], maxHolyPower[a]);
+                return attackPower[a];
+            case MAGICIAN:
+                if (energy[a] < attackEnergyCost[a]) return FAILED;
+                energy[a] -= attackEnergyCost[a];
+                return attackPower[a];
+            case ARCHER:
+                if (arrows[a] <= 0 || energy[a] < attackEnergyCost[a]) return FAILED;
+                energy[a] -= attackEnergyCost[a];
+                arrows[a]--;
+                return attackPower[a];
+            default:
+                return attackPower[a];
+        }
+    }
+
+    // 支付防禦成本並回傳回復量
+    private int payDefend(int u) {
+        if (kind[u] == SHIELD_SWORDSMAN) {
+            return defenseCapacity[u];
+        }
+        if (kind[u] == PALADIN && holyPower[u] >= holyDefendCost[u]) {
+            holyPower[u] -= holyDefendCost[u];
+            return defenseCapacity[u];
+        }
+        return 0;
+    }
+
+    // 支付治療成本並回傳治療量
+    private int payHeal(int h) {
+        if (kind[h] == PALADIN && holyPower[h] >= holyHealCost[h]) {
+            holyPower[h] -= holyHealCost[h];
+            return healPower[h];
+        }
+        if (kind[h] == MAGICIAN && energy[h] >= healEnergyCost[h]) {
+            energy[h] -= healEnergyCost[h];
+            return healPower[h];
+        }
+        return 0;
+    }
+
+    // ========== 大規模戰鬥：分階段同時結算 ==========
+
+    /**
+     * 執行戰鬥直到一方全滅或達到回合上限
+     * @return SIDE_A、SIDE_B 或 DRAW
+     */
+    public int fight(BattleRandom random, int maxRounds) {
+        for (int round = 0; round < maxRounds; round++) {
+            int result = runRound(random);
+            if (result != Integer.MAX_VALUE) return result;
+        }
+        return winner(countAlive(aliveA, SIDE_A), countAlive(aliveB, SIDE_B));
+    }
+
+    /**
+     * 執行一回合
+     * 階段 1：所有存活單位決定動作並支付成本，攻擊記錄到 hit 陣列、治療累計到 healIn
+     * 階段 2：結算治療
+     * 階段 3：一次迴圈算完護甲減免，再一次迴圈扣血
+     * 階段 4：存活單位戰後恢復
+     *
+     * @return 分出勝負時回傳 SIDE_A / SIDE_B / DRAW，否則回傳 Integer.MAX_VALUE
+     */
+    public int runRound(BattleRandom random) {
+        int countA = countAlive(aliveA, SIDE_A);
+        int countB = countAlive(aliveB, SIDE_B);
+        if (countA == 0 || countB == 0) return winner(countA, countB);
+
+        // 階段 1：決定動作
+        int hits = 0;
+        for (int u = 0; u < size; u++) {
+            if (health[u] <= 0) continue;
+            boolean isA = side[u] == SIDE_A;
+            int[] allies = isA ? aliveA : aliveB;
+            int allyCount = isA ? countA : countB;
+            int[] enemies = isA ? aliveB : aliveA;
+            int enemyCount = isA ? countB : countA;
+
+            boolean attack;
+            switch (kind[u]) {
+                case PALADIN: {
+                    double action = random.nextDouble();
+                    if (action < 0.3) {
+                        healIn[u] += payDefend(u);
+                        attack = false;
+                    } else if (action < 0.6) {
+                        healIn[allies[random.nextInt(allyCount)]] += payHeal(u);
+                        attack = false;
+                    } else {
+                        attack = true;
+                    }
+                    break;
+                }
+                case SHIELD_SWORDSMAN:
+                    if (random.nextDouble() < 0.3) {
+                        healIn[u] += payDefend(u);
+                    }
+                    attack = true;
+                    break;
+                case MAGICIAN:
+                    if (random.nextDouble() < 0.6) {
+                        attack = true;
+                    } else {
+                        healIn[allies[random.nextInt(allyCount)]] += payHeal(u);
+                        attack = false;
+                    }
+                    break;
+                default:
+                    attack = true;
+            }
+
+            if (attack) {
+                int damage = payAttack(u);
+                int target = enemies[random.nextInt(enemyCount)];
+                if (damage != FAILED) {
+                    hitAttacker[hits] = u;
+                    hitTarget[hits] = target;
+                    hitDamage[hits] = damage;
+                    hits++;
+                }
+            }
+        }
+
+        // 階段 2：結算治療與防禦
+        for (int u = 0; u < size; u++) {
+            health[u] += healIn[u];
+            healIn[u] = 0;
+        }
+
+        // 階段 3：護甲減免（同 MeleeRole.calculateDefense），再扣血
+        for (int h = 0; h < hits; h++) {
+            int t = hitTarget[h];
+            hitDamage[h] = Math.max(damageFloor[t], hitDamage[h] - armor[t]);
+        }
+        for (int h = 0; h < hits; h++) {
+            health[hitTarget[h]] -= hitDamage[h];
+            if (side[hitAttacker[h]] == SIDE_A) {
+                damageByA += hitDamage[h];
+            } else {
+                damageByB += hitDamage[h];
+            }
+        }
+
+        // 階段 4：戰後恢復（只有存活單位）
+        for (int u = 0; u < size; u++) {
+            if (health[u] > 0) {
+                afterBattle(u);
+            }
+        }
+
+        countA = countAlive(aliveA, SIDE_A);
+        countB = countAlive(aliveB, SIDE_B);
+        return countA == 0 || countB == 0 ? winner(countA, countB) : Integer.MAX_VALUE;
+    }
+
+    // 重建某一方的存活清單，回傳人數
+    private int countAlive(int[] alive, int whichSide) {
+        int count = 0;
+        for (int u = 0; u < size; u++) {
+            if (health[u] > 0 && side[u] == whichSide) {
+                alive[count++] = u;
+            }
+        }
+        return count;
+    }
+
+    private static int winner(int countA, int countB) {
+        if (countA > 0 && countB == 0) return SIDE_A;
+        if (countB > 0 && countA == 0) return SIDE_B;
+        return DRAW;
+    }
+
+    // ========== 查詢 ==========
+
+    public int size() {
+        return size;
+    }
+
+    public byte getKind(int unit) {
+        return kind[unit];
+    }
+
+    public int getSide(int unit) {
+        return side[unit];
+    }
+
+    public int getHealth(int unit) {
+        return health[unit];
+    }
+
+    public boolean isAlive(int unit) {
+        return health[unit] > 0;
+    }
+
+    public int getArmor(int unit) {
+        return armor[unit];
+    }
+
+    public int getEnergy(int unit) {
+        return energy[unit];
+    }
+
+    public int getArrows(int unit) {
+        return arrows[unit];
+    }
+
+    public int getHolyPower(int unit) {
+        return holyPower[unit];
+    }
+
+    public long getDamageByA() {
+        return damageByA;
+    }
+
+    public long getDamageByB() {
+        return damageByB;
+    }
+}
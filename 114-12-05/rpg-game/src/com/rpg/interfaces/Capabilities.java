@@ -0,0 +1,48 @@
+/**
+ * Capabilities - 角色能力的位元遮罩
+ *
+ * 為什麼需要？
+ * - RPG 的報表迴圈一再用 instanceof Defendable / Healable 判斷角色能力
+ * - 每新增一種介面或類別，這些判斷就越來越多
+ *
+ * 設計說明：
+ * - 每種能力佔一個位元：DEFENDABLE = 1、HEALABLE = 2
+ * - 同一個類別只計算一次（ClassValue 快取），建立名單時存成 int，
+ *   之後只要做位元運算
+ */
+package com.rpg.interfaces;
+
+public final class Capabilities {
+    // 可防禦（實作 Defendable）
+    public static final int DEFENDABLE = 1;
+    // 可治療（實作 Healable）
+    public static final int HEALABLE = 1 << 1;
+
+    // 每個類別的能力只計算一次
+    private static final ClassValue<Integer> CACHE = new ClassValue<>() {
+        @Override
+        protected Integer computeValue(Class<?> type) {
+            int mask = 0;
+            if (Defendable.class.isAssignableFrom(type)) mask |= DEFENDABLE;
+            if (Healable.class.isAssignableFrom(type)) mask |= HEALABLE;
+            return mask;
+        }
+    };
+
+    private Capabilities() {
+    }
+
+    /**
+     * 取得物件的能力遮罩
+     * @param object 任何物件（通常是 Role）
+     * @return 能力位元的組合
+     */
+    public static int of(Object object) {
+        return CACHE.get(object.getClass());
+    }
+
+    // 遮罩中是否包含指定的全部能力
+    public static boolean has(int mask, int capabilities) {
+        return (mask & capabilities) == capabilities;
+    }
+}
@@ -0,0 +1,179 @@
+/**
+ * CombatMetrics - 戰鬥統計（依職業分類的計數與直方圖）
+ *
+ * 為什麼需要？
+ * - 對戰伺服器上線之後，完全看不到引擎在做什麼：每秒造成多少傷害、治療多少、指令處理多久
+ * - 要知道這些只能掛 profiler，正式環境通常不允許
+ *
+ * 設計說明：
+ * - 本身就是一個 CombatEventListener：Role.takeDamage、Healable.heal、Defendable.defend、
+ *   RangedRole.consumeEnergy 與死亡本來就會發出 onDamage / onHeal / onDefend / onEnergyConsumed / onDeath，
+ *   用 attach 掛上去即可，角色的程式不需要任何修改，沒掛上的角色也完全沒有額外成本
+ * - 依職業（RoleKind，每個職業對應一個具體類別）各有一份 RoleMetrics，用 ordinal 當陣列索引，不查表
+ * - 計數用 LongAdder、分布用 Histogram，多個執行緒同時記錄不會互相等待，也不配置記憶體
+ * - 指令處理時間由對戰伺服器量測後呼叫 recordAction（量測 System.nanoTime 也有成本，只在有統計時才做）
+ * - 讀取方式有兩種：直接呼叫 get(kind) 的 getter（拉取式 API），或 registerMBeans 之後用 JMX 讀取
+ *
+ * 使用範例：
+ *   CombatMetrics metrics = new CombatMetrics();
+ *   metrics.registerMBeans("arena");
+ *   try (BattleServer server = new BattleServer(4, metrics)) { ... }
+ *   long healed = metrics.get(RoleKind.PALADIN).getHealed();
+ */
+package com.rpg.metrics;
+
+import com.rpg.core.CombatEventListener;
+import com.rpg.core.CombatEventMulticaster;
+import com.rpg.core.Role;
+import com.rpg.core.RoleKind;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+public class CombatMetrics implements CombatEventListener {
+    // JMX 名稱的網域
+    public static final String DOMAIN = "com.rpg";
+
+    // 每個職業的統計（索引 = RoleKind.ordinal()）
+    private final RoleMetrics[] byKind;
+    // 已經註冊的 JMX 名稱
+    private final List<ObjectName> registered = new ArrayList<>();
+
+    public CombatMetrics() {
+        RoleKind[] kinds = RoleKind.values();
+        byKind = new RoleMetrics[kinds.length];
+        for (RoleKind kind : kinds) {
+            byKind[kind.ordinal()] = new RoleMetrics(kind);
+        }
+    }
+
+    /**
+     * 讓角色的事件也送到這份統計（保留角色原本的監聽器）
+     * @param role 角色（之後再呼叫 setListener 會把統計換掉，要在設定好其他監聽器之後才掛上）
+     */
+    public void attach(Role role) {
+        role.setListener(CombatEventMulticaster.of(role.getListener(), this));
+    }
+
+    // 取得某個職業的統計
+    public RoleMetrics get(RoleKind kind) {
+        return byKind[kind.ordinal()];
+    }
+
+    private RoleMetrics of(Role role) {
+        return byKind[role.getStats().getKind().ordinal()];
+    }
+
+    /**
+     * 記錄一個指令的處理時間
+     * @param actor 行動的角色
+     * @param nanos 處理時間（奈秒）
+     */
+    public void recordAction(Role actor, long nanos) {
+        of(actor).recordAction(nanos);
+    }
+
+    @Override
+    public void onDamage(Role target, int damage, int healthAfter) {
+        of(target).recordDamage(damage);
+    }
+
+    @Override
+    public void onHeal(Role healer, Role target, int healthBefore, int healthAfter) {
+        of(healer).recordHeal(healthAfter - healthBefore);
+    }
+
+    @Override
+    public void onDefend(Role defender, int healthBefore, int healthAfter) {
+        of(defender).recordDefend();
+    }
+
+    @Override
+    public void onEnergyConsumed(Role role, int amount, int remaining, int max) {
+        of(role).recordEnergy(amount);
+    }
+
+    @Override
+    public void onDeath(Role role) {
+        of(role).recordDeath();
+    }
+
+    // ========== 全部職業的合計 ==========
+
+    // 受到的傷害總量
+    public long getDamageTaken() {
+        long sum = 0;
+        for (RoleMetrics metrics : byKind) sum += metrics.getDamageTaken();
+        return sum;
+    }
+
+    // 治療總量
+    public long getHealed() {
+        long sum = 0;
+        for (RoleMetrics metrics : byKind) sum += metrics.getHealed();
+        return sum;
+    }
+
+    // 倒下次數
+    public long getDeaths() {
+        long sum = 0;
+        for (RoleMetrics metrics : byKind) sum += metrics.getDeaths();
+        return sum;
+    }
+
+    // 處理過的指令數
+    public long getActions() {
+        long sum = 0;
+        for (RoleMetrics metrics : byKind) sum += metrics.getActions();
+        return sum;
+    }
+
+    // ========== JMX ==========
+
+    /**
+     * 把每個職業的統計註冊到平台 MBeanServer
+     * 名稱為 com.rpg:type=CombatMetrics,name="名稱",kind=職業（name 經過 ObjectName.quote）
+     *
+     * @param name 這份統計的名稱（同一個 JVM 有多份統計時用來區分，例如伺服器名稱）
+     * @throws IllegalStateException 名稱已經被使用，或已經註冊過
+     */
+    public synchronized void registerMBeans(String name) {
+        if (!registered.isEmpty()) {
+            throw new IllegalStateException("已經註冊過 JMX：" + registered.get(0));
+        }
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            for (RoleMetrics metrics : byKind) {
+                ObjectName objectName = new ObjectName(DOMAIN + ":type=CombatMetrics,name="
+                        + ObjectName.quote(name) + ",kind=" + metrics.getKind());
+                server.registerMBean(metrics, objectName);
+                registered.add(objectName);
+            }
+        } catch (JMException e) {
+            unregisterMBeans();
+            throw new IllegalStateException("無法註冊 JMX：" + name, e);
+        }
+    }
+
+    // 取消註冊（沒有註冊過則忽略）
+    public synchronized void unregisterMBeans() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (ObjectName objectName : registered) {
+            try {
+                server.unregisterMBean(objectName);
+            } catch (JMException e) {
+                // 已經被別人取消註冊，不影響其他名稱
+            }
+        }
+        registered.clear();
+    }
+
+    // 已經註冊的 JMX 名稱
+    public synchronized List<ObjectName> getObjectNames() {
+        return List.copyOf(registered);
+    }
+}
@@ -0,0 +1,109 @@
+/**
+ * Histogram - 多執行緒記錄數值分布的直方圖（HDR 風格的對數-線性分格）
+ *
+ * 為什麼需要？
+ * - 平均值看不出長尾：一個指令花了 50 ms，平均值幾乎不會動，但玩家會覺得卡
+ * - 把每一筆數值都存下來再排序，記錄會配置記憶體，資料量也會一直長大
+ *
+ * 設計說明：
+ * - 每個 2 的次方區間再細分 8 格（SUB_BITS = 3），任何數值的相對誤差都在 12.5% 以內
+ * - 固定 512 格，涵蓋 0 ~ Long.MAX_VALUE，記錄只是一次 AtomicLongArray 遞增，不配置記憶體、不用鎖
+ * - 總和用 LongAdder、最大值用 CAS 累計（只有出現新的最大值時才寫入），多個執行緒同時記錄也不會互相等待；
+ *   筆數直接加總各格子，不另外計數
+ * - 記錄中也可以讀取百分位數（監控面板即時顯示），讀到的是大約那一刻的分布
+ *
+ * 使用範例：
+ *   Histogram latency = new Histogram();
+ *   latency.record(System.nanoTime() - start);
+ *   long p99 = latency.percentile(0.99);
+ */
+package com.rpg.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class Histogram {
+    // 每個 2 的次方區間細分成 2^SUB_BITS 格
+    private static final int SUB_BITS = 3;
+    private static final int SUB_MASK = (1 << SUB_BITS) - 1;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(64 << SUB_BITS);
+    private final LongAdder total = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * 記錄一筆數值（負數當作 0）
+     * @param value 數值（例如奈秒或傷害）
+     */
+    public void record(long value) {
+        value = Math.max(0, value);
+        buckets.incrementAndGet(bucketOf(value));
+        total.add(value);
+        long seen = max.get();
+        while (value > seen && !max.compareAndSet(seen, value)) {
+            seen = max.get();
+        }
+    }
+
+    // 數值所在的格子
+    private static int bucketOf(long value) {
+        if (value < (1L << SUB_BITS)) return (int) value;
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BITS)) & SUB_MASK;
+        return ((exponent - SUB_BITS + 1) << SUB_BITS) | sub;
+    }
+
+    // 格子的上限值
+    private static long upperBoundOf(int bucket) {
+        if (bucket < (1 << SUB_BITS)) return bucket;
+        int exponent = (bucket >>> SUB_BITS) + SUB_BITS - 1;
+        long sub = bucket & SUB_MASK;
+        return ((1L << SUB_BITS | sub) + 1 << (exponent - SUB_BITS)) - 1;
+    }
+
+    /**
+     * 取得百分位數（所在格子的上限，不超過記錄過的最大值）
+     * @param p 0 ~ 1，例如 0.99
+     * @return 百分位數；還沒有任何記錄時回傳 0
+     */
+    public long percentile(double p) {
+        if (p < 0 || p > 1) {
+            throw new IllegalArgumentException("百分位必須介於 0 ~ 1：" + p);
+        }
+        // 記錄可能同時進行，先數一次各格子的總和，名次才不會超過格子裡實際的筆數
+        long recorded = getCount();
+        long rank = Math.max(1, (long) Math.ceil(p * recorded));
+        long seen = 0;
+        for (int i = 0; i < buckets.length(); i++) {
+            seen += buckets.get(i);
+            if (seen >= rank) return Math.min(upperBoundOf(i), getMax());
+        }
+        return 0;
+    }
+
+    // 記錄的筆數（加總各格子，不另外計數，記錄時少一次原子操作）
+    public long getCount() {
+        long recorded = 0;
+        for (int i = 0; i < buckets.length(); i++) {
+            recorded += buckets.get(i);
+        }
+        return recorded;
+    }
+
+    // 所有數值的總和
+    public long getTotal() {
+        return total.sum();
+    }
+
+    // 平均值（沒有記錄時為 0）
+    public double getMean() {
+        long n = getCount();
+        return n == 0 ? 0 : (double) total.sum() / n;
+    }
+
+    // 記錄過的最大值
+    public long getMax() {
+        return max.get();
+    }
+}
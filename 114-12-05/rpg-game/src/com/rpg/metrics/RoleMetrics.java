@@ -0,0 +1,148 @@
+/**
+ * RoleMetrics - 一種職業的戰鬥統計
+ *
+ * 由 CombatMetrics 依職業各建立一份並負責記錄；
+ * 讀取用這裡的 getter（拉取式 API），也可以透過 JMX 讀取（實作 RoleMetricsMXBean）。
+ * 所有計數都是 LongAdder，多個執行緒同時記錄也不會搶同一個變數。
+ */
+package com.rpg.metrics;
+
+import com.rpg.core.RoleKind;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public final class RoleMetrics implements RoleMetricsMXBean {
+    private final RoleKind kind;
+    private final LongAdder healed = new LongAdder();
+    private final LongAdder heals = new LongAdder();
+    private final LongAdder defends = new LongAdder();
+    private final LongAdder energyConsumed = new LongAdder();
+    private final LongAdder deaths = new LongAdder();
+    // 每次受傷的傷害（筆數 = 受傷次數、總和 = 受到的傷害總量）
+    private final Histogram damage = new Histogram();
+    // 對戰伺服器處理一個指令的時間（奈秒）
+    private final Histogram actionLatency = new Histogram();
+
+    RoleMetrics(RoleKind kind) {
+        this.kind = kind;
+    }
+
+    // ========== 記錄（由 CombatMetrics 呼叫） ==========
+
+    void recordDamage(int amount) {
+        damage.record(amount);
+    }
+
+    void recordHeal(int amount) {
+        healed.add(amount);
+        heals.increment();
+    }
+
+    void recordDefend() {
+        defends.increment();
+    }
+
+    void recordEnergy(int amount) {
+        energyConsumed.add(amount);
+    }
+
+    void recordDeath() {
+        deaths.increment();
+    }
+
+    void recordAction(long nanos) {
+        actionLatency.record(nanos);
+    }
+
+    // ========== 讀取 ==========
+
+    // 職業
+    public RoleKind getRoleKind() {
+        return kind;
+    }
+
+    // 單次受傷的分布
+    public Histogram getDamage() {
+        return damage;
+    }
+
+    // 指令處理時間的分布（奈秒）
+    public Histogram getActionLatency() {
+        return actionLatency;
+    }
+
+    @Override
+    public String getKind() {
+        return kind.name();
+    }
+
+    @Override
+    public long getDamageTaken() {
+        return damage.getTotal();
+    }
+
+    @Override
+    public long getHits() {
+        return damage.getCount();
+    }
+
+    @Override
+    public long getDamageP50() {
+        return damage.percentile(0.50);
+    }
+
+    @Override
+    public long getDamageP99() {
+        return damage.percentile(0.99);
+    }
+
+    @Override
+    public long getDamageMax() {
+        return damage.getMax();
+    }
+
+    @Override
+    public long getHealed() {
+        return healed.sum();
+    }
+
+    @Override
+    public long getHeals() {
+        return heals.sum();
+    }
+
+    @Override
+    public long getDefends() {
+        return defends.sum();
+    }
+
+    @Override
+    public long getEnergyConsumed() {
+        return energyConsumed.sum();
+    }
+
+    @Override
+    public long getDeaths() {
+        return deaths.sum();
+    }
+
+    @Override
+    public long getActions() {
+        return actionLatency.getCount();
+    }
+
+    @Override
+    public double getActionLatencyP50Micros() {
+        return actionLatency.percentile(0.50) / 1e3;
+    }
+
+    @Override
+    public double getActionLatencyP99Micros() {
+        return actionLatency.percentile(0.99) / 1e3;
+    }
+
+    @Override
+    public double getActionLatencyMaxMicros() {
+        return actionLatency.getMax() / 1e3;
+    }
+}
@@ -0,0 +1,49 @@
+/**
+ * RoleMetricsMXBean - 一種職業的戰鬥統計（JMX 介面）
+ *
+ * 由 CombatMetrics.registerMBeans(名稱) 註冊，ObjectName 為 com.rpg:type=CombatMetrics,name="名稱",kind=職業
+ * （name 經過 ObjectName.quote，所以帶有引號；查詢全部可以用 com.rpg:type=CombatMetrics,*），
+ * 用 JConsole / VisualVM 就能即時查看，不需要掛上 profiler。
+ * 計數都只會增加，「每秒傷害」等吞吐量由監控工具對計數取差值即可。
+ */
+package com.rpg.metrics;
+
+public interface RoleMetricsMXBean {
+    // 職業名稱（RoleKind）
+    String getKind();
+
+    // 受到的傷害總量與受傷次數
+    long getDamageTaken();
+
+    long getHits();
+
+    // 單次受傷的百分位數與最大值
+    long getDamageP50();
+
+    long getDamageP99();
+
+    long getDamageMax();
+
+    // 治療他人的總量與次數（依治療者的職業）
+    long getHealed();
+
+    long getHeals();
+
+    // 防禦次數
+    long getDefends();
+
+    // 消耗的能量總量
+    long getEnergyConsumed();
+
+    // 倒下次數
+    long getDeaths();
+
+    // 對戰伺服器處理的指令數，以及每個指令的處理時間（微秒）
+    long getActions();
+
+    double getActionLatencyP50Micros();
+
+    double getActionLatencyP99Micros();
+
+    double getActionLatencyMaxMicros();
+}
@@ -0,0 +1,239 @@
+/**
+ * Party - 同一陣營的角色，以及隨戰鬥事件即時更新的隊伍統計
+ *
+ * 為什麼需要？
+ * - RPG 原本沒有陣營：選目標時只排除自己，任何人都可以打任何人
+ * - 判斷勝負、挑選目標時需要「還剩幾個人、總生命值多少、還有沒有補師」，
+ *   每回合重新掃描全部角色是 O(n)
+ *
+ * 設計說明：
+ * - Party 本身就是 CombatEventListener，與其他監聽器一起用 CombatEventMulticaster 串起來；
+ *   只處理自己成員的事件，其他陣營的事件直接忽略
+ * - 存活成員、存活的補師（Healable）各放一份 LiveRoster：人數查詢、隨機挑選都是 O(1)
+ * - 總生命值：記下每個成員上次看到的生命值（倒下算 0），
+ *   受傷（onDamage）、治療（onHeal）、防禦回血（onDefend）、倒下（onDeath）、復活（onRevive）時
+ *   只補上這個成員的差額，所以不依賴事件參數的算法，每次更新都是 O(1)
+ * - 存活的補師 / 防禦者（Defendable）人數在倒下、復活時增減
+ * - 直接改生命值而不發出事件的操作（setHealth、reset、loadState）之後要呼叫 recount() 重新計算
+ * - 角色必須先用 Role.setId() 指派 0 ~ capacity-1 的編號；不是執行緒安全的
+ *
+ * 使用範例：
+ *   Party heroes = new Party("光明陣營", roles.length);
+ *   heroes.add(swordsMan);
+ *   role.setListener(CombatEventMulticaster.of(heroes, villains));
+ *   while (heroes.isAlive() && villains.isAlive()) { ... }
+ */
+package com.rpg.party;
+
+import com.rpg.core.BattleRandom;
+import com.rpg.core.CombatEventListener;
+import com.rpg.core.LiveRoster;
+import com.rpg.core.Role;
+import com.rpg.interfaces.Capabilities;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class Party implements CombatEventListener {
+    // 不是成員時的能力遮罩
+    private static final int NOT_MEMBER = -1;
+
+    private final String name;
+    private final List<Role> members = new ArrayList<>();
+    // 存活成員、存活的補師
+    private final LiveRoster alive;
+    private final LiveRoster aliveHealers;
+    // 依角色編號記錄：能力遮罩（不是成員時為 NOT_MEMBER）、上次看到的生命值（倒下算 0）
+    private final int[] capabilities;
+    private final int[] knownHealth;
+
+    // 存活成員的生命值總和、所有成員的初始生命值總和
+    private long totalHealth;
+    private long maxHealth;
+    // 存活的防禦者人數
+    private int aliveDefenders;
+
+    /**
+     * 建構子
+     * @param name 陣營名稱
+     * @param capacity 角色編號的上限（所有陣營共用同一組編號）
+     */
+    public Party(String name, int capacity) {
+        this.name = name;
+        this.alive = new LiveRoster(capacity);
+        this.aliveHealers = new LiveRoster(capacity);
+        this.capabilities = new int[capacity];
+        this.knownHealth = new int[capacity];
+        Arrays.fill(capabilities, NOT_MEMBER);
+    }
+
+    /**
+     * 加入成員（必須已經指派編號，已經是成員時忽略）
+     * @param role 角色
+     */
+    public void add(Role role) {
+        int id = role.getId();
+        if (capabilities[id] != NOT_MEMBER) return;
+        capabilities[id] = Capabilities.of(role);
+        members.add(role);
+        maxHealth += role.getInitialHealth();
+        knownHealth[id] = 0;
+        if (role.isAlive()) {
+            join(role);
+        }
+    }
+
+    // 成員是否屬於這個陣營
+    public boolean contains(Role role) {
+        int id = role.getId();
+        return id >= 0 && id < capabilities.length && capabilities[id] != NOT_MEMBER;
+    }
+
+    /**
+     * 依目前的生命值重新計算所有統計（直接改過生命值之後使用，O(n)）
+     */
+    public void recount() {
+        for (Role role : members) {
+            if (role.isAlive()) {
+                join(role);
+                sync(role);
+            } else {
+                leave(role);
+            }
+        }
+    }
+
+    // 成員變成存活：加入存活名單並增加對應能力的人數
+    private void join(Role role) {
+        if (alive.contains(role)) return;
+        alive.add(role);
+        int mask = capabilities[role.getId()];
+        if (Capabilities.has(mask, Capabilities.HEALABLE)) aliveHealers.add(role);
+        if (Capabilities.has(mask, Capabilities.DEFENDABLE)) aliveDefenders++;
+        sync(role);
+    }
+
+    // 成員倒下：移出存活名單並扣掉剩下的生命值
+    private void leave(Role role) {
+        if (!alive.contains(role)) return;
+        alive.remove(role);
+        aliveHealers.remove(role);
+        if (Capabilities.has(capabilities[role.getId()], Capabilities.DEFENDABLE)) aliveDefenders--;
+        int id = role.getId();
+        totalHealth -= knownHealth[id];
+        knownHealth[id] = 0;
+    }
+
+    // 把存活成員目前的生命值與上次看到的差額加進總和
+    private void sync(Role role) {
+        if (!alive.contains(role)) return;
+        int id = role.getId();
+        int health = Math.max(0, role.getHealth());
+        totalHealth += health - knownHealth[id];
+        knownHealth[id] = health;
+    }
+
+    // ========== 戰鬥事件 ==========
+
+    @Override
+    public void onDamage(Role target, int damage, int healthAfter) {
+        if (contains(target)) sync(target);
+    }
+
+    @Override
+    public void onHeal(Role healer, Role target, int healthBefore, int healthAfter) {
+        if (contains(target)) sync(target);
+    }
+
+    @Override
+    public void onDefend(Role defender, int healthBefore, int healthAfter) {
+        if (contains(defender)) sync(defender);
+    }
+
+    @Override
+    public void onDeath(Role role) {
+        if (contains(role)) leave(role);
+    }
+
+    @Override
+    public void onRevive(Role role) {
+        if (contains(role)) join(role);
+    }
+
+    // ========== 查詢（全部 O(1)） ==========
+
+    // 陣營名稱
+    public String getName() {
+        return name;
+    }
+
+    // 所有成員（加入順序，唯讀）
+    public List<Role> getMembers() {
+        return Collections.unmodifiableList(members);
+    }
+
+    // 成員人數
+    public int size() {
+        return members.size();
+    }
+
+    // 存活人數
+    public int getAliveCount() {
+        return alive.size();
+    }
+
+    // 是否還有人存活（勝負判斷用）
+    public boolean isAlive() {
+        return !alive.isEmpty();
+    }
+
+    // 存活成員的生命值總和
+    public long getTotalHealth() {
+        return totalHealth;
+    }
+
+    // 所有成員的初始生命值總和
+    public long getMaxHealth() {
+        return maxHealth;
+    }
+
+    // 整隊的生命值比例（0 ~ 1，治療超過初始值時可能大於 1）
+    public double getHealthRatio() {
+        return maxHealth == 0 ? 0 : (double) totalHealth / maxHealth;
+    }
+
+    // 存活的補師（Healable）人數
+    public int getAliveHealers() {
+        return aliveHealers.size();
+    }
+
+    // 存活的防禦者（Defendable）人數
+    public int getAliveDefenders() {
+        return aliveDefenders;
+    }
+
+    /**
+     * 隨機挑一個存活成員
+     * @return 存活成員；全滅時回傳 null
+     */
+    public Role randomAlive(BattleRandom random) {
+        return alive.randomAlive(random);
+    }
+
+    /**
+     * 隨機挑一個存活的補師
+     * @return 存活的補師；沒有時回傳 null
+     */
+    public Role randomAliveHealer(BattleRandom random) {
+        return aliveHealers.randomAlive(random);
+    }
+
+    // 陣營名稱、存活人數與總生命值
+    @Override
+    public String toString() {
+        return name + "（存活 " + getAliveCount() + "/" + size() + "，生命值 " + totalHealth + "/" + maxHealth
+                + "，補師 " + getAliveHealers() + "，防禦者 " + aliveDefenders + "）";
+    }
+}
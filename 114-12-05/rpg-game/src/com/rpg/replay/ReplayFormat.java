@@ -0,0 +1,155 @@
+/**
+ * ReplayFormat - 戰鬥重播檔的二進位格式
+ *
+ * 為什麼需要？
+ * - 整晚的批次模擬如果輸出 System.out 文字，動輒好幾 GB 而且無法分析
+ * - 固定寬度的二進位紀錄：第 k 筆紀錄的位置就是 HEADER_BYTES + k * RECORD_BYTES，
+ *   可以直接 mmap 掃描，不用解析文字
+ *
+ * 檔案格式（little-endian）：
+ * - 檔頭 16 bytes：MAGIC、VERSION、RECORD_BYTES、保留
+ * - 之後每筆紀錄 16 bytes：
+ *     int  類型（高 8 位元）| 主角色編號（低 24 位元，NO_ID 代表無）
+ *     int  對象角色編號（沒有對象時為 -1）
+ *     int  數值一
+ *     int  數值二
+ *
+ * 各類型的欄位意義：
+ *   ATTACK              攻擊者 → 目標
+ *   DAMAGE              攻擊者 → 受傷者，傷害，受傷後生命值（持續傷害等不是攻擊造成的傷害沒有攻擊者）
+ *   MITIGATED           攻擊者 → 受傷者，被護甲擋下的傷害（calculateDefense）
+ *   SHIELD_ABSORBED     攻擊者 → 受傷者，被護盾吸收的傷害，剩餘護盾（攻擊者同 DAMAGE）
+ *   DEATH / REVIVE      角色
+ *   HEAL                治療者 → 目標，治療前生命值，治療後生命值
+ *   DEFEND              防禦者，防禦前生命值，防禦後生命值
+ *   ENERGY_CONSUMED     角色，消耗量，剩餘能量（consumeEnergy）
+ *   ENERGY_SHORTAGE     角色，需要量，現有能量
+ *   ENERGY_RESTORED     角色，恢復前，恢復後
+ *   HOLY_POWER_*        同能量（consumeHolyPower）
+ *   ARROW_SHOT          角色，剩餘箭矢，箭矢上限
+ *   ARROWS_RELOADED     角色，補充前，補充後
+ *   BATTLE_START        戰鬥場次的低 32 位元，高 32 位元
+ *   BATTLE_END          勝負結果（Battle.SIDE_A / SIDE_B / DRAW）
+ *   EFFECT_APPLIED      角色，效果（effect：低 8 位元是 EffectType.ordinal，高 24 位元是持續回合數），強度
+ *   EFFECT_EXPIRED      角色，效果種類（EffectType.ordinal）
+ *
+ * 版本 2 新增 SHIELD_ABSORBED、EFFECT_APPLIED、EFFECT_EXPIRED；版本 1 的檔案仍然可以讀取
+ */
+package com.rpg.replay;
+
+public final class ReplayFormat {
+    // 檔案識別碼 "RPGR"
+    public static final int MAGIC = 0x52504752;
+    // 格式版本
+    public static final int VERSION = 2;
+    // 檔頭長度
+    public static final int HEADER_BYTES = 16;
+    // 每筆紀錄長度
+    public static final int RECORD_BYTES = 16;
+
+    // 主角色欄位只有 24 位元，全為 1 代表沒有角色
+    public static final int NO_ID = 0xFFFFFF;
+    // 角色編號上限
+    public static final int MAX_ID = NO_ID - 1;
+
+    // ========== 紀錄類型 ==========
+    public static final int ATTACK = 1;
+    public static final int DAMAGE = 2;
+    public static final int MITIGATED = 3;
+    public static final int DEATH = 4;
+    public static final int REVIVE = 5;
+    public static final int HEAL = 6;
+    public static final int DEFEND = 7;
+    public static final int ENERGY_CONSUMED = 8;
+    public static final int ENERGY_SHORTAGE = 9;
+    public static final int ENERGY_RESTORED = 10;
+    public static final int HOLY_POWER_CONSUMED = 11;
+    public static final int HOLY_POWER_SHORTAGE = 12;
+    public static final int HOLY_POWER_RESTORED = 13;
+    public static final int ARROW_SHOT = 14;
+    public static final int ARROWS_RELOADED = 15;
+    public static final int BATTLE_START = 16;
+    public static final int BATTLE_END = 17;
+    public static final int SHIELD_ABSORBED = 18;
+    public static final int EFFECT_APPLIED = 19;
+    public static final int EFFECT_EXPIRED = 20;
+    // 類型數量（用來開統計陣列）
+    public static final int TYPE_COUNT = 21;
+
+    // EFFECT_APPLIED 持續回合數的上限（24 位元）
+    public static final int MAX_EFFECT_DURATION = 0xFFFFFF;
+
+    private ReplayFormat() {
+    }
+
+    /**
+     * 把類型和主角色編號合成第一個欄位
+     * @param actor 主角色編號（0 ~ MAX_ID），沒有角色時傳 NO_ID
+     * @throws IllegalArgumentException 編號放不進 24 位元（直接截斷會變成另一個角色，或被當成沒有角色）
+     */
+    static int pack(int type, int actor) {
+        if (actor != NO_ID && (actor < 0 || actor > MAX_ID)) {
+            throw new IllegalArgumentException("角色編號必須介於 0 ~ " + MAX_ID + "：" + actor);
+        }
+        return (type << 24) | actor;
+    }
+
+    /**
+     * 把效果種類和持續回合數合成 EFFECT_APPLIED 的數值一
+     * @throws IllegalArgumentException 持續回合數放不進 24 位元
+     */
+    static int packEffect(int effectType, int duration) {
+        if (duration < 0 || duration > MAX_EFFECT_DURATION) {
+            throw new IllegalArgumentException("持續回合數必須介於 0 ~ " + MAX_EFFECT_DURATION + "：" + duration);
+        }
+        return duration << 8 | effectType;
+    }
+
+    // 從 EFFECT_APPLIED 的數值一取出效果種類（EffectType.ordinal）
+    public static int effectTypeOf(int effect) {
+        return effect & 0xFF;
+    }
+
+    // 從 EFFECT_APPLIED 的數值一取出持續回合數
+    public static int effectDurationOf(int effect) {
+        return effect >>> 8;
+    }
+
+    // 從第一個欄位取出類型
+    static int typeOf(int word) {
+        return word >>> 24;
+    }
+
+    // 從第一個欄位取出主角色編號（沒有角色時回傳 -1）
+    static int actorOf(int word) {
+        int actor = word & NO_ID;
+        return actor == NO_ID ? -1 : actor;
+    }
+
+    // 類型名稱（分析輸出用）
+    public static String nameOf(int type) {
+        switch (type) {
+            case ATTACK: return "攻擊";
+            case DAMAGE: return "傷害";
+            case MITIGATED: return "護甲減免";
+            case DEATH: return "死亡";
+            case REVIVE: return "復活";
+            case HEAL: return "治療";
+            case DEFEND: return "防禦";
+            case ENERGY_CONSUMED: return "消耗能量";
+            case ENERGY_SHORTAGE: return "能量不足";
+            case ENERGY_RESTORED: return "恢復能量";
+            case HOLY_POWER_CONSUMED: return "消耗聖能";
+            case HOLY_POWER_SHORTAGE: return "聖能不足";
+            case HOLY_POWER_RESTORED: return "恢復聖能";
+            case ARROW_SHOT: return "射箭";
+            case ARROWS_RELOADED: return "補充箭矢";
+            case BATTLE_START: return "戰鬥開始";
+            case BATTLE_END: return "戰鬥結束";
+            case SHIELD_ABSORBED: return "護盾吸收";
+            case EFFECT_APPLIED: return "效果套用";
+            case EFFECT_EXPIRED: return "效果結束";
+            default: return "未知(" + type + ")";
+        }
+    }
+}
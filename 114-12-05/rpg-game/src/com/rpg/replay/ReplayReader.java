@@ -0,0 +1,115 @@
+/**
+ * ReplayReader - 用記憶體映射（MappedByteBuffer）讀取重播檔
+ *
+ * 設計說明：
+ * - 把檔案映射到記憶體，直接從分頁快取讀取，不需要先複製到 Java 的 byte[]
+ * - 單一 MappedByteBuffer 最多只能映射 2 GB，所以大檔案分段映射，
+ *   每段都是紀錄長度的整數倍，紀錄不會被切在兩段中間
+ * - 紀錄是固定寬度，第 k 筆的位置可以直接算出來，能從任意位置開始掃描
+ *
+ * 使用範例：
+ *   try (ReplayReader reader = new ReplayReader(path)) {
+ *       ReplaySummary summary = new ReplaySummary();
+ *       reader.scan(summary);
+ *   }
+ */
+package com.rpg.replay;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class ReplayReader implements AutoCloseable {
+    // 每段映射的最大長度（紀錄長度的整數倍，約 1 GB）
+    static final long MAX_CHUNK_BYTES = (1L << 30) / ReplayFormat.RECORD_BYTES * ReplayFormat.RECORD_BYTES;
+
+    private final FileChannel channel;
+    private final long records;
+    private final long chunkBytes;
+
+    /**
+     * 開啟重播檔並檢查檔頭
+     * @param file 檔案路徑
+     */
+    public ReplayReader(Path file) throws IOException {
+        this(file, MAX_CHUNK_BYTES);
+    }
+
+    // 可以指定分段大小（測試分段邊界用）
+    ReplayReader(Path file, long chunkBytes) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.chunkBytes = Math.max(1, chunkBytes / ReplayFormat.RECORD_BYTES) * ReplayFormat.RECORD_BYTES;
+        try {
+            long size = channel.size();
+            if (size < ReplayFormat.HEADER_BYTES) {
+                throw new IOException("不是重播檔：檔案太短");
+            }
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, ReplayFormat.HEADER_BYTES);
+            header.order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt() != ReplayFormat.MAGIC) {
+                throw new IOException("不是重播檔：識別碼不符");
+            }
+            int version = header.getInt();
+            // 新版本只新增紀錄類型，舊版本的檔案仍然可以讀取
+            if (version < 1 || version > ReplayFormat.VERSION) {
+                throw new IOException("不支援的重播檔版本：" + version);
+            }
+            if (header.getInt() != ReplayFormat.RECORD_BYTES) {
+                throw new IOException("紀錄長度不符");
+            }
+            // 寫到一半中斷的檔案，最後不完整的紀錄直接忽略
+            this.records = (size - ReplayFormat.HEADER_BYTES) / ReplayFormat.RECORD_BYTES;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // 取得紀錄總數
+    public long getRecords() {
+        return records;
+    }
+
+    /**
+     * 掃描全部紀錄
+     * @param visitor 每筆紀錄的回呼
+     */
+    public void scan(ReplayVisitor visitor) throws IOException {
+        scan(0, records, visitor);
+    }
+
+    /**
+     * 掃描第 [from, to) 筆紀錄
+     * @param from 起始紀錄（含）
+     * @param to 結束紀錄（不含）
+     * @param visitor 每筆紀錄的回呼
+     */
+    public void scan(long from, long to, ReplayVisitor visitor) throws IOException {
+        if (from < 0 || to > records || from > to) {
+            throw new IndexOutOfBoundsException("紀錄範圍錯誤：[" + from + ", " + to + ")，共 " + records + " 筆");
+        }
+        long position = ReplayFormat.HEADER_BYTES + from * ReplayFormat.RECORD_BYTES;
+        long end = ReplayFormat.HEADER_BYTES + to * ReplayFormat.RECORD_BYTES;
+        while (position < end) {
+            long length = Math.min(chunkBytes, end - position);
+            MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            chunk.order(ByteOrder.LITTLE_ENDIAN);
+            // 用絕對位置讀取，迴圈內只有 getInt
+            int limit = (int) length;
+            for (int offset = 0; offset < limit; offset += ReplayFormat.RECORD_BYTES) {
+                int word = chunk.getInt(offset);
+                visitor.visit(ReplayFormat.typeOf(word), ReplayFormat.actorOf(word),
+                        chunk.getInt(offset + 4), chunk.getInt(offset + 8), chunk.getInt(offset + 12));
+            }
+            position += length;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
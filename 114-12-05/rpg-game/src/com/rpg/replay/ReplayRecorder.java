@@ -0,0 +1,256 @@
+/**
+ * ReplayRecorder - 把戰鬥事件寫成二進位重播檔
+ *
+ * 使用方式：
+ * - 它本身就是 CombatEventListener，設定到角色上（或和其他監聽器 multicast）即可
+ * - 多場戰鬥寫進同一個檔案時，用 beginBattle / endBattle 標記每場的範圍
+ * - 用完一定要 close()，緩衝區內還沒寫出的紀錄才會落地
+ *
+ * 設計說明：
+ * - 每個事件寫成 ReplayFormat 定義的 16 bytes 固定寬度紀錄
+ * - 先寫進直接緩衝區（direct ByteBuffer），滿了才透過 FileChannel 一次寫出，
+ *   記錄一個事件只是幾次 putInt，不會產生任何物件
+ * - 傷害、護甲減免、護盾吸收事件本身不帶攻擊者：onAttack 時記下「這個目標正在被誰攻擊」，
+ *   目標的 onDamage（每次受傷的最後一個事件）之後清掉；DamageBatch 先發出所有 onAttack 再結算，
+ *   每個目標各記各的，所以也能對上
+ * - 沒有經過 onAttack 的傷害（持續傷害等效果）記成沒有攻擊者（NO_ID），不會算到上一個出手的角色頭上
+ * - 角色編號必須介於 0 ~ ReplayFormat.MAX_ID，超過時丟出 IllegalArgumentException
+ *
+ * 執行緒安全：
+ * - 不是執行緒安全的；平行模擬時每個執行緒各自寫一個檔案
+ */
+package com.rpg.replay;
+
+import com.rpg.core.CombatEventListener;
+import com.rpg.core.EffectType;
+import com.rpg.core.Role;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+public class ReplayRecorder implements CombatEventListener, AutoCloseable {
+    // 預設緩衝區大小：4096 筆紀錄
+    public static final int DEFAULT_BUFFER_BYTES = 4096 * ReplayFormat.RECORD_BYTES;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    // 依目標編號記錄正在攻擊它的角色（沒有時為 NO_ID），需要時才加大
+    private int[] attackerOf = new int[0];
+    // 已寫入的紀錄數
+    private long records;
+
+    /**
+     * 建立（或覆寫）重播檔
+     * @param file 檔案路徑
+     */
+    public ReplayRecorder(Path file) throws IOException {
+        this(file, DEFAULT_BUFFER_BYTES);
+    }
+
+    /**
+     * 建立（或覆寫）重播檔
+     * @param file 檔案路徑
+     * @param bufferBytes 緩衝區大小（會調整成紀錄長度的倍數）
+     */
+    public ReplayRecorder(Path file, int bufferBytes) throws IOException {
+        int capacity = Math.max(1, bufferBytes / ReplayFormat.RECORD_BYTES) * ReplayFormat.RECORD_BYTES;
+        this.buffer = ByteBuffer.allocateDirect(Math.max(capacity, ReplayFormat.HEADER_BYTES))
+                .order(ByteOrder.LITTLE_ENDIAN);
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+
+        buffer.putInt(ReplayFormat.MAGIC);
+        buffer.putInt(ReplayFormat.VERSION);
+        buffer.putInt(ReplayFormat.RECORD_BYTES);
+        buffer.putInt(0);
+    }
+
+    /**
+     * 標記一場戰鬥開始
+     * @param index 戰鬥場次
+     */
+    public void beginBattle(long index) {
+        Arrays.fill(attackerOf, ReplayFormat.NO_ID);
+        write(ReplayFormat.BATTLE_START, ReplayFormat.NO_ID, -1, (int) index, (int) (index >>> 32));
+    }
+
+    /**
+     * 標記一場戰鬥結束
+     * @param winner 勝負結果
+     */
+    public void endBattle(int winner) {
+        write(ReplayFormat.BATTLE_END, ReplayFormat.NO_ID, -1, winner, 0);
+    }
+
+    @Override
+    public void onAttack(Role attacker, Role target) {
+        int id = target.getId();
+        if (id >= 0) {
+            if (id >= attackerOf.length) {
+                int oldLength = attackerOf.length;
+                attackerOf = Arrays.copyOf(attackerOf, Math.max(id + 1, oldLength * 2));
+                Arrays.fill(attackerOf, oldLength, attackerOf.length, ReplayFormat.NO_ID);
+            }
+            attackerOf[id] = idOf(attacker);
+        }
+        write(ReplayFormat.ATTACK, idOf(attacker), id, 0, 0);
+    }
+
+    // 正在攻擊目標的角色（不是攻擊造成的傷害時為 NO_ID）
+    private int attackerOf(Role target) {
+        int id = target.getId();
+        return id >= 0 && id < attackerOf.length ? attackerOf[id] : ReplayFormat.NO_ID;
+    }
+
+    @Override
+    public void onDamage(Role target, int damage, int healthAfter) {
+        write(ReplayFormat.DAMAGE, attackerOf(target), target.getId(), damage, healthAfter);
+        // 這次受傷結算完了，之後的傷害要等下一次 onAttack 才有攻擊者
+        int id = target.getId();
+        if (id >= 0 && id < attackerOf.length) {
+            attackerOf[id] = ReplayFormat.NO_ID;
+        }
+    }
+
+    @Override
+    public void onArmorMitigated(Role target, int mitigated) {
+        write(ReplayFormat.MITIGATED, attackerOf(target), target.getId(), mitigated, 0);
+    }
+
+    @Override
+    public void onShieldAbsorbed(Role target, int absorbed, int remaining) {
+        write(ReplayFormat.SHIELD_ABSORBED, attackerOf(target), target.getId(), absorbed, remaining);
+    }
+
+    @Override
+    public void onEffectApplied(Role target, EffectType type, int magnitude, int duration) {
+        write(ReplayFormat.EFFECT_APPLIED, idOf(target), -1,
+                ReplayFormat.packEffect(type.ordinal(), duration), magnitude);
+    }
+
+    @Override
+    public void onEffectExpired(Role target, EffectType type) {
+        write(ReplayFormat.EFFECT_EXPIRED, idOf(target), -1, type.ordinal(), 0);
+    }
+
+    @Override
+    public void onDeath(Role role) {
+        write(ReplayFormat.DEATH, idOf(role), -1, 0, 0);
+    }
+
+    @Override
+    public void onRevive(Role role) {
+        write(ReplayFormat.REVIVE, idOf(role), -1, role.getHealth(), 0);
+    }
+
+    @Override
+    public void onHeal(Role healer, Role target, int healthBefore, int healthAfter) {
+        write(ReplayFormat.HEAL, idOf(healer), target.getId(), healthBefore, healthAfter);
+    }
+
+    @Override
+    public void onDefend(Role defender, int healthBefore, int healthAfter) {
+        write(ReplayFormat.DEFEND, idOf(defender), -1, healthBefore, healthAfter);
+    }
+
+    @Override
+    public void onEnergyConsumed(Role role, int amount, int remaining, int max) {
+        write(ReplayFormat.ENERGY_CONSUMED, idOf(role), -1, amount, remaining);
+    }
+
+    @Override
+    public void onEnergyShortage(Role role, int required, int available) {
+        write(ReplayFormat.ENERGY_SHORTAGE, idOf(role), -1, required, available);
+    }
+
+    @Override
+    public void onEnergyRestored(Role role, int before, int after, int max) {
+        write(ReplayFormat.ENERGY_RESTORED, idOf(role), -1, before, after);
+    }
+
+    @Override
+    public void onHolyPowerConsumed(Role role, int amount, int remaining, int max) {
+        write(ReplayFormat.HOLY_POWER_CONSUMED, idOf(role), -1, amount, remaining);
+    }
+
+    @Override
+    public void onHolyPowerShortage(Role role, int required, int available) {
+        write(ReplayFormat.HOLY_POWER_SHORTAGE, idOf(role), -1, required, available);
+    }
+
+    @Override
+    public void onHolyPowerRestored(Role role, int before, int after, int max) {
+        write(ReplayFormat.HOLY_POWER_RESTORED, idOf(role), -1, before, after);
+    }
+
+    @Override
+    public void onArrowShot(Role role, int remaining, int max) {
+        write(ReplayFormat.ARROW_SHOT, idOf(role), -1, remaining, max);
+    }
+
+    @Override
+    public void onArrowsReloaded(Role role, int before, int after) {
+        write(ReplayFormat.ARROWS_RELOADED, idOf(role), -1, before, after);
+    }
+
+    /**
+     * 角色編號（主角色欄位只有 24 位元）
+     * @throws IllegalArgumentException 角色沒有編號，或編號超過 ReplayFormat.MAX_ID
+     */
+    private static int idOf(Role role) {
+        int id = role.getId();
+        if (id < 0 || id > ReplayFormat.MAX_ID) {
+            throw new IllegalArgumentException(role.getName() + "：重播檔的角色編號必須介於 0 ~ "
+                    + ReplayFormat.MAX_ID + "：" + id);
+        }
+        return id;
+    }
+
+    // 寫入一筆紀錄，緩衝區滿了就先寫出
+    private void write(int type, int actor, int target, int value1, int value2) {
+        if (buffer.remaining() < ReplayFormat.RECORD_BYTES) {
+            flush();
+        }
+        buffer.putInt(ReplayFormat.pack(type, actor));
+        buffer.putInt(target);
+        buffer.putInt(value1);
+        buffer.putInt(value2);
+        records++;
+    }
+
+    /**
+     * 把緩衝區內的紀錄寫到檔案
+     * 監聽器方法不能丟出受檢例外，所以 I/O 錯誤包成 UncheckedIOException
+     */
+    public void flush() {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("寫入重播檔失敗", e);
+        }
+        buffer.clear();
+    }
+
+    // 取得已寫入的紀錄數
+    public long getRecords() {
+        return records;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/**
+ * ReplaySummary - 掃描重播檔的統計
+ *
+ * 一次掃描就算出：各類型事件數、戰鬥場數與勝負、總傷害、護甲減免、護盾吸收、治療量、資源消耗。
+ * 只累計基本型別，可以直接當作 ReplayVisitor 傳給 ReplayReader.scan()。
+ */
+package com.rpg.replay;
+
+import com.rpg.sim.Battle;
+
+public class ReplaySummary implements ReplayVisitor {
+    // 各類型的事件數
+    private final long[] counts = new long[ReplayFormat.TYPE_COUNT];
+    private long winsA;
+    private long winsB;
+    private long draws;
+    private long totalDamage;
+    private long totalMitigated;
+    private long totalAbsorbed;
+    private long totalHealing;
+    private long energySpent;
+    private long holyPowerSpent;
+
+    @Override
+    public void visit(int type, int actor, int target, int value1, int value2) {
+        if (type < counts.length) {
+            counts[type]++;
+        }
+        switch (type) {
+            case ReplayFormat.DAMAGE:
+                totalDamage += value1;
+                break;
+            case ReplayFormat.MITIGATED:
+                totalMitigated += value1;
+                break;
+            case ReplayFormat.SHIELD_ABSORBED:
+                totalAbsorbed += value1;
+                break;
+            case ReplayFormat.HEAL:
+                totalHealing += value2 - value1;
+                break;
+            case ReplayFormat.ENERGY_CONSUMED:
+                energySpent += value1;
+                break;
+            case ReplayFormat.HOLY_POWER_CONSUMED:
+                holyPowerSpent += value1;
+                break;
+            case ReplayFormat.BATTLE_END:
+                if (value1 == Battle.SIDE_A) {
+                    winsA++;
+                } else if (value1 == Battle.SIDE_B) {
+                    winsB++;
+                } else {
+                    draws++;
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    // 取得某類型的事件數
+    public long getCount(int type) {
+        return counts[type];
+    }
+
+    // 取得戰鬥場數
+    public long getBattles() {
+        return counts[ReplayFormat.BATTLE_START];
+    }
+
+    public long getWinsA() {
+        return winsA;
+    }
+
+    public long getWinsB() {
+        return winsB;
+    }
+
+    public long getDraws() {
+        return draws;
+    }
+
+    public long getTotalDamage() {
+        return totalDamage;
+    }
+
+    public long getTotalMitigated() {
+        return totalMitigated;
+    }
+
+    public long getTotalAbsorbed() {
+        return totalAbsorbed;
+    }
+
+    public long getTotalHealing() {
+        return totalHealing;
+    }
+
+    public long getEnergySpent() {
+        return energySpent;
+    }
+
+    public long getHolyPowerSpent() {
+        return holyPowerSpent;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("戰鬥: %d, A 勝: %d, B 勝: %d, 平手: %d%n", getBattles(), winsA, winsB, draws));
+        sb.append(String.format("總傷害: %d, 護甲減免: %d, 護盾吸收: %d, 治療量: %d, 消耗能量: %d, 消耗聖能: %d%n",
+                totalDamage, totalMitigated, totalAbsorbed, totalHealing, energySpent, holyPowerSpent));
+        for (int type = 1; type < counts.length; type++) {
+            if (counts[type] > 0) {
+                sb.append(String.format("  %-8s %,d%n", ReplayFormat.nameOf(type), counts[type]));
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,21 @@
+/**
+ * ReplayVisitor - 逐筆讀取重播紀錄的回呼
+ *
+ * 參數全部是基本型別，掃描數 GB 的檔案也不會為每筆紀錄產生物件。
+ * 各欄位的意義依 type 而定，請見 ReplayFormat。
+ */
+package com.rpg.replay;
+
+@FunctionalInterface
+public interface ReplayVisitor {
+
+    /**
+     * 讀到一筆紀錄
+     * @param type 紀錄類型（ReplayFormat 的常數）
+     * @param actor 主角色編號（沒有時為 -1）
+     * @param target 對象角色編號（沒有時為 -1）
+     * @param value1 數值一
+     * @param value2 數值二
+     */
+    void visit(int type, int actor, int target, int value1, int value2);
+}
@@ -0,0 +1,161 @@
+/**
+ * RoleSwitch - 每回合行動的解析：依具體職業呼叫攻擊、防禦、治療
+ *
+ * 為什麼需要？
+ * - ActionPolicy / Match 原本用 (Defendable) self、(Healable) self 轉型，攻擊則交給 RoleDispatch 的編號表；
+ *   哪個職業做哪個動作只有在執行時才知道有沒有漏掉
+ * - 職業種類是固定的五種，應該讓編譯器檢查每回合的行動每個職業都處理到了
+ *
+ * 設計說明：
+ * - MeleeRole / RangedRole 是 sealed，具體職業是 final（SwordsMan 只允許 ShieldSwordsMan 繼承），
+ *   兩個中間層底下的類別就是固定的五種
+ * - 每個動作對兩個中間層各寫一個 pattern matching switch（Java 21 正式功能），不寫 default：
+ *   編譯器會檢查每個允許的子類別都有處理，新增職業時沒處理就無法編譯
+ * - case 的順序由編譯器把關：ShieldSwordsMan 必須寫在 SwordsMan 前面，寫反了會因為被支配而無法編譯
+ * - 不會這個動作的職業（例如劍士防禦）在 case 裡明確丟出例外，不靠轉型失敗
+ * - Role 本身無法 sealed：沒有 module-info 時，sealed 類別的子類別必須在同一個 package，
+ *   而 Role 在 com.rpg.core、職業在 com.rpg.roles.*；所以最外層只依中間層分派，
+ *   不屬於這兩層的角色（例如直接繼承 Role 的測試用假角色）照舊走 RoleDispatch 與介面呼叫，這一層不是窮舉檢查
+ * - 只回傳 void / 列舉，沒有泛型的處理物件，不會裝箱，每個 case 的呼叫點都是單型的
+ * - kindOf 回傳 RoleStats 的職業種類（每個具體職業的建構子都會確認種類與類別相符），
+ *   給需要列舉值而不是類別的地方使用
+ *
+ * 需要讀取各職業特有狀態的地方（陣列引擎、效用 AI、一致性檢查）也照同樣的寫法，
+ * 在自己的程式裡對 MeleeRole / RangedRole 各寫一個不含 default 的 switch
+ */
+package com.rpg.roles;
+
+import com.rpg.core.Role;
+import com.rpg.core.RoleDispatch;
+import com.rpg.core.RoleKind;
+import com.rpg.interfaces.Defendable;
+import com.rpg.interfaces.Healable;
+import com.rpg.roles.melee.MeleeRole;
+import com.rpg.roles.melee.Paladin;
+import com.rpg.roles.melee.ShieldSwordsMan;
+import com.rpg.roles.melee.SwordsMan;
+import com.rpg.roles.ranged.Archer;
+import com.rpg.roles.ranged.Magician;
+import com.rpg.roles.ranged.RangedRole;
+
+public final class RoleSwitch {
+    private RoleSwitch() {
+    }
+
+    /**
+     * 角色的具體職業
+     * @param role 角色
+     * @throws IllegalArgumentException 角色不屬於 MeleeRole / RangedRole 底下的職業
+     */
+    public static RoleKind kindOf(Role role) {
+        if (!(role instanceof MeleeRole) && !(role instanceof RangedRole)) {
+            throw new IllegalArgumentException("不支援的角色類別：" + role.getClass().getSimpleName());
+        }
+        return role.getStats().getKind();
+    }
+
+    // ========== 攻擊 ==========
+
+    /**
+     * 攻擊目標
+     * @param self 行動的角色
+     * @param target 目標
+     */
+    public static void attack(Role self, Role target) {
+        if (self instanceof MeleeRole melee) {
+            attack(melee, target);
+        } else if (self instanceof RangedRole ranged) {
+            attack(ranged, target);
+        } else {
+            RoleDispatch.attack(self, target);
+        }
+    }
+
+    private static void attack(MeleeRole self, Role target) {
+        switch (self) {
+            case ShieldSwordsMan shieldSwordsMan -> shieldSwordsMan.attack(target);
+            case SwordsMan swordsMan -> swordsMan.attack(target);
+            case Paladin paladin -> paladin.attack(target);
+        }
+    }
+
+    private static void attack(RangedRole self, Role target) {
+        switch (self) {
+            case Magician magician -> magician.attack(target);
+            case Archer archer -> archer.attack(target);
+        }
+    }
+
+    // ========== 防禦 ==========
+
+    /**
+     * 防禦
+     * @param self 行動的角色
+     * @throws IllegalArgumentException 角色的職業不能防禦
+     */
+    public static void defend(Role self) {
+        if (self instanceof MeleeRole melee) {
+            defend(melee);
+        } else if (self instanceof RangedRole ranged) {
+            defend(ranged);
+        } else if (self instanceof Defendable defender) {
+            defender.defend();
+        } else {
+            throw cannot(self, "防禦");
+        }
+    }
+
+    private static void defend(MeleeRole self) {
+        switch (self) {
+            case ShieldSwordsMan shieldSwordsMan -> shieldSwordsMan.defend();
+            case SwordsMan swordsMan -> throw cannot(swordsMan, "防禦");
+            case Paladin paladin -> paladin.defend();
+        }
+    }
+
+    private static void defend(RangedRole self) {
+        switch (self) {
+            case Magician magician -> throw cannot(magician, "防禦");
+            case Archer archer -> throw cannot(archer, "防禦");
+        }
+    }
+
+    // ========== 治療 ==========
+
+    /**
+     * 治療隊友
+     * @param self 行動的角色
+     * @param ally 隊友
+     * @throws IllegalArgumentException 角色的職業不能治療
+     */
+    public static void heal(Role self, Role ally) {
+        if (self instanceof MeleeRole melee) {
+            heal(melee, ally);
+        } else if (self instanceof RangedRole ranged) {
+            heal(ranged, ally);
+        } else if (self instanceof Healable healer) {
+            healer.heal(ally);
+        } else {
+            throw cannot(self, "治療");
+        }
+    }
+
+    private static void heal(MeleeRole self, Role ally) {
+        switch (self) {
+            case ShieldSwordsMan shieldSwordsMan -> throw cannot(shieldSwordsMan, "治療");
+            case SwordsMan swordsMan -> throw cannot(swordsMan, "治療");
+            case Paladin paladin -> paladin.heal(ally);
+        }
+    }
+
+    private static void heal(RangedRole self, Role ally) {
+        switch (self) {
+            case Magician magician -> magician.heal(ally);
+            case Archer archer -> throw cannot(archer, "治療");
+        }
+    }
+
+    private static IllegalArgumentException cannot(Role role, String action) {
+        return new IllegalArgumentException(role.getClass().getSimpleName() + " 不能" + action);
+    }
+}
@@ -11,28 +11,31 @@
  *   ↓
  * MeleeRole (中間層抽象類別) - 近戰角色的共通特性
  *   ↓
- * SwordsMan, ShieldSwordsMan (具體類別)
+ * SwordsMan (→ ShieldSwordsMan), Paladin (具體類別)
+ *
+ * 這一層是 sealed：只允許上面列出的類別繼承，對這一層的 pattern matching switch（RoleSwitch、陣列引擎、效用 AI）不寫 default 也涵蓋所有類別
  */
 package com.rpg.roles.melee;
 import com.rpg.core.Role;
+import com.rpg.core.RoleStats;
 
-public abstract class MeleeRole extends Role {
-    // 護甲值：近戰角色特有的屬性
+import java.nio.ByteBuffer;
+
+public abstract sealed class MeleeRole extends Role permits SwordsMan, Paladin {
+    // 護甲值：近戰角色特有的屬性（初始值來自共用數值，之後可以被修改）
     private int armor;
     
     /**
      * 建構子：初始化近戰角色
-     * @param name 角色名稱
-     * @param health 生命值
-     * @param attackPower 攻擊力
-     * @param armor 護甲值
+     * @param stats 共用的角色數值（護甲值從 stats.getArmor() 開始）
      */
-    public MeleeRole(String name, int health, int attackPower, int armor) {
-        super(name, health, attackPower);
-        this.armor = armor;
+    protected MeleeRole(RoleStats stats) {
+        super(stats);
+        this.armor = stats.getArmor();
     }
 
     // 取得護甲值
+    @Override
     public int getArmor() {
         return armor;
     }
@@ -40,6 +43,13 @@ public abstract class MeleeRole extends Role {
     // 設定護甲值
     public void setArmor(int armor) {
         this.armor = armor;
+        stateChanged();
+    }
+
+    // 護甲最多把傷害擋到 0（與 calculateDefense 相同）
+    @Override
+    protected int getDamageFloor() {
+        return 0;
     }
 
     // ========== 第三階段新增：近戰角色的共通方法 ==========
@@ -54,7 +64,7 @@ public abstract class MeleeRole extends Role {
     public int calculateDefense(int incomingDamage) {
         int actualDamage = Math.max(0, incomingDamage - armor);
         if (armor > 0 && incomingDamage > 0) {
-            System.out.println("🛡️  護甲減免 " + Math.min(armor, incomingDamage) + " 點傷害！");
+            getListener().onArmorMitigated(this, Math.min(armor, incomingDamage));
         }
         return actualDamage;
     }
@@ -86,8 +96,10 @@ public abstract class MeleeRole extends Role {
      */
     @Override
     public void prepareBattle() {
-        System.out.println("⚔️  " + getName() + " 檢查 " + getWeaponType() + " 的狀態...");
-        System.out.println("🛡️  目前護甲值：" + armor);
+        if (isNarrating()) {
+            narrate("⚔️  " + getName() + " 檢查 " + getWeaponType() + " 的狀態...");
+            narrate("🛡️  目前護甲值：" + armor);
+        }
         onMeleePrepare(); // 呼叫抽象方法，讓子類別加入特殊準備
     }
 
@@ -97,8 +109,36 @@ public abstract class MeleeRole extends Role {
      */
     protected abstract void onMeleePrepare();
 
+    // 恢復初始狀態：生命值與護甲值
+    @Override
+    public void reset() {
+        super.reset();
+        this.armor = getStats().getArmor();
+        stateChanged();
+    }
+
+    // 存檔：再加上護甲值
+    @Override
+    public int getStateBytes() {
+        return super.getStateBytes() + Integer.BYTES;
+    }
+
+    @Override
+    public void saveState(ByteBuffer out) {
+        super.saveState(out);
+        out.putInt(armor);
+    }
+
+    @Override
+    public void loadState(ByteBuffer in) {
+        super.loadState(in);
+        this.armor = in.getInt();
+        stateChanged();
+    }
+
     @Override
-    public String toString() {
-        return super.toString() + ", 護甲值: " + armor;
+    protected void describe(StringBuilder text) {
+        super.describe(text);
+        text.append(", 護甲值: ").append(armor);
     }
 }
@@ -22,85 +22,184 @@
  * - 符合「組合優於繼承」的原則
  */
 package com.rpg.roles.melee;
+import com.rpg.core.Dispatched;
 import com.rpg.core.Role;
+import com.rpg.core.RoleKind;
+import com.rpg.core.RoleStats;
+import com.rpg.core.SkillCard;
+import com.rpg.effect.EffectEngine;
 import com.rpg.interfaces.Defendable;
 import com.rpg.interfaces.Healable;
 
-public class Paladin extends MeleeRole implements Defendable, Healable {
-    private int defenseCapacity;  // 防禦力
-    private int healPower;        // 治療力
-    private int holyPower;        // 聖能值（特有資源）
-    private int maxHolyPower;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+
+@Dispatched
+public final class Paladin extends MeleeRole implements Defendable, Healable {
+    // 技能卡片樣板（整個類別共用，只建立一次）
+    private static final SkillCard SKILL_CARD = SkillCard.of(
+            "╔═════════════════════════════╗",
+            "║ {name} 的特殊技能      ║",
+            "╠═════════════════════════════╣",
+            "║ 技能名稱：神聖審判          ║",
+            "║ 技能描述：召喚聖光審判敵人  ║",
+            "║ 攻擊效果：神聖傷害          ║",
+            "║ 防禦力：+{} 點              ║",
+            "║ 治療力：+{} 點              ║",
+            "║ 聖能值：{}/{}            ║",
+            "╚═════════════════════════════╝");
+
+    private int holyPower;        // 聖能值（特有資源；防禦力、治療力、聖能上限與消耗在共用數值裡）
+
+    // 執行緒安全模式下，用 CAS 更新聖能
+    private static final VarHandle HOLY_POWER;
+
+    static {
+        try {
+            HOLY_POWER = MethodHandles.lookup().findVarHandle(Paladin.class, "holyPower", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
     
     /**
      * 建構子：初始化聖騎士
      */
     public Paladin(String name, int health, int attackPower, int armor, 
                    int defenseCapacity, int healPower, int maxHolyPower) {
-        super(name, health, attackPower, armor);
-        this.defenseCapacity = defenseCapacity;
-        this.healPower = healPower;
-        this.maxHolyPower = maxHolyPower;
-        this.holyPower = maxHolyPower;
+        this(RoleStats.builder(RoleKind.PALADIN, name)
+                .health(health).attackPower(attackPower).armor(armor)
+                .defenseCapacity(defenseCapacity).healPower(healPower)
+                .maxHolyPower(maxHolyPower).build());
+    }
+
+    // 建構子：使用共用的角色數值（通常來自 ArchetypeRegistry）
+    public Paladin(RoleStats stats) {
+        super(stats.requireKind(RoleKind.PALADIN));
+        this.holyPower = stats.getMaxHolyPower();
     }
 
     // 取得聖能值
     public int getHolyPower() {
-        return holyPower;
+        return isThreadSafe() ? (int) HOLY_POWER.getVolatile(this) : holyPower;
+    }
+
+    // 取得聖能上限
+    public int getMaxHolyPower() {
+        return getStats().getMaxHolyPower();
     }
 
     // 消耗聖能
     private boolean consumeHolyPower(int amount) {
+        if (isThreadSafe()) {
+            return consumeHolyPowerAtomically(amount);
+        }
         if (holyPower >= amount) {
             holyPower -= amount;
-            System.out.println("✨ 消耗 " + amount + " 點聖能，剩餘：" + holyPower + "/" + maxHolyPower);
+            resourceChanged();
+            getListener().onHolyPowerConsumed(this, amount, holyPower, getMaxHolyPower());
             return true;
         } else {
-            System.out.println("❌ 聖能不足！需要 " + amount + "，目前只有 " + holyPower);
+            getListener().onHolyPowerShortage(this, amount, holyPower);
             return false;
         }
     }
 
+    // 執行緒安全模式的消耗聖能：CAS 迴圈，聖能足夠才扣除
+    private boolean consumeHolyPowerAtomically(int amount) {
+        int current;
+        do {
+            current = (int) HOLY_POWER.getVolatile(this);
+            if (current < amount) {
+                getListener().onHolyPowerShortage(this, amount, current);
+                return false;
+            }
+        } while (!HOLY_POWER.compareAndSet(this, current, current - amount));
+        resourceChanged();
+        getListener().onHolyPowerConsumed(this, amount, current - amount, getMaxHolyPower());
+        return true;
+    }
+
     // 恢復聖能
     private void restoreHolyPower(int amount) {
+        if (isThreadSafe()) {
+            int current;
+            int restored;
+            do {
+                current = (int) HOLY_POWER.getVolatile(this);
+                restored = Math.min(current + amount, getMaxHolyPower());
+            } while (!HOLY_POWER.compareAndSet(this, current, restored));
+            resourceChanged();
+            getListener().onHolyPowerRestored(this, current, restored, getMaxHolyPower());
+            return;
+        }
         int oldPower = holyPower;
-        holyPower = Math.min(holyPower + amount, maxHolyPower);
-        System.out.println("🌟 恢復 " + (holyPower - oldPower) + " 點聖能 (" + 
-                         oldPower + " → " + holyPower + ")");
+        holyPower = Math.min(holyPower + amount, getMaxHolyPower());
+        resourceChanged();
+        getListener().onHolyPowerRestored(this, oldPower, holyPower, getMaxHolyPower());
     }
 
     @Override
     public void attack(Role opponent) {
-        System.out.println("⚔️✨ " + this.getName() + " 揮動 " + getWeaponType() + 
-                         " 進行神聖攻擊 " + opponent.getName() + "！");
-        System.out.println("🌟 聖光附著在武器上，增強傷害！");
+        if (isNarrating()) {
+            narrate("⚔️✨ " + this.getName() + " 揮動 " + getWeaponType() + 
+                             " 進行神聖攻擊 " + opponent.getName() + "！");
+            narrate("🌟 聖光附著在武器上，增強傷害！");
+        }
+        getListener().onAttack(this, opponent);
         opponent.takeDamage(this.getAttackPower());
         
         // 攻擊時恢復少量聖能
-        restoreHolyPower(5);
+        restoreHolyPower(getStats().getHolyOnHit());
+    }
+
+    /**
+     * 特殊技能：神聖審判
+     * 消耗 judgmentCost 點聖能，造成一次神聖攻擊，目標還活著時每回合再受到
+     * judgmentBurn 點聖光灼燒（真實傷害，不經過護甲），持續 judgmentDuration 回合
+     * （三個數值都在共用數值 RoleStats 裡，可以在原型定義檔調整）
+     *
+     * @param opponent 目標
+     * @param effects 負責計算灼燒的效果引擎
+     */
+    public void holyJudgment(Role opponent, EffectEngine effects) {
+        RoleStats stats = getStats();
+        if (!consumeHolyPower(stats.getJudgmentCost())) {
+            if (isNarrating()) {
+                narrate("❌ 聖能不足，無法施放神聖審判！");
+            }
+            return;
+        }
+        if (isNarrating()) {
+            narrate("⚖️✨ " + this.getName() + " 召喚聖光審判 " + opponent.getName() + "！");
+        }
+        getListener().onAttack(this, opponent);
+        opponent.takeDamage(this.getAttackPower());
+        if (opponent.isAlive() && stats.getJudgmentBurn() > 0 && stats.getJudgmentDuration() > 0) {
+            effects.damageOverTime(opponent, stats.getJudgmentBurn(), 1, stats.getJudgmentDuration());
+        }
     }
 
     @Override
     public void showSpecialSkill() {
-        System.out.println("╔═════════════════════════════╗");
-        System.out.println("║ " + this.getName() + " 的特殊技能      ║");
-        System.out.println("╠═════════════════════════════╣");
-        System.out.println("║ 技能名稱：神聖審判          ║");
-        System.out.println("║ 技能描述：召喚聖光審判敵人  ║");
-        System.out.println("║ 攻擊效果：神聖傷害          ║");
-        System.out.println("║ 防禦力：+" + defenseCapacity + " 點              ║");
-        System.out.println("║ 治療力：+" + healPower + " 點              ║");
-        System.out.println("║ 聖能值：" + holyPower + "/" + maxHolyPower + "            ║");
-        System.out.println("╚═════════════════════════════╝");
+        System.out.print(getSkillCard());
+    }
+
+    @Override
+    protected String renderSkillCard() {
+        return SKILL_CARD.render(getName(), getDefenseCapacity(), getHealPower(), getHolyPower(), getMaxHolyPower());
     }
 
     @Override
     public void onDeath() {
-        System.out.println("💀 " + this.getName() + " 完成了神聖的使命...");
-        System.out.println("✨ 聖光環繞身體，緩緩消散。");
-        System.out.println("⚔️  " + getWeaponType() + " 插在地上，散發著微弱的光芒。");
-        System.out.println("🛡️  盾牌上的聖徽依然閃耀。");
-        System.out.println("---");
+        if (isNarrating()) {
+            narrate("💀 " + this.getName() + " 完成了神聖的使命...");
+            narrate("✨ 聖光環繞身體，緩緩消散。");
+            narrate("⚔️  " + getWeaponType() + " 插在地上，散發著微弱的光芒。");
+            narrate("🛡️  盾牌上的聖徽依然閃耀。");
+            narrate("---");
+        }
     }
 
     @Override
@@ -110,15 +209,19 @@ public class Paladin extends MeleeRole implements Defendable, Healable {
 
     @Override
     protected void onMeleePrepare() {
-        System.out.println("🙏 " + this.getName() + " 低聲祈禱，聖光開始聚集...");
-        System.out.println("✨ 聖劍和聖盾都散發出神聖的光芒。");
-        System.out.println("📊 聖能值：" + holyPower + "/" + maxHolyPower);
+        if (isNarrating()) {
+            narrate("🙏 " + this.getName() + " 低聲祈禱，聖光開始聚集...");
+            narrate("✨ 聖劍和聖盾都散發出神聖的光芒。");
+            narrate("📊 聖能值：" + getHolyPower() + "/" + getMaxHolyPower());
+        }
     }
 
     @Override
     public void afterBattle() {
-        System.out.println("🙏 " + this.getName() + " 感謝聖光的庇護。");
-        restoreHolyPower(10); // 戰後恢復聖能
+        if (isNarrating()) {
+            narrate("🙏 " + this.getName() + " 感謝聖光的庇護。");
+        }
+        restoreHolyPower(getStats().getHolyRecovery()); // 戰後恢復聖能
     }
 
     // ========== 第四階段：實作 Defendable 介面 ==========
@@ -129,21 +232,23 @@ public class Paladin extends MeleeRole implements Defendable, Healable {
      */
     @Override
     public void defend() {
-        if (!consumeHolyPower(10)) {
-            System.out.println("❌ 無法使用聖盾防禦！");
+        if (!consumeHolyPower(getStats().getHolyDefendCost())) {
+            if (isNarrating()) {
+                narrate("❌ 無法使用聖盾防禦！");
+            }
             return;
         }
         
-        int oldHealth = this.getHealth();
-        this.setHealth(this.getHealth() + defenseCapacity);
-        System.out.println("🛡️✨ " + this.getName() + " 舉起聖盾，聖光形成防護罩！");
-        System.out.println("💚 恢復 " + defenseCapacity + " 點生命值 (" + 
-                         oldHealth + " → " + this.getHealth() + ")");
+        int newHealth = this.addHealth(getDefenseCapacity());
+        if (isNarrating()) {
+            narrate("🛡️✨ " + this.getName() + " 舉起聖盾，聖光形成防護罩！");
+        }
+        getListener().onDefend(this, newHealth - getDefenseCapacity(), newHealth);
     }
 
     @Override
     public int getDefenseCapacity() {
-        return defenseCapacity;
+        return getStats().getDefenseCapacity();
     }
 
     // ========== 第四階段：實作 Healable 介面 ==========
@@ -154,22 +259,24 @@ public class Paladin extends MeleeRole implements Defendable, Healable {
      */
     @Override
     public void heal(Role target) {
-        if (!consumeHolyPower(15)) {
-            System.out.println("❌ 無法施放聖光治療！");
+        if (!consumeHolyPower(getStats().getHolyHealCost())) {
+            if (isNarrating()) {
+                narrate("❌ 無法施放聖光治療！");
+            }
             return;
         }
         
-        int oldHealth = target.getHealth();
-        target.setHealth(target.getHealth() + this.healPower);
-        System.out.println("💚✨ " + this.getName() + " 施放聖光治療 " + target.getName());
-        System.out.println("🌟 神聖的光芒包圍著 " + target.getName());
-        System.out.println("💚 恢復 " + healPower + " 點生命值 (" + 
-                         oldHealth + " → " + target.getHealth() + ")");
+        int newHealth = target.addHealth(getHealPower());
+        if (isNarrating()) {
+            narrate("💚✨ " + this.getName() + " 施放聖光治療 " + target.getName());
+            narrate("🌟 神聖的光芒包圍著 " + target.getName());
+        }
+        getListener().onHeal(this, target, newHealth - getHealPower(), newHealth);
     }
 
     @Override
     public int getHealPower() {
-        return healPower;
+        return getStats().getHealPower();
     }
 
     /**
@@ -178,12 +285,61 @@ public class Paladin extends MeleeRole implements Defendable, Healable {
      */
     @Override
     public boolean canHeal() {
-        return getHealPower() > 0 && holyPower >= 15;
+        return getHealPower() > 0 && getHolyPower() >= getStats().getHolyHealCost();
+    }
+
+    // 恢復初始狀態：生命值、護甲值與聖能（回滿）
+    @Override
+    public void reset() {
+        super.reset();
+        writeHolyPower(getMaxHolyPower());
+        stateChanged();
+    }
+
+    // 直接寫入聖能，不發出事件（reset、loadState 用；執行緒安全模式下經由 VarHandle）
+    private void writeHolyPower(int holyPower) {
+        if (isThreadSafe()) {
+            HOLY_POWER.setVolatile(this, holyPower);
+        } else {
+            this.holyPower = holyPower;
+        }
+    }
+
+    // 存檔：再加上聖能
+    @Override
+    public int getStateBytes() {
+        return super.getStateBytes() + Integer.BYTES;
+    }
+
+    @Override
+    public void saveState(ByteBuffer out) {
+        super.saveState(out);
+        out.putInt(getHolyPower());
+    }
+
+    @Override
+    public void loadState(ByteBuffer in) {
+        super.loadState(in);
+        writeHolyPower(in.getInt());
+        stateChanged();
+    }
+
+    // 執行緒安全模式下快取的文字還要比對聖能
+    @Override
+    protected int renderedValueCount() {
+        return super.renderedValueCount() + 1;
+    }
+
+    @Override
+    protected int renderedValue(int index) {
+        return index == super.renderedValueCount() ? getHolyPower() : super.renderedValue(index);
     }
 
     @Override
-    public String toString() {
-        return super.toString() + ", 防禦力: " + defenseCapacity + 
-               ", 治療力: " + healPower + ", 聖能: " + holyPower + "/" + maxHolyPower;
+    protected void describe(StringBuilder text) {
+        super.describe(text);
+        text.append(", 防禦力: ").append(getDefenseCapacity())
+            .append(", 治療力: ").append(getHealPower())
+            .append(", 聖能: ").append(getHolyPower()).append('/').append(getMaxHolyPower());
     }
 }
@@ -13,43 +13,88 @@
  * 3. 介面提供統一的防禦行為規範
  */
 package com.rpg.roles.melee;
+import com.rpg.core.Dispatched;
 import com.rpg.core.Role;
+import com.rpg.core.RoleKind;
+import com.rpg.core.RoleStats;
+import com.rpg.core.SkillCard;
+import com.rpg.effect.EffectEngine;
 import com.rpg.interfaces.Defendable;
 
-public class ShieldSwordsMan extends SwordsMan implements Defendable {
-    private int defenseCapacity;
-    
+@Dispatched
+public final class ShieldSwordsMan extends SwordsMan implements Defendable {
+    // 盾牌猛擊的暈眩回合數
+    public static final int SHIELD_BASH_STUN = 2;
+
+    // 技能卡片樣板（整個類別共用，只建立一次）
+    private static final SkillCard SKILL_CARD = SkillCard.of(
+            "╔═════════════════════════════╗",
+            "║ {name} 的特殊技能      ║",
+            "╠═════════════════════════════╣",
+            "║ 技能名稱：盾牌猛擊          ║",
+            "║ 技能描述：使用盾牌撞擊敵人  ║",
+            "║ 技能效果：造成傷害並暈眩    ║",
+            "║ 防禦力：+{} 點              ║",
+            "║ 護甲值：+{} 點              ║",
+            "╚═════════════════════════════╝");
+
     public ShieldSwordsMan(String name, int health, int attackPower, int armor, int defenseCapacity) {
-        super(name, health, attackPower, armor);
-        this.defenseCapacity = defenseCapacity;
+        this(RoleStats.builder(RoleKind.SHIELD_SWORDSMAN, name)
+                .health(health).attackPower(attackPower).armor(armor)
+                .defenseCapacity(defenseCapacity).build());
+    }
+
+    // 建構子：使用共用的角色數值（通常來自 ArchetypeRegistry）
+    public ShieldSwordsMan(RoleStats stats) {
+        super(stats, RoleKind.SHIELD_SWORDSMAN);
     }
 
     @Override
     public void attack(Role opponent) {
-        int reducedDamage = this.getAttackPower() - 5;
-        System.out.println("🛡️⚔️  " + this.getName() + " 單手揮動 " + getWeaponType() + " 攻擊 " + opponent.getName() + "！");
+        int reducedDamage = this.getAttackPower() - getStats().getOneHandedPenalty();
+        if (isNarrating()) {
+            narrate("🛡️⚔️  " + this.getName() + " 單手揮動 " + getWeaponType() + " 攻擊 " + opponent.getName() + "！");
+        }
+        getListener().onAttack(this, opponent);
         opponent.takeDamage(reducedDamage);
     }
 
+    /**
+     * 特殊技能：盾牌猛擊
+     * 用盾牌撞擊敵人，傷害與普通攻擊相同；目標還活著時暈眩 SHIELD_BASH_STUN 回合
+     *
+     * @param opponent 目標
+     * @param effects 負責計算暈眩時間的效果引擎
+     */
+    public void shieldBash(Role opponent, EffectEngine effects) {
+        if (isNarrating()) {
+            narrate("🛡️💥 " + this.getName() + " 舉盾猛擊 " + opponent.getName() + "！");
+        }
+        getListener().onAttack(this, opponent);
+        opponent.takeDamage(this.getAttackPower() - getStats().getOneHandedPenalty());
+        if (opponent.isAlive()) {
+            effects.stun(opponent, SHIELD_BASH_STUN);
+        }
+    }
+
     @Override
     public void showSpecialSkill() {
-        System.out.println("╔═════════════════════════════╗");
-        System.out.println("║ " + this.getName() + " 的特殊技能      ║");
-        System.out.println("╠═════════════════════════════╣");
-        System.out.println("║ 技能名稱：盾牌猛擊          ║");
-        System.out.println("║ 技能描述：使用盾牌撞擊敵人  ║");
-        System.out.println("║ 技能效果：造成傷害並暈眩    ║");
-        System.out.println("║ 防禦力：+" + defenseCapacity + " 點              ║");
-        System.out.println("║ 護甲值：+" + getArmor() + " 點              ║");
-        System.out.println("╚═════════════════════════════╝");
+        System.out.print(getSkillCard());
+    }
+
+    @Override
+    protected String renderSkillCard() {
+        return SKILL_CARD.render(getName(), getDefenseCapacity(), getArmor());
     }
 
     @Override
     public void onDeath() {
-        System.out.println("💀 " + this.getName() + " 力竭倒下...");
-        System.out.println("🛡️  厚重的盾牌砸在地上，揚起一陣塵土。");
-        System.out.println("⚔️  " + getWeaponType() + " 也隨之掉落。");
-        System.out.println("---");
+        if (isNarrating()) {
+            narrate("💀 " + this.getName() + " 力竭倒下...");
+            narrate("🛡️  厚重的盾牌砸在地上，揚起一陣塵土。");
+            narrate("⚔️  " + getWeaponType() + " 也隨之掉落。");
+            narrate("---");
+        }
     }
 
     @Override
@@ -59,13 +104,17 @@ public class ShieldSwordsMan extends SwordsMan implements Defendable {
 
     @Override
     protected void onMeleePrepare() {
-        System.out.println("🛡️  檢查盾牌的牢固程度，準備防禦姿態...");
-        System.out.println("⚔️  同時確認 " + getWeaponType() + " 的配合度。");
+        if (isNarrating()) {
+            narrate("🛡️  檢查盾牌的牢固程度，準備防禦姿態...");
+            narrate("⚔️  同時確認 " + getWeaponType() + " 的配合度。");
+        }
     }
 
     @Override
     public void afterBattle() {
-        System.out.println("🛡️  " + this.getName() + " 檢視盾牌上的新傷痕，並進行簡單修補。");
+        if (isNarrating()) {
+            narrate("🛡️  " + this.getName() + " 檢視盾牌上的新傷痕，並進行簡單修補。");
+        }
     }
 
     // ========== 第四階段新增：實作 Defendable 介面 ==========
@@ -76,11 +125,11 @@ public class ShieldSwordsMan extends SwordsMan implements Defendable {
      */
     @Override
     public void defend() {
-        int oldHealth = this.getHealth();
-        this.setHealth(this.getHealth() + defenseCapacity);
-        System.out.println("🛡️  " + this.getName() + " 舉起盾牌防禦！");
-        System.out.println("💚 恢復 " + defenseCapacity + " 點生命值 (" + 
-                         oldHealth + " → " + this.getHealth() + ")");
+        int newHealth = this.addHealth(getDefenseCapacity());
+        if (isNarrating()) {
+            narrate("🛡️  " + this.getName() + " 舉起盾牌防禦！");
+        }
+        getListener().onDefend(this, newHealth - getDefenseCapacity(), newHealth);
     }
 
     /**
@@ -88,7 +137,7 @@ public class ShieldSwordsMan extends SwordsMan implements Defendable {
      */
     @Override
     public int getDefenseCapacity() {
-        return defenseCapacity;
+        return getStats().getDefenseCapacity();
     }
     
     // 注意：canDefend() 使用介面的預設實作，不需要覆寫
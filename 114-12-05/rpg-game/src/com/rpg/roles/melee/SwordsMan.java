@@ -5,38 +5,67 @@
  * 劍士專注於攻擊，沒有特殊防禦或治療能力
  */
 package com.rpg.roles.melee;
+import com.rpg.core.Dispatched;
 import com.rpg.core.Role;
+import com.rpg.core.RoleKind;
+import com.rpg.core.RoleStats;
+import com.rpg.core.SkillCard;
+
+@Dispatched
+public sealed class SwordsMan extends MeleeRole permits ShieldSwordsMan {
+    // 技能卡片樣板（整個類別共用，只建立一次）
+    private static final SkillCard SKILL_CARD = SkillCard.of(
+            "┌─────────────────────────────┐",
+            "│ {name} 的特殊技能        │",
+            "├─────────────────────────────┤",
+            "│ 技能名稱：連續斬擊          │",
+            "│ 技能描述：快速揮劍三次      │",
+            "│ 技能效果：造成 150% 傷害    │",
+            "│ 護甲加成：+{} 點防禦         │",
+            "└─────────────────────────────┘");
 
-public class SwordsMan extends MeleeRole {
-    
     public SwordsMan(String name, int health, int attackPower, int armor) {
-        super(name, health, attackPower, armor);
+        this(RoleStats.builder(RoleKind.SWORDSMAN, name)
+                .health(health).attackPower(attackPower).armor(armor).build());
+    }
+
+    // 建構子：使用共用的角色數值（通常來自 ArchetypeRegistry）
+    public SwordsMan(RoleStats stats) {
+        this(stats, RoleKind.SWORDSMAN);
+    }
+
+    // 建構子：持盾劍士沿用劍士的建構流程，但職業種類不同
+    SwordsMan(RoleStats stats, RoleKind kind) {
+        super(stats.requireKind(kind));
     }
 
     @Override
     public void attack(Role opponent) {
-        System.out.println("⚔️  " + this.getName() + " 揮動 " + getWeaponType() + " 攻擊 " + opponent.getName() + "！");
+        if (isNarrating()) {
+            narrate("⚔️  " + this.getName() + " 揮動 " + getWeaponType() + " 攻擊 " + opponent.getName() + "！");
+        }
+        getListener().onAttack(this, opponent);
         opponent.takeDamage(this.getAttackPower());
     }
 
     @Override
     public void showSpecialSkill() {
-        System.out.println("┌─────────────────────────────┐");
-        System.out.println("│ " + this.getName() + " 的特殊技能        │");
-        System.out.println("├─────────────────────────────┤");
-        System.out.println("│ 技能名稱：連續斬擊          │");
-        System.out.println("│ 技能描述：快速揮劍三次      │");
-        System.out.println("│ 技能效果：造成 150% 傷害    │");
-        System.out.println("│ 護甲加成：+" + getArmor() + " 點防禦         │");
-        System.out.println("└─────────────────────────────┘");
+        System.out.print(getSkillCard());
+    }
+
+    @Override
+    protected String renderSkillCard() {
+        return SKILL_CARD.render(getName(), getArmor());
     }
 
     @Override
     public void onDeath() {
-        System.out.println("💀 " + this.getName() + " 倒下了...");
-        System.out.println("⚔️  " + getWeaponType() + " 掉落在地上，發出清脆的聲響。");
-        System.out.println("🛡️  護甲碎裂散落一地。");
-        System.out.println("---");
+        if (isNarrating()) {
+            narrate("💀 " + this.getName() + " 倒下了...");
+            narrate("⚔️  " + getWeaponType() + " 掉落在地上，發出清脆的聲響。");
+            narrate("🛡️  護甲碎裂散落一地。");
+            narrate("---");
+        }
     }
 
     @Override
@@ -46,11 +75,15 @@ public class SwordsMan extends MeleeRole {
 
     @Override
     protected void onMeleePrepare() {
-        System.out.println("✨ 擦拭劍刃，劍身反射出凜冽的寒光...");
+        if (isNarrating()) {
+            narrate("✨ 擦拭劍刃，劍身反射出凜冽的寒光...");
+        }
     }
 
     @Override
     public void afterBattle() {
-        System.out.println("🗡️  " + this.getName() + " 將 " + getWeaponType() + " 收入劍鞘。");
+        if (isNarrating()) {
+            narrate("🗡️  " + this.getName() + " 將 " + getWeaponType() + " 收入劍鞘。");
+        }
     }
 }
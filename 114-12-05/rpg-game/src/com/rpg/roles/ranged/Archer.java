@@ -7,76 +7,224 @@
  * - 使用箭矢而非魔法
  */
 package com.rpg.roles.ranged;
+import com.rpg.core.DamageBatch;
+import com.rpg.core.Dispatched;
 import com.rpg.core.Role;
+import com.rpg.core.RoleKind;
+import com.rpg.core.RoleStats;
+import com.rpg.core.SkillCard;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+
+@Dispatched
+public final class Archer extends RangedRole {
+    // 多重箭矢一次最多射出的箭數
+    public static final int MULTI_SHOT_ARROWS = 3;
+
+    // 技能卡片樣板（整個類別共用，只建立一次）
+    private static final SkillCard SKILL_CARD = SkillCard.of(
+            "╔═════════════════════════════╗",
+            "║ {name} 的特殊技能        ║",
+            "╠═════════════════════════════╣",
+            "║ 技能名稱：多重箭矢          ║",
+            "║ 技能描述：同時射出三支箭    ║",
+            "║ 技能效果：分別命中三個目標  ║",
+            "║ 射程：{} 米                ║",
+            "║ 箭矢：{}/{}               ║",
+            "╚═════════════════════════════╝");
 
-public class Archer extends RangedRole {
     // 箭矢數量
     private int arrowCount;
-    private int maxArrows;
+
+    // 執行緒安全模式下，用 CAS 更新箭矢數量
+    private static final VarHandle ARROWS;
+
+    static {
+        try {
+            ARROWS = MethodHandles.lookup().findVarHandle(Archer.class, "arrowCount", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
     
     /**
      * 建構子：初始化弓箭手
      */
     public Archer(String name, int health, int attackPower, int range, int maxEnergy, int maxArrows) {
-        super(name, health, attackPower, range, maxEnergy);
-        this.maxArrows = maxArrows;
-        this.arrowCount = maxArrows;
+        this(RoleStats.builder(RoleKind.ARCHER, name)
+                .health(health).attackPower(attackPower).range(range)
+                .maxEnergy(maxEnergy).maxArrows(maxArrows).build());
+    }
+
+    // 建構子：使用共用的角色數值（通常來自 ArchetypeRegistry）
+    public Archer(RoleStats stats) {
+        super(stats.requireKind(RoleKind.ARCHER));
+        this.arrowCount = stats.getMaxArrows();
     }
 
     // 取得箭矢數量
     public int getArrowCount() {
-        return arrowCount;
+        return isThreadSafe() ? (int) ARROWS.getVolatile(this) : arrowCount;
+    }
+
+    // 取得箭矢上限
+    public int getMaxArrows() {
+        return getStats().getMaxArrows();
     }
 
     // 補充箭矢
     public void reloadArrows(int amount) {
+        if (isThreadSafe()) {
+            int current;
+            int reloaded;
+            do {
+                current = (int) ARROWS.getVolatile(this);
+                reloaded = Math.min(current + amount, getMaxArrows());
+            } while (!ARROWS.compareAndSet(this, current, reloaded));
+            resourceChanged();
+            getListener().onArrowsReloaded(this, current, reloaded);
+            return;
+        }
         int oldCount = arrowCount;
-        arrowCount = Math.min(arrowCount + amount, maxArrows);
-        System.out.println("🏹 補充箭矢 " + (arrowCount - oldCount) + " 支 (" + oldCount + " → " + arrowCount + ")");
+        arrowCount = Math.min(arrowCount + amount, getMaxArrows());
+        resourceChanged();
+        getListener().onArrowsReloaded(this, oldCount, arrowCount);
+    }
+
+    // 取出一支箭，回傳剩下的數量（沒有箭時回傳 -1，不會扣成負數）
+    private int takeArrow() {
+        if (!isThreadSafe()) {
+            if (arrowCount <= 0) {
+                return -1;
+            }
+            arrowCount--;
+            resourceChanged();
+            return arrowCount;
+        }
+        int current;
+        do {
+            current = (int) ARROWS.getVolatile(this);
+            if (current <= 0) {
+                return -1;
+            }
+        } while (!ARROWS.compareAndSet(this, current, current - 1));
+        resourceChanged();
+        return current - 1;
+    }
+
+    // 把 takeArrow 取出但沒有射出的箭放回去（沒有發出過射箭事件，所以也不發出補充事件）
+    private void returnArrow() {
+        if (isThreadSafe()) {
+            ARROWS.getAndAdd(this, 1);
+        } else {
+            arrowCount++;
+        }
+        resourceChanged();
     }
 
     // 攻擊對手
     @Override
     public void attack(Role opponent) {
-        // 檢查箭矢是否足夠
-        if (arrowCount <= 0) {
-            System.out.println("❌ " + getName() + " 箭矢用盡，無法攻擊！");
+        // 先取出一支箭再扣能量：多個執行緒共用時，檢查完箭矢數量後箭仍可能被別人先用完，
+        // 先扣能量的話這份能量就白花了
+        int remaining = takeArrow();
+        if (remaining < 0) {
+            if (isNarrating()) {
+                narrate("❌ " + getName() + " 箭矢用盡，無法攻擊！");
+            }
             return;
         }
         
-        // 檢查能量是否足夠（拉弓需要體力）
-        if (!consumeEnergy(10)) {
-            System.out.println("❌ " + getName() + " 體力不足，無法拉弓！");
+        // 檢查能量是否足夠（拉弓需要體力），不夠時把箭放回去
+        if (!consumeEnergy(getStats().getAttackEnergyCost())) {
+            returnArrow();
+            if (isNarrating()) {
+                narrate("❌ " + getName() + " 體力不足，無法拉弓！");
+            }
             return;
         }
-        
-        arrowCount--;
-        System.out.println("🏹 " + getName() + " 射出 " + getRangedAttackType() + " 攻擊 " + opponent.getName() + "！");
-        System.out.println("📊 剩餘箭矢：" + arrowCount + "/" + maxArrows);
+        if (isNarrating()) {
+            narrate("🏹 " + getName() + " 射出 " + getRangedAttackType() + " 攻擊 " + opponent.getName() + "！");
+        }
+        getListener().onArrowShot(this, remaining, getMaxArrows());
+        getListener().onAttack(this, opponent);
         opponent.takeDamage(this.getAttackPower());
     }
 
+    /**
+     * 特殊技能：多重箭矢
+     * 拉一次弓（消耗一次攻擊的能量），對最多 MULTI_SHOT_ARROWS 個目標各射出一支箭
+     * 傷害只記錄到 DamageBatch，由呼叫者在這一輪結束時一次結算（扣護甲、扣血、死亡）
+     *
+     * 批次結算時監聽器先收到所有 onAttack，最後才收到合併後的 onDamage；
+     * 監聽器依受傷的目標判斷傷害歸屬，所以同一個批次可以混合不同陣營的命中
+     *
+     * @param targets 目標（依序各射一支箭，超過的目標不會被射到）
+     * @param batch 收集命中的批次
+     * @return 射出的箭數（箭矢或能量不足時為 0）
+     */
+    public int multiShot(Role[] targets, DamageBatch batch) {
+        int volley = Math.min(MULTI_SHOT_ARROWS, targets.length);
+        if (volley == 0) {
+            return 0;
+        }
+        // 與 attack 相同：先取出第一支箭再扣能量，能量不夠時放回去
+        int remaining = takeArrow();
+        if (remaining < 0) {
+            if (isNarrating()) {
+                narrate("❌ " + getName() + " 箭矢用盡，無法施放多重箭矢！");
+            }
+            return 0;
+        }
+        if (!consumeEnergy(getStats().getAttackEnergyCost())) {
+            returnArrow();
+            if (isNarrating()) {
+                narrate("❌ " + getName() + " 體力不足，無法拉弓！");
+            }
+            return 0;
+        }
+
+        if (isNarrating()) {
+            narrate("🏹🏹🏹 " + getName() + " 施放多重箭矢！");
+        }
+        int shot = 0;
+        for (int i = 0; i < volley; i++) {
+            if (i > 0) {
+                remaining = takeArrow();
+                if (remaining < 0) {
+                    break; // 箭矢不夠射滿整輪
+                }
+            }
+            shot++;
+            getListener().onArrowShot(this, remaining, getMaxArrows());
+            getListener().onAttack(this, targets[i]);
+            batch.add(targets[i], getAttackPower());
+        }
+        return shot;
+    }
+
     // 展示特殊技能
     @Override
     public void showSpecialSkill() {
-        System.out.println("╔═════════════════════════════╗");
-        System.out.println("║ " + this.getName() + " 的特殊技能        ║");
-        System.out.println("╠═════════════════════════════╣");
-        System.out.println("║ 技能名稱：多重箭矢          ║");
-        System.out.println("║ 技能描述：同時射出三支箭    ║");
-        System.out.println("║ 技能效果：分別命中三個目標  ║");
-        System.out.println("║ 射程：" + getRange() + " 米                ║");
-        System.out.println("║ 箭矢：" + arrowCount + "/" + maxArrows + "               ║");
-        System.out.println("╚═════════════════════════════╝");
+        System.out.print(getSkillCard());
+    }
+
+    @Override
+    protected String renderSkillCard() {
+        return SKILL_CARD.render(getName(), getRange(), getArrowCount(), getMaxArrows());
     }
 
     // 弓箭手的死亡效果
     @Override
     public void onDeath() {
-        System.out.println("💀 " + this.getName() + " 倒下了...");
-        System.out.println("🏹 弓掉落在地上，弓弦斷裂。");
-        System.out.println("🎯 箭囊散落一地，箭矢四散。");
-        System.out.println("---");
+        if (isNarrating()) {
+            narrate("💀 " + this.getName() + " 倒下了...");
+            narrate("🏹 弓掉落在地上，弓弦斷裂。");
+            narrate("🎯 箭囊散落一地，箭矢四散。");
+            narrate("---");
+        }
     }
 
     // ========== 實作 RangedRole 的抽象方法 ==========
@@ -96,8 +244,10 @@ public class Archer extends RangedRole {
      */
     @Override
     protected void onRangedPrepare() {
-        System.out.println("🏹 檢查弓弦的張力和箭矢的狀態...");
-        System.out.println("🎯 調整呼吸，進入射擊姿態。");
+        if (isNarrating()) {
+            narrate("🏹 檢查弓弦的張力和箭矢的狀態...");
+            narrate("🎯 調整呼吸，進入射擊姿態。");
+        }
     }
 
     /**
@@ -106,14 +256,64 @@ public class Archer extends RangedRole {
      */
     @Override
     protected void onRangedRecover() {
-        System.out.println("💪 " + this.getName() + " 放鬆手臂肌肉，恢復體力。");
-        if (arrowCount < maxArrows) {
-            reloadArrows(5); // 戰後補充 5 支箭
+        if (isNarrating()) {
+            narrate("💪 " + this.getName() + " 放鬆手臂肌肉，恢復體力。");
+        }
+        if (getArrowCount() < getMaxArrows()) {
+            reloadArrows(getStats().getArrowReload()); // 戰後補充箭矢（預設 5 支）
         }
     }
 
+    // 恢復初始狀態：生命值、能量與箭矢（補滿）
+    @Override
+    public void reset() {
+        super.reset();
+        writeArrows(getMaxArrows());
+        stateChanged();
+    }
+
+    // 直接寫入箭矢數，不發出事件（reset、loadState 用；執行緒安全模式下經由 VarHandle）
+    private void writeArrows(int arrowCount) {
+        if (isThreadSafe()) {
+            ARROWS.setVolatile(this, arrowCount);
+        } else {
+            this.arrowCount = arrowCount;
+        }
+    }
+
+    // 存檔：再加上箭矢數
+    @Override
+    public int getStateBytes() {
+        return super.getStateBytes() + Integer.BYTES;
+    }
+
+    @Override
+    public void saveState(ByteBuffer out) {
+        super.saveState(out);
+        out.putInt(getArrowCount());
+    }
+
+    @Override
+    public void loadState(ByteBuffer in) {
+        super.loadState(in);
+        writeArrows(in.getInt());
+        stateChanged();
+    }
+
+    // 執行緒安全模式下快取的文字還要比對箭矢數
+    @Override
+    protected int renderedValueCount() {
+        return super.renderedValueCount() + 1;
+    }
+
+    @Override
+    protected int renderedValue(int index) {
+        return index == super.renderedValueCount() ? getArrowCount() : super.renderedValue(index);
+    }
+
     @Override
-    public String toString() {
-        return super.toString() + ", 箭矢: " + arrowCount + "/" + maxArrows;
+    protected void describe(StringBuilder text) {
+        super.describe(text);
+        text.append(", 箭矢: ").append(getArrowCount()).append('/').append(getMaxArrows());
     }
 }
@@ -13,48 +13,73 @@
  * 3. 不同類別可以實作相同介面但有不同實作
  */
 package com.rpg.roles.ranged;
+import com.rpg.core.Dispatched;
 import com.rpg.core.Role;
+import com.rpg.core.RoleKind;
+import com.rpg.core.RoleStats;
+import com.rpg.core.SkillCard;
 import com.rpg.interfaces.Healable;
 
-public class Magician extends RangedRole implements Healable {
-    private int healPower;
+@Dispatched
+public final class Magician extends RangedRole implements Healable {
+    // 技能卡片樣板（整個類別共用，只建立一次）
+    private static final SkillCard SKILL_CARD = SkillCard.of(
+            "╔═════════════════════════════╗",
+            "║ {name} 的特殊技能        ║",
+            "╠═════════════════════════════╣",
+            "║ 技能名稱：元素爆發          ║",
+            "║ 技能描述：召喚強大魔法攻擊  ║",
+            "║ 技能效果：範圍魔法傷害      ║",
+            "║ 額外效果：恢復自身魔力      ║",
+            "║ 射程：{} 米                ║",
+            "║ 治療力：{} 點            ║",
+            "╚═════════════════════════════╝");
 
     public Magician(String name, int health, int attackPower, int healPower, int range, int maxEnergy) {
-        super(name, health, attackPower, range, maxEnergy);
-        this.healPower = healPower;
+        this(RoleStats.builder(RoleKind.MAGICIAN, name)
+                .health(health).attackPower(attackPower).healPower(healPower)
+                .range(range).maxEnergy(maxEnergy).build());
+    }
+
+    // 建構子：使用共用的角色數值（通常來自 ArchetypeRegistry）
+    public Magician(RoleStats stats) {
+        super(stats.requireKind(RoleKind.MAGICIAN));
     }
 
     @Override
     public void attack(Role opponent) {
-        if (!consumeEnergy(15)) {
-            System.out.println("❌ " + getName() + " 能量不足，無法施放魔法！");
+        if (!consumeEnergy(getStats().getAttackEnergyCost())) {
+            if (isNarrating()) {
+                narrate("❌ " + getName() + " 能量不足，無法施放魔法！");
+            }
             return;
         }
         
-        System.out.println("✨ " + getName() + " 施放 " + getRangedAttackType() + " 攻擊 " + opponent.getName() + "！");
+        if (isNarrating()) {
+            narrate("✨ " + getName() + " 施放 " + getRangedAttackType() + " 攻擊 " + opponent.getName() + "！");
+        }
+        getListener().onAttack(this, opponent);
         opponent.takeDamage(this.getAttackPower());
     }
 
     @Override
     public void showSpecialSkill() {
-        System.out.println("╔═════════════════════════════╗");
-        System.out.println("║ " + this.getName() + " 的特殊技能        ║");
-        System.out.println("╠═════════════════════════════╣");
-        System.out.println("║ 技能名稱：元素爆發          ║");
-        System.out.println("║ 技能描述：召喚強大魔法攻擊  ║");
-        System.out.println("║ 技能效果：範圍魔法傷害      ║");
-        System.out.println("║ 額外效果：恢復自身魔力      ║");
-        System.out.println("║ 射程：" + getRange() + " 米                ║");
-        System.out.println("║ 治療力：" + healPower + " 點            ║");
-        System.out.println("╚═════════════════════════════╝");
+        System.out.print(getSkillCard());
+    }
+
+    @Override
+    protected String renderSkillCard() {
+        return SKILL_CARD.render(getName(), getRange(), getHealPower());
     }
 
     @Override
     public void onDeath() {
-        System.out.println("💀 " + this.getName() + " 的生命之火熄滅了...");
-        System.out.println("✨ " + this.getName() + " 的身體化為無數魔法粒子，消散在空氣中。");
-        System.out.println("🌟 魔法書掉落在地上，微微發光。");
-        System.out.println("---");
+        if (isNarrating()) {
+            narrate("💀 " + this.getName() + " 的生命之火熄滅了...");
+            narrate("✨ " + this.getName() + " 的身體化為無數魔法粒子，消散在空氣中。");
+            narrate("🌟 魔法書掉落在地上，微微發光。");
+            narrate("---");
+        }
     }
 
     @Override
@@ -64,13 +89,17 @@ public class Magician extends RangedRole implements Healable {
 
     @Override
     protected void onRangedPrepare() {
-        System.out.println("📖 翻開魔法書，開始吟唱古老的咒語...");
-        System.out.println("✨ 魔法能量在周圍凝聚，空氣中閃爍著神秘的光芒。");
+        if (isNarrating()) {
+            narrate("📖 翻開魔法書，開始吟唱古老的咒語...");
+            narrate("✨ 魔法能量在周圍凝聚，空氣中閃爍著神秘的光芒。");
+        }
     }
 
     @Override
     protected void onRangedRecover() {
-        System.out.println("🧘 " + this.getName() + " 閉目冥想，深度恢復魔力。");
+        if (isNarrating()) {
+            narrate("🧘 " + this.getName() + " 閉目冥想，深度恢復魔力。");
+        }
     }
 
     // ========== 第四階段新增：實作 Healable 介面 ==========
@@ -82,16 +111,18 @@ public class Magician extends RangedRole implements Healable {
     @Override
     public void heal(Role target) {
         // 檢查能量是否足夠
-        if (!consumeEnergy(10)) {
-            System.out.println("❌ " + getName() + " 能量不足，無法施放治療！");
+        if (!consumeEnergy(getStats().getHealEnergyCost())) {
+            if (isNarrating()) {
+                narrate("❌ " + getName() + " 能量不足，無法施放治療！");
+            }
             return;
         }
         
-        int oldHealth = target.getHealth();
-        target.setHealth(target.getHealth() + this.healPower);
-        System.out.println("💚 " + this.getName() + " 施放治療魔法，治療 " + target.getName());
-        System.out.println("✨ 恢復 " + healPower + " 點生命值 (" + 
-                         oldHealth + " → " + target.getHealth() + ")");
+        int newHealth = target.addHealth(getHealPower());
+        if (isNarrating()) {
+            narrate("💚 " + this.getName() + " 施放治療魔法，治療 " + target.getName());
+        }
+        getListener().onHeal(this, target, newHealth - getHealPower(), newHealth);
     }
 
     /**
@@ -99,13 +130,14 @@ public class Magician extends RangedRole implements Healable {
      */
     @Override
     public int getHealPower() {
-        return healPower;
+        return getStats().getHealPower();
     }
     
     // 注意：canHeal() 和 showHealInfo() 使用介面的預設實作
 
     @Override
-    public String toString() {
-        return super.toString() + ", 治癒力: " + healPower;
+    protected void describe(StringBuilder text) {
+        super.describe(text);
+        text.append(", 治癒力: ").append(getHealPower());
     }
 }
@@ -12,50 +12,60 @@
  * RangedRole (中間層抽象類別) - 遠程角色的共通特性
  *   ↓
  * Magician, Archer (具體類別)
+ *
+ * 這一層是 sealed：只允許上面列出的類別繼承，對這一層的 pattern matching switch（RoleSwitch、陣列引擎、效用 AI）不寫 default 也涵蓋所有類別
  */
 package com.rpg.roles.ranged;
 import com.rpg.core.Role;
+import com.rpg.core.RoleStats;
 
-public abstract class RangedRole extends Role {
-    // 攻擊範圍：遠程角色特有的屬性
-    private int range;
-    // 能量值：用於施放遠程攻擊（魔力、箭矢等）
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+
+public abstract sealed class RangedRole extends Role permits Magician, Archer {
+    // 能量值：用於施放遠程攻擊（魔力、箭矢等）；射程與能量上限在共用數值裡
     private int energy;
-    private int maxEnergy;
+
+    // 執行緒安全模式下，用 CAS 更新能量
+    private static final VarHandle ENERGY;
+
+    static {
+        try {
+            ENERGY = MethodHandles.lookup().findVarHandle(RangedRole.class, "energy", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
     
     /**
      * 建構子：初始化遠程角色
-     * @param name 角色名稱
-     * @param health 生命值
-     * @param attackPower 攻擊力
-     * @param range 攻擊範圍
-     * @param maxEnergy 最大能量值
+     * @param stats 共用的角色數值（射程、能量上限）
      */
-    public RangedRole(String name, int health, int attackPower, int range, int maxEnergy) {
-        super(name, health, attackPower);
-        this.range = range;
-        this.maxEnergy = maxEnergy;
-        this.energy = maxEnergy; // 初始能量為最大值
+    protected RangedRole(RoleStats stats) {
+        super(stats);
+        this.energy = stats.getMaxEnergy(); // 初始能量為最大值
     }
 
     // 取得攻擊範圍
     public int getRange() {
-        return range;
+        return getStats().getRange();
     }
 
     // 取得當前能量值
     public int getEnergy() {
-        return energy;
+        return isThreadSafe() ? (int) ENERGY.getVolatile(this) : energy;
     }
 
     // 取得最大能量值
     public int getMaxEnergy() {
-        return maxEnergy;
+        return getStats().getMaxEnergy();
     }
 
     // 設定能量值
     public void setEnergy(int energy) {
-        this.energy = Math.min(energy, maxEnergy); // 不超過最大值
+        ENERGY.setVolatile(this, Math.min(energy, getMaxEnergy())); // 不超過最大值
+        resourceChanged();
     }
 
     // ========== 第三階段新增：遠程角色的共通方法 ==========
@@ -68,9 +78,23 @@ public abstract class RangedRole extends Role {
      * 因為所有遠程角色的射程檢查方式都相同
      */
     public boolean isInRange(int distance) {
-        boolean inRange = distance <= range;
-        if (!inRange) {
-            System.out.println("❌ 目標距離 " + distance + " 超出射程 " + range + "！");
+        boolean inRange = distance <= getRange();
+        if (!inRange && isNarrating()) {
+            narrate("❌ 目標距離 " + distance + " 超出射程 " + getRange() + "！");
+        }
+        return inRange;
+    }
+
+    /**
+     * 依雙方的戰場座標檢查目標是否在射程內（歐幾里得距離 ≤ 射程）
+     * @param target 目標角色
+     */
+    public boolean isInRange(Role target) {
+        long range = getRange();
+        boolean inRange = distanceSquaredTo(target) <= range * range;
+        if (!inRange && isNarrating()) {
+            narrate("❌ 目標 " + target.getName() + " 距離 " + Math.round(Math.sqrt(distanceSquaredTo(target)))
+                    + " 超出射程 " + getRange() + "！");
         }
         return inRange;
     }
@@ -80,24 +104,61 @@ public abstract class RangedRole extends Role {
      * 所有遠程攻擊都需要消耗能量
      */
     public boolean consumeEnergy(int amount) {
+        if (isThreadSafe()) {
+            return consumeEnergyAtomically(amount);
+        }
         if (energy >= amount) {
             energy -= amount;
-            System.out.println("💫 消耗 " + amount + " 點能量，剩餘：" + energy + "/" + maxEnergy);
+            resourceChanged();
+            getListener().onEnergyConsumed(this, amount, energy, getMaxEnergy());
             return true;
         } else {
-            System.out.println("❌ 能量不足！需要 " + amount + "，目前只有 " + energy);
+            getListener().onEnergyShortage(this, amount, energy);
             return false;
         }
     }
 
+    // 執行緒安全模式的消耗能量：CAS 迴圈，能量足夠才扣除，不會兩個執行緒花掉同一份能量
+    private boolean consumeEnergyAtomically(int amount) {
+        int current;
+        do {
+            current = (int) ENERGY.getVolatile(this);
+            if (current < amount) {
+                getListener().onEnergyShortage(this, amount, current);
+                return false;
+            }
+        } while (!ENERGY.compareAndSet(this, current, current - amount));
+        resourceChanged();
+        getListener().onEnergyConsumed(this, amount, current - amount, getMaxEnergy());
+        return true;
+    }
+
     /**
      * 恢復能量（具體方法）
      * 遠程角色的共通恢復機制
      */
     public void restoreEnergy(int amount) {
+        if (isThreadSafe()) {
+            restoreEnergyAtomically(amount);
+            return;
+        }
         int oldEnergy = energy;
-        energy = Math.min(energy + amount, maxEnergy);
-        System.out.println("✨ 恢復 " + (energy - oldEnergy) + " 點能量 (" + oldEnergy + " → " + energy + ")");
+        energy = Math.min(energy + amount, getMaxEnergy());
+        resourceChanged();
+        getListener().onEnergyRestored(this, oldEnergy, energy, getMaxEnergy());
+    }
+
+    // 執行緒安全模式的恢復能量：CAS 迴圈，不超過上限
+    private void restoreEnergyAtomically(int amount) {
+        int max = getMaxEnergy();
+        int current;
+        int restored;
+        do {
+            current = (int) ENERGY.getVolatile(this);
+            restored = Math.min(current + amount, max);
+        } while (!ENERGY.compareAndSet(this, current, restored));
+        resourceChanged();
+        getListener().onEnergyRestored(this, current, restored, max);
     }
 
     /**
@@ -115,8 +176,10 @@ public abstract class RangedRole extends Role {
      */
     @Override
     public void prepareBattle() {
-        System.out.println("🎯 " + getName() + " 準備 " + getRangedAttackType() + " 攻擊...");
-        System.out.println("📊 能量值：" + energy + "/" + maxEnergy + "，射程：" + range);
+        if (isNarrating()) {
+            narrate("🎯 " + getName() + " 準備 " + getRangedAttackType() + " 攻擊...");
+            narrate("📊 能量值：" + getEnergy() + "/" + getMaxEnergy() + "，射程：" + getRange());
+        }
         onRangedPrepare(); // 呼叫抽象方法，讓子類別加入特殊準備
     }
 
@@ -131,7 +194,7 @@ public abstract class RangedRole extends Role {
      */
     @Override
     public void afterBattle() {
-        restoreEnergy(10); // 每次戰鬥後恢復 10 點能量
+        restoreEnergy(getStats().getEnergyRecovery()); // 每次戰鬥後恢復能量（預設 10 點）
         onRangedRecover(); // 呼叫抽象方法
     }
 
@@ -140,8 +203,57 @@ public abstract class RangedRole extends Role {
      */
     protected abstract void onRangedRecover();
 
+    // 恢復初始狀態：生命值與能量（回滿）
+    @Override
+    public void reset() {
+        super.reset();
+        writeEnergy(getMaxEnergy());
+        stateChanged();
+    }
+
+    // 直接寫入能量，不發出事件（reset、loadState 用；執行緒安全模式下經由 VarHandle）
+    private void writeEnergy(int energy) {
+        if (isThreadSafe()) {
+            ENERGY.setVolatile(this, energy);
+        } else {
+            this.energy = energy;
+        }
+    }
+
+    // 存檔：再加上能量
+    @Override
+    public int getStateBytes() {
+        return super.getStateBytes() + Integer.BYTES;
+    }
+
+    @Override
+    public void saveState(ByteBuffer out) {
+        super.saveState(out);
+        out.putInt(getEnergy());
+    }
+
+    @Override
+    public void loadState(ByteBuffer in) {
+        super.loadState(in);
+        writeEnergy(in.getInt());
+        stateChanged();
+    }
+
+    // 執行緒安全模式下快取的文字還要比對能量
+    @Override
+    protected int renderedValueCount() {
+        return super.renderedValueCount() + 1;
+    }
+
+    @Override
+    protected int renderedValue(int index) {
+        return index == super.renderedValueCount() ? getEnergy() : super.renderedValue(index);
+    }
+
     @Override
-    public String toString() {
-        return super.toString() + ", 能量: " + energy + "/" + maxEnergy + ", 射程: " + range;
+    protected void describe(StringBuilder text) {
+        super.describe(text);
+        text.append(", 能量: ").append(getEnergy()).append('/').append(getMaxEnergy())
+            .append(", 射程: ").append(getRange());
     }
 }
@@ -0,0 +1,183 @@
+/**
+ * ScheduledBattle - 依速度排程的兩方對戰
+ *
+ * 與 sim.Battle 的差別：
+ * - Battle 每回合讓雙方照陣列順序各行動一次，速度沒有意義
+ * - 這裡由 TurnScheduler 決定誰下一個行動，速度 200 的角色行動次數是速度 100 的兩倍
+ * - 打到一方全滅為止；行動次數上限只是保險（雙方都會補血時可能永遠打不完）
+ *
+ * 設計說明：
+ * - 每次行動：從排程器取出下一個角色 → 準備 → 策略行動 → 戰後 → 排入下次行動，O(log n)
+ * - 角色陣亡時從排程器移除，復活時重新排入，不需要掃描全部角色
+ * - 開場時每個角色在 [0, 行動間隔) 之間隨機錯開，避免編號小的角色永遠先手
+ * - 先攻值使用角色速度：同時間行動時快的先
+ * - 所有隨機決定都來自建構時傳入的 BattleRandom，同一個種子一定打出同一場戰鬥
+ */
+package com.rpg.sched;
+
+import com.rpg.action.ActionPolicy;
+import com.rpg.action.BattleContext;
+import com.rpg.core.BattleRandom;
+import com.rpg.core.CombatEventListener;
+import com.rpg.core.CombatEventMulticaster;
+import com.rpg.core.LiveRoster;
+import com.rpg.core.Role;
+import com.rpg.core.RoleDispatch;
+import com.rpg.sim.Battle;
+
+public class ScheduledBattle implements BattleContext {
+    // 預設行動次數上限
+    public static final long DEFAULT_MAX_ACTIONS = 1_000_000;
+
+    private final Role[] roles;
+    private final int sizeA;
+    private final BattleRandom random;
+    private final TurnScheduler scheduler;
+    // 雙方的存活名單，由死亡 / 復活事件維護
+    private final LiveRoster aliveA;
+    private final LiveRoster aliveB;
+    // 每個角色的行動策略（索引 = 角色編號）
+    private final ActionPolicy[] policies;
+
+    // 收到事件時更新存活名單與排程
+    private final CombatEventListener tracker = new CombatEventListener() {
+        @Override
+        public void onDeath(Role role) {
+            rosterOf(role).remove(role);
+            scheduler.remove(role.getId());
+        }
+
+        @Override
+        public void onRevive(Role role) {
+            rosterOf(role).add(role);
+            scheduleNext(role);
+        }
+    };
+
+    // 已執行的行動次數
+    private long actions;
+
+    /**
+     * 建構子：建立一場對戰並排入所有存活角色的第一次行動
+     * 會重新指派角色編號（A 方 0 ~ a-1，B 方 a ~ a+b-1），
+     * 並在角色原有的監聽器前面加上存活名單與排程的維護
+     *
+     * @param sideA A 方角色（必須是全新的角色物件）
+     * @param sideB B 方角色（必須是全新的角色物件）
+     * @param random 這場戰鬥專用的亂數產生器
+     */
+    public ScheduledBattle(Role[] sideA, Role[] sideB, BattleRandom random) {
+        this.sizeA = sideA.length;
+        this.random = random;
+
+        int total = sideA.length + sideB.length;
+        this.roles = new Role[total];
+        this.policies = new ActionPolicy[total];
+        this.scheduler = new TurnScheduler(total);
+        for (int i = 0; i < total; i++) {
+            Role role = i < sizeA ? sideA[i] : sideB[i - sizeA];
+            role.setId(i);
+            role.setListener(CombatEventMulticaster.of(tracker, role.getListener()));
+            roles[i] = role;
+            policies[i] = ActionPolicy.forRole(role);
+        }
+        this.aliveA = LiveRoster.of(sideA, total);
+        this.aliveB = LiveRoster.of(sideB, total);
+
+        for (Role role : roles) {
+            if (role.isAlive()) {
+                scheduler.schedule(role.getId(), random.nextInt((int) TurnScheduler.interval(role.getSpeed())), role.getSpeed());
+            }
+        }
+    }
+
+    // 依編號判斷角色屬於哪一方
+    private LiveRoster rosterOf(Role role) {
+        return role.getId() < sizeA ? aliveA : aliveB;
+    }
+
+    // 從目前時間起算，排入角色的下次行動
+    private void scheduleNext(Role role) {
+        scheduler.schedule(role.getId(), scheduler.now() + TurnScheduler.interval(role.getSpeed()), role.getSpeed());
+    }
+
+    /**
+     * 執行戰鬥直到一方全滅或達到行動次數上限
+     * @param maxActions 行動次數上限
+     * @return Battle.SIDE_A、Battle.SIDE_B 或 Battle.DRAW
+     */
+    public int fight(long maxActions) {
+        while (actions < maxActions && !aliveA.isEmpty() && !aliveB.isEmpty()) {
+            step();
+        }
+        return winner();
+    }
+
+    /**
+     * 執行下一個角色的行動
+     * @return 行動的角色；沒有角色可以行動時回傳 null
+     */
+    public Role step() {
+        if (scheduler.isEmpty()) return null;
+        Role current = roles[scheduler.poll()];
+        actions++;
+
+        RoleDispatch.prepareBattle(current);
+        policies[current.getId()].act(current, this);
+
+        if (current.isAlive()) {
+            RoleDispatch.afterBattle(current);
+            // 行動中可能因為復活事件已經被排入，這裡以行動結束為準重新排定
+            scheduleNext(current);
+        }
+        return current;
+    }
+
+    @Override
+    public BattleRandom random() {
+        return random;
+    }
+
+    @Override
+    public Role randomEnemy(Role self) {
+        return (rosterOf(self) == aliveA ? aliveB : aliveA).randomAlive(random);
+    }
+
+    @Override
+    public Role randomAlly(Role self) {
+        return rosterOf(self).randomAlive(random);
+    }
+
+    @Override
+    public Role weakestAlly(Role self) {
+        return rosterOf(self).weakest();
+    }
+
+    private int winner() {
+        boolean aAlive = !aliveA.isEmpty();
+        boolean bAlive = !aliveB.isEmpty();
+        if (aAlive && !bAlive) return Battle.SIDE_A;
+        if (bAlive && !aAlive) return Battle.SIDE_B;
+        return Battle.DRAW;
+    }
+
+    // 取得已執行的行動次數
+    public long getActions() {
+        return actions;
+    }
+
+    // 取得目前的戰鬥時間
+    public long getTime() {
+        return scheduler.now();
+    }
+
+    // 取得 A 方存活人數
+    public int getAliveA() {
+        return aliveA.size();
+    }
+
+    // 取得 B 方存活人數
+    public int getAliveB() {
+        return aliveB.size();
+    }
+}
@@ -0,0 +1,212 @@
+/**
+ * TurnScheduler - 依速度排定行動順序的排程器
+ *
+ * 為什麼需要？
+ * - RPG.main 原本照陣列順序讓每個角色輪一次，速度快的角色也不會多行動
+ * - 如果每次都掃描全部角色找「下一個該行動的人」，上千名角色時就變成 O(n²)
+ *
+ * 設計說明：
+ * - 以角色編號為索引的二元最小堆積（indexed binary heap）
+ * - 排序鍵依序為：下次行動時間（小的先）→ 先攻值（大的先）→ 排入順序（先排的先）
+ *   排入順序是遞增的序號，所以同時間、同先攻的角色一定照排入順序行動，結果穩定可重播
+ * - position[id] 記錄角色在堆積中的位置，排入、取出、移除（角色陣亡）都是 O(log n)
+ * - 全部使用基本型別陣列，排程過程不產生任何物件
+ *
+ * 時間單位：
+ * - 速度 100 的角色每 100 個時間單位行動一次，速度 200 則每 50 個時間單位一次
+ * - 用 interval(speed) 換算，間隔至少為 1
+ */
+package com.rpg.sched;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+public class TurnScheduler {
+    // 速度 1 的角色的行動間隔；速度 s 的間隔為 TIME_SCALE / s
+    public static final long TIME_SCALE = 10_000;
+
+    // 堆積：heap[0 .. size-1] 存角色編號
+    private final int[] heap;
+    // 角色在堆積中的位置，-1 代表未排入
+    private final int[] position;
+    // 以角色編號為索引的排序鍵
+    private final long[] time;
+    private final int[] initiative;
+    private final long[] sequence;
+    private int size;
+    // 下一個排入序號
+    private long nextSequence;
+    // 目前時間：最近一次取出的行動時間
+    private long now;
+
+    /**
+     * 建構子
+     * @param capacity 角色編號的上限（編號必須小於這個值）
+     */
+    public TurnScheduler(int capacity) {
+        this.heap = new int[capacity];
+        this.position = new int[capacity];
+        this.time = new long[capacity];
+        this.initiative = new int[capacity];
+        this.sequence = new long[capacity];
+        Arrays.fill(position, -1);
+    }
+
+    /**
+     * 速度換算成行動間隔
+     * @param speed 角色速度（必須大於 0）
+     * @return 兩次行動之間的時間單位
+     */
+    public static long interval(int speed) {
+        return Math.max(1, TIME_SCALE / speed);
+    }
+
+    /**
+     * 排入（或重新排定）角色的下次行動
+     * @param id 角色編號
+     * @param actionTime 行動時間（不能早於目前時間）
+     * @param initiativeValue 先攻值，同時間行動時大的先
+     */
+    public void schedule(int id, long actionTime, int initiativeValue) {
+        if (actionTime < now) {
+            throw new IllegalArgumentException("不能排在目前時間之前：" + actionTime + " < " + now);
+        }
+        time[id] = actionTime;
+        initiative[id] = initiativeValue;
+        sequence[id] = nextSequence++;
+
+        int index = position[id];
+        if (index < 0) {
+            index = size++;
+            heap[index] = id;
+            position[id] = index;
+            siftUp(index);
+        } else {
+            // 已在堆積中：新的鍵可能變大也可能變小
+            siftUp(index);
+            siftDown(position[id]);
+        }
+    }
+
+    /**
+     * 取出下一個行動的角色，並把目前時間推進到它的行動時間
+     * @return 角色編號
+     */
+    public int poll() {
+        if (size == 0) {
+            throw new NoSuchElementException("排程器是空的");
+        }
+        int id = heap[0];
+        now = time[id];
+        removeAt(0);
+        return id;
+    }
+
+    /**
+     * 移除角色（例如陣亡），不在排程中則忽略
+     * @param id 角色編號
+     */
+    public void remove(int id) {
+        int index = position[id];
+        if (index >= 0) {
+            removeAt(index);
+        }
+    }
+
+    // 角色是否在排程中
+    public boolean contains(int id) {
+        return position[id] >= 0;
+    }
+
+    // 下一個行動的角色編號（不取出）
+    public int peek() {
+        if (size == 0) {
+            throw new NoSuchElementException("排程器是空的");
+        }
+        return heap[0];
+    }
+
+    // 角色排定的行動時間
+    public long timeOf(int id) {
+        return time[id];
+    }
+
+    // 目前時間
+    public long now() {
+        return now;
+    }
+
+    // 排程中的角色數
+    public int size() {
+        return size;
+    }
+
+    // 排程是否為空
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // 清空排程並把時間歸零（可重複使用同一個排程器）
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            position[heap[i]] = -1;
+        }
+        size = 0;
+        nextSequence = 0;
+        now = 0;
+    }
+
+    private void removeAt(int index) {
+        int id = heap[index];
+        position[id] = -1;
+        size--;
+        if (index == size) return;
+
+        // 用最後一個元素補洞，再往上或往下調整
+        int last = heap[size];
+        heap[index] = last;
+        position[last] = index;
+        siftUp(index);
+        siftDown(position[last]);
+    }
+
+    private void siftUp(int index) {
+        int id = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            int parentId = heap[parent];
+            if (!before(id, parentId)) break;
+            heap[index] = parentId;
+            position[parentId] = index;
+            index = parent;
+        }
+        heap[index] = id;
+        position[id] = index;
+    }
+
+    private void siftDown(int index) {
+        int id = heap[index];
+        int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            int right = child + 1;
+            if (right < size && before(heap[right], heap[child])) {
+                child = right;
+            }
+            int childId = heap[child];
+            if (!before(childId, id)) break;
+            heap[index] = childId;
+            position[childId] = index;
+            index = child;
+        }
+        heap[index] = id;
+        position[id] = index;
+    }
+
+    // a 是否應該比 b 先行動
+    private boolean before(int a, int b) {
+        if (time[a] != time[b]) return time[a] < time[b];
+        if (initiative[a] != initiative[b]) return initiative[a] > initiative[b];
+        return sequence[a] < sequence[b];
+    }
+}
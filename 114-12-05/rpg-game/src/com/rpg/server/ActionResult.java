@@ -0,0 +1,78 @@
+/**
+ * ActionResult - 一次行動指令的處理結果
+ *
+ * 設計說明：
+ * - 不合法的指令（角色已倒下、沒有這個能力、目標不對、戰鬥已結束）不是程式錯誤，
+ *   用 Status 回報，不丟例外；大量連線時建立例外的堆疊追蹤成本很高
+ * - 回報的生命值是指令處理完當下的數值
+ */
+package com.rpg.server;
+
+public final class ActionResult {
+    /**
+     * 指令的處理狀態
+     */
+    public enum Status {
+        // 已執行
+        DONE,
+        // 角色暈眩中：回合照樣結束（準備 → 戰後），但沒有行動
+        STUNNED,
+        // 沒有這個角色編號
+        INVALID_ACTOR,
+        // 角色已倒下，不能行動
+        ACTOR_DOWN,
+        // 角色沒有這個能力（例如劍士不能治療）
+        NOT_CAPABLE,
+        // 目標不存在、已倒下或陣營不對
+        INVALID_TARGET,
+        // 戰鬥已經結束
+        BATTLE_OVER
+    }
+
+    private final Status status;
+    private final int actorHealth;
+    private final int targetHealth;
+    private final int winner;
+
+    ActionResult(Status status, int actorHealth, int targetHealth, int winner) {
+        this.status = status;
+        this.actorHealth = actorHealth;
+        this.targetHealth = targetHealth;
+        this.winner = winner;
+    }
+
+    // 處理狀態
+    public Status getStatus() {
+        return status;
+    }
+
+    // 是否已執行
+    public boolean isDone() {
+        return status == Status.DONE;
+    }
+
+    // 是否用掉了行動者的回合（已執行，或暈眩中只結束回合）
+    public boolean isTurnTaken() {
+        return status == Status.DONE || status == Status.STUNNED;
+    }
+
+    // 行動者的生命值（沒有行動者時為 0）
+    public int getActorHealth() {
+        return actorHealth;
+    }
+
+    // 目標的生命值（沒有目標的指令就是行動者自己）
+    public int getTargetHealth() {
+        return targetHealth;
+    }
+
+    // 勝方：Battle.SIDE_A、Battle.SIDE_B、Battle.DRAW，還在進行時為 Match.ONGOING
+    public int getWinner() {
+        return winner;
+    }
+
+    @Override
+    public String toString() {
+        return status + "(行動者生命值: " + actorHealth + ", 目標生命值: " + targetHealth + ", 勝方: " + winner + ")";
+    }
+}
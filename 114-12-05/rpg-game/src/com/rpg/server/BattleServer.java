@@ -0,0 +1,153 @@
+/**
+ * BattleServer - 同時主持大量戰鬥的行程內對戰伺服器
+ *
+ * 為什麼需要？
+ * - RPG.main 的主迴圈一次只能跑一場戰鬥，而且是寫死的流程
+ * - 線上遊戲需要同時進行大量對局，每個玩家連線隨時送來攻擊 / 防禦 / 治療指令
+ *
+ * 設計說明：
+ * - 每場戰鬥是一個 actor（Match），有自己的 Mailbox，指令依序在裡面執行
+ * - 預設用虛擬執行緒：信箱有訊息時才啟動一條虛擬執行緒處理，處理完就結束；
+ *   虛擬執行緒由 JVM 排到與核心數相同的載體執行緒上，閒置的戰鬥只佔一個物件，所以可以同時開十萬場以上
+ * - 也可以指定執行緒數，改用固定大小的 ForkJoinPool（asyncMode = 先進先出，適合事件處理），
+ *   例如要限制伺服器最多用幾個核心
+ * - 關閉後立即拒絕新指令（Match.submit 先檢查 isClosed），不依賴執行器的拒絕
+ * - 送出指令的一方立即拿到 CompletableFuture，不會被任何一場戰鬥阻塞
+ * - 戰鬥結束時自動從登錄表移除
+ * - 可以指定一份 CombatMetrics，所有戰鬥的事件與指令處理時間都會記錄進去
+ *
+ * 使用範例：
+ *   try (BattleServer server = new BattleServer()) {
+ *       Match match = server.open(heroes, monsters, seed);
+ *       match.submit(Command.AUTO, 0, -1).thenAccept(...);
+ *   }
+ */
+package com.rpg.server;
+
+import com.rpg.core.BattleRandom;
+import com.rpg.core.Role;
+import com.rpg.metrics.CombatMetrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+public class BattleServer implements AutoCloseable {
+    private final ExecutorService workers;
+    // 戰鬥統計（可以是 null）
+    private final CombatMetrics metrics;
+    // 進行中的戰鬥：戰鬥編號 → 戰鬥
+    private final Map<Long, Match> matches = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong();
+    // 已結束的戰鬥數
+    private final LongAdder finished = new LongAdder();
+    // 是否已經關閉
+    private volatile boolean closed;
+
+    // 建構子：每場戰鬥有訊息時在虛擬執行緒上處理
+    public BattleServer() {
+        this((CombatMetrics) null);
+    }
+
+    /**
+     * 建構子：使用虛擬執行緒，所有戰鬥的事件與指令處理時間都記錄到同一份統計
+     * @param metrics 戰鬥統計（null 代表不統計）
+     */
+    public BattleServer(CombatMetrics metrics) {
+        this.metrics = metrics;
+        this.workers = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    /**
+     * 建構子：改用固定執行緒數的 ForkJoinPool
+     * @param threads 處理戰鬥的執行緒數
+     */
+    public BattleServer(int threads) {
+        this(threads, null);
+    }
+
+    /**
+     * 建構子：固定執行緒數，所有戰鬥的事件與指令處理時間都記錄到同一份統計
+     * @param threads 處理戰鬥的執行緒數
+     * @param metrics 戰鬥統計（null 代表不統計）
+     */
+    public BattleServer(int threads, CombatMetrics metrics) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("執行緒數必須大於 0");
+        }
+        this.metrics = metrics;
+        this.workers = new ForkJoinPool(threads, ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, true);
+    }
+
+    /**
+     * 開一場新的戰鬥
+     * @param sideA A 方角色（必須是全新或 reset 過的角色物件，之後只能透過指令操作）
+     * @param sideB B 方角色（同上）
+     * @param seed 這場戰鬥的亂數種子（AUTO 指令的行動與目標由它決定）
+     */
+    public Match open(Role[] sideA, Role[] sideB, long seed) {
+        if (sideA.length == 0 || sideB.length == 0) {
+            throw new IllegalArgumentException("雙方都至少要有一名角色");
+        }
+        long id = nextId.getAndIncrement();
+        Match match = new Match(id, this, new Mailbox(workers), sideA, sideB, new BattleRandom(seed), metrics);
+        matches.put(id, match);
+        return match;
+    }
+
+    /**
+     * 依編號取得進行中的戰鬥
+     * @param id 戰鬥編號
+     * @return 戰鬥；已結束或不存在時回傳 null
+     */
+    public Match find(long id) {
+        return matches.get(id);
+    }
+
+    // 戰鬥結束時由 Match 呼叫
+    void finished(Match match) {
+        if (matches.remove(match.getId()) != null) {
+            finished.increment();
+        }
+    }
+
+    // 進行中的戰鬥數
+    public int getActiveMatches() {
+        return matches.size();
+    }
+
+    // 已結束的戰鬥數
+    public long getFinishedMatches() {
+        return finished.sum();
+    }
+
+    // 是否已經關閉（關閉後送出的指令都會失敗）
+    public boolean isClosed() {
+        return closed;
+    }
+
+    // 戰鬥統計（沒有設定時為 null）
+    public CombatMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * 關閉伺服器：不再接受新指令，等待已送出的指令處理完
+     * 之後送出的指令會以 IllegalStateException 失敗
+     */
+    @Override
+    public void close() {
+        closed = true;
+        workers.shutdown();
+        try {
+            workers.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,15 @@
+/**
+ * Command - 玩家可以送給對戰伺服器的行動指令
+ */
+package com.rpg.server;
+
+public enum Command {
+    // 攻擊一名存活的敵人
+    ATTACK,
+    // 防禦（角色必須實作 Defendable）
+    DEFEND,
+    // 治療一名存活的隊友（角色必須實作 Healable）
+    HEAL,
+    // 交給角色的 ActionPolicy 自動決定（與批次模擬相同的行動邏輯）
+    AUTO
+}
@@ -0,0 +1,93 @@
+/**
+ * Mailbox - 一場戰鬥專用的信箱（actor 的訊息佇列）
+ *
+ * 為什麼需要？
+ * - 同一場戰鬥的角色狀態不是執行緒安全的，所有行動必須一個接一個執行
+ * - 但每場戰鬥配一條執行緒，十萬場戰鬥就要十萬條平台執行緒，記憶體與切換成本都撐不住
+ *
+ * 設計說明：
+ * - 訊息先放進無鎖佇列；信箱沒有在執行時，才把自己交給伺服器的執行器
+ *   （預設每次交出去都是一條新的虛擬執行緒，閒置的信箱不佔任何執行緒）
+ * - 同一時間最多只有一條執行緒在處理同一個信箱，所以訊息依序執行、不需要鎖
+ * - 每次最多連續處理 BATCH 則訊息，之後讓出執行緒，避免忙碌的戰鬥餓死其他戰鬥
+ * - scheduled 旗標的 CAS 同時建立 happens-before：上一條執行緒寫入的戰鬥狀態，
+ *   下一條執行緒一定看得到
+ * - 執行器拒絕（已關閉）時把旗標與這則訊息都撤回再丟出例外：
+ *   不撤回的話旗標一直是 true，之後的訊息只會排進佇列、永遠不會被執行
+ */
+package com.rpg.server;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+final class Mailbox implements Runnable {
+    // 每次最多連續處理的訊息數
+    static final int BATCH = 64;
+
+    private final Executor executor;
+    // 等待處理的訊息（多個送件者、單一處理者）
+    private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+    // 信箱是否已經交給執行緒池（正在執行或等待執行）
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    Mailbox(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * 送出一則訊息，之後會在執行緒池中依序執行
+     * @param message 訊息本身（自己負責處理例外）
+     * @throws RejectedExecutionException 執行緒池已關閉
+     */
+    void post(Runnable message) {
+        queue.offer(message);
+        try {
+            schedule();
+        } catch (RejectedExecutionException e) {
+            // 沒有人會來處理了，訊息不能留在佇列裡
+            queue.remove(message);
+            throw e;
+        }
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(this);
+            } catch (RejectedExecutionException e) {
+                scheduled.set(false);
+                throw e;
+            }
+        }
+    }
+
+    // 還沒處理的訊息數（檢查用）
+    int pending() {
+        return queue.size();
+    }
+
+    @Override
+    public void run() {
+        while (true) {
+            for (int i = 0; i < BATCH; i++) {
+                Runnable message = queue.poll();
+                if (message == null) break;
+                message.run();
+            }
+            scheduled.set(false);
+            // 讓出之前（或剛好在 set 之後）又有新訊息，重新排入
+            if (queue.isEmpty() || !scheduled.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                executor.execute(this);
+                return;
+            } catch (RejectedExecutionException e) {
+                // 執行緒池關閉中：留在目前的執行緒把已收到的訊息處理完
+            }
+        }
+    }
+}
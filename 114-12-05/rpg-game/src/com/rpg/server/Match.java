@@ -0,0 +1,308 @@
+/**
+ * Match - 在對戰伺服器上進行中的一場戰鬥（一個 actor）
+ *
+ * 設計說明：
+ * - 所有指令都變成訊息送進這場戰鬥自己的 Mailbox，在共用的執行緒池中依序執行，
+ *   所以角色不需要開啟執行緒安全模式，指令之間也不會互相干擾
+ * - 送出指令的執行緒不會被阻塞，立即拿到 CompletableFuture，結果算好時才完成
+ * - 每個指令就是行動者的一個回合：準備 → 行動 → 戰後（與 ScheduledBattle 相同）
+ * - 一方全滅時戰鬥結束，之後的指令都回報 BATTLE_OVER，並從伺服器移除
+ * - 暈眩中的角色不論送什麼指令（包括 AUTO）都只會結束回合（準備 → 戰後），不會行動，回報 STUNNED；
+ *   與批次模擬的 ActionPolicy 規則相同
+ *
+ * 使用範例：
+ *   Match match = server.open(heroes, monsters, seed);
+ *   match.submit(Command.ATTACK, 0, 3).thenAccept(result -> ...);
+ */
+package com.rpg.server;
+
+import com.rpg.action.ActionPolicy;
+import com.rpg.action.BattleContext;
+import com.rpg.core.BattleRandom;
+import com.rpg.core.CombatEventListener;
+import com.rpg.core.CombatEventMulticaster;
+import com.rpg.core.LiveRoster;
+import com.rpg.core.Role;
+import com.rpg.core.RoleDispatch;
+import com.rpg.interfaces.Capabilities;
+import com.rpg.metrics.CombatMetrics;
+import com.rpg.roles.RoleSwitch;
+import com.rpg.sim.Battle;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+public final class Match implements BattleContext {
+    // 戰鬥還在進行
+    public static final int ONGOING = -2;
+
+    private final long id;
+    private final BattleServer server;
+    private final Mailbox mailbox;
+    private final Role[] roles;
+    private final int sizeA;
+    private final BattleRandom random;
+    // 戰鬥統計（沒有統計時為 null，也不量測指令處理時間）
+    private final CombatMetrics metrics;
+    // 雙方的存活名單，由死亡 / 復活事件維護
+    private final LiveRoster aliveA;
+    private final LiveRoster aliveB;
+    // 每個角色的能力遮罩與行動策略（索引 = 角色編號）
+    private final int[] capabilities;
+    private final ActionPolicy[] policies;
+
+    // 收到事件時更新存活名單
+    private final CombatEventListener tracker = new CombatEventListener() {
+        @Override
+        public void onDeath(Role role) {
+            rosterOf(role.getId()).remove(role);
+        }
+
+        @Override
+        public void onRevive(Role role) {
+            rosterOf(role.getId()).add(role);
+        }
+    };
+
+    // 勝方；由信箱執行緒寫入，其他執行緒可以隨時讀取
+    private volatile int winner = ONGOING;
+    // 已執行的行動次數（只有信箱執行緒會讀寫）
+    private long actions;
+
+    /**
+     * 建構子：只由 BattleServer.open 呼叫
+     * 會重新指派角色編號（A 方 0 ~ a-1，B 方 a ~ a+b-1），
+     * 並在角色原有的監聽器前面加上存活名單的維護（有統計時再加上統計）
+     */
+    Match(long id, BattleServer server, Mailbox mailbox, Role[] sideA, Role[] sideB, BattleRandom random,
+          CombatMetrics metrics) {
+        this.id = id;
+        this.server = server;
+        this.mailbox = mailbox;
+        this.sizeA = sideA.length;
+        this.random = random;
+        this.metrics = metrics;
+
+        int total = sideA.length + sideB.length;
+        this.roles = new Role[total];
+        this.capabilities = new int[total];
+        this.policies = new ActionPolicy[total];
+        for (int i = 0; i < total; i++) {
+            Role role = i < sizeA ? sideA[i] : sideB[i - sizeA];
+            role.setId(i);
+            role.setListener(CombatEventMulticaster.of(tracker, role.getListener()));
+            if (metrics != null) {
+                metrics.attach(role);
+            }
+            roles[i] = role;
+            capabilities[i] = Capabilities.of(role);
+            policies[i] = ActionPolicy.forRole(role);
+        }
+        this.aliveA = LiveRoster.of(sideA, total);
+        this.aliveB = LiveRoster.of(sideB, total);
+    }
+
+    /**
+     * 送出一個行動指令（不會阻塞）
+     * @param command 指令
+     * @param actorId 行動者的角色編號
+     * @param targetId 目標的角色編號（DEFEND、AUTO 不使用，可以傳 -1）
+     * @return 指令執行完成時完成的 Future；伺服器已關閉時以 IllegalStateException 失敗
+     */
+    public CompletableFuture<ActionResult> submit(Command command, int actorId, int targetId) {
+        CompletableFuture<ActionResult> reply = new CompletableFuture<>();
+        post(reply, () -> {
+            try {
+                reply.complete(metrics == null ? handle(command, actorId, targetId) : timed(command, actorId, targetId));
+            } catch (RuntimeException e) {
+                reply.completeExceptionally(e);
+            }
+        });
+        return reply;
+    }
+
+    /**
+     * 放棄這場戰鬥：判定平手並從伺服器移除（例如玩家全部離線）
+     * 排在這之前的指令仍會照常執行
+     */
+    public CompletableFuture<ActionResult> abandon() {
+        CompletableFuture<ActionResult> reply = new CompletableFuture<>();
+        post(reply, () -> {
+            if (winner == ONGOING) {
+                finish(Battle.DRAW);
+            }
+            reply.complete(new ActionResult(ActionResult.Status.BATTLE_OVER, 0, 0, winner));
+        });
+        return reply;
+    }
+
+    // 把訊息送進信箱；伺服器已關閉時直接讓 reply 以 IllegalStateException 失敗
+    private void post(CompletableFuture<ActionResult> reply, Runnable message) {
+        if (server.isClosed()) {
+            reply.completeExceptionally(new IllegalStateException("對戰伺服器已關閉"));
+            return;
+        }
+        try {
+            mailbox.post(message);
+        } catch (RejectedExecutionException e) {
+            // 與 close() 同時送出：檢查時還沒關閉，送進信箱時執行器已經拒絕
+            reply.completeExceptionally(new IllegalStateException("對戰伺服器已關閉", e));
+        }
+    }
+
+    // 處理指令並記錄處理時間（只記錄真的執行了的指令）
+    private ActionResult timed(Command command, int actorId, int targetId) {
+        long start = System.nanoTime();
+        ActionResult result = handle(command, actorId, targetId);
+        if (result.isDone()) {
+            metrics.recordAction(roles[actorId], System.nanoTime() - start);
+        }
+        return result;
+    }
+
+    // 在信箱執行緒中處理一個指令
+    private ActionResult handle(Command command, int actorId, int targetId) {
+        if (winner != ONGOING) {
+            return new ActionResult(ActionResult.Status.BATTLE_OVER, 0, 0, winner);
+        }
+        if (actorId < 0 || actorId >= roles.length) {
+            return new ActionResult(ActionResult.Status.INVALID_ACTOR, 0, 0, winner);
+        }
+        Role actor = roles[actorId];
+        if (!actor.isAlive()) {
+            return reject(ActionResult.Status.ACTOR_DOWN, actor);
+        }
+
+        // 先驗證指令，不合法就不消耗回合
+        Role target = null;
+        switch (command) {
+            case ATTACK:
+                target = aliveTarget(targetId, !isSideA(actorId));
+                if (target == null) return reject(ActionResult.Status.INVALID_TARGET, actor);
+                break;
+            case HEAL:
+                if (!Capabilities.has(capabilities[actorId], Capabilities.HEALABLE)) {
+                    return reject(ActionResult.Status.NOT_CAPABLE, actor);
+                }
+                target = aliveTarget(targetId, isSideA(actorId));
+                if (target == null) return reject(ActionResult.Status.INVALID_TARGET, actor);
+                break;
+            case DEFEND:
+                if (!Capabilities.has(capabilities[actorId], Capabilities.DEFENDABLE)) {
+                    return reject(ActionResult.Status.NOT_CAPABLE, actor);
+                }
+                break;
+            default:
+                break;
+        }
+
+        actions++;
+        RoleDispatch.prepareBattle(actor);
+        // 暈眩時任何指令都只結束回合，與 AUTO（ActionPolicy.act）的規則相同
+        boolean stunned = actor.isStunned();
+        if (!stunned) {
+            switch (command) {
+                case ATTACK:
+                    RoleSwitch.attack(actor, target);
+                    break;
+                case HEAL:
+                    RoleSwitch.heal(actor, target);
+                    break;
+                case DEFEND:
+                    RoleSwitch.defend(actor);
+                    break;
+                default:
+                    policies[actorId].act(actor, this);
+                    break;
+            }
+        }
+        if (actor.isAlive()) {
+            RoleDispatch.afterBattle(actor);
+        }
+
+        if (aliveA.isEmpty() || aliveB.isEmpty()) {
+            finish(aliveA.isEmpty() ? (aliveB.isEmpty() ? Battle.DRAW : Battle.SIDE_B) : Battle.SIDE_A);
+        }
+        int actorHealth = actor.getHealth();
+        return new ActionResult(stunned ? ActionResult.Status.STUNNED : ActionResult.Status.DONE, actorHealth,
+                target == null ? actorHealth : target.getHealth(), winner);
+    }
+
+    private ActionResult reject(ActionResult.Status status, Role actor) {
+        int health = actor.getHealth();
+        return new ActionResult(status, health, health, winner);
+    }
+
+    // 取得指定陣營中存活的目標，不符合時回傳 null
+    private Role aliveTarget(int targetId, boolean sideA) {
+        if (targetId < 0 || targetId >= roles.length || isSideA(targetId) != sideA) {
+            return null;
+        }
+        Role target = roles[targetId];
+        return target.isAlive() ? target : null;
+    }
+
+    private void finish(int result) {
+        winner = result;
+        server.finished(this);
+    }
+
+    private boolean isSideA(int roleId) {
+        return roleId < sizeA;
+    }
+
+    // 依編號判斷角色屬於哪一方
+    private LiveRoster rosterOf(int roleId) {
+        return isSideA(roleId) ? aliveA : aliveB;
+    }
+
+    @Override
+    public BattleRandom random() {
+        return random;
+    }
+
+    @Override
+    public Role randomEnemy(Role self) {
+        return (isSideA(self.getId()) ? aliveB : aliveA).randomAlive(random);
+    }
+
+    @Override
+    public Role randomAlly(Role self) {
+        return rosterOf(self.getId()).randomAlive(random);
+    }
+
+    @Override
+    public Role weakestAlly(Role self) {
+        return rosterOf(self.getId()).weakest();
+    }
+
+    // 戰鬥編號（伺服器內不重複）
+    public long getId() {
+        return id;
+    }
+
+    // 角色總數（角色編號為 0 ~ getSize()-1）
+    public int getSize() {
+        return roles.length;
+    }
+
+    // A 方人數（編號小於這個數的角色屬於 A 方）
+    public int getSizeA() {
+        return sizeA;
+    }
+
+    // 勝方：Battle.SIDE_A、Battle.SIDE_B、Battle.DRAW，還在進行時為 ONGOING
+    public int getWinner() {
+        return winner;
+    }
+
+    // 是否已經結束
+    public boolean isOver() {
+        return winner != ONGOING;
+    }
+
+    // 已執行的行動次數（戰鬥結束後讀取才準確）
+    public long getActions() {
+        return actions;
+    }
+}
@@ -0,0 +1,432 @@
+/**
+ * BalanceOptimizer - 自動調整職業數值，讓每兩個職業單挑的勝率接近五五波
+ *
+ * 為什麼需要？
+ * - 原本調整平衡要手動改數值、重跑循環賽、看矩陣、再改，一輪就要好幾分鐘的人工
+ * - 5 個職業、十幾個可調的欄位，手動很難同時顧到每一組對戰
+ *
+ * 設計說明：
+ * - 座標下降（coordinate descent）：一次只轉一個職業的一個旋鈕（StatKnob），
+ *   同時試 +step 與 -step 兩個候選，比較好的那個就接受，並沿同一方向繼續走到不再變好為止；
+ *   整輪都沒有進步時把幅度減半（最小為旋鈕的基本幅度），再沒有進步就結束
+ * - 損失：每兩個不同職業 i、j 單挑（i 當 A 方）的勝率 p（平手算半場），
+ *   取 (p - 0.5)² + DRAW_WEIGHT × 平手率² 的平均；平手項避免靠「誰都打不死誰」湊出 50%
+ * - 每一組對戰分階段模擬（每階段 battlesPerStage 場），每個階段結束後估計損失的標準誤
+ *   （delta method：勝負平是多項分布，勝率項、平手項的變異數與兩者的共變異數都算進去），
+ *   損失的下界（損失 - EARLY_STOP_Z × 標準誤）仍比目前最好的差，就提前停止，不再模擬剩下的階段
+ * - 共用快取：一組對戰一個階段的結果只由「雙方的職業與數值、階段」決定，
+ *   以此為鍵放進 ConcurrentHashMap；只改一個職業時，其他職業之間的對戰直接沿用，
+ *   +step 與 -step 兩個候選也共用沒有變動的格子
+ * - 候選永遠是「目前最好的數值只改一個職業」，所以雙方都不是目前最好數值的格子不會再被用到；
+ *   每轉完一個旋鈕就把這些格子與不再使用的工廠丟掉，optimize() 結束時全部清空。
+ *   工廠一旦沒有人參照，各執行緒 RolePool 裡對應的 Lane 也會被回收（RolePool 以弱參照當鍵）
+ * - 共同亂數（common random numbers）：同一組對戰、同一個階段永遠用同一段場次的亂數，
+ *   不同候選的差異只來自數值本身，比較起來雜訊小得多
+ * - 所有要模擬的格子先全部送進 ForkJoinPool 再一起等待，所有核心同時在跑
+ *
+ * 使用範例：
+ *   BalanceOptimizer optimizer = new BalanceOptimizer(ArchetypeRegistry.defaults(),
+ *           List.of("swordsman", "shieldSwordsman", "paladin", "magician", "archer"));
+ *   optimizer.setSeed(42);
+ *   BalanceResult result = optimizer.optimize();
+ *   System.out.print(result);                        // 每個被調整的欄位
+ *   ArchetypeRegistry tuned = result.toRegistry();
+ */
+package com.rpg.sim;
+
+import com.rpg.archetype.ArchetypeRegistry;
+import com.rpg.core.BattleRandom;
+import com.rpg.core.Role;
+import com.rpg.core.RoleStats;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+public class BalanceOptimizer {
+    // 平手率在損失中的權重：全部平手的一組對戰，與一面倒的一組對戰損失相同
+    public static final double DRAW_WEIGHT = 0.25;
+    // 提前停止的信賴係數（約 99.9% 單尾）
+    public static final double EARLY_STOP_Z = 3.0;
+    // 第一輪的調整幅度（旋鈕基本幅度的倍數），之後整輪沒有進步就減半
+    static final int INITIAL_SCALE = 8;
+
+    private final List<String> ids;
+    // 調整的起點（索引 = 職業在名單中的位置）
+    private final RoleStats[] base;
+    // 每個職業可以轉動的旋鈕
+    private final StatKnob[][] knobs;
+
+    private int battlesPerStage = 2_000;
+    private int maxStages = 4;
+    private int maxPasses = 8;
+    private int maxRounds = Battle.DEFAULT_MAX_ROUNDS;
+    private long seed = new SplittableRandom().nextLong();
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+    // 共用快取：(階段, A 方數值, B 方數值) → 已經送出的模擬工作（完成後 join 直接取得結果）
+    private final ConcurrentHashMap<Cell, SimulationTask> cells = new ConcurrentHashMap<>();
+    // 數值 → 工廠（同樣的數值共用同一個工廠，RolePool 才會重複使用同一條 Lane）
+    private final ConcurrentHashMap<Vector, Supplier<Role>> factories = new ConcurrentHashMap<>();
+
+    // 統計
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder simulatedBattles = new LongAdder();
+    private int evaluations;
+    private int earlyStops;
+
+    /**
+     * 建構子
+     * @param registry 原型登錄表（調整的起點）
+     * @param ids 參與平衡的原型代號（至少兩個）
+     */
+    public BalanceOptimizer(ArchetypeRegistry registry, List<String> ids) {
+        if (ids.size() < 2) {
+            throw new IllegalArgumentException("至少要有兩個職業才能比較平衡");
+        }
+        this.ids = List.copyOf(ids);
+        this.base = new RoleStats[ids.size()];
+        this.knobs = new StatKnob[ids.size()][];
+        for (int i = 0; i < base.length; i++) {
+            base[i] = registry.get(ids.get(i));
+            List<StatKnob> applicable = new ArrayList<>();
+            for (StatKnob knob : StatKnob.values()) {
+                if (knob.isSimulated() && knob.appliesTo(base[i].getKind())) applicable.add(knob);
+            }
+            knobs[i] = applicable.toArray(new StatKnob[0]);
+        }
+    }
+
+    // 每個階段每組對戰的場數
+    public void setBattlesPerStage(int battlesPerStage) {
+        if (battlesPerStage <= 0) {
+            throw new IllegalArgumentException("每階段場數必須大於 0");
+        }
+        this.battlesPerStage = battlesPerStage;
+    }
+
+    // 每個候選最多模擬的階段數（完整評估的場數 = battlesPerStage × maxStages）
+    public void setMaxStages(int maxStages) {
+        if (maxStages <= 0) {
+            throw new IllegalArgumentException("階段數必須大於 0");
+        }
+        this.maxStages = maxStages;
+    }
+
+    // 最多進行幾輪座標下降
+    public void setMaxPasses(int maxPasses) {
+        if (maxPasses <= 0) {
+            throw new IllegalArgumentException("輪數必須大於 0");
+        }
+        this.maxPasses = maxPasses;
+    }
+
+    // 設定每場戰鬥的回合上限
+    public void setMaxRounds(int maxRounds) {
+        if (maxRounds <= 0) {
+            throw new IllegalArgumentException("回合上限必須大於 0");
+        }
+        this.maxRounds = maxRounds;
+    }
+
+    // 設定主種子（同一個種子、同樣的設定，調整結果一定相同）
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    // 設定執行模擬的 ForkJoinPool
+    public void setPool(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * 執行座標下降
+     * @return 調整後的數值與統計
+     */
+    public BalanceResult optimize() {
+        Vector[] best = new Vector[base.length];
+        for (int c = 0; c < base.length; c++) {
+            int[] values = new int[knobs[c].length];
+            for (int k = 0; k < values.length; k++) {
+                values[k] = knobs[c][k].get(base[c]);
+            }
+            best[c] = new Vector(c, values);
+        }
+        Evaluation bestEval = evaluate(List.<Vector[]>of(best), Double.POSITIVE_INFINITY).get(0);
+        double initialLoss = bestEval.loss;
+
+        int scale = INITIAL_SCALE;
+        int passes = 0;
+        while (passes < maxPasses) {
+            passes++;
+            boolean improved = false;
+            for (int c = 0; c < base.length; c++) {
+                for (int k = 0; k < knobs[c].length; k++) {
+                    int delta = knobs[c][k].getStep() * scale;
+                    // 0 代表兩個方向都試；接受過一次之後只沿同一方向繼續
+                    int direction = 0;
+                    while (true) {
+                        List<Vector[]> candidates = new ArrayList<>(2);
+                        List<Integer> directions = new ArrayList<>(2);
+                        for (int d = -1; d <= 1; d += 2) {
+                            if (direction != 0 && d != direction) continue;
+                            int value = best[c].values[k] + d * delta;
+                            if (value < knobs[c][k].getMin()) continue;
+                            Vector[] candidate = best.clone();
+                            candidate[c] = best[c].with(k, value);
+                            candidates.add(candidate);
+                            directions.add(d);
+                        }
+                        if (candidates.isEmpty()) break;
+
+                        List<Evaluation> evals = evaluate(candidates, bestEval.loss);
+                        int chosen = -1;
+                        for (int i = 0; i < evals.size(); i++) {
+                            Evaluation eval = evals.get(i);
+                            if (!eval.stoppedEarly && eval.loss < bestEval.loss
+                                    && (chosen < 0 || eval.loss < evals.get(chosen).loss)) {
+                                chosen = i;
+                            }
+                        }
+                        if (chosen < 0) break;
+                        best = candidates.get(chosen);
+                        bestEval = evals.get(chosen);
+                        direction = directions.get(chosen);
+                        improved = true;
+                    }
+                    prune(best);
+                }
+            }
+            if (!improved) {
+                if (scale == 1) break;
+                scale /= 2;
+            }
+        }
+
+        RoleStats[] tuned = new RoleStats[base.length];
+        for (int c = 0; c < tuned.length; c++) {
+            tuned[c] = build(best[c]);
+        }
+        // 結果都已經合併進 bestEval，快取留著只會讓模擬器、工廠與物件池的 Lane 一直無法回收
+        cells.clear();
+        factories.clear();
+        return new BalanceResult(ids, base, tuned, knobs, bestEval.results, initialLoss, bestEval.loss,
+                passes, evaluations, earlyStops, cacheHits.sum(), simulatedBattles.sum());
+    }
+
+    /**
+     * 同時評估多個候選：每個階段先把所有候選需要的格子送出，再一起等待
+     * @param bound 目前最好的損失；候選的損失下界超過它就提前停止
+     */
+    private List<Evaluation> evaluate(List<Vector[]> candidates, double bound) {
+        int n = base.length;
+        List<Evaluation> evals = new ArrayList<>(candidates.size());
+        for (int i = 0; i < candidates.size(); i++) {
+            evals.add(new Evaluation(n));
+        }
+        for (int stage = 0; stage < maxStages; stage++) {
+            List<SimulationTask[][]> submitted = new ArrayList<>(candidates.size());
+            for (int i = 0; i < candidates.size(); i++) {
+                submitted.add(evals.get(i).stoppedEarly ? null : submit(candidates.get(i), stage));
+            }
+            for (int i = 0; i < candidates.size(); i++) {
+                Evaluation eval = evals.get(i);
+                if (eval.stoppedEarly) continue;
+                SimulationTask[][] tasks = submitted.get(i);
+                for (int a = 0; a < n; a++) {
+                    for (int b = a + 1; b < n; b++) {
+                        eval.results[a][b].merge(tasks[a][b].join());
+                    }
+                }
+                eval.score();
+                if (stage < maxStages - 1 && eval.loss - EARLY_STOP_Z * eval.standardError > bound) {
+                    eval.stoppedEarly = true;
+                    earlyStops++;
+                }
+            }
+        }
+        evaluations += candidates.size();
+        return evals;
+    }
+
+    // 送出一個候選在某個階段需要的所有格子（已經在快取中的直接沿用）
+    private SimulationTask[][] submit(Vector[] candidate, int stage) {
+        int n = candidate.length;
+        SimulationTask[][] tasks = new SimulationTask[n][n];
+        for (int a = 0; a < n; a++) {
+            for (int b = a + 1; b < n; b++) {
+                Cell cell = new Cell(stage, candidate[a], candidate[b]);
+                SimulationTask task = cells.get(cell);
+                if (task != null) {
+                    cacheHits.increment();
+                } else {
+                    int row = a;
+                    int column = b;
+                    task = cells.computeIfAbsent(cell, key -> {
+                        BattleSimulator simulator = new BattleSimulator(
+                                List.of(factory(candidate[row])), List.of(factory(candidate[column])));
+                        simulator.setMaxRounds(maxRounds);
+                        // 種子只由格子的位置決定：每個候選在同一格都用同樣的亂數
+                        simulator.setSeed(BattleRandom.deriveSeed(seed, (long) row * n + column));
+                        SimulationTask created = new SimulationTask(simulator,
+                                (long) stage * battlesPerStage, (long) (stage + 1) * battlesPerStage);
+                        pool.execute(created);
+                        simulatedBattles.add(battlesPerStage);
+                        return created;
+                    });
+                }
+                tasks[a][b] = task;
+            }
+        }
+        return tasks;
+    }
+
+    /**
+     * 丟掉之後不會再用到的格子與工廠：候選只改一個職業，雙方都不是目前最好數值的格子不可能再命中
+     * （所有送出的模擬都已經在 evaluate 裡 join 過，不會丟掉還在跑的工作）
+     * @param best 目前最好的數值
+     */
+    private void prune(Vector[] best) {
+        cells.keySet().removeIf(cell -> !cell.a.equals(best[cell.a.role]) && !cell.b.equals(best[cell.b.role]));
+        Set<Vector> used = new HashSet<>();
+        for (Cell cell : cells.keySet()) {
+            used.add(cell.a);
+            used.add(cell.b);
+        }
+        factories.keySet().retainAll(used);
+    }
+
+    private Supplier<Role> factory(Vector vector) {
+        return factories.computeIfAbsent(vector, key -> {
+            RoleStats stats = build(key);
+            return () -> ArchetypeRegistry.spawn(stats);
+        });
+    }
+
+    // 依旋鈕的數值建立角色數值
+    private RoleStats build(Vector vector) {
+        RoleStats from = base[vector.role];
+        RoleStats.Builder builder = from.toBuilder(from.getName());
+        for (int k = 0; k < vector.values.length; k++) {
+            knobs[vector.role][k].set(builder, vector.values[k]);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Vector - 一個職業的一組旋鈕數值（快取的鍵，不可變）
+     */
+    private static final class Vector {
+        final int role;
+        final int[] values;
+        private final int hash;
+
+        Vector(int role, int[] values) {
+            this.role = role;
+            this.values = values;
+            this.hash = 31 * role + Arrays.hashCode(values);
+        }
+
+        Vector with(int knob, int value) {
+            int[] changed = values.clone();
+            changed[knob] = value;
+            return new Vector(role, changed);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Vector)) return false;
+            Vector that = (Vector) other;
+            return role == that.role && Arrays.equals(values, that.values);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * Cell - 對戰矩陣中的一格在某個階段的模擬（快取的鍵）
+     */
+    private static final class Cell {
+        final int stage;
+        final Vector a;
+        final Vector b;
+
+        Cell(int stage, Vector a, Vector b) {
+            this.stage = stage;
+            this.a = a;
+            this.b = b;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Cell)) return false;
+            Cell that = (Cell) other;
+            return stage == that.stage && a.equals(that.a) && b.equals(that.b);
+        }
+
+        @Override
+        public int hashCode() {
+            return (stage * 31 + a.hashCode()) * 31 + b.hashCode();
+        }
+    }
+
+    /**
+     * Evaluation - 一個候選目前累計的結果
+     */
+    private static final class Evaluation {
+        // 上三角（a < b）每一格累計的結果
+        final SimulationResult[][] results;
+        double loss;
+        double standardError;
+        boolean stoppedEarly;
+
+        Evaluation(int n) {
+            results = new SimulationResult[n][n];
+            for (int a = 0; a < n; a++) {
+                for (int b = a + 1; b < n; b++) {
+                    results[a][b] = new SimulationResult();
+                }
+            }
+        }
+
+        // 依目前累計的場數計算損失與（近似的）標準誤
+        void score() {
+            int n = results.length;
+            int pairs = n * (n - 1) / 2;
+            double sum = 0;
+            double variance = 0;
+            for (int a = 0; a < n; a++) {
+                for (int b = a + 1; b < n; b++) {
+                    SimulationResult result = results[a][b];
+                    double battles = result.getBattles();
+                    double wins = result.getWinsA() / battles;
+                    double draws = result.getDrawRate();
+                    double p = wins + draws * 0.5;
+                    sum += (p - 0.5) * (p - 0.5) + DRAW_WEIGHT * draws * draws;
+                    // 每場的得分 X（勝 1、平 0.5、負 0）與平手指標 Y：
+                    // Var(X) = 勝率 + 平手率/4 - p²，Var(Y) = d(1-d)，Cov(X, Y) = d(0.5 - p)
+                    // 損失對 p、d 的導數分別是 2(p - 0.5) 與 2 × DRAW_WEIGHT × d
+                    double gradP = 2 * (p - 0.5);
+                    double gradD = 2 * DRAW_WEIGHT * draws;
+                    double varP = wins + draws * 0.25 - p * p;
+                    double varD = draws * (1 - draws);
+                    double covariance = draws * (0.5 - p);
+                    variance += (gradP * gradP * varP + gradD * gradD * varD
+                            + 2 * gradP * gradD * covariance) / battles;
+                }
+            }
+            loss = sum / pairs;
+            standardError = Math.sqrt(variance) / pairs;
+        }
+    }
+}
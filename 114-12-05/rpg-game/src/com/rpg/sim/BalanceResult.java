@@ -0,0 +1,145 @@
+/**
+ * BalanceResult - BalanceOptimizer 的調整結果
+ *
+ * 包含調整前後的數值、調整後每兩個職業單挑的勝率、損失的變化，
+ * 以及搜尋過程的統計（評估了幾個候選、幾個提前停止、快取命中幾格、實際模擬了幾場）。
+ * toString 依原型定義檔的欄位名稱列出每個被調整的欄位，可以直接抄回 archetypes.txt。
+ */
+package com.rpg.sim;
+
+import com.rpg.archetype.ArchetypeRegistry;
+import com.rpg.core.RoleStats;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class BalanceResult {
+    private final List<String> ids;
+    private final RoleStats[] before;
+    private final RoleStats[] after;
+    private final StatKnob[][] knobs;
+    // 調整後的對戰結果（上三角，名單[a] 當 A 方對上 名單[b]）
+    private final SimulationResult[][] results;
+    private final double initialLoss;
+    private final double loss;
+    private final int passes;
+    private final int evaluations;
+    private final int earlyStops;
+    private final long cacheHits;
+    private final long simulatedBattles;
+
+    BalanceResult(List<String> ids, RoleStats[] before, RoleStats[] after, StatKnob[][] knobs,
+                  SimulationResult[][] results, double initialLoss, double loss,
+                  int passes, int evaluations, int earlyStops, long cacheHits, long simulatedBattles) {
+        this.ids = ids;
+        this.before = before;
+        this.after = after;
+        this.knobs = knobs;
+        this.results = results;
+        this.initialLoss = initialLoss;
+        this.loss = loss;
+        this.passes = passes;
+        this.evaluations = evaluations;
+        this.earlyStops = earlyStops;
+        this.cacheHits = cacheHits;
+        this.simulatedBattles = simulatedBattles;
+    }
+
+    // 參與平衡的原型代號
+    public List<String> getIds() {
+        return ids;
+    }
+
+    // 調整後的數值
+    public RoleStats getStats(String id) {
+        return after[indexOf(id)];
+    }
+
+    private int indexOf(String id) {
+        int index = ids.indexOf(id);
+        if (index < 0) {
+            throw new IllegalArgumentException("沒有參與平衡：" + id);
+        }
+        return index;
+    }
+
+    // 用調整後的數值建立原型登錄表
+    public ArchetypeRegistry toRegistry() {
+        Map<String, RoleStats> stats = new LinkedHashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            stats.put(ids.get(i), after[i]);
+        }
+        return ArchetypeRegistry.of(stats);
+    }
+
+    /**
+     * 調整後名單[row] 單挑名單[column] 的勝率（平手算半場）
+     * @param row 名單中的位置
+     * @param column 名單中的位置（不能與 row 相同）
+     */
+    public double getWinRate(int row, int column) {
+        if (row == column) {
+            throw new IllegalArgumentException("同一個職業沒有對戰結果：" + ids.get(row));
+        }
+        SimulationResult result = results[Math.min(row, column)][Math.max(row, column)];
+        double p = (result.getWinsA() + result.getDraws() * 0.5) / result.getBattles();
+        return row < column ? p : 1 - p;
+    }
+
+    // 調整前的損失
+    public double getInitialLoss() {
+        return initialLoss;
+    }
+
+    // 調整後的損失
+    public double getLoss() {
+        return loss;
+    }
+
+    // 座標下降的輪數
+    public int getPasses() {
+        return passes;
+    }
+
+    // 評估過的候選數
+    public int getEvaluations() {
+        return evaluations;
+    }
+
+    // 提前停止的候選數
+    public int getEarlyStops() {
+        return earlyStops;
+    }
+
+    // 直接沿用快取結果的格子數
+    public long getCacheHits() {
+        return cacheHits;
+    }
+
+    // 實際模擬的戰鬥場數
+    public long getSimulatedBattles() {
+        return simulatedBattles;
+    }
+
+    // 列出每個被調整的欄位與損失的變化
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < ids.size(); i++) {
+            for (StatKnob knob : knobs[i]) {
+                int from = knob.get(before[i]);
+                int to = knob.get(after[i]);
+                if (from != to) {
+                    sb.append(String.format("[%s] %s = %d（原本 %d）%n", ids.get(i), knob.getField(), to, from));
+                }
+            }
+        }
+        if (sb.length() == 0) {
+            sb.append("（沒有任何欄位需要調整）").append(System.lineSeparator());
+        }
+        sb.append(String.format("損失 %.4f → %.4f，%d 輪、%,d 個候選（%,d 個提前停止）、快取命中 %,d 格、模擬 %,d 場%n",
+                initialLoss, loss, passes, evaluations, earlyStops, cacheHits, simulatedBattles));
+        return sb.toString();
+    }
+}
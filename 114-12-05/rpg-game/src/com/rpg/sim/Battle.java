@@ -0,0 +1,254 @@
+/**
+ * Battle - 一場無介面的兩方對戰
+ *
+ * 為什麼需要這個類別？
+ * 1. RPG.main 只能跑一場寫死的 6 回合展示戰鬥
+ * 2. 平衡職業需要大量重複對戰，不能每次都輸出到主控台
+ * 3. 把「一場戰鬥」獨立出來，模擬器只要負責重複執行並統計
+ *
+ * 戰鬥規則（與 RPG.main 相同的行動邏輯）：
+ * - 每個角色的行動由 ActionPolicy 決定，建立戰鬥時查一次並存起來
+ * - 聖騎士：30% 防禦、30% 治療隊友、40% 攻擊
+ * - 持盾劍士：30% 先舉盾防禦，之後一定攻擊
+ * - 魔法師：60% 攻擊、40% 治療隊友
+ * - 其他角色：直接攻擊
+ *
+ * 與 RPG.main 不同的地方：
+ * - 分成 A、B 兩方，只會攻擊敵方、只會治療我方
+ * - 打到一方全滅為止（或達到回合上限判定平手）
+ * - 每回合隨機決定哪一方先行動，避免先手優勢
+ * - 所有隨機決定都來自建構時傳入的 BattleRandom，同一個種子一定打出同一場戰鬥
+ * - 雙方各有一份 LiveRoster，選目標與判斷勝負都是 O(1)，不會產生暫存陣列
+ * - 兩次 fight 之間可以用 snapshot() 存成 BattleSnapshot，之後還原接著打或分岔出不同的亂數
+ */
+package com.rpg.sim;
+
+import com.rpg.action.ActionPolicy;
+import com.rpg.action.BattleContext;
+import com.rpg.core.BattleRandom;
+import com.rpg.core.CombatEventListener;
+import com.rpg.core.CombatEventMulticaster;
+import com.rpg.core.LiveRoster;
+import com.rpg.core.Role;
+import com.rpg.core.RoleDispatch;
+
+public final class Battle implements BattleContext {
+    // 勝負結果
+    public static final int SIDE_A = 0;
+    public static final int SIDE_B = 1;
+    public static final int DRAW = -1;
+
+    // 預設回合上限：雙方都會補血時可能永遠打不完
+    public static final int DEFAULT_MAX_ROUNDS = 100;
+
+    private final Role[] sideA;
+    private final Role[] sideB;
+    private final BattleRandom random;
+    // 雙方的存活名單，由死亡 / 復活事件維護
+    private final LiveRoster aliveA;
+    private final LiveRoster aliveB;
+    // 每個角色的行動策略（索引 = 角色編號）
+    private final ActionPolicy[] policies;
+    // 收到事件時更新存活名單與傷害統計
+    private final CombatEventListener tracker = new CombatEventListener() {
+        // 依受傷的一方記帳：雙方不會互打自己人，A 方受的傷害一定算 B 方造成的；
+        // 不能依「上一個出手的角色」判斷，持續傷害等沒有 onAttack 的傷害會記到錯的一方
+        @Override
+        public void onDamage(Role target, int damage, int healthAfter) {
+            if (target.getId() < sideA.length) {
+                damageByB += damage;
+            } else {
+                damageByA += damage;
+            }
+        }
+
+        @Override
+        public void onDeath(Role role) {
+            rosterOf(role).remove(role);
+        }
+
+        @Override
+        public void onRevive(Role role) {
+            rosterOf(role).add(role);
+        }
+    };
+
+    // 已進行的回合數
+    private int rounds;
+    // 雙方造成的總傷害
+    private long damageByA;
+    private long damageByB;
+
+    /**
+     * 建構子：建立一場對戰
+     * 會重新指派角色編號（A 方 0 ~ a-1，B 方 a ~ a+b-1），
+     * 並在角色原有的監聽器前面加上存活名單的維護
+     *
+     * @param sideA A 方角色（必須是全新或 reset 過的角色物件）
+     * @param sideB B 方角色（必須是全新或 reset 過的角色物件）
+     * @param random 這場戰鬥專用的亂數產生器
+     */
+    public Battle(Role[] sideA, Role[] sideB, BattleRandom random) {
+        this(sideA, sideB, random, null, null);
+    }
+
+    /**
+     * 從存檔還原時使用：角色已經載入存檔的狀態，存活名單依存檔中的順序重建
+     * （名單順序會影響隨機挑選的結果，順序不同就無法接著打出相同的戰鬥）
+     *
+     * @param orderA A 方存活名單的角色編號順序；null 代表依陣列順序加入存活的角色
+     * @param orderB B 方存活名單的角色編號順序
+     */
+    Battle(Role[] sideA, Role[] sideB, BattleRandom random, int[] orderA, int[] orderB) {
+        this.sideA = sideA;
+        this.sideB = sideB;
+        this.random = random;
+
+        int total = sideA.length + sideB.length;
+        this.policies = new ActionPolicy[total];
+        for (int i = 0; i < total; i++) {
+            Role role = roleAt(i);
+            role.setId(i);
+            role.setListener(CombatEventMulticaster.of(tracker, role.getListener()));
+            policies[i] = ActionPolicy.forRole(role);
+        }
+        this.aliveA = orderA == null ? LiveRoster.of(sideA, total) : rosterInOrder(orderA, total);
+        this.aliveB = orderB == null ? LiveRoster.of(sideB, total) : rosterInOrder(orderB, total);
+    }
+
+    private LiveRoster rosterInOrder(int[] order, int total) {
+        LiveRoster roster = new LiveRoster(total);
+        for (int id : order) {
+            roster.add(roleAt(id));
+        }
+        return roster;
+    }
+
+    // 依編號取得角色
+    Role roleAt(int id) {
+        return id < sideA.length ? sideA[id] : sideB[id - sideA.length];
+    }
+
+    /**
+     * 把目前的狀態存成快照（所有角色的狀態、回合數、傷害統計、亂數狀態與存活名單順序）
+     * 只能在兩次 fight 之間呼叫：例如 fight(10) 回傳之後存檔，之後再 fight(上限) 接著打
+     */
+    public BattleSnapshot snapshot() {
+        return BattleSnapshot.capture(this);
+    }
+
+    // ========== 給 BattleSnapshot 使用 ==========
+
+    Role[] sideA() {
+        return sideA;
+    }
+
+    Role[] sideB() {
+        return sideB;
+    }
+
+    LiveRoster aliveA() {
+        return aliveA;
+    }
+
+    LiveRoster aliveB() {
+        return aliveB;
+    }
+
+    // 還原進度（回合數與傷害統計）
+    void restoreProgress(int rounds, long damageByA, long damageByB) {
+        this.rounds = rounds;
+        this.damageByA = damageByA;
+        this.damageByB = damageByB;
+    }
+
+    // 依編號判斷角色屬於哪一方
+    private LiveRoster rosterOf(Role role) {
+        return role.getId() < sideA.length ? aliveA : aliveB;
+    }
+
+    /**
+     * 執行戰鬥直到一方全滅或達到回合上限
+     * @param maxRounds 回合上限
+     * @return SIDE_A、SIDE_B 或 DRAW
+     */
+    public int fight(int maxRounds) {
+        while (rounds < maxRounds) {
+            rounds++;
+            boolean aFirst = random.nextBoolean();
+            int size = Math.max(sideA.length, sideB.length);
+
+            // 雙方輪流行動：A0, B0, A1, B1 ...（或 B 先）
+            for (int i = 0; i < size; i++) {
+                if (aFirst) {
+                    takeTurn(sideA, aliveB, i);
+                    takeTurn(sideB, aliveA, i);
+                } else {
+                    takeTurn(sideB, aliveA, i);
+                    takeTurn(sideA, aliveB, i);
+                }
+                if (aliveA.isEmpty() || aliveB.isEmpty()) {
+                    return winner();
+                }
+            }
+        }
+        return winner();
+    }
+
+    // 單一角色的回合：準備 → 行動（由策略決定）→ 戰後
+    private void takeTurn(Role[] side, LiveRoster enemies, int index) {
+        if (index >= side.length) return;
+        Role current = side[index];
+        if (!current.isAlive() || enemies.isEmpty()) return;
+
+        RoleDispatch.prepareBattle(current);
+        policies[current.getId()].act(current, this);
+
+        if (current.isAlive()) {
+            RoleDispatch.afterBattle(current);
+        }
+    }
+
+    @Override
+    public BattleRandom random() {
+        return random;
+    }
+
+    @Override
+    public Role randomEnemy(Role self) {
+        return (rosterOf(self) == aliveA ? aliveB : aliveA).randomAlive(random);
+    }
+
+    @Override
+    public Role randomAlly(Role self) {
+        return rosterOf(self).randomAlive(random);
+    }
+
+    @Override
+    public Role weakestAlly(Role self) {
+        return rosterOf(self).weakest();
+    }
+
+    private int winner() {
+        boolean aAlive = !aliveA.isEmpty();
+        boolean bAlive = !aliveB.isEmpty();
+        if (aAlive && !bAlive) return SIDE_A;
+        if (bAlive && !aAlive) return SIDE_B;
+        return DRAW;
+    }
+
+    // 取得已進行的回合數
+    public int getRounds() {
+        return rounds;
+    }
+
+    // 取得 A 方造成的總傷害
+    public long getDamageByA() {
+        return damageByA;
+    }
+
+    // 取得 B 方造成的總傷害
+    public long getDamageByB() {
+        return damageByB;
+    }
+}
@@ -0,0 +1,206 @@
+/**
+ * BattleSimulator - 無介面的批次戰鬥模擬器
+ *
+ * 用途：
+ * - 職業平衡需要跑大量的蒙地卡羅模擬
+ * - 每場戰鬥的角色都處於初始狀態（生命值、能量、箭矢、聖能都會變動）
+ * - run() 透過每個執行緒的 RolePool 重複使用角色：打完就 reset 放回池中，
+ *   工廠只在池裡沒有空閒角色時才會被呼叫
+ * - 角色預設使用 CombatEventListener.NONE，不會輸出任何訊息
+ *
+ * 使用範例：
+ *   BattleSimulator simulator = new BattleSimulator(
+ *       List.of(() -> new Paladin("聖騎士", 110, 17, 6, 12, 12, 100)),
+ *       List.of(() -> new Archer("精靈射手", 90, 18, 10, 80, 30)));
+ *   SimulationResult result = simulator.run(1_000_000);
+ *
+ * 重播：
+ * - 第 k 場戰鬥的亂數只由（種子, k）決定，與執行緒數量無關
+ * - 用 replay(k, listener) 可以重新打一次任意一場，並看到完整過程
+ *
+ * 錄製：
+ * - record(battles, recorder) 依序執行，並把每場的所有事件寫進二進位重播檔
+ *
+ * 執行緒安全：
+ * - 模擬器本身不保存任何戰鬥狀態，可以同時被多個執行緒使用
+ * - 工廠必須是無狀態的（每次呼叫都 new 一個新角色）
+ */
+package com.rpg.sim;
+
+import com.rpg.core.BattleRandom;
+import com.rpg.core.CombatEventListener;
+import com.rpg.core.Role;
+import com.rpg.replay.ReplayRecorder;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+
+public class BattleSimulator {
+    private final List<Supplier<? extends Role>> sideA;
+    private final List<Supplier<? extends Role>> sideB;
+    private int maxRounds = Battle.DEFAULT_MAX_ROUNDS;
+    // 主種子：預設隨機產生，需要重現結果時再指定
+    private long seed = new SplittableRandom().nextLong();
+
+    /**
+     * 建構子
+     * @param sideA 建立 A 方角色的工廠（每個元素代表一名角色）
+     * @param sideB 建立 B 方角色的工廠
+     */
+    public BattleSimulator(List<Supplier<? extends Role>> sideA, List<Supplier<? extends Role>> sideB) {
+        if (sideA.isEmpty() || sideB.isEmpty()) {
+            throw new IllegalArgumentException("雙方都至少要有一名角色");
+        }
+        this.sideA = List.copyOf(sideA);
+        this.sideB = List.copyOf(sideB);
+    }
+
+    // 取得回合上限
+    public int getMaxRounds() {
+        return maxRounds;
+    }
+
+    // 設定回合上限
+    public void setMaxRounds(int maxRounds) {
+        if (maxRounds <= 0) {
+            throw new IllegalArgumentException("回合上限必須大於 0");
+        }
+        this.maxRounds = maxRounds;
+    }
+
+    // 取得主種子
+    public long getSeed() {
+        return seed;
+    }
+
+    // 設定主種子（同一個種子、同樣的場數，結果一定相同）
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * 執行多場獨立的戰鬥（場次 0 ~ battles-1）
+     * @param battles 戰鬥場數
+     * @return 統計結果
+     */
+    public SimulationResult run(int battles) {
+        return run(0, battles);
+    }
+
+    // 執行場次 [from, to) 的戰鬥，平行執行時每個工作負責一段
+    SimulationResult run(long from, long to) {
+        SimulationResult result = new SimulationResult();
+        RolePool.Lane[] lanesA = lanes(sideA);
+        RolePool.Lane[] lanesB = lanes(sideB);
+        Role[] a = new Role[lanesA.length];
+        Role[] b = new Role[lanesB.length];
+        for (long i = from; i < to; i++) {
+            acquire(lanesA, a);
+            acquire(lanesB, b);
+            Battle battle = new Battle(a, b, BattleRandom.forBattle(seed, i));
+            result.record(battle, battle.fight(maxRounds));
+            release(lanesA, a);
+            release(lanesB, b);
+        }
+        return result;
+    }
+
+    /**
+     * 重播某一場戰鬥
+     * @param index 戰鬥場次（與 run() 的場次相同）
+     * @param listener 接收戰鬥事件的監聽器（例如主控台輸出）
+     * @return 打完的戰鬥
+     */
+    public Battle replay(long index, CombatEventListener listener) {
+        Role[] a = spawn(sideA);
+        Role[] b = spawn(sideB);
+        for (Role role : a) {
+            role.setListener(listener);
+        }
+        for (Role role : b) {
+            role.setListener(listener);
+        }
+        Battle battle = new Battle(a, b, BattleRandom.forBattle(seed, index));
+        battle.fight(maxRounds);
+        return battle;
+    }
+
+    /**
+     * 依序執行多場戰鬥，並把所有事件錄進重播檔
+     * 每場前後會寫入 BATTLE_START / BATTLE_END 標記，場次與 run() 相同
+     *
+     * @param battles 戰鬥場數
+     * @param recorder 重播檔錄製器（由呼叫者負責 close）
+     * @return 統計結果（與 run(battles) 相同）
+     */
+    public SimulationResult record(int battles, ReplayRecorder recorder) {
+        SimulationResult result = new SimulationResult();
+        for (long i = 0; i < battles; i++) {
+            Role[] a = spawn(sideA);
+            Role[] b = spawn(sideB);
+            for (Role role : a) {
+                role.setListener(recorder);
+            }
+            for (Role role : b) {
+                role.setListener(recorder);
+            }
+            recorder.beginBattle(i);
+            Battle battle = new Battle(a, b, BattleRandom.forBattle(seed, i));
+            int winner = battle.fight(maxRounds);
+            recorder.endBattle(winner);
+            result.record(battle, winner);
+        }
+        return result;
+    }
+
+    /**
+     * 用 Fork/Join 在所有核心上平行執行多場戰鬥
+     * @param battles 戰鬥場數
+     * @param pool 執行用的 ForkJoinPool
+     * @return 合併後的統計結果
+     */
+    public SimulationResult runParallel(int battles, ForkJoinPool pool) {
+        return pool.invoke(new SimulationTask(this, 0, battles));
+    }
+
+    // 使用共用的 ForkJoinPool 平行執行
+    public SimulationResult runParallel(int battles) {
+        return runParallel(battles, ForkJoinPool.commonPool());
+    }
+
+    // 查好目前執行緒物件池中，一方每個工廠對應的 Lane
+    private static RolePool.Lane[] lanes(List<Supplier<? extends Role>> factories) {
+        RolePool pool = RolePool.current();
+        RolePool.Lane[] lanes = new RolePool.Lane[factories.size()];
+        for (int i = 0; i < lanes.length; i++) {
+            lanes[i] = pool.lane(factories.get(i));
+        }
+        return lanes;
+    }
+
+    // 從物件池取得一方的角色（填進重複使用的陣列）
+    private static void acquire(RolePool.Lane[] lanes, Role[] roles) {
+        for (int i = 0; i < roles.length; i++) {
+            roles[i] = lanes[i].acquire();
+        }
+    }
+
+    // 把一方的角色還給物件池
+    private static void release(RolePool.Lane[] lanes, Role[] roles) {
+        for (int i = 0; i < roles.length; i++) {
+            lanes[i].release(roles[i]);
+            roles[i] = null;
+        }
+    }
+
+    // 用工廠建立一方的全新角色
+    private static Role[] spawn(List<Supplier<? extends Role>> factories) {
+        Role[] roles = new Role[factories.size()];
+        for (int i = 0; i < roles.length; i++) {
+            roles[i] = factories.get(i).get();
+        }
+        return roles;
+    }
+}
@@ -0,0 +1,354 @@
+/**
+ * BattleSnapshot - 一場戰鬥在兩個回合之間的完整狀態（二進位快照）
+ *
+ * 為什麼需要？
+ * - 長時間的戰役模擬中途當機，只能從第一回合重打
+ * - 想知道「這一刻如果換個亂數會怎樣」，只能從頭重跑到同一個位置再分岔，
+ *   要分出上千個假設情境時，前面那段戰鬥會被重複模擬上千次
+ *
+ * 設計說明：
+ * - 快照包含：每個角色的戰鬥狀態（Role.saveState：生命值、速度、護盾、暈眩、座標，
+ *   再加上護甲、能量、箭矢、聖能）、回合數、雙方傷害統計、亂數狀態、雙方存活名單的順序
+ * - 存活名單用 swap-remove，順序會影響隨機挑選的目標，所以順序也要存下來，
+ *   還原後接著打才會與沒有中斷的戰鬥完全相同
+ * - 角色的名稱、數值、職業不存進快照：還原時由呼叫者提供同樣組成的全新角色（與 RoleSpec 的做法相同），
+ *   快照只記錄職業並在還原時檢查，每個角色只佔 4 + getStateBytes() bytes
+ * - 快照建立後不會再改變，可以被多個執行緒同時還原
+ * - 建立快照只是把欄位複製進一個 byte[]，寫檔交給 SnapshotWriter 在背景執行緒處理
+ * - 狀態效果（EffectEngine）不屬於戰鬥本身，不在快照裡；角色身上的護盾與暈眩數會被保存
+ *
+ * 檔案格式（little-endian）：
+ * - 檔頭 56 bytes：MAGIC、VERSION、亂數狀態、回合數、保留、A 方傷害、B 方傷害、亂數步長（gamma）、A 方人數、B 方人數
+ *   （版本 1 沒有亂數步長；split 出來的亂數流 gamma 不是預設值，只存狀態無法接著產生相同的亂數）
+ * - 每個角色：byte 職業（RoleKind.ordinal）、byte 保留、short 狀態長度、狀態內容
+ * - A 方存活名單：int 人數、每個角色的編號（int）；B 方存活名單同上
+ *
+ * 使用範例：
+ *   battle.fight(10);
+ *   BattleSnapshot snapshot = battle.snapshot();
+ *   writer.write(snapshot, Path.of("checkpoint.bin"));          // 背景寫檔
+ *   Battle resumed = BattleSnapshot.readFrom(path).restore(newSideA(), newSideB());
+ *   Battle whatIf = snapshot.restore(newSideA(), newSideB(), BattleRandom.forBattle(seed, k));
+ */
+package com.rpg.sim;
+
+import com.rpg.core.BattleRandom;
+import com.rpg.core.LiveRoster;
+import com.rpg.core.Role;
+import com.rpg.core.RoleKind;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+public final class BattleSnapshot {
+    // 檔案識別碼 "RPGS"
+    public static final int MAGIC = 0x52504753;
+    // 格式版本
+    public static final int VERSION = 2;
+    // 檔頭長度
+    public static final int HEADER_BYTES = 56;
+    // 每個角色在狀態內容之前的欄位長度（職業、保留、狀態長度）
+    private static final int ROLE_HEADER_BYTES = 4;
+
+    private final byte[] data;
+
+    private BattleSnapshot(byte[] data) {
+        this.data = data;
+    }
+
+    // 由 Battle.snapshot 呼叫
+    static BattleSnapshot capture(Battle battle) {
+        Role[] sideA = battle.sideA();
+        Role[] sideB = battle.sideB();
+        LiveRoster aliveA = battle.aliveA();
+        LiveRoster aliveB = battle.aliveB();
+
+        int size = HEADER_BYTES + 2 * Integer.BYTES + (aliveA.size() + aliveB.size()) * Integer.BYTES;
+        for (Role role : sideA) size += ROLE_HEADER_BYTES + role.getStateBytes();
+        for (Role role : sideB) size += ROLE_HEADER_BYTES + role.getStateBytes();
+
+        ByteBuffer out = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        out.putInt(MAGIC).putInt(VERSION)
+            .putLong(battle.random().getState())
+            .putInt(battle.getRounds()).putInt(0)
+            .putLong(battle.getDamageByA()).putLong(battle.getDamageByB())
+            .putLong(battle.random().getGamma())
+            .putInt(sideA.length).putInt(sideB.length);
+        for (Role role : sideA) saveRole(role, out);
+        for (Role role : sideB) saveRole(role, out);
+        saveRoster(aliveA, out);
+        saveRoster(aliveB, out);
+        return new BattleSnapshot(out.array());
+    }
+
+    private static void saveRole(Role role, ByteBuffer out) {
+        int bytes = role.getStateBytes();
+        out.put((byte) role.getStats().getKind().ordinal()).put((byte) 0).putShort((short) bytes);
+        int start = out.position();
+        role.saveState(out);
+        if (out.position() - start != bytes) {
+            throw new IllegalStateException(role.getClass().getSimpleName()
+                    + " 的 saveState 寫了 " + (out.position() - start) + " bytes，getStateBytes 是 " + bytes);
+        }
+    }
+
+    private static void saveRoster(LiveRoster roster, ByteBuffer out) {
+        out.putInt(roster.size());
+        for (int i = 0; i < roster.size(); i++) {
+            out.putInt(roster.get(i).getId());
+        }
+    }
+
+    /**
+     * 還原成一場可以接著打的戰鬥，亂數從存檔時的位置繼續（當機後續打用）
+     * @param sideA 與存檔時同樣組成的全新 A 方角色（同樣的人數、順序與職業）
+     * @param sideB 與存檔時同樣組成的全新 B 方角色
+     * @throws IllegalArgumentException 角色組成與快照不符
+     */
+    public Battle restore(Role[] sideA, Role[] sideB) {
+        return restore(sideA, sideB, new BattleRandom(getRandomState(), getRandomGamma()));
+    }
+
+    /**
+     * 還原成一場戰鬥，但改用另一個亂數流（從同一個狀態分岔出不同的假設情境）
+     * @param random 分岔後使用的亂數產生器（例如 BattleRandom.forBattle(種子, 分岔編號)）
+     * @throws IllegalArgumentException 角色組成與快照不符
+     */
+    public Battle restore(Role[] sideA, Role[] sideB, BattleRandom random) {
+        ByteBuffer in = buffer();
+        in.position(HEADER_BYTES - 2 * Integer.BYTES);
+        int countA = in.getInt();
+        int countB = in.getInt();
+        if (sideA.length != countA || sideB.length != countB) {
+            throw new IllegalArgumentException("人數與快照不符：" + sideA.length + " 對 " + sideB.length
+                    + "，快照是 " + countA + " 對 " + countB);
+        }
+        for (Role role : sideA) loadRole(role, in);
+        for (Role role : sideB) loadRole(role, in);
+        int[] orderA = loadRoster(in);
+        int[] orderB = loadRoster(in);
+        checkRoster(sideA, orderA, sideA, sideB, "A");
+        checkRoster(sideB, orderB, sideA, sideB, "B");
+
+        Battle battle = new Battle(sideA, sideB, random, orderA, orderB);
+        battle.restoreProgress(getRounds(), getDamageByA(), getDamageByB());
+        return battle;
+    }
+
+    private static void loadRole(Role role, ByteBuffer in) {
+        RoleKind kind = RoleKind.values()[in.get()];
+        in.get();
+        int bytes = in.getShort();
+        if (role.getStats().getKind() != kind || role.getStateBytes() != bytes) {
+            throw new IllegalArgumentException("角色與快照不符：" + role.getName() + "（"
+                    + role.getStats().getKind() + "），快照是 " + kind);
+        }
+        role.loadState(in);
+    }
+
+    private static int[] loadRoster(ByteBuffer in) {
+        int[] order = new int[in.getInt()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = in.getInt();
+        }
+        return order;
+    }
+
+    /**
+     * 載入狀態之後確認存活名單剛好是這一方所有活著的角色
+     * （fromByteArray 已經確認編號在這一方的範圍內而且沒有重複）
+     */
+    private static void checkRoster(Role[] side, int[] order, Role[] sideA, Role[] sideB, String name) {
+        for (int id : order) {
+            Role role = id < sideA.length ? sideA[id] : sideB[id - sideA.length];
+            if (!role.isAlive()) {
+                throw new IllegalArgumentException("快照內容損毀：" + name + " 方存活名單裡的 "
+                        + role.getName() + "（編號 " + id + "）已經倒下");
+            }
+        }
+        int alive = 0;
+        for (Role role : side) {
+            if (role.isAlive()) alive++;
+        }
+        if (alive != order.length) {
+            throw new IllegalArgumentException("快照內容損毀：" + name + " 方有 " + alive
+                    + " 個角色活著，存活名單只有 " + order.length + " 個");
+        }
+    }
+
+    private ByteBuffer buffer() {
+        return ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    // ========== 檔頭資訊 ==========
+
+    // 存檔時的亂數狀態
+    public long getRandomState() {
+        return buffer().getLong(8);
+    }
+
+    // 存檔時的亂數步長
+    public long getRandomGamma() {
+        return buffer().getLong(40);
+    }
+
+    // 存檔時已進行的回合數
+    public int getRounds() {
+        return buffer().getInt(16);
+    }
+
+    // 存檔時 A 方造成的總傷害
+    public long getDamageByA() {
+        return buffer().getLong(24);
+    }
+
+    // 存檔時 B 方造成的總傷害
+    public long getDamageByB() {
+        return buffer().getLong(32);
+    }
+
+    // 快照的大小（bytes）
+    public int size() {
+        return data.length;
+    }
+
+    // ========== 序列化 ==========
+
+    // 取得快照內容（複本）
+    public byte[] toByteArray() {
+        return data.clone();
+    }
+
+    /**
+     * 由 toByteArray 的內容建立快照
+     * 存活名單的編號必須在該方的範圍內而且沒有重複（是否真的活著要載入狀態後才知道，由 restore 檢查）
+     * @throws IllegalArgumentException 不是快照、版本不支援、內容不完整或損毀
+     */
+    public static BattleSnapshot fromByteArray(byte[] bytes) {
+        if (bytes.length < HEADER_BYTES) {
+            throw new IllegalArgumentException("不是戰鬥快照：長度只有 " + bytes.length + " bytes");
+        }
+        ByteBuffer in = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        if (in.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("不是戰鬥快照：識別碼不符");
+        }
+        if (in.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("不支援的快照版本：" + in.getInt(4));
+        }
+        if ((in.getLong(40) & 1) == 0) {
+            throw new IllegalArgumentException("快照內容損毀：亂數步長不是奇數");
+        }
+        // 走過一次所有欄位，確認長度剛好吻合
+        in.position(HEADER_BYTES - 2 * Integer.BYTES);
+        try {
+            int countA = in.getInt();
+            int countB = in.getInt();
+            if (countA < 0 || countB < 0) {
+                throw new IllegalArgumentException("快照內容損毀：人數是 " + countA + " 對 " + countB);
+            }
+            int roles = countA + countB;
+            for (int i = 0; i < roles; i++) {
+                int kind = in.get();
+                in.get();
+                int stateBytes = in.getShort();
+                if (kind < 0 || kind >= RoleKind.values().length || stateBytes < 0) {
+                    throw new IllegalArgumentException("快照內容損毀：第 " + i + " 個角色");
+                }
+                skip(in, stateBytes);
+            }
+            // 存活名單：編號必須屬於該方，而且不能重複
+            boolean[] listed = new boolean[roles];
+            for (int side = 0; side < 2; side++) {
+                int first = side == 0 ? 0 : countA;
+                int end = side == 0 ? countA : roles;
+                int alive = in.getInt();
+                if (alive < 0 || alive > end - first) {
+                    throw new IllegalArgumentException("快照內容損毀：" + (side == 0 ? "A" : "B")
+                            + " 方存活名單有 " + alive + " 個角色");
+                }
+                for (int i = 0; i < alive; i++) {
+                    int id = in.getInt();
+                    if (id < first || id >= end) {
+                        throw new IllegalArgumentException("快照內容損毀：" + (side == 0 ? "A" : "B")
+                                + " 方存活名單裡的編號 " + id + " 不屬於這一方");
+                    }
+                    if (listed[id]) {
+                        throw new IllegalArgumentException("快照內容損毀：存活名單裡的編號 " + id + " 重複");
+                    }
+                    listed[id] = true;
+                }
+            }
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("快照內容不完整", e);
+        }
+        if (in.hasRemaining()) {
+            throw new IllegalArgumentException("快照結尾有多餘的 " + in.remaining() + " bytes");
+        }
+        return new BattleSnapshot(bytes.clone());
+    }
+
+    // 跳過 bytes 個 byte，不夠時與讀到結尾一樣丟出 BufferUnderflowException
+    private static void skip(ByteBuffer in, int bytes) {
+        if (bytes > in.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        in.position(in.position() + bytes);
+    }
+
+    /**
+     * 寫入檔案：先寫到同目錄的暫存檔、force 到磁碟之後再改名，寫到一半當機或斷電也不會留下殘缺的存檔
+     * - 暫存檔在改名之前 force(true)：改名後的檔案內容一定已經落地，不會是空的或只寫了一半
+     * - 改名之後 force 所在的目錄：改名本身也落地，斷電後不會退回上一份存檔（或沒有存檔）
+     *   有些平台（例如 Windows）無法開啟目錄，這一步就略過，只剩改名可能在斷電時遺失
+     * 會阻塞到寫入完成，戰鬥執行緒上請改用 SnapshotWriter
+     */
+    public void writeTo(Path file) throws IOException {
+        Path dir = file.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                ByteBuffer content = ByteBuffer.wrap(data);
+                while (content.hasRemaining()) {
+                    channel.write(content);
+                }
+                channel.force(true);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        forceDirectory(dir);
+    }
+
+    // 讓目錄的變更（改名）落地
+    private static void forceDirectory(Path dir) throws IOException {
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(dir, StandardOpenOption.READ);
+        } catch (IOException e) {
+            return; // 這個平台不能開啟目錄
+        }
+        try (channel) {
+            channel.force(true);
+        }
+    }
+
+    /**
+     * 讀取 writeTo 寫出的檔案
+     * @throws IOException 讀取失敗，或檔案不是有效的快照
+     */
+    public static BattleSnapshot readFrom(Path file) throws IOException {
+        try {
+            return fromByteArray(Files.readAllBytes(file));
+        } catch (IllegalArgumentException e) {
+            throw new IOException(file + "：" + e.getMessage(), e);
+        }
+    }
+}
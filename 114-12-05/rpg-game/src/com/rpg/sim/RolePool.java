@@ -0,0 +1,138 @@
+/**
+ * RolePool - 每個執行緒各自一份的角色物件池
+ *
+ * 為什麼需要？
+ * - 批次模擬每場戰鬥都用工廠 new 出全新的角色（連同名稱字串等欄位）
+ * - 每小時上千萬場時，建立角色就成了記憶體配置的大宗
+ * - Role.reset() 可以把角色恢復成剛建立的狀態，所以打完的角色可以直接留給下一場用
+ *
+ * 設計說明：
+ * - 以「工廠」為鍵（同一個職業可能有不同數值的工廠），每個工廠一條 Lane（空閒角色的堆疊）
+ * - Lane.acquire()：有空閒的就拿出來，沒有才呼叫工廠建立
+ * - Lane.release(role)：呼叫 role.reset() 後放回堆疊
+ * - 熱迴圈先用 lane(factory) 查一次，之後直接操作 Lane，不必每場戰鬥都查表
+ * - 只在單一執行緒內使用，不需要任何鎖；用 current() 取得目前執行緒的池
+ * - 工廠是弱參照的鍵（WeakHashMap，Lane 也只弱參照工廠）：執行緒池的執行緒會一直活著，
+ *   BalanceOptimizer 這種每個候選數值都有一個新工廠的用法，工廠不再被使用之後
+ *   Lane 和裡面的空閒角色會跟著被回收，不會在每個執行緒裡越積越多；
+ *   工廠以 equals 比對，lambda 與 ArchetypeRegistry 的工廠都是依物件本身比對
+ * - clear() 立刻丟掉目前執行緒所有的 Lane（不等垃圾回收）
+ *
+ * 注意：
+ * - 歸還的角色必須是由同一個工廠建立的，否則下次拿到的數值會不對
+ * - 戰鬥結束後還要讀取角色狀態的話（例如重播、顯示結果），不要歸還
+ */
+package com.rpg.sim;
+
+import com.rpg.core.Role;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.Supplier;
+
+public final class RolePool {
+    // 每個執行緒一份
+    private static final ThreadLocal<RolePool> CURRENT = ThreadLocal.withInitial(RolePool::new);
+
+    // 每個工廠的空閒角色（工廠不再被使用時整條 Lane 一起被回收）
+    private final Map<Supplier<? extends Role>, Lane> lanes = new WeakHashMap<>();
+
+    // 取得目前執行緒的物件池
+    public static RolePool current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 取得某個工廠的空閒角色堆疊（第一次查詢時建立）
+     * @param factory 角色的工廠
+     */
+    public Lane lane(Supplier<? extends Role> factory) {
+        return lanes.computeIfAbsent(factory, Lane::new);
+    }
+
+    // 取得一個處於初始狀態的角色
+    public Role acquire(Supplier<? extends Role> factory) {
+        return lane(factory).acquire();
+    }
+
+    // 歸還角色（會先 reset 再放回池中）
+    public void release(Supplier<? extends Role> factory, Role role) {
+        lane(factory).release(role);
+    }
+
+    // 丟掉所有 Lane 與空閒角色（getCreated / getReused 也會歸零）
+    public void clear() {
+        lanes.clear();
+    }
+
+    // 目前的 Lane 數（還沒被回收的工廠數）
+    public int size() {
+        return lanes.size();
+    }
+
+    // 取得呼叫工廠建立的總次數
+    public long getCreated() {
+        long total = 0;
+        for (Lane lane : lanes.values()) {
+            total += lane.created;
+        }
+        return total;
+    }
+
+    // 取得重複使用的總次數
+    public long getReused() {
+        long total = 0;
+        for (Lane lane : lanes.values()) {
+            total += lane.reused;
+        }
+        return total;
+    }
+
+    /**
+     * Lane - 單一工廠的空閒角色堆疊
+     */
+    public static final class Lane {
+        // 弱參照：Lane 是 WeakHashMap 的值，強參照工廠的話鍵永遠不會被回收
+        private final WeakReference<Supplier<? extends Role>> factory;
+        private Role[] idle = new Role[4];
+        private int size;
+        // 呼叫工廠建立的次數
+        private long created;
+        // 重複使用的次數
+        private long reused;
+
+        private Lane(Supplier<? extends Role> factory) {
+            this.factory = new WeakReference<>(factory);
+        }
+
+        /**
+         * 取得一個處於初始狀態的角色：有空閒的就重複使用，沒有才呼叫工廠
+         * @throws IllegalStateException 工廠已經沒有人使用而被回收（呼叫者只留著 Lane、沒有留著工廠）
+         */
+        public Role acquire() {
+            if (size > 0) {
+                reused++;
+                Role role = idle[--size];
+                idle[size] = null;
+                return role;
+            }
+            Supplier<? extends Role> supplier = factory.get();
+            if (supplier == null) {
+                throw new IllegalStateException("工廠已經被回收，這條 Lane 不能再建立角色");
+            }
+            created++;
+            return supplier.get();
+        }
+
+        // 歸還角色（會先 reset 再放回堆疊）
+        public void release(Role role) {
+            role.reset();
+            if (size == idle.length) {
+                idle = Arrays.copyOf(idle, size * 2);
+            }
+            idle[size++] = role;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+/**
+ * RoleSpec - 角色規格（名稱 + 工廠）
+ *
+ * 為什麼不直接傳角色物件？
+ * - 角色的生命值、能量、箭矢、聖能都會在戰鬥中改變
+ * - 每場戰鬥都必須拿到全新的角色，所以傳的是「怎麼建立角色」
+ * - 工廠必須是無狀態的，才能被多個執行緒同時呼叫
+ */
+package com.rpg.sim;
+
+import com.rpg.core.Role;
+
+import java.util.function.Supplier;
+
+public class RoleSpec {
+    private final String label;
+    private final Supplier<? extends Role> factory;
+
+    /**
+     * 建構子
+     * @param label 顯示用的名稱（例如職業名稱）
+     * @param factory 建立全新角色的工廠
+     */
+    public RoleSpec(String label, Supplier<? extends Role> factory) {
+        this.label = label;
+        this.factory = factory;
+    }
+
+    // 取得名稱
+    public String getLabel() {
+        return label;
+    }
+
+    // 取得工廠
+    public Supplier<? extends Role> getFactory() {
+        return factory;
+    }
+
+    // 建立一個全新的角色
+    public Role create() {
+        return factory.get();
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
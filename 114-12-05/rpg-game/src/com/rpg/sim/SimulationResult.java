@@ -0,0 +1,105 @@
+/**
+ * SimulationResult - 批次模擬的統計結果
+ *
+ * 設計說明：
+ * - 只存放基本型別的累計值，記錄一場戰鬥不會產生任何新物件
+ * - 勝率、平均回合數等都在需要時才計算
+ * - 不是執行緒安全的：每個執行緒各自累計，再用 merge() 合併
+ */
+package com.rpg.sim;
+
+public class SimulationResult {
+    private long battles;
+    private long winsA;
+    private long winsB;
+    private long draws;
+    private long totalRounds;
+    private long damageByA;
+    private long damageByB;
+
+    /**
+     * 記錄一場已結束的戰鬥
+     * @param battle 戰鬥
+     * @param winner Battle.SIDE_A、Battle.SIDE_B 或 Battle.DRAW
+     */
+    public void record(Battle battle, int winner) {
+        battles++;
+        if (winner == Battle.SIDE_A) {
+            winsA++;
+        } else if (winner == Battle.SIDE_B) {
+            winsB++;
+        } else {
+            draws++;
+        }
+        totalRounds += battle.getRounds();
+        damageByA += battle.getDamageByA();
+        damageByB += battle.getDamageByB();
+    }
+
+    /**
+     * 合併另一份結果（平行模擬時，每個工作各自累計，最後再合併）
+     * @param other 另一份結果
+     * @return this，方便串接
+     */
+    public SimulationResult merge(SimulationResult other) {
+        battles += other.battles;
+        winsA += other.winsA;
+        winsB += other.winsB;
+        draws += other.draws;
+        totalRounds += other.totalRounds;
+        damageByA += other.damageByA;
+        damageByB += other.damageByB;
+        return this;
+    }
+
+    public long getBattles() {
+        return battles;
+    }
+
+    public long getWinsA() {
+        return winsA;
+    }
+
+    public long getWinsB() {
+        return winsB;
+    }
+
+    public long getDraws() {
+        return draws;
+    }
+
+    public long getDamageByA() {
+        return damageByA;
+    }
+
+    public long getDamageByB() {
+        return damageByB;
+    }
+
+    // A 方勝率
+    public double getWinRateA() {
+        return battles == 0 ? 0 : (double) winsA / battles;
+    }
+
+    // B 方勝率
+    public double getWinRateB() {
+        return battles == 0 ? 0 : (double) winsB / battles;
+    }
+
+    // 平手比例
+    public double getDrawRate() {
+        return battles == 0 ? 0 : (double) draws / battles;
+    }
+
+    // 平均回合數
+    public double getAverageRounds() {
+        return battles == 0 ? 0 : (double) totalRounds / battles;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("場數: %d, A 勝率: %.2f%%, B 勝率: %.2f%%, 平手: %.2f%%, 平均回合: %.2f, A 總傷害: %d, B 總傷害: %d",
+                battles, getWinRateA() * 100, getWinRateB() * 100, getDrawRate() * 100,
+                getAverageRounds(), damageByA, damageByB);
+    }
+}
@@ -0,0 +1,43 @@
+/**
+ * SimulationTask - 把大量戰鬥切成小段平行執行的 Fork/Join 工作
+ *
+ * 運作方式：
+ * - 場數超過門檻就一分為二（fork 一半、自己算另一半）
+ * - 切的是場次範圍，所以不管怎麼切，第 k 場用的亂數都一樣
+ * - 每一段都有自己的 SimulationResult，不共用任何可變狀態
+ * - join 之後用 merge() 合併，整個歸約過程不需要任何鎖
+ */
+package com.rpg.sim;
+
+import java.util.concurrent.RecursiveTask;
+
+class SimulationTask extends RecursiveTask<SimulationResult> {
+    private static final long serialVersionUID = 1L;
+
+    // 低於這個場數就直接在目前執行緒執行
+    static final int THRESHOLD = 8_192;
+
+    // RecursiveTask 是 Serializable，但 Fork/Join 工作不會被序列化，模擬器也不需要跟著序列化
+    private final transient BattleSimulator simulator;
+    // 負責的場次範圍 [from, to)，場次決定每場戰鬥的亂數流
+    private final long from;
+    private final long to;
+
+    SimulationTask(BattleSimulator simulator, long from, long to) {
+        this.simulator = simulator;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    protected SimulationResult compute() {
+        if (to - from <= THRESHOLD) {
+            return simulator.run(from, to);
+        }
+        long middle = (from + to) >>> 1;
+        SimulationTask left = new SimulationTask(simulator, from, middle);
+        left.fork();
+        SimulationResult right = new SimulationTask(simulator, middle, to).compute();
+        return right.merge(left.join());
+    }
+}
@@ -0,0 +1,68 @@
+/**
+ * SnapshotWriter - 在背景執行緒寫出戰鬥快照
+ *
+ * 為什麼需要？
+ * - 寫檔（force 到磁碟、改名、再 force 目錄，見 BattleSnapshot.writeTo）要花上毫秒等級的時間，
+ *   在戰鬥迴圈裡直接寫會讓每次存檔都卡住模擬
+ *
+ * 設計說明：
+ * - 戰鬥執行緒只做 Battle.snapshot()（把狀態複製進 byte[]），寫檔交給這裡的單一背景執行緒
+ * - 單一執行緒依送出順序寫出，同一個檔案後送出的快照一定蓋掉先送出的
+ * - write 回傳 CompletableFuture，需要確認存檔成功時（例如結束前）再 join
+ * - 背景執行緒是 daemon，但 close() 會等所有已送出的快照寫完
+ *
+ * 使用範例：
+ *   try (SnapshotWriter writer = new SnapshotWriter()) {
+ *       while (battle.fight(round += 10) == Battle.DRAW && round < limit) {
+ *           writer.write(battle.snapshot(), checkpoint);
+ *       }
+ *   }
+ */
+package com.rpg.sim;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class SnapshotWriter implements AutoCloseable {
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "snapshot-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * 送出一個快照，在背景寫入檔案（BattleSnapshot.writeTo）
+     * @param snapshot 快照
+     * @param file 目標檔案
+     * @return 寫入完成時完成；寫入失敗時以 UncheckedIOException 失敗
+     * @throws java.util.concurrent.RejectedExecutionException 已經關閉
+     */
+    public CompletableFuture<Path> write(BattleSnapshot snapshot, Path file) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                snapshot.writeTo(file);
+                return file;
+            } catch (IOException e) {
+                throw new UncheckedIOException("寫入快照失敗：" + file, e);
+            }
+        }, executor);
+    }
+
+    /**
+     * 關閉：不再接受新的快照，等待已送出的快照寫完
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
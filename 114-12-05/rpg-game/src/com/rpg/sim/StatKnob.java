@@ -0,0 +1,105 @@
+/**
+ * StatKnob - 平衡調整時可以轉動的角色數值
+ *
+ * 設計說明：
+ * - 每個旋鈕對應 RoleStats 的一個欄位，名稱與原型定義檔（archetypes.txt）的欄位名稱相同，
+ *   調整結果可以直接抄回定義檔
+ * - 只對用得到這個欄位的職業有效（例如只有聖騎士有聖能上限），其他職業不會去轉它
+ * - step 是每次調整的基本幅度，依欄位的數量級決定（攻擊力 1 點、能量上限 10 點）
+ * - 射程不列入：Battle 沒有座標，射程不會影響無介面對戰的結果
+ * - 神聖審判的數值可以調整，但 Battle 不會施放技能，所以標記為不影響模擬（isSimulated() 為 false），
+ *   BalanceOptimizer 不會去轉它們，不會把評估花在不會改變勝率的候選上
+ */
+package com.rpg.sim;
+
+import com.rpg.core.RoleKind;
+import com.rpg.core.RoleStats;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ToIntFunction;
+
+public enum StatKnob {
+    HEALTH("health", 5, 10, RoleStats::getHealth, RoleStats.Builder::health,
+            EnumSet.allOf(RoleKind.class)),
+    ATTACK_POWER("attackPower", 1, 1, RoleStats::getAttackPower, RoleStats.Builder::attackPower,
+            EnumSet.allOf(RoleKind.class)),
+    ARMOR("armor", 1, 0, RoleStats::getArmor, RoleStats.Builder::armor,
+            EnumSet.of(RoleKind.SWORDSMAN, RoleKind.SHIELD_SWORDSMAN, RoleKind.PALADIN)),
+    DEFENSE_CAPACITY("defenseCapacity", 1, 0, RoleStats::getDefenseCapacity, RoleStats.Builder::defenseCapacity,
+            EnumSet.of(RoleKind.SHIELD_SWORDSMAN, RoleKind.PALADIN)),
+    HEAL_POWER("healPower", 1, 0, RoleStats::getHealPower, RoleStats.Builder::healPower,
+            EnumSet.of(RoleKind.PALADIN, RoleKind.MAGICIAN)),
+    MAX_ENERGY("maxEnergy", 10, 10, RoleStats::getMaxEnergy, RoleStats.Builder::maxEnergy,
+            EnumSet.of(RoleKind.MAGICIAN, RoleKind.ARCHER)),
+    MAX_ARROWS("maxArrows", 5, 5, RoleStats::getMaxArrows, RoleStats.Builder::maxArrows,
+            EnumSet.of(RoleKind.ARCHER)),
+    MAX_HOLY_POWER("maxHolyPower", 10, 10, RoleStats::getMaxHolyPower, RoleStats.Builder::maxHolyPower,
+            EnumSet.of(RoleKind.PALADIN)),
+    JUDGMENT_COST("judgmentCost", 5, 0, RoleStats::getJudgmentCost, RoleStats.Builder::judgmentCost,
+            EnumSet.of(RoleKind.PALADIN), false),
+    JUDGMENT_BURN("judgmentBurn", 1, 0, RoleStats::getJudgmentBurn, RoleStats.Builder::judgmentBurn,
+            EnumSet.of(RoleKind.PALADIN), false),
+    JUDGMENT_DURATION("judgmentDuration", 1, 1, RoleStats::getJudgmentDuration, RoleStats.Builder::judgmentDuration,
+            EnumSet.of(RoleKind.PALADIN), false);
+
+    private final String field;
+    private final int step;
+    private final int min;
+    private final ToIntFunction<RoleStats> getter;
+    private final ObjIntConsumer<RoleStats.Builder> setter;
+    private final Set<RoleKind> kinds;
+    private final boolean simulated;
+
+    StatKnob(String field, int step, int min, ToIntFunction<RoleStats> getter,
+             ObjIntConsumer<RoleStats.Builder> setter, Set<RoleKind> kinds) {
+        this(field, step, min, getter, setter, kinds, true);
+    }
+
+    StatKnob(String field, int step, int min, ToIntFunction<RoleStats> getter,
+             ObjIntConsumer<RoleStats.Builder> setter, Set<RoleKind> kinds, boolean simulated) {
+        this.field = field;
+        this.step = step;
+        this.min = min;
+        this.getter = getter;
+        this.setter = setter;
+        this.kinds = kinds;
+        this.simulated = simulated;
+    }
+
+    // 原型定義檔中的欄位名稱
+    public String getField() {
+        return field;
+    }
+
+    // 每次調整的基本幅度
+    public int getStep() {
+        return step;
+    }
+
+    // 允許的最小值
+    public int getMin() {
+        return min;
+    }
+
+    // 這個職業是否用得到這個欄位
+    public boolean appliesTo(RoleKind kind) {
+        return kinds.contains(kind);
+    }
+
+    // 這個欄位是否會影響 Battle 的對戰結果（BalanceOptimizer 只轉動會影響的旋鈕）
+    public boolean isSimulated() {
+        return simulated;
+    }
+
+    // 讀取數值
+    public int get(RoleStats stats) {
+        return getter.applyAsInt(stats);
+    }
+
+    // 設定數值
+    public void set(RoleStats.Builder builder, int value) {
+        setter.accept(builder, value);
+    }
+}
@@ -0,0 +1,98 @@
+/**
+ * Tournament - 循環賽：名單中每兩個職業都對戰一次
+ *
+ * 設計說明：
+ * - 名單有 n 個 RoleSpec，就產生 n × n 的對戰矩陣（包含同職業互打）
+ * - 矩陣第 i 列、第 j 行：名單[i] 當 A 方、名單[j] 當 B 方
+ * - 每一格都是一個 SimulationTask，全部丟進 ForkJoinPool 同時執行
+ * - 每場戰鬥都從 RoleSpec 建立全新角色，執行緒之間不共用可變狀態
+ *
+ * 使用範例：
+ *   Tournament tournament = new Tournament(roster, 100_000);
+ *   TournamentResult result = tournament.run();
+ */
+package com.rpg.sim;
+
+import com.rpg.core.BattleRandom;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+public class Tournament {
+    private final List<RoleSpec> roster;
+    private final int battlesPerMatchup;
+    private int maxRounds = Battle.DEFAULT_MAX_ROUNDS;
+    private long seed = new SplittableRandom().nextLong();
+
+    /**
+     * 建構子
+     * @param roster 參賽職業名單
+     * @param battlesPerMatchup 每一組對戰的場數
+     */
+    public Tournament(List<RoleSpec> roster, int battlesPerMatchup) {
+        if (roster.isEmpty()) {
+            throw new IllegalArgumentException("名單不可為空");
+        }
+        if (battlesPerMatchup <= 0) {
+            throw new IllegalArgumentException("每組場數必須大於 0");
+        }
+        this.roster = List.copyOf(roster);
+        this.battlesPerMatchup = battlesPerMatchup;
+    }
+
+    // 設定每場戰鬥的回合上限
+    public void setMaxRounds(int maxRounds) {
+        if (maxRounds <= 0) {
+            throw new IllegalArgumentException("回合上限必須大於 0");
+        }
+        this.maxRounds = maxRounds;
+    }
+
+    // 取得主種子
+    public long getSeed() {
+        return seed;
+    }
+
+    // 設定主種子，每一格對戰會由它推導出自己的種子
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    // 使用共用的 ForkJoinPool 執行
+    public TournamentResult run() {
+        return run(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 執行整個循環賽
+     * @param pool 執行用的 ForkJoinPool
+     * @return 對戰矩陣
+     */
+    public TournamentResult run(ForkJoinPool pool) {
+        int n = roster.size();
+        SimulationTask[][] tasks = new SimulationTask[n][n];
+
+        // 先把所有格子都送進執行緒池，讓工作竊取（work stealing）平均分配
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                BattleSimulator simulator = new BattleSimulator(
+                        List.of(roster.get(i).getFactory()),
+                        List.of(roster.get(j).getFactory()));
+                simulator.setMaxRounds(maxRounds);
+                simulator.setSeed(BattleRandom.deriveSeed(seed, (long) i * n + j));
+                tasks[i][j] = new SimulationTask(simulator, 0, battlesPerMatchup);
+                pool.execute(tasks[i][j]);
+            }
+        }
+
+        // 再依序取回結果
+        SimulationResult[][] results = new SimulationResult[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                results[i][j] = tasks[i][j].join();
+            }
+        }
+        return new TournamentResult(roster, results);
+    }
+}
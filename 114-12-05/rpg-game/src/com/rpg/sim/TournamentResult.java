@@ -0,0 +1,67 @@
+/**
+ * TournamentResult - 循環賽的對戰矩陣
+ *
+ * 第 i 列、第 j 行代表「名單[i]（A 方）對上 名單[j]（B 方）」的統計結果。
+ */
+package com.rpg.sim;
+
+import java.util.List;
+
+public class TournamentResult {
+    private final List<RoleSpec> roster;
+    private final SimulationResult[][] results;
+
+    TournamentResult(List<RoleSpec> roster, SimulationResult[][] results) {
+        this.roster = roster;
+        this.results = results;
+    }
+
+    // 取得參賽名單
+    public List<RoleSpec> getRoster() {
+        return roster;
+    }
+
+    /**
+     * 取得某一組對戰的結果
+     * @param row A 方在名單中的位置
+     * @param column B 方在名單中的位置
+     */
+    public SimulationResult getResult(int row, int column) {
+        return results[row][column];
+    }
+
+    // A 方（名單[row]）對上 B 方（名單[column]）的勝率
+    public double getWinRate(int row, int column) {
+        return results[row][column].getWinRateA();
+    }
+
+    // 全部格子合計的戰鬥場數
+    public long getTotalBattles() {
+        long total = 0;
+        for (SimulationResult[] row : results) {
+            for (SimulationResult result : row) {
+                total += result.getBattles();
+            }
+        }
+        return total;
+    }
+
+    // 以表格顯示 A 方勝率
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-10s", "A \\ B"));
+        for (RoleSpec spec : roster) {
+            sb.append(String.format("%10s", spec.getLabel()));
+        }
+        sb.append('\n');
+        for (int i = 0; i < results.length; i++) {
+            sb.append(String.format("%-10s", roster.get(i).getLabel()));
+            for (int j = 0; j < results[i].length; j++) {
+                sb.append(String.format("%9.1f%%", getWinRate(i, j) * 100));
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,251 @@
+/**
+ * SpatialGrid - 戰場的均勻格網空間索引
+ *
+ * 為什麼需要？
+ * - RangedRole.isInRange(int) 只比較呼叫者算好的距離，角色本身沒有位置
+ * - 有了座標之後，「射程內有哪些敵人」如果每次都掃過全部單位，一萬個單位的戰場每次查詢就是一萬次距離計算
+ *
+ * 設計說明：
+ * - 把戰場切成 cellSize × cellSize 的格子，每格記錄落在裡面的角色編號
+ * - 查詢半徑 r 時只檢查與圓形外接方框重疊的格子，再逐一用距離平方精確比對；
+ *   格子大小接近常用的射程時，只需要看 3 × 3 附近的格子，與戰場上的總單位數無關
+ * - 座標另外存在 xs[] / ys[] 基本型別陣列，精確比對時不必逐一讀取角色物件
+ * - 移動是增量更新：沒有跨格就只改座標；跨格時從舊格 swap-remove、加到新格的尾端，O(1)
+ * - 超出戰場範圍的座標會被歸到最邊緣的格子，查詢結果仍然正確，只是那一格會比較擁擠
+ * - 和 LiveRoster 一樣以角色編號（Role.getId()）當索引，通常每一方各建一個格網，
+ *   「射程內的敵人」就是在敵方的格網上查詢
+ * - 不是執行緒安全的：與戰鬥一樣只由一條執行緒使用
+ *
+ * 使用範例：
+ *   SpatialGrid enemies = new SpatialGrid(1_000, 1_000, 10, capacity);
+ *   enemies.add(orc);
+ *   enemies.move(orc, 12, 40);
+ *   int found = enemies.collectWithin(archer.getX(), archer.getY(), archer.getRange(), buffer);
+ */
+package com.rpg.spatial;
+
+import com.rpg.core.Role;
+
+import java.util.Arrays;
+
+public class SpatialGrid {
+    // 每格的初始容量（超過時自動加倍）
+    private static final int INITIAL_CELL_CAPACITY = 4;
+
+    private final int cellSize;
+    private final int columns;
+    private final int rows;
+    // 每一格裡的角色編號（前 cellCount[c] 格有效，順序不重要）
+    private final int[][] cells;
+    private final int[] cellCount;
+
+    // ========== 每個角色（索引 = 角色編號） ==========
+    private final Role[] roles;
+    private final int[] xs;
+    private final int[] ys;
+    // 所在的格子，-1 代表不在格網中
+    private final int[] cellOf;
+    // 在所在格子裡的位置
+    private final int[] slotOf;
+    private int size;
+
+    /**
+     * 建構子
+     * @param width 戰場寬度
+     * @param height 戰場高度
+     * @param cellSize 格子邊長（建議接近最常查詢的半徑，例如射程）
+     * @param capacity 角色編號的上限（編號必須小於這個值）
+     */
+    public SpatialGrid(int width, int height, int cellSize, int capacity) {
+        if (width <= 0 || height <= 0 || cellSize <= 0) {
+            throw new IllegalArgumentException("戰場大小與格子邊長必須大於 0");
+        }
+        this.cellSize = cellSize;
+        this.columns = (width + cellSize - 1) / cellSize;
+        this.rows = (height + cellSize - 1) / cellSize;
+        this.cells = new int[columns * rows][];
+        this.cellCount = new int[columns * rows];
+        this.roles = new Role[capacity];
+        this.xs = new int[capacity];
+        this.ys = new int[capacity];
+        this.cellOf = new int[capacity];
+        this.slotOf = new int[capacity];
+        Arrays.fill(cellOf, -1);
+    }
+
+    /**
+     * 依角色目前的座標加入格網（已在格網中則只更新位置）
+     * @param role 角色（必須已經指派 0 ~ capacity-1 的編號）
+     */
+    public void add(Role role) {
+        int id = role.getId();
+        if (cellOf[id] >= 0) {
+            update(role);
+            return;
+        }
+        roles[id] = role;
+        xs[id] = role.getX();
+        ys[id] = role.getY();
+        insert(id, cellIndex(xs[id], ys[id]));
+        size++;
+    }
+
+    // 移出格網（不在格網中則忽略）
+    public void remove(Role role) {
+        int id = role.getId();
+        if (cellOf[id] < 0) return;
+        detach(id);
+        roles[id] = null;
+        size--;
+    }
+
+    // 角色是否在格網中
+    public boolean contains(Role role) {
+        int id = role.getId();
+        return id >= 0 && id < cellOf.length && cellOf[id] >= 0;
+    }
+
+    /**
+     * 移動角色：設定角色座標並更新索引
+     * @param role 格網中的角色
+     * @param x 新的 X 座標
+     * @param y 新的 Y 座標
+     */
+    public void move(Role role, int x, int y) {
+        role.setPosition(x, y);
+        update(role);
+    }
+
+    /**
+     * 角色的座標已經在其他地方改過（例如 Role.setPosition），讓索引跟上
+     * @param role 格網中的角色
+     */
+    public void update(Role role) {
+        int id = role.getId();
+        if (cellOf[id] < 0) {
+            throw new IllegalArgumentException(role.getName() + " 不在格網中");
+        }
+        int x = role.getX();
+        int y = role.getY();
+        xs[id] = x;
+        ys[id] = y;
+        int cell = cellIndex(x, y);
+        if (cell != cellOf[id]) {
+            detach(id);
+            insert(id, cell);
+        }
+    }
+
+    /**
+     * 收集距離 (x, y) 不超過 radius 的所有角色
+     * @param out 存放結果的陣列（空間不夠時只填滿為止）
+     * @return 找到的角色數（可能大於 out.length）
+     */
+    public int collectWithin(int x, int y, int radius, Role[] out) {
+        long limit = (long) radius * radius;
+        int found = 0;
+        int minColumn = column(x - radius);
+        int maxColumn = column(x + radius);
+        int maxRow = row(y + radius);
+        for (int r = row(y - radius); r <= maxRow; r++) {
+            for (int c = minColumn; c <= maxColumn; c++) {
+                int cell = r * columns + c;
+                int[] ids = cells[cell];
+                for (int i = 0, n = cellCount[cell]; i < n; i++) {
+                    int id = ids[i];
+                    if (distanceSquared(id, x, y) <= limit) {
+                        if (found < out.length) {
+                            out[found] = roles[id];
+                        }
+                        found++;
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * 找出距離 (x, y) 不超過 radius 的角色中最近的一個
+     * @return 最近的角色；範圍內沒有角色時回傳 null
+     */
+    public Role nearest(int x, int y, int radius) {
+        long best = (long) radius * radius;
+        Role nearest = null;
+        int minColumn = column(x - radius);
+        int maxColumn = column(x + radius);
+        int maxRow = row(y + radius);
+        for (int r = row(y - radius); r <= maxRow; r++) {
+            for (int c = minColumn; c <= maxColumn; c++) {
+                int cell = r * columns + c;
+                int[] ids = cells[cell];
+                for (int i = 0, n = cellCount[cell]; i < n; i++) {
+                    int id = ids[i];
+                    long d = distanceSquared(id, x, y);
+                    if (d <= best) {
+                        best = d;
+                        nearest = roles[id];
+                    }
+                }
+            }
+        }
+        return nearest;
+    }
+
+    private long distanceSquared(int id, int x, int y) {
+        long dx = (long) xs[id] - x;
+        long dy = (long) ys[id] - y;
+        return dx * dx + dy * dy;
+    }
+
+    // 把角色放到指定格子的尾端
+    private void insert(int id, int cell) {
+        int[] ids = cells[cell];
+        int n = cellCount[cell];
+        if (ids == null) {
+            ids = cells[cell] = new int[INITIAL_CELL_CAPACITY];
+        } else if (n == ids.length) {
+            ids = cells[cell] = Arrays.copyOf(ids, n * 2);
+        }
+        ids[n] = id;
+        cellCount[cell] = n + 1;
+        cellOf[id] = cell;
+        slotOf[id] = n;
+    }
+
+    // 從所在格子移除（把該格最後一個角色搬過來補位）
+    private void detach(int id) {
+        int cell = cellOf[id];
+        int[] ids = cells[cell];
+        int last = --cellCount[cell];
+        int slot = slotOf[id];
+        int moved = ids[last];
+        ids[slot] = moved;
+        slotOf[moved] = slot;
+        cellOf[id] = -1;
+    }
+
+    private int cellIndex(int x, int y) {
+        return row(y) * columns + column(x);
+    }
+
+    // 座標所在的欄（超出戰場時歸到最邊緣）
+    private int column(int x) {
+        return Math.max(0, Math.min(columns - 1, Math.floorDiv(x, cellSize)));
+    }
+
+    // 座標所在的列（超出戰場時歸到最邊緣）
+    private int row(int y) {
+        return Math.max(0, Math.min(rows - 1, Math.floorDiv(y, cellSize)));
+    }
+
+    // 格網中的角色數
+    public int size() {
+        return size;
+    }
+
+    // 格子邊長
+    public int getCellSize() {
+        return cellSize;
+    }
+}
@@ -0,0 +1,87 @@
+/**
+ * ConformanceTest - 在 mvn test 執行所有一致性檢查
+ *
+ * 每個 *Conformance 依種子隨機操作要驗證的實作，和簡單但確定正確的參考版本（或文件寫的規則）比對；
+ * verify 回傳第一個不一致的描述，全部一致時回傳 null，這裡把不一致的描述當成失敗訊息
+ *
+ * 檢查類別放在各自的 package（RenderConformance 要呼叫 Role 的 protected 方法、
+ * SnapshotConformance 要讀 Battle 的 package-private 狀態），這裡只負責依序執行
+ *
+ * 換種子重跑：mvn test -Dconformance.seed=12345
+ * 只跑其中一項：mvn test -Dtest=ConformanceTest#engine
+ */
+package com.rpg;
+
+import com.rpg.ai.DecisionCacheConformance;
+import com.rpg.core.RenderConformance;
+import com.rpg.effect.EffectConformance;
+import com.rpg.engine.EngineConformance;
+import com.rpg.party.PartyConformance;
+import com.rpg.replay.ReplayConformance;
+import com.rpg.sched.SchedulerConformance;
+import com.rpg.server.ServerConformance;
+import com.rpg.sim.SnapshotConformance;
+import com.rpg.spatial.SpatialConformance;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ConformanceTest {
+    // 所有檢查共用的種子（可以用系統屬性 conformance.seed 指定）
+    private static final long SEED = Long.getLong("conformance.seed", 20251205L);
+
+    @Test
+    void engine() {
+        check(EngineConformance.verify(SEED, 100_000));
+    }
+
+    @Test
+    void scheduler() {
+        check(SchedulerConformance.verify(SEED, 100_000));
+    }
+
+    @Test
+    void replay() {
+        check(ReplayConformance.verify(SEED, 200));
+    }
+
+    @Test
+    void spatial() {
+        check(SpatialConformance.verify(SEED, 100_000));
+    }
+
+    @Test
+    void effect() {
+        check(EffectConformance.verify(SEED, 50_000));
+    }
+
+    @Test
+    void render() {
+        check(RenderConformance.verify(SEED, 100_000));
+    }
+
+    @Test
+    void snapshot() {
+        check(SnapshotConformance.verify(SEED, 500));
+    }
+
+    @Test
+    void decisionCache() {
+        check(DecisionCacheConformance.verify(SEED, 100_000));
+    }
+
+    @Test
+    void party() {
+        check(PartyConformance.verify(SEED, 500));
+    }
+
+    @Test
+    void server() {
+        check(ServerConformance.verify(SEED));
+    }
+
+    // 失敗訊息附上種子，方便用 -Dconformance.seed 重現
+    private static void check(String mismatch) {
+        assertNull(mismatch, () -> "種子 " + SEED + "：" + mismatch);
+    }
+}
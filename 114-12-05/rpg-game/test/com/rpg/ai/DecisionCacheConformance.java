@@ -0,0 +1,153 @@
+/**
+ * DecisionCacheConformance - 驗證 DecisionCache 的查詢、淘汰與統計和逐一掃描的 CLOCK 相同
+ *
+ * 做法：
+ * - 參考版本：同樣的格子、參考位元與 CLOCK 指針，但用逐一掃描找鍵（沒有雜湊索引）
+ * - 用同一個亂數流隨機 get / put（含覆寫已存在的鍵），鍵集中在少數幾個值附近，
+ *   也有負數與雜湊後落在同一串的鍵，讓線性探測與刪除時的往回搬移經常發生
+ * - 每一步比對 get 的結果、目前的決策數、命中 / 沒有命中 / 淘汰次數；
+ *   每隔一段時間把參考版本記得的每個鍵都查一次（兩邊都會設定參考位元，之後仍然一致）
+ * - 容量從 1 到 1000 各做一次
+ */
+package com.rpg.ai;
+
+import com.rpg.core.BattleRandom;
+
+public class DecisionCacheConformance {
+    // 檢查的容量
+    private static final int[] CAPACITIES = {1, 2, 3, 7, 64, 1000};
+    // 每隔幾步把全部的鍵查一次
+    private static final int SWEEP_INTERVAL = 997;
+
+    // steps：每種容量的操作步數
+    public static String verify(long seed, int steps) {
+        for (int capacity : CAPACITIES) {
+            String mismatch = verify(seed, steps, capacity);
+            if (mismatch != null) return "容量 " + capacity + "：" + mismatch;
+        }
+        return null;
+    }
+
+    private static String verify(long seed, int steps, int capacity) {
+        DecisionCache cache = new DecisionCache(capacity);
+        Reference reference = new Reference(capacity);
+        BattleRandom random = new BattleRandom(seed + capacity);
+        // 鍵的範圍：比容量大一些，才會一直淘汰又一直命中
+        int range = capacity * 3 + 5;
+
+        for (int step = 0; step < steps; step++) {
+            int key = key(random, range);
+            if (random.nextInt(3) == 0) {
+                int value = random.nextInt(Byte.MAX_VALUE + 1);
+                cache.put(key, value);
+                reference.put(key, value);
+            } else {
+                int expected = reference.get(key);
+                int actual = cache.get(key);
+                if (actual != expected) {
+                    return "第 " + step + " 步 get(" + key + ") 是 " + actual + "，應該是 " + expected;
+                }
+            }
+
+            String mismatch = compare(cache, reference);
+            if (mismatch == null && step % SWEEP_INTERVAL == 0) mismatch = sweep(cache, reference);
+            if (mismatch != null) return "第 " + step + " 步後：" + mismatch;
+        }
+        return null;
+    }
+
+    // 鍵：大多是小範圍內的值，有一部分是負數，有一部分是間隔 2^16 的值（雜湊後容易擠在一起）
+    private static int key(BattleRandom random, int range) {
+        int k = random.nextInt(range);
+        switch (random.nextInt(4)) {
+            case 0:
+                return -k;
+            case 1:
+                return k << 16;
+            default:
+                return k;
+        }
+    }
+
+    private static String compare(DecisionCache cache, Reference reference) {
+        if (cache.size() != reference.size) return "決策數 " + cache.size() + " ≠ " + reference.size;
+        if (cache.getHits() != reference.hits) return "命中次數 " + cache.getHits() + " ≠ " + reference.hits;
+        if (cache.getMisses() != reference.misses) return "沒有命中的次數 " + cache.getMisses() + " ≠ " + reference.misses;
+        if (cache.getEvictions() != reference.evictions) {
+            return "淘汰次數 " + cache.getEvictions() + " ≠ " + reference.evictions;
+        }
+        return null;
+    }
+
+    // 參考版本記得的每個鍵都必須查得到，而且值相同
+    private static String sweep(DecisionCache cache, Reference reference) {
+        for (int slot = 0; slot < reference.size; slot++) {
+            int key = reference.keys[slot];
+            int expected = reference.get(key);
+            int actual = cache.get(key);
+            if (actual != expected) {
+                return "全部查一次時 get(" + key + ") 是 " + actual + "，應該是 " + expected;
+            }
+        }
+        return compare(cache, reference);
+    }
+
+    /**
+     * Reference - 逐一掃描的 CLOCK（O(容量)，只用來比對）
+     */
+    private static final class Reference {
+        final int[] keys;
+        final int[] values;
+        final boolean[] referenced;
+        int size;
+        int hand;
+        long hits;
+        long misses;
+        long evictions;
+
+        Reference(int capacity) {
+            keys = new int[capacity];
+            values = new int[capacity];
+            referenced = new boolean[capacity];
+        }
+
+        int get(int key) {
+            int slot = find(key);
+            if (slot < 0) {
+                misses++;
+                return DecisionCache.MISS;
+            }
+            hits++;
+            referenced[slot] = true;
+            return values[slot];
+        }
+
+        void put(int key, int value) {
+            int slot = find(key);
+            if (slot < 0) {
+                if (size < keys.length) {
+                    slot = size++;
+                } else {
+                    // 指針經過的參考位元清掉，停在第一個沒有被參考的格子
+                    while (referenced[hand]) {
+                        referenced[hand] = false;
+                        hand = (hand + 1) % keys.length;
+                    }
+                    slot = hand;
+                    hand = (hand + 1) % keys.length;
+                    evictions++;
+                }
+                keys[slot] = key;
+                referenced[slot] = false;
+            }
+            values[slot] = value;
+        }
+
+        int find(int key) {
+            for (int slot = 0; slot < size; slot++) {
+                if (keys[slot] == key) return slot;
+            }
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+/**
+ * RenderConformance - 驗證快取的 toString 與技能卡片永遠與重新產生的文字相同
+ *
+ * 做法：
+ * - 每種原型各建立一個角色，用同一個亂數流隨機操作：攻擊、受傷（含真實傷害與護盾）、治療、
+ *   直接設定生命值、各職業自己的資源（護甲、能量、箭矢、聖能、防禦、治療）、
+ *   戰前準備與戰後收尾、saveState / loadState、reset
+ * - 每一步之後，每個角色的 toString() 與 getSkillCard() 必須等於直接呼叫 describe / renderSkillCard
+ *   產生的文字（有哪個寫入忘了呼叫 stateChanged，快取就會停在舊的內容）
+ * - 狀態沒變時連續呼叫兩次必須拿到同一個字串物件（快取真的有被沿用）
+ * - 一般模式與執行緒安全模式各做一次（執行緒安全模式下生命值與資源不遞增版本號，
+ *   快取靠比對 renderedValue；漏列的資源會在這裡被抓到）
+ */
+package com.rpg.core;
+
+import com.rpg.archetype.ArchetypeRegistry;
+import com.rpg.roles.melee.MeleeRole;
+import com.rpg.roles.melee.Paladin;
+import com.rpg.roles.melee.ShieldSwordsMan;
+import com.rpg.roles.ranged.Archer;
+import com.rpg.roles.ranged.Magician;
+import com.rpg.roles.ranged.RangedRole;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+public class RenderConformance {
+
+    // steps：每種模式的操作步數
+    public static String verify(long seed, int steps) {
+        String mismatch = verify(seed, steps, false);
+        if (mismatch == null) mismatch = verify(seed, steps, true);
+        return mismatch;
+    }
+
+    private static String verify(long seed, int steps, boolean threadSafe) {
+        ArchetypeRegistry archetypes = ArchetypeRegistry.defaults();
+        List<Role> roles = new ArrayList<>();
+        for (String id : archetypes.ids()) {
+            Role role = archetypes.spawn(id);
+            role.setThreadSafe(threadSafe);
+            roles.add(role);
+        }
+        ByteBuffer[] saved = new ByteBuffer[roles.size()];
+        String mode = threadSafe ? "執行緒安全模式" : "一般模式";
+
+        String mismatch = compareAll(roles);
+        if (mismatch != null) return mode + "，建立後：" + mismatch;
+
+        BattleRandom random = new BattleRandom(seed);
+        for (int step = 0; step < steps; step++) {
+            int index = random.nextInt(roles.size());
+            Role role = roles.get(index);
+            Role other = roles.get(random.nextInt(roles.size()));
+            int operation = random.nextInt(10);
+            switch (operation) {
+                case 0:
+                    if (role.isAlive() && other.isAlive() && other != role) role.attack(other);
+                    break;
+                case 1:
+                    role.takeDamage(1 + random.nextInt(30));
+                    break;
+                case 2:
+                    role.takeTrueDamage(1 + random.nextInt(30));
+                    break;
+                case 3:
+                    role.addHealth(1 + random.nextInt(30));
+                    break;
+                case 4:
+                    role.setHealth(random.nextInt(role.getStats().getHealth() + 1));
+                    break;
+                case 5:
+                    role.addShield(1 + random.nextInt(10));
+                    break;
+                case 6:
+                    classSpecific(role, other, random);
+                    break;
+                case 7:
+                    if (random.nextInt(2) == 0) {
+                        role.prepareBattle();
+                    } else {
+                        role.afterBattle();
+                    }
+                    break;
+                case 8:
+                    if (saved[index] == null || random.nextInt(2) == 0) {
+                        saved[index] = ByteBuffer.allocate(role.getStateBytes());
+                        role.saveState(saved[index]);
+                    } else {
+                        saved[index].flip();
+                        role.loadState(saved[index]);
+                        saved[index].clear();
+                        role.saveState(saved[index]);
+                    }
+                    break;
+                default:
+                    if (random.nextInt(4) == 0) role.reset();
+            }
+
+            mismatch = compareAll(roles);
+            if (mismatch != null) {
+                return mode + "，第 " + step + " 步（操作 " + operation + "，" + role.getName() + "）後：" + mismatch;
+            }
+        }
+        return null;
+    }
+
+    // 各職業自己的資源與動作（一次只做一件事，免得別的寫入順便讓快取失效，蓋掉漏掉的 stateChanged）
+    private static void classSpecific(Role role, Role other, BattleRandom random) {
+        if (random.nextInt(2) == 0) {
+            if (role instanceof Paladin paladin) {
+                if (random.nextInt(2) == 0) {
+                    paladin.defend();
+                } else {
+                    paladin.heal(other);
+                }
+            } else if (role instanceof ShieldSwordsMan shieldSwordsMan) {
+                shieldSwordsMan.defend();
+            } else if (role instanceof Magician magician) {
+                magician.heal(other);
+            } else if (role instanceof Archer archer) {
+                archer.reloadArrows(1 + random.nextInt(5));
+            }
+        } else if (role instanceof MeleeRole melee) {
+            melee.setArmor(random.nextInt(16));
+        } else if (role instanceof RangedRole ranged) {
+            switch (random.nextInt(3)) {
+                case 0:
+                    ranged.setEnergy(random.nextInt(ranged.getMaxEnergy() + 1));
+                    break;
+                case 1:
+                    ranged.consumeEnergy(1 + random.nextInt(20));
+                    break;
+                default:
+                    ranged.restoreEnergy(1 + random.nextInt(20));
+            }
+        }
+    }
+
+    // 比對每個角色快取的文字與重新產生的文字
+    private static String compareAll(List<Role> roles) {
+        for (Role role : roles) {
+            String mismatch = compare(role);
+            if (mismatch != null) return role.getName() + " " + mismatch;
+        }
+        return null;
+    }
+
+    private static String compare(Role role) {
+        String text = role.toString();
+        StringBuilder fresh = new StringBuilder();
+        role.describe(fresh);
+        if (!text.equals(fresh.toString())) {
+            return "toString 是「" + text + "」，重新產生的是「" + fresh + "」";
+        }
+        if (role.toString() != text) {
+            return "狀態沒變，toString 卻重新產生了文字";
+        }
+
+        String card = role.getSkillCard();
+        String freshCard = role.renderSkillCard();
+        if (!card.equals(freshCard)) {
+            return "技能卡片與重新產生的不同：" + System.lineSeparator() + card + "重新產生的是："
+                    + System.lineSeparator() + freshCard;
+        }
+        if (role.getSkillCard() != card) {
+            return "狀態沒變，技能卡片卻重新產生了文字";
+        }
+        return null;
+    }
+}
@@ -0,0 +1,267 @@
+/**
+ * EffectConformance - 驗證時間輪與狀態效果引擎的結果與逐回合掃描一致
+ *
+ * 做法：
+ * - 時間輪：隨機排入延遲從 1 回合到跨越第 3 層（超過 262,144 回合）的效果，並隨機取消；
+ *   每前進一回合，取出的效果必須正好是到期回合等於現在、而且沒有被取消的那些，
+ *   時間輪上的效果數也要相同
+ * - 效果引擎：隨機套用暈眩、持續傷害、護盾、再生，並隨機驅散；
+ *   參考版本每回合掃過全部作用中的效果，依「每 period 回合觸發一次、到期時結束、
+ *   目標倒下時在下一次觸發結束」的規則計算，每回合比對每個角色的生命值、護盾、暈眩狀態，
+ *   作用中的效果數與 tick() 回報的事件數
+ * - 同一回合多個效果的處理順序沒有規定：持續傷害與再生分開放在不同的角色上，
+ *   而且一個角色身上同時最多只有一個持續傷害（已經有的話改成暈眩），
+ *   所以結果與順序無關（兩個持續傷害同一回合觸發時，哪一個打出致命一擊會影響事件數）
+ * - 持續傷害的角色會倒下；倒下後套用的持續傷害在第一次觸發時直接結束
+ */
+package com.rpg.effect;
+
+import com.rpg.core.BattleRandom;
+import com.rpg.core.EffectType;
+import com.rpg.core.Role;
+import com.rpg.roles.melee.SwordsMan;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class EffectConformance {
+    // 時間輪檢查前進的回合數（超過第 2 層的範圍，第 3 層的槽也會降級）
+    private static final int WHEEL_TICKS = 600_000;
+    // 效果引擎的角色：前半只會受到持續傷害，後半只會得到再生與護盾
+    private static final int ROLES = 8;
+    private static final int HEALTH = 100_000;
+
+    // ticks：效果引擎檢查的回合數
+    public static String verify(long seed, int ticks) {
+        String mismatch = verifyWheel(seed);
+        if (mismatch == null) mismatch = verifyEngine(seed, ticks);
+        return mismatch;
+    }
+
+    // ========== 時間輪 ==========
+
+    private static String verifyWheel(long seed) {
+        TimingWheel wheel = new TimingWheel();
+        BattleRandom random = new BattleRandom(seed);
+        Role target = new SwordsMan("目標", 100, 20, 5);
+        // 參考版本：還在時間輪上的效果（取消時隨機挑一個），以及依到期回合分組的效果
+        List<StatusEffect> scheduled = new ArrayList<>();
+        Map<StatusEffect, Integer> indexOf = new IdentityHashMap<>();
+        Map<Long, List<StatusEffect>> byDue = new HashMap<>();
+
+        for (int tick = 0; tick < WHEEL_TICKS; tick++) {
+            if (random.nextInt(4) == 0) {
+                long delay = wheelDelay(random);
+                StatusEffect effect = new StatusEffect(EffectType.STUN, target, 0, 0, wheel.now(), wheel.now() + delay);
+                effect.due = effect.getEndTick();
+                wheel.schedule(effect);
+                indexOf.put(effect, scheduled.size());
+                scheduled.add(effect);
+                byDue.computeIfAbsent(effect.due, due -> new ArrayList<>()).add(effect);
+            }
+            if (!scheduled.isEmpty() && random.nextInt(16) == 0) {
+                StatusEffect effect = scheduled.get(random.nextInt(scheduled.size()));
+                wheel.cancel(effect);
+                forget(effect, scheduled, indexOf);
+                byDue.get(effect.due).remove(effect);
+            }
+
+            long now = wheel.now() + 1;
+            List<StatusEffect> due = byDue.remove(now);
+            int expected = due == null ? 0 : due.size();
+            int expired = 0;
+            for (StatusEffect e = wheel.advance(); e != null; e = e.next) {
+                if (e.due != now || !indexOf.containsKey(e)) {
+                    return "時間輪第 " + now + " 回合取出了到期回合 " + e.due + " 的效果"
+                            + (indexOf.containsKey(e) ? "" : "（已經取消或取出過）");
+                }
+                forget(e, scheduled, indexOf);
+                expired++;
+            }
+            if (expired != expected) {
+                return "時間輪第 " + now + " 回合取出 " + expired + " 個效果，應該是 " + expected + " 個";
+            }
+            if (wheel.size() != scheduled.size()) {
+                return "時間輪第 " + now + " 回合後有 " + wheel.size() + " 個效果，應該是 " + scheduled.size() + " 個";
+            }
+        }
+        return null;
+    }
+
+    // 延遲：多半在第 0、1 層，也有落在第 2、3 層的
+    private static long wheelDelay(BattleRandom random) {
+        switch (random.nextInt(8)) {
+            case 0:
+                return 1 + random.nextInt(300_000);
+            case 1:
+                return 1 + random.nextInt(10_000);
+            case 2:
+            case 3:
+                return 1 + random.nextInt(500);
+            default:
+                return 1 + random.nextInt(64);
+        }
+    }
+
+    // 從參考版本移除（swap-remove）
+    private static void forget(StatusEffect effect, List<StatusEffect> scheduled, Map<StatusEffect, Integer> indexOf) {
+        int index = indexOf.remove(effect);
+        StatusEffect last = scheduled.remove(scheduled.size() - 1);
+        if (last != effect) {
+            scheduled.set(index, last);
+            indexOf.put(last, index);
+        }
+    }
+
+    // ========== 效果引擎 ==========
+
+    private static String verifyEngine(long seed, int ticks) {
+        EffectEngine engine = new EffectEngine();
+        BattleRandom random = new BattleRandom(seed ^ 0x5DEECE66DL);
+        Role[] roles = new Role[ROLES];
+        Model[] models = new Model[ROLES];
+        for (int i = 0; i < ROLES; i++) {
+            roles[i] = new SwordsMan("角色" + i, HEALTH, 20, 5);
+            models[i] = new Model(HEALTH);
+        }
+        List<Expected> active = new ArrayList<>();
+
+        for (int tick = 0; tick < ticks; tick++) {
+            long now = engine.now();
+            int operations = random.nextInt(3);
+            for (int op = 0; op < operations; op++) {
+                int id = random.nextInt(ROLES);
+                boolean dotRole = id < ROLES / 2;
+                int duration = duration(random);
+                int kind = random.nextInt(4);
+                StatusEffect effect;
+                if (kind == 0 || (dotRole && models[id].dots > 0)) {
+                    effect = engine.stun(roles[id], duration);
+                    models[id].stuns++;
+                } else if (kind == 1 && !dotRole) {
+                    int amount = 1 + random.nextInt(40);
+                    effect = engine.shield(roles[id], amount, duration);
+                    models[id].shield += amount;
+                } else if (dotRole) {
+                    effect = engine.damageOverTime(roles[id], 50 + random.nextInt(200), 1 + random.nextInt(4), duration);
+                    models[id].dots++;
+                } else {
+                    effect = engine.regen(roles[id], 1 + random.nextInt(30), 1 + random.nextInt(4), duration);
+                }
+                active.add(new Expected(effect, id));
+            }
+            if (!active.isEmpty() && random.nextInt(10) == 0) {
+                Expected dispelled = active.remove(random.nextInt(active.size()));
+                if (!engine.cancel(dispelled.effect)) {
+                    return "第 " + now + " 回合驅散作用中的效果卻回報已經結束：" + dispelled.effect;
+                }
+                end(dispelled, models);
+            }
+
+            int events = engine.tick();
+            int expectedEvents = step(now + 1, active, models);
+            if (events != expectedEvents) {
+                return "第 " + (now + 1) + " 回合處理了 " + events + " 個事件，應該是 " + expectedEvents + " 個";
+            }
+            if (engine.size() != active.size()) {
+                return "第 " + (now + 1) + " 回合後有 " + engine.size() + " 個效果，應該是 " + active.size() + " 個";
+            }
+            for (int i = 0; i < ROLES; i++) {
+                String mismatch = models[i].compare(roles[i]);
+                if (mismatch != null) {
+                    return "第 " + (now + 1) + " 回合後 " + roles[i].getName() + "：" + mismatch;
+                }
+            }
+        }
+        return null;
+    }
+
+    // 持續回合數：多半很短，偶爾跨過第 1 層
+    private static int duration(BattleRandom random) {
+        return random.nextInt(16) == 0 ? 1 + random.nextInt(5_000) : 1 + random.nextInt(12);
+    }
+
+    // 參考版本：掃過全部作用中的效果，回傳這一回合的事件數
+    private static int step(long now, List<Expected> active, Model[] models) {
+        int events = 0;
+        for (int i = active.size() - 1; i >= 0; i--) {
+            Expected expected = active.get(i);
+            StatusEffect effect = expected.effect;
+            Model target = models[expected.target];
+            int period = effect.getPeriod();
+            boolean ended = now >= effect.getEndTick();
+            if (period > 0 && (now - effect.getStartTick()) % period == 0) {
+                if (!target.isAlive()) {
+                    ended = true;
+                } else {
+                    target.health += effect.getType() == EffectType.DAMAGE_OVER_TIME
+                            ? -effect.getMagnitude() : effect.getMagnitude();
+                    events++;
+                    ended |= !target.isAlive();
+                }
+            }
+            if (ended) {
+                end(expected, models);
+                active.set(i, active.get(active.size() - 1));
+                active.remove(active.size() - 1);
+                events++;
+            }
+        }
+        return events;
+    }
+
+    // 參考版本的效果結束：撤銷暈眩與護盾，持續傷害的角色可以再套用新的持續傷害
+    private static void end(Expected expected, Model[] models) {
+        Model target = models[expected.target];
+        StatusEffect effect = expected.effect;
+        if (effect.getType() == EffectType.STUN) {
+            target.stuns--;
+        } else if (effect.getType() == EffectType.SHIELD) {
+            target.shield -= effect.getMagnitude();
+        } else if (effect.getType() == EffectType.DAMAGE_OVER_TIME) {
+            target.dots--;
+        }
+    }
+
+    /**
+     * Expected - 參考版本中作用中的一個效果
+     */
+    private static final class Expected {
+        final StatusEffect effect;
+        final int target;
+
+        Expected(StatusEffect effect, int target) {
+            this.effect = effect;
+            this.target = target;
+        }
+    }
+
+    /**
+     * Model - 參考版本中一個角色的狀態
+     */
+    private static final class Model {
+        int health;
+        int shield;
+        int stuns;
+        // 作用中的持續傷害數（最多 1 個）
+        int dots;
+
+        Model(int health) {
+            this.health = health;
+        }
+
+        boolean isAlive() {
+            return health > 0;
+        }
+
+        String compare(Role role) {
+            if (role.getHealth() != health) return "生命值 " + role.getHealth() + " ≠ " + health;
+            if (role.getShield() != shield) return "護盾 " + role.getShield() + " ≠ " + shield;
+            if (role.isStunned() != (stuns > 0)) return "暈眩 " + role.isStunned() + " ≠ " + (stuns > 0);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+/**
+ * EngineConformance - 驗證 ArrayBattleEngine 與物件版本的規則一致
+ *
+ * 做法：
+ * - 每種職業各兩名，數值（生命值、攻擊力、護甲、各種消耗與恢復量...）都隨機產生，
+ *   與原型定義檔或平衡調整改過的數值一樣；每隔 ROSTER_STEPS 步換一組新的數值
+ * - 同一組角色同時放進物件版本與陣列引擎
+ * - 用同一個亂數流隨機挑「誰、做什麼、對誰」，兩邊各做一次
+ * - 每一步之後比對所有單位的生命值、能量、箭矢、聖能
+ */
+package com.rpg.engine;
+
+import com.rpg.archetype.ArchetypeRegistry;
+import com.rpg.core.BattleRandom;
+import com.rpg.core.Role;
+import com.rpg.core.RoleKind;
+import com.rpg.core.RoleStats;
+import com.rpg.interfaces.Defendable;
+import com.rpg.interfaces.Healable;
+import com.rpg.roles.melee.MeleeRole;
+import com.rpg.roles.melee.Paladin;
+import com.rpg.roles.melee.ShieldSwordsMan;
+import com.rpg.roles.melee.SwordsMan;
+import com.rpg.roles.ranged.Archer;
+import com.rpg.roles.ranged.Magician;
+import com.rpg.roles.ranged.RangedRole;
+
+public class EngineConformance {
+    // 每組數值做幾步
+    private static final int ROSTER_STEPS = 1_000;
+
+    // steps：動作步數
+    public static String verify(long seed, int steps) {
+        BattleRandom random = new BattleRandom(seed);
+        Role[] roles = null;
+        ArrayBattleEngine engine = null;
+        for (int step = 0; step < steps; step++) {
+            if (step % ROSTER_STEPS == 0) {
+                roles = roster(random);
+                engine = new ArrayBattleEngine(roles.length);
+                for (int i = 0; i < roles.length; i++) {
+                    engine.add(roles[i], i % 2);
+                }
+            }
+
+            int actor = random.nextInt(roles.length);
+            int target = random.nextInt(roles.length);
+            int action = random.nextInt(4);
+            Role role = roles[actor];
+
+            switch (action) {
+                case 0:
+                    role.attack(roles[target]);
+                    engine.attack(actor, target);
+                    break;
+                case 1:
+                    if (role instanceof Defendable) {
+                        ((Defendable) role).defend();
+                        engine.defend(actor);
+                    }
+                    break;
+                case 2:
+                    if (role instanceof Healable) {
+                        ((Healable) role).heal(roles[target]);
+                        engine.heal(actor, target);
+                    }
+                    break;
+                default:
+                    role.afterBattle();
+                    engine.afterBattle(actor);
+            }
+
+            String mismatch = compare(roles, engine);
+            if (mismatch != null) {
+                return "第 " + step + " 步（" + role.getName() + "，動作 " + action + "）後：" + mismatch;
+            }
+        }
+        return null;
+    }
+
+    // 每種職業各兩名，數值隨機
+    private static Role[] roster(BattleRandom random) {
+        RoleKind[] kinds = RoleKind.values();
+        Role[] roles = new Role[kinds.length * 2];
+        for (int i = 0; i < roles.length; i++) {
+            roles[i] = ArchetypeRegistry.spawn(randomStats(kinds[i % kinds.length], i, random));
+        }
+        return roles;
+    }
+
+    // 每個欄位都隨機（包括 0，也就是不消耗或不恢復）
+    private static RoleStats randomStats(RoleKind kind, int index, BattleRandom random) {
+        return RoleStats.builder(kind, kind + "#" + index)
+                .health(50 + random.nextInt(150))
+                .attackPower(random.nextInt(30))
+                .armor(random.nextInt(15))
+                .defenseCapacity(random.nextInt(20))
+                .oneHandedPenalty(random.nextInt(15))
+                .healPower(random.nextInt(25))
+                .range(random.nextInt(10))
+                .maxEnergy(random.nextInt(150))
+                .energyRecovery(random.nextInt(25))
+                .attackEnergyCost(random.nextInt(30))
+                .healEnergyCost(random.nextInt(30))
+                .maxArrows(random.nextInt(40))
+                .arrowReload(random.nextInt(10))
+                .maxHolyPower(random.nextInt(150))
+                .holyDefendCost(random.nextInt(40))
+                .holyHealCost(random.nextInt(50))
+                .holyOnHit(random.nextInt(15))
+                .holyRecovery(random.nextInt(25))
+                .build();
+    }
+
+    // 比對所有單位的狀態
+    private static String compare(Role[] roles, ArrayBattleEngine engine) {
+        for (int i = 0; i < roles.length; i++) {
+            Role role = roles[i];
+            if (role.getHealth() != engine.getHealth(i)) {
+                return role.getName() + " 生命值 " + role.getHealth() + " ≠ " + engine.getHealth(i);
+            }
+            String mismatch = compareResources(role, engine, i);
+            if (mismatch != null) {
+                return mismatch;
+            }
+        }
+        return null;
+    }
+
+    // 比對職業特有的資源（能量、箭矢、聖能），每種職業都要列出，新增職業時編譯器會提醒
+    private static String compareResources(Role role, ArrayBattleEngine engine, int unit) {
+        if (role instanceof MeleeRole melee) {
+            return switch (melee) {
+                case ShieldSwordsMan shieldSwordsMan -> null;
+                case SwordsMan swordsMan -> null;
+                case Paladin paladin -> compare(paladin, "聖能", paladin.getHolyPower(), engine.getHolyPower(unit));
+            };
+        }
+        if (role instanceof RangedRole ranged) {
+            return switch (ranged) {
+                case Magician magician -> compare(magician, "能量", magician.getEnergy(), engine.getEnergy(unit));
+                case Archer archer -> {
+                    String energy = compare(archer, "能量", archer.getEnergy(), engine.getEnergy(unit));
+                    yield energy != null ? energy
+                            : compare(archer, "箭矢", archer.getArrowCount(), engine.getArrows(unit));
+                }
+            };
+        }
+        throw new IllegalArgumentException("不支援的角色類別：" + role.getClass().getSimpleName());
+    }
+
+    private static String compare(Role role, String field, int expected, int actual) {
+        return expected == actual ? null : role.getName() + " " + field + " " + expected + " ≠ " + actual;
+    }
+}
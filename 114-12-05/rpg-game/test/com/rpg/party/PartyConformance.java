@@ -0,0 +1,168 @@
+/**
+ * PartyConformance - 驗證 Party 隨事件更新的統計與重新掃描全部成員的結果一致
+ *
+ * 做法：
+ * - 每一局隨機建立兩個陣營與幾個不屬於任何陣營的角色，所有角色共用同一個監聽器（兩個 Party 串在一起）
+ * - 用同一個亂數流隨機操作：攻擊（任何人打任何人，包括自己人與已經倒下的角色）、治療、防禦、
+ *   受到真實傷害、戰後收尾；這些都只靠事件更新統計，不呼叫 recount
+ * - 直接改生命值而不發出完整事件的操作（setHealth、addHealth、reset、loadState）之後才呼叫 recount，
+ *   與文件說明的用法相同
+ * - 一局進行中也會把還沒加入的角色加進陣營
+ * - 每一步之後比對兩個陣營的存活人數、總生命值、初始生命值總和、存活的補師與防禦者人數，
+ *   以及 contains、randomAlive、randomAliveHealer 挑到的角色
+ */
+package com.rpg.party;
+
+import com.rpg.archetype.ArchetypeRegistry;
+import com.rpg.core.BattleRandom;
+import com.rpg.core.CombatEventListener;
+import com.rpg.core.CombatEventMulticaster;
+import com.rpg.core.Role;
+import com.rpg.interfaces.Defendable;
+import com.rpg.interfaces.Healable;
+
+import java.nio.ByteBuffer;
+
+public class PartyConformance {
+    // 每一局的角色數上限與操作步數
+    private static final int MAX_ROLES = 16;
+    private static final int STEPS = 400;
+
+    // games：局數
+    public static String verify(long seed, int games) {
+        ArchetypeRegistry archetypes = ArchetypeRegistry.defaults();
+        String[] ids = archetypes.ids().toArray(new String[0]);
+        BattleRandom random = new BattleRandom(seed);
+
+        for (int game = 0; game < games; game++) {
+            int count = 2 + random.nextInt(MAX_ROLES - 1);
+            Role[] roles = new Role[count];
+            // 每個角色屬於哪個陣營：0、1，或 -1（不屬於任何陣營，或還沒加入）
+            int[] sideOf = new int[count];
+            Party[] parties = {new Party("甲", count), new Party("乙", count)};
+            CombatEventListener listener = CombatEventMulticaster.of(parties[0], parties[1]);
+            for (int i = 0; i < count; i++) {
+                roles[i] = archetypes.spawn(ids[random.nextInt(ids.length)]);
+                roles[i].setId(i);
+                roles[i].setListener(listener);
+                sideOf[i] = random.nextInt(4) == 0 ? -1 : random.nextInt(2);
+                if (sideOf[i] >= 0) parties[sideOf[i]].add(roles[i]);
+            }
+
+            for (int step = 0; step < STEPS; step++) {
+                Role self = roles[random.nextInt(count)];
+                Role target = roles[random.nextInt(count)];
+                int operation = random.nextInt(10);
+                if (apply(operation, self, target, roles, sideOf, parties, random)) {
+                    parties[0].recount();
+                    parties[1].recount();
+                }
+
+                for (int side = 0; side < parties.length; side++) {
+                    String mismatch = compare(parties[side], side, roles, sideOf, random);
+                    if (mismatch != null) {
+                        return "第 " + game + " 局第 " + step + " 步（操作 " + operation + "，" + self.getName()
+                                + " → " + target.getName() + "）後 " + parties[side].getName() + "：" + mismatch;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    // 執行一個操作，回傳之後是否需要 recount（直接改了生命值）
+    private static boolean apply(int operation, Role self, Role target, Role[] roles, int[] sideOf,
+                                 Party[] parties, BattleRandom random) {
+        switch (operation) {
+            case 0:
+            case 1:
+                self.attack(target);
+                return false;
+            case 2:
+                if (self instanceof Healable healer) healer.heal(target);
+                return false;
+            case 3:
+                if (self instanceof Defendable defender) defender.defend();
+                return false;
+            case 4:
+                target.takeTrueDamage(1 + random.nextInt(40));
+                return false;
+            case 5:
+                self.afterBattle();
+                return false;
+            case 6:
+                target.setHealth(random.nextInt(60) - 20);
+                return true;
+            case 7:
+                target.addHealth(random.nextInt(60) - 30);
+                return true;
+            case 8:
+                if (random.nextInt(2) == 0) {
+                    // reset 會清掉編號與監聽器，要重新指派
+                    int id = target.getId();
+                    CombatEventListener listener = target.getListener();
+                    target.reset();
+                    target.setId(id);
+                    target.setListener(listener);
+                } else {
+                    ByteBuffer state = ByteBuffer.allocate(self.getStateBytes());
+                    self.saveState(state);
+                    state.flip();
+                    self.loadState(state);
+                }
+                return true;
+            default:
+                // 還沒加入的角色加入陣營
+                int id = target.getId();
+                if (sideOf[id] < 0 && random.nextInt(4) == 0) {
+                    sideOf[id] = random.nextInt(2);
+                    parties[sideOf[id]].add(target);
+                }
+                return false;
+        }
+    }
+
+    // 重新掃描全部成員，與陣營的統計比對
+    private static String compare(Party party, int side, Role[] roles, int[] sideOf, BattleRandom random) {
+        int members = 0;
+        int alive = 0;
+        int healers = 0;
+        int defenders = 0;
+        long totalHealth = 0;
+        long maxHealth = 0;
+        for (Role role : roles) {
+            boolean member = sideOf[role.getId()] == side;
+            if (party.contains(role) != member) {
+                return role.getName() + (member ? " 是成員，contains 卻回傳 false" : " 不是成員，contains 卻回傳 true");
+            }
+            if (!member) continue;
+            members++;
+            maxHealth += role.getInitialHealth();
+            if (role.isAlive()) {
+                alive++;
+                totalHealth += role.getHealth();
+                if (role instanceof Healable) healers++;
+                if (role instanceof Defendable) defenders++;
+            }
+        }
+
+        if (party.size() != members) return "成員數 " + party.size() + " ≠ " + members;
+        if (party.getAliveCount() != alive) return "存活人數 " + party.getAliveCount() + " ≠ " + alive;
+        if (party.getTotalHealth() != totalHealth) return "總生命值 " + party.getTotalHealth() + " ≠ " + totalHealth;
+        if (party.getMaxHealth() != maxHealth) return "初始生命值總和 " + party.getMaxHealth() + " ≠ " + maxHealth;
+        if (party.getAliveHealers() != healers) return "存活的補師 " + party.getAliveHealers() + " ≠ " + healers;
+        if (party.getAliveDefenders() != defenders) return "存活的防禦者 " + party.getAliveDefenders() + " ≠ " + defenders;
+        if (party.isAlive() != (alive > 0)) return "isAlive 是 " + party.isAlive() + "，存活人數是 " + alive;
+
+        Role picked = party.randomAlive(random);
+        if (alive == 0 ? picked != null : picked == null || !party.contains(picked) || !picked.isAlive()) {
+            return "randomAlive 挑到 " + (picked == null ? "null" : picked.getName()) + "，存活人數是 " + alive;
+        }
+        Role healer = party.randomAliveHealer(random);
+        if (healers == 0 ? healer != null
+                : healer == null || !party.contains(healer) || !healer.isAlive() || !(healer instanceof Healable)) {
+            return "randomAliveHealer 挑到 " + (healer == null ? "null" : healer.getName()) + "，存活的補師是 " + healers;
+        }
+        return null;
+    }
+}
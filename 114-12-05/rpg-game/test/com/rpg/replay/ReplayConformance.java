@@ -0,0 +1,204 @@
+/**
+ * ReplayConformance - 驗證重播檔的分段讀取與錄製內容
+ *
+ * 做法：
+ * - 用很小的寫入緩衝區（不是紀錄長度的倍數）錄下一批戰鬥，讓緩衝區在各種位置寫出
+ * - 一次讀完整個檔案，算出所有紀錄的指紋（筆數 + 每個欄位的雜湊）
+ * - 分段映射：整個檔案用每段 1021、4096 筆各讀一次；開頭 5,000 筆再用每段 1、3、7 筆讀
+ *   （映射要等垃圾回收才釋放，整個檔案都用 1 筆一段會超過系統的映射數上限），指紋必須相同
+ * - 範圍掃描：把紀錄隨機切成很多段（多半比一段映射短，也有跨段的），依序用 scan(from, to) 讀，指紋必須相同
+ * - 中斷的檔案：截掉最後半筆紀錄，只能讀到前面完整的紀錄，而且內容不變
+ * - 內容：勝負與 SimulationResult 相同；受傷紀錄依目標的陣營加總，
+ *   與 Battle 記下的雙方傷害相同（持續傷害沒有攻擊者，也要算進去）
+ */
+package com.rpg.replay;
+
+import com.rpg.archetype.ArchetypeRegistry;
+import com.rpg.core.BattleRandom;
+import com.rpg.core.Role;
+import com.rpg.sim.BattleSimulator;
+import com.rpg.sim.SimulationResult;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Supplier;
+
+public class ReplayConformance {
+    // 整個檔案分段映射時每段的紀錄數（一段一次 mmap，太小的段數會超過系統的映射數上限）
+    private static final int[] CHUNK_RECORDS = {1021, 4096};
+    // 很小的分段只讀開頭這麼多筆
+    private static final int SMALL_CHUNK_WINDOW = 5_000;
+    private static final int[] SMALL_CHUNK_RECORDS = {1, 3, 7};
+    // 寫入緩衝區：7 筆多一點，不是紀錄長度的倍數（會被調整成 7 筆）
+    private static final int BUFFER_BYTES = 7 * ReplayFormat.RECORD_BYTES + 3;
+
+    // 錄 battles 場戰鬥再檢查
+    public static String verify(long seed, int battles) {
+        Path file = null;
+        Path truncated = null;
+        try {
+            file = Files.createTempFile("replay-conformance", ".rpgr");
+            truncated = Files.createTempFile("replay-conformance-truncated", ".rpgr");
+            return verify(seed, battles, file, truncated);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            delete(file);
+            delete(truncated);
+        }
+    }
+
+    private static String verify(long seed, int battles, Path file, Path truncated) throws IOException {
+        ArchetypeRegistry archetypes = ArchetypeRegistry.defaults();
+        List<Supplier<? extends Role>> sideA = List.of(archetypes.factory("swordsman"),
+                archetypes.factory("paladin"), archetypes.factory("archer"));
+        List<Supplier<? extends Role>> sideB = List.of(archetypes.factory("shieldSwordsman"),
+                archetypes.factory("magician"), archetypes.factory("archer"));
+        BattleSimulator simulator = new BattleSimulator(sideA, sideB);
+        simulator.setSeed(seed);
+
+        SimulationResult result;
+        try (ReplayRecorder recorder = new ReplayRecorder(file, BUFFER_BYTES)) {
+            result = simulator.record(battles, recorder);
+        }
+
+        // 一次讀完整個檔案
+        Fingerprint whole = new Fingerprint(sideA.size());
+        ReplaySummary summary = new ReplaySummary();
+        long records;
+        try (ReplayReader reader = new ReplayReader(file)) {
+            records = reader.getRecords();
+            reader.scan(whole);
+            reader.scan(summary);
+        }
+        String mismatch = compareContent(result, summary, whole);
+        if (mismatch != null) return mismatch;
+
+        // 分段映射
+        for (int chunk : CHUNK_RECORDS) {
+            Fingerprint chunked = new Fingerprint(sideA.size());
+            try (ReplayReader reader = new ReplayReader(file, (long) chunk * ReplayFormat.RECORD_BYTES)) {
+                reader.scan(chunked);
+            }
+            mismatch = whole.compare(chunked, "每段 " + chunk + " 筆");
+            if (mismatch != null) return mismatch;
+        }
+        long window = Math.min(records, SMALL_CHUNK_WINDOW);
+        Fingerprint head = new Fingerprint(sideA.size());
+        try (ReplayReader reader = new ReplayReader(file)) {
+            reader.scan(0, window, head);
+        }
+        for (int chunk : SMALL_CHUNK_RECORDS) {
+            Fingerprint chunked = new Fingerprint(sideA.size());
+            try (ReplayReader reader = new ReplayReader(file, (long) chunk * ReplayFormat.RECORD_BYTES)) {
+                reader.scan(0, window, chunked);
+            }
+            mismatch = head.compare(chunked, "開頭 " + window + " 筆、每段 " + chunk + " 筆");
+            if (mismatch != null) return mismatch;
+        }
+
+        // 隨機切成很多段的範圍掃描
+        BattleRandom random = new BattleRandom(seed);
+        Fingerprint ranges = new Fingerprint(sideA.size());
+        try (ReplayReader reader = new ReplayReader(file, 64L * ReplayFormat.RECORD_BYTES)) {
+            long from = 0;
+            while (from < records) {
+                long to = Math.min(records, from + random.nextInt(200));
+                reader.scan(from, to, ranges);
+                from = to;
+            }
+        }
+        mismatch = whole.compare(ranges, "範圍掃描");
+        if (mismatch != null) return mismatch;
+
+        // 寫到一半中斷：最後半筆紀錄要被忽略
+        Fingerprint prefix = new Fingerprint(sideA.size());
+        try (ReplayReader reader = new ReplayReader(file)) {
+            reader.scan(0, records - 1, prefix);
+        }
+        Files.copy(file, truncated, StandardCopyOption.REPLACE_EXISTING);
+        try (FileChannel channel = FileChannel.open(truncated, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - ReplayFormat.RECORD_BYTES / 2);
+        }
+        Fingerprint cut = new Fingerprint(sideA.size());
+        try (ReplayReader reader = new ReplayReader(truncated)) {
+            if (reader.getRecords() != records - 1) {
+                return "中斷的檔案應該有 " + (records - 1) + " 筆完整紀錄，實際是 " + reader.getRecords();
+            }
+            reader.scan(cut);
+        }
+        return prefix.compare(cut, "中斷的檔案");
+    }
+
+    // 重播檔的內容與模擬結果相同
+    private static String compareContent(SimulationResult result, ReplaySummary summary, Fingerprint whole) {
+        if (summary.getBattles() != result.getBattles() || summary.getWinsA() != result.getWinsA()
+                || summary.getWinsB() != result.getWinsB() || summary.getDraws() != result.getDraws()) {
+            return "勝負（A 勝 / B 勝 / 平手）" + result.getWinsA() + " / " + result.getWinsB() + " / " + result.getDraws()
+                    + " ≠ 重播檔 " + summary.getWinsA() + " / " + summary.getWinsB() + " / " + summary.getDraws();
+        }
+        if (whole.damageToB != result.getDamageByA()) {
+            return "A 方造成的傷害 " + result.getDamageByA() + " ≠ 重播檔中 B 方受到的傷害 " + whole.damageToB;
+        }
+        if (whole.damageToA != result.getDamageByB()) {
+            return "B 方造成的傷害 " + result.getDamageByB() + " ≠ 重播檔中 A 方受到的傷害 " + whole.damageToA;
+        }
+        return null;
+    }
+
+    private static void delete(Path file) {
+        if (file == null) return;
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+            // 暫存檔刪不掉不影響結果
+        }
+    }
+
+    /**
+     * Fingerprint - 紀錄的筆數、所有欄位的雜湊，以及依目標陣營加總的傷害
+     */
+    private static final class Fingerprint implements ReplayVisitor {
+        // A 方的人數（編號小於它的是 A 方）
+        final int sizeA;
+        long records;
+        long hash = 17;
+        long damageToA;
+        long damageToB;
+
+        Fingerprint(int sizeA) {
+            this.sizeA = sizeA;
+        }
+
+        @Override
+        public void visit(int type, int actor, int target, int value1, int value2) {
+            records++;
+            hash = (((hash * 31 + type) * 31 + actor) * 31 + target) * 31 + value1;
+            hash = hash * 31 + value2;
+            if (type == ReplayFormat.DAMAGE) {
+                if (target < sizeA) {
+                    damageToA += value1;
+                } else {
+                    damageToB += value1;
+                }
+            }
+        }
+
+        // 與另一份指紋比對
+        String compare(Fingerprint other, String what) {
+            if (records != other.records) {
+                return what + "：紀錄數 " + records + " ≠ " + other.records;
+            }
+            if (hash != other.hash) {
+                return what + "：紀錄內容不同（雜湊 " + Long.toHexString(hash) + " ≠ " + Long.toHexString(other.hash) + "）";
+            }
+            return null;
+        }
+    }
+}
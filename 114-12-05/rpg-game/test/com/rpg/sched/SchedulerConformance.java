@@ -0,0 +1,160 @@
+/**
+ * SchedulerConformance - 驗證 TurnScheduler 的行動順序與逐一掃描的結果一致
+ *
+ * 做法：
+ * - 參考版本：每次取出時掃描全部角色，依「行動時間 → 先攻值（大的先）→ 排入順序」挑最前面的一個
+ * - 用同一個亂數流隨機排入（含重新排定已在排程中的角色）、取出、移除，兩邊各做一次，
+ *   每一步之後比對排程中的人數、下一個行動的角色與目前時間
+ * - 速度：速度 100、200、400 的角色各自依 interval(speed) 重複排入，
+ *   同一段時間內的行動次數必須是 1 : 2 : 4
+ */
+package com.rpg.sched;
+
+import com.rpg.core.BattleRandom;
+
+public class SchedulerConformance {
+    // 隨機操作使用的角色數
+    private static final int ROLES = 64;
+
+    // steps：隨機操作的步數
+    public static String verify(long seed, int steps) {
+        String mismatch = verifyOrder(seed, steps);
+        if (mismatch == null) mismatch = verifySpeed();
+        return mismatch;
+    }
+
+    // 隨機操作：與逐一掃描的參考版本比對
+    private static String verifyOrder(long seed, int steps) {
+        TurnScheduler scheduler = new TurnScheduler(ROLES);
+        Reference reference = new Reference(ROLES);
+        BattleRandom random = new BattleRandom(seed);
+
+        for (int step = 0; step < steps; step++) {
+            int id = random.nextInt(ROLES);
+            int operation = random.nextInt(4);
+            switch (operation) {
+                case 0:
+                case 1:
+                    // 時間與先攻值只取少數幾種，讓同時間、同先攻的情況經常出現
+                    long actionTime = reference.now + random.nextInt(8);
+                    int initiative = random.nextInt(3);
+                    scheduler.schedule(id, actionTime, initiative);
+                    reference.schedule(id, actionTime, initiative);
+                    break;
+                case 2:
+                    if (!reference.isEmpty()) {
+                        int expected = reference.poll();
+                        int actual = scheduler.poll();
+                        if (actual != expected) {
+                            return "第 " + step + " 步取出：應該是 " + expected + "，實際是 " + actual;
+                        }
+                    }
+                    break;
+                default:
+                    scheduler.remove(id);
+                    reference.remove(id);
+            }
+
+            String mismatch = compare(scheduler, reference);
+            if (mismatch != null) {
+                return "第 " + step + " 步（操作 " + operation + "，角色 " + id + "）後：" + mismatch;
+            }
+        }
+        return null;
+    }
+
+    private static String compare(TurnScheduler scheduler, Reference reference) {
+        if (scheduler.size() != reference.size) {
+            return "排程人數 " + reference.size + " ≠ " + scheduler.size();
+        }
+        if (scheduler.now() != reference.now) {
+            return "目前時間 " + reference.now + " ≠ " + scheduler.now();
+        }
+        if (!reference.isEmpty() && scheduler.peek() != reference.peek()) {
+            return "下一個行動的角色 " + reference.peek() + " ≠ " + scheduler.peek();
+        }
+        return null;
+    }
+
+    // 速度 100 / 200 / 400 的角色（間隔 100 / 50 / 25，都能整除）在同一段時間內的行動次數必須是 1 : 2 : 4
+    private static String verifySpeed() {
+        int[] speeds = {100, 200, 400};
+        int[] actions = new int[speeds.length];
+        TurnScheduler scheduler = new TurnScheduler(speeds.length);
+        for (int id = 0; id < speeds.length; id++) {
+            scheduler.schedule(id, 0, speeds[id]);
+        }
+        // 速度 100 的間隔是 100，300 個間隔正好是 30,000 個時間單位
+        long horizon = TurnScheduler.interval(speeds[0]) * 300;
+        while (scheduler.timeOf(scheduler.peek()) < horizon) {
+            int id = scheduler.poll();
+            actions[id]++;
+            scheduler.schedule(id, scheduler.now() + TurnScheduler.interval(speeds[id]), speeds[id]);
+        }
+        for (int id = 0; id < speeds.length; id++) {
+            int expected = actions[0] * speeds[id] / speeds[0];
+            if (actions[id] != expected) {
+                return "速度 " + speeds[id] + " 的行動次數應該是 " + expected + "，實際是 " + actions[id];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reference - 逐一掃描的參考版本（O(n)，只用來比對）
+     */
+    private static final class Reference {
+        final boolean[] scheduled;
+        final long[] time;
+        final int[] initiative;
+        final long[] sequence;
+        int size;
+        long nextSequence;
+        long now;
+
+        Reference(int capacity) {
+            scheduled = new boolean[capacity];
+            time = new long[capacity];
+            initiative = new int[capacity];
+            sequence = new long[capacity];
+        }
+
+        void schedule(int id, long actionTime, int initiativeValue) {
+            if (!scheduled[id]) size++;
+            scheduled[id] = true;
+            time[id] = actionTime;
+            initiative[id] = initiativeValue;
+            sequence[id] = nextSequence++;
+        }
+
+        int peek() {
+            int best = -1;
+            for (int id = 0; id < scheduled.length; id++) {
+                if (scheduled[id] && (best < 0 || before(id, best))) best = id;
+            }
+            return best;
+        }
+
+        int poll() {
+            int id = peek();
+            now = time[id];
+            remove(id);
+            return id;
+        }
+
+        void remove(int id) {
+            if (scheduled[id]) size--;
+            scheduled[id] = false;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        boolean before(int a, int b) {
+            if (time[a] != time[b]) return time[a] < time[b];
+            if (initiative[a] != initiative[b]) return initiative[a] > initiative[b];
+            return sequence[a] < sequence[b];
+        }
+    }
+}
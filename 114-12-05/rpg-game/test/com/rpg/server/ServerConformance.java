@@ -0,0 +1,126 @@
+/**
+ * ServerConformance - 驗證對戰伺服器的關閉與暈眩規則
+ *
+ * 做法：
+ * - 信箱：交給已經關閉的執行器，連續送兩則訊息，兩次都要丟出 RejectedExecutionException，
+ *   而且佇列裡不能留下訊息（第一次拒絕後旗標沒撤回的話，第二次會默默排進佇列、永遠不會執行）
+ * - 伺服器：先送一個指令確認正常，close() 之後再送兩個指令與一次 abandon，
+ *   每個 Future 都必須在時限內以 IllegalStateException 失敗
+ * - 暈眩：被暈眩的角色送出 ATTACK / DEFEND / HEAL / AUTO 都只會結束回合（回報 STUNNED），
+ *   目標的生命值不變
+ */
+package com.rpg.server;
+
+import com.rpg.core.Role;
+import com.rpg.roles.melee.Paladin;
+import com.rpg.roles.melee.SwordsMan;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+public class ServerConformance {
+    // 等待每個 Future 的時限
+    private static final long TIMEOUT_SECONDS = 5;
+
+    // seed：戰鬥的亂數種子
+    public static String verify(long seed) {
+        String mismatch = verifyMailbox();
+        if (mismatch == null) mismatch = verifyClose(seed);
+        if (mismatch == null) mismatch = verifyStun(seed);
+        return mismatch;
+    }
+
+    // 已關閉的執行器：每次送出都要被拒絕，而且不留下訊息
+    private static String verifyMailbox() {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        executor.shutdown();
+        Mailbox mailbox = new Mailbox(executor);
+        for (int i = 1; i <= 2; i++) {
+            try {
+                mailbox.post(() -> { });
+                return "信箱：執行器已關閉，第 " + i + " 則訊息卻被接受了";
+            } catch (RejectedExecutionException expected) {
+                // 符合預期
+            }
+            if (mailbox.pending() != 0) {
+                return "信箱：第 " + i + " 則訊息被拒絕後仍留在佇列裡（" + mailbox.pending() + " 則）";
+            }
+        }
+        return null;
+    }
+
+    // close() 之後的指令都要以 IllegalStateException 失敗，不能永遠不完成
+    private static String verifyClose(long seed) {
+        BattleServer server = new BattleServer();
+        Match match = server.open(new Role[]{newSwordsMan("甲")}, new Role[]{newSwordsMan("乙")}, seed);
+        String mismatch = expectResult(match.submit(Command.ATTACK, 0, 1), "關閉前的指令");
+        if (mismatch != null) return mismatch;
+
+        server.close();
+        mismatch = expectClosed(match.submit(Command.ATTACK, 0, 1), "關閉後的第 1 個指令");
+        if (mismatch == null) mismatch = expectClosed(match.submit(Command.AUTO, 1, -1), "關閉後的第 2 個指令");
+        if (mismatch == null) mismatch = expectClosed(match.abandon(), "關閉後的 abandon");
+        return mismatch;
+    }
+
+    // 暈眩中的角色不論什麼指令都不行動
+    private static String verifyStun(long seed) {
+        try (BattleServer server = new BattleServer()) {
+            Paladin paladin = new Paladin("聖騎士", 110, 17, 6, 12, 12, 100);
+            SwordsMan enemy = newSwordsMan("乙");
+            Match match = server.open(new Role[]{paladin, newSwordsMan("甲")}, new Role[]{enemy}, seed);
+            paladin.addStun();
+            Command[] commands = {Command.ATTACK, Command.DEFEND, Command.HEAL, Command.AUTO};
+            int[] targets = {2, -1, 1, -1};
+            for (int i = 0; i < commands.length; i++) {
+                int enemyHealth = enemy.getHealth();
+                ActionResult result;
+                try {
+                    result = match.submit(commands[i], 0, targets[i]).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                } catch (InterruptedException | ExecutionException | TimeoutException e) {
+                    return "暈眩：" + commands[i] + " 沒有正常完成：" + e;
+                }
+                if (result.getStatus() != ActionResult.Status.STUNNED) {
+                    return "暈眩：" + commands[i] + " 應該回報 STUNNED，實際是 " + result;
+                }
+                if (enemy.getHealth() != enemyHealth) {
+                    return "暈眩：" + commands[i] + " 之後敵人的生命值從 " + enemyHealth + " 變成 " + enemy.getHealth();
+                }
+            }
+        }
+        return null;
+    }
+
+    private static SwordsMan newSwordsMan(String name) {
+        return new SwordsMan(name, 100, 20, 5);
+    }
+
+    private static String expectResult(CompletableFuture<ActionResult> reply, String what) {
+        try {
+            reply.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            return null;
+        } catch (InterruptedException | ExecutionException | TimeoutException e) {
+            return what + "沒有正常完成：" + e;
+        }
+    }
+
+    private static String expectClosed(CompletableFuture<ActionResult> reply, String what) {
+        try {
+            ActionResult result = reply.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            return what + "應該失敗，卻完成了：" + result;
+        } catch (ExecutionException e) {
+            return e.getCause() instanceof IllegalStateException ? null
+                    : what + "應該以 IllegalStateException 失敗，實際是 " + e.getCause();
+        } catch (TimeoutException e) {
+            return what + "在 " + TIMEOUT_SECONDS + " 秒內沒有完成（Future 永遠不會完成）";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return what + "等待時被中斷";
+        }
+    }
+}
@@ -0,0 +1,219 @@
+/**
+ * SnapshotConformance - 驗證戰鬥快照還原後接著打，與沒有中斷的戰鬥完全相同
+ *
+ * 做法：
+ * - 每場戰鬥隨機決定雙方的人數與職業組成，亂數用 split 出來的亂數流
+ *   （步長不是預設值，快照少存步長的話還原後的亂數就會不同）
+ * - 參考版本：沒有中斷的戰鬥一回合一回合地打，記下每一回合結束時的快照內容
+ * - 中斷版本：打到隨機的回合存快照，經過 toByteArray / fromByteArray（或寫檔再讀回），
+ *   用全新的角色還原後接著打；每一回合結束時的快照內容（所有角色的狀態、存活名單順序、
+ *   亂數狀態與步長、回合數、傷害統計）都必須與參考版本逐 byte 相同，勝負也要相同
+ * - 存快照的那場戰鬥接著打也要與參考版本相同（存快照不能改變戰鬥）
+ * - 錯誤的輸入：截斷、多出 bytes、識別碼或版本不符、步長不是奇數、存活名單的編號超出範圍、
+ *   屬於另一方或重複的內容要被 fromByteArray 拒絕；職業組成或人數不符的角色、
+ *   存活名單裡有已經倒下的角色要被 restore 拒絕
+ */
+package com.rpg.sim;
+
+import com.rpg.archetype.ArchetypeRegistry;
+import com.rpg.core.BattleRandom;
+import com.rpg.core.Role;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class SnapshotConformance {
+    // 每方最多幾個角色
+    private static final int MAX_SIDE = 40;
+    private static final ArchetypeRegistry ARCHETYPES = ArchetypeRegistry.defaults();
+    private static final String[] IDS = ARCHETYPES.ids().toArray(new String[0]);
+
+    // battles：戰鬥場數
+    public static String verify(long seed, int battles) {
+        BattleRandom random = new BattleRandom(seed);
+        for (int i = 0; i < battles; i++) {
+            String mismatch = verifyBattle(seed, i, random);
+            if (mismatch != null) return "第 " + i + " 場：" + mismatch;
+        }
+        return verifyRejects(seed);
+    }
+
+    private static String verifyBattle(long seed, int index, BattleRandom random) {
+        String[] kindsA = composition(random);
+        String[] kindsB = composition(random);
+
+        // 沒有中斷的戰鬥：記下每一回合結束時的快照
+        Battle reference = new Battle(spawn(kindsA), spawn(kindsB), battleRandom(seed, index));
+        List<byte[]> expected = new ArrayList<>();
+        expected.add(reference.snapshot().toByteArray());
+        int winner = Battle.DRAW;
+        for (int round = 1; round <= Battle.DEFAULT_MAX_ROUNDS; round++) {
+            winner = reference.fight(round);
+            expected.add(reference.snapshot().toByteArray());
+            if (reference.aliveA().isEmpty() || reference.aliveB().isEmpty()) break;
+        }
+        int lastRound = reference.getRounds();
+
+        // 打到一半存快照
+        int cut = random.nextInt(lastRound + 1);
+        Battle original = new Battle(spawn(kindsA), spawn(kindsB), battleRandom(seed, index));
+        original.fight(cut);
+        BattleSnapshot snapshot = original.snapshot();
+        if (snapshot.getRounds() != cut || snapshot.getRandomGamma() != original.random().getGamma()
+                || snapshot.getDamageByA() != original.getDamageByA() || snapshot.getDamageByB() != original.getDamageByB()) {
+            return "第 " + cut + " 回合的快照檔頭與戰鬥不符";
+        }
+        BattleSnapshot copy = random.nextInt(8) == 0 ? throughFile(snapshot) : BattleSnapshot.fromByteArray(snapshot.toByteArray());
+        String where = "（" + kindsA.length + " 對 " + kindsB.length + "，第 " + cut + " 回合存檔）";
+
+        Battle restored = copy.restore(spawn(kindsA), spawn(kindsB));
+        String mismatch = continueAndCompare(restored, cut, lastRound, winner, expected);
+        if (mismatch != null) return "還原後接著打" + where + mismatch;
+        mismatch = continueAndCompare(original, cut, lastRound, winner, expected);
+        if (mismatch != null) return "存快照的戰鬥接著打" + where + mismatch;
+        return null;
+    }
+
+    // 從 from 回合接著一回合一回合地打，每回合與參考版本比對快照內容
+    private static String continueAndCompare(Battle battle, int from, int lastRound, int winner, List<byte[]> expected) {
+        if (!Arrays.equals(battle.snapshot().toByteArray(), expected.get(from))) {
+            return "，第 " + from + " 回合的快照內容不同";
+        }
+        int result = Battle.DRAW;
+        for (int round = from + 1; round <= lastRound; round++) {
+            result = battle.fight(round);
+            if (!Arrays.equals(battle.snapshot().toByteArray(), expected.get(round))) {
+                return "，第 " + round + " 回合結束時的狀態不同";
+            }
+        }
+        if (from < lastRound && result != winner) {
+            return "，勝負是 " + result + "，應該是 " + winner;
+        }
+        return null;
+    }
+
+    // 錯誤的快照內容與角色組成都要被拒絕
+    private static String verifyRejects(long seed) {
+        String[] kindsA = {"paladin", "archer"};
+        String[] kindsB = {"magician", "shieldSwordsman", "swordsman"};
+        Battle battle = new Battle(spawn(kindsA), spawn(kindsB), battleRandom(seed, -1));
+        battle.fight(2);
+        byte[] bytes = battle.snapshot().toByteArray();
+
+        String mismatch = expectRejected(Arrays.copyOf(bytes, bytes.length - 1), "少 1 byte 的內容");
+        if (mismatch == null) mismatch = expectRejected(Arrays.copyOf(bytes, bytes.length + 1), "多 1 byte 的內容");
+        if (mismatch == null) mismatch = expectRejected(Arrays.copyOf(bytes, BattleSnapshot.HEADER_BYTES - 1), "不到檔頭長度的內容");
+        if (mismatch == null) mismatch = expectRejected(withInt(bytes, 0, 0), "識別碼不符的內容");
+        if (mismatch == null) mismatch = expectRejected(withInt(bytes, 4, BattleSnapshot.VERSION - 1), "舊版本的內容");
+        if (mismatch == null) mismatch = expectRejected(withLong(bytes, 40, 2), "步長是偶數的內容");
+        // 最後一個 int 是 B 方存活名單的最後一個編號
+        int last = bytes.length - Integer.BYTES;
+        int countA = kindsA.length;
+        int roles = kindsA.length + kindsB.length;
+        if (mismatch == null) mismatch = expectRejected(withInt(bytes, last, 999), "存活名單編號超出範圍的內容");
+        if (mismatch == null) mismatch = expectRejected(withInt(bytes, last, -1), "存活名單編號是負數的內容");
+        if (mismatch == null) mismatch = expectRejected(withInt(bytes, last, countA - 1), "存活名單編號屬於另一方的內容");
+        if (mismatch == null && battle.aliveB().size() >= 2) {
+            int previous = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).getInt(last - Integer.BYTES);
+            mismatch = expectRejected(withInt(bytes, last, previous), "存活名單編號重複的內容");
+        }
+        if (mismatch == null) mismatch = expectRejected(withInt(bytes, last, roles), "存活名單編號等於總人數的內容");
+        if (mismatch != null) return mismatch;
+
+        // 存活名單裡的角色在快照裡的生命值是 0
+        int dead = battle.aliveA().get(0).getId();
+        int offset = BattleSnapshot.HEADER_BYTES;
+        Role[] sizes = spawn(kindsA);
+        for (int i = 0; i < dead; i++) offset += 4 + sizes[i].getStateBytes();
+        BattleSnapshot corpse = BattleSnapshot.fromByteArray(withInt(bytes, offset + 4, 0));
+        mismatch = expectRestoreRejected(corpse, spawn(kindsA), spawn(kindsB), "存活名單裡已經倒下的角色");
+        if (mismatch != null) return mismatch;
+
+        BattleSnapshot snapshot = BattleSnapshot.fromByteArray(bytes);
+        String[] swapped = {"archer", "paladin"};
+        mismatch = expectRestoreRejected(snapshot, spawn(swapped), spawn(kindsB), "職業順序不同的角色");
+        if (mismatch == null) {
+            mismatch = expectRestoreRejected(snapshot, spawn(kindsA), spawn(new String[]{"magician"}), "人數不同的角色");
+        }
+        return mismatch;
+    }
+
+    private static String expectRejected(byte[] bytes, String what) {
+        try {
+            BattleSnapshot.fromByteArray(bytes);
+            return "fromByteArray 接受了" + what;
+        } catch (IllegalArgumentException expected) {
+            return null;
+        }
+    }
+
+    private static String expectRestoreRejected(BattleSnapshot snapshot, Role[] sideA, Role[] sideB, String what) {
+        try {
+            snapshot.restore(sideA, sideB);
+            return "restore 接受了" + what;
+        } catch (IllegalArgumentException expected) {
+            return null;
+        }
+    }
+
+    private static byte[] withInt(byte[] bytes, int offset, int value) {
+        byte[] copy = bytes.clone();
+        ByteBuffer.wrap(copy).order(ByteOrder.LITTLE_ENDIAN).putInt(offset, value);
+        return copy;
+    }
+
+    private static byte[] withLong(byte[] bytes, int offset, long value) {
+        byte[] copy = bytes.clone();
+        ByteBuffer.wrap(copy).order(ByteOrder.LITTLE_ENDIAN).putLong(offset, value);
+        return copy;
+    }
+
+    // 寫檔再讀回
+    private static BattleSnapshot throughFile(BattleSnapshot snapshot) {
+        Path file = null;
+        try {
+            file = Files.createTempFile("snapshot-conformance", ".bin");
+            snapshot.writeTo(file);
+            return BattleSnapshot.readFrom(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            if (file != null) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException ignored) {
+                    // 暫存檔刪不掉不影響結果
+                }
+            }
+        }
+    }
+
+    // 第 index 場戰鬥的亂數（split 出來的步長不是預設值）
+    private static BattleRandom battleRandom(long seed, int index) {
+        return BattleRandom.forBattle(seed, index).split();
+    }
+
+    // 隨機的職業組成
+    private static String[] composition(BattleRandom random) {
+        String[] kinds = new String[1 + random.nextInt(MAX_SIDE)];
+        for (int i = 0; i < kinds.length; i++) {
+            kinds[i] = IDS[random.nextInt(IDS.length)];
+        }
+        return kinds;
+    }
+
+    private static Role[] spawn(String[] kinds) {
+        Role[] roles = new Role[kinds.length];
+        for (int i = 0; i < kinds.length; i++) {
+            roles[i] = ARCHETYPES.spawn(kinds[i]);
+        }
+        return roles;
+    }
+}
@@ -0,0 +1,142 @@
+/**
+ * SpatialConformance - 驗證 SpatialGrid 的查詢結果與逐一比對距離一致
+ *
+ * 做法：
+ * - 用同一個亂數流隨機加入、移出、移動（move，以及先 setPosition 再 update）角色，
+ *   座標有一部分落在戰場外面，也會在同一格內移動、跨格移動
+ * - 每一步之後在隨機位置、隨機半徑（含 0）查詢：
+ *   collectWithin 找到的角色必須與逐一比對全部成員的結果完全相同（不論順序），
+ *   nearest 的距離必須等於最近成員的距離（同距離時可以是任何一個）
+ * - 結果陣列故意偶爾給得比較小：回傳的數量仍然要是全部符合的角色數
+ */
+package com.rpg.spatial;
+
+import com.rpg.core.BattleRandom;
+import com.rpg.core.Role;
+import com.rpg.roles.melee.SwordsMan;
+
+import java.util.Arrays;
+
+public class SpatialConformance {
+    // 戰場大小與格子邊長（故意不能整除）
+    private static final int WIDTH = 200;
+    private static final int HEIGHT = 150;
+    private static final int CELL_SIZE = 7;
+    // 座標可以超出戰場的距離
+    private static final int MARGIN = 20;
+    // 最大查詢半徑
+    private static final int MAX_RADIUS = 60;
+    private static final int ROLES = 300;
+
+    // steps：操作步數
+    public static String verify(long seed, int steps) {
+        Role[] roles = new Role[ROLES];
+        for (int i = 0; i < ROLES; i++) {
+            roles[i] = new SwordsMan("單位" + i, 100, 20, 5);
+            roles[i].setId(i);
+        }
+        SpatialGrid grid = new SpatialGrid(WIDTH, HEIGHT, CELL_SIZE, ROLES);
+        boolean[] member = new boolean[ROLES];
+        int members = 0;
+        Role[] out = new Role[ROLES];
+        boolean[] found = new boolean[ROLES];
+
+        BattleRandom random = new BattleRandom(seed);
+        for (int step = 0; step < steps; step++) {
+            int id = random.nextInt(ROLES);
+            Role role = roles[id];
+            int operation = random.nextInt(5);
+            switch (operation) {
+                case 0:
+                    role.setPosition(coordinate(random, WIDTH), coordinate(random, HEIGHT));
+                    grid.add(role);
+                    if (!member[id]) members++;
+                    member[id] = true;
+                    break;
+                case 1:
+                    grid.remove(role);
+                    if (member[id]) members--;
+                    member[id] = false;
+                    break;
+                case 2:
+                    if (member[id]) {
+                        grid.move(role, coordinate(random, WIDTH), coordinate(random, HEIGHT));
+                    }
+                    break;
+                default:
+                    // 小幅移動：多半留在同一格，偶爾跨格
+                    if (member[id]) {
+                        role.setPosition(role.getX() + random.nextInt(5) - 2, role.getY() + random.nextInt(5) - 2);
+                        grid.update(role);
+                    }
+            }
+
+            if (grid.size() != members) {
+                return "第 " + step + " 步後：格網人數 " + grid.size() + " ≠ " + members;
+            }
+            int x = coordinate(random, WIDTH);
+            int y = coordinate(random, HEIGHT);
+            int radius = random.nextInt(MAX_RADIUS + 1);
+            String mismatch = query(grid, roles, member, x, y, radius,
+                    random.nextInt(8) == 0 ? new Role[random.nextInt(3)] : out, found);
+            if (mismatch != null) {
+                return "第 " + step + " 步（操作 " + operation + "，" + role.getName() + "）後查詢 (" + x + ", " + y
+                        + ") 半徑 " + radius + "：" + mismatch;
+            }
+        }
+        return null;
+    }
+
+    // 戰場內外的隨機座標
+    private static int coordinate(BattleRandom random, int size) {
+        return random.nextInt(size + 2 * MARGIN) - MARGIN;
+    }
+
+    // 比對一次查詢
+    private static String query(SpatialGrid grid, Role[] roles, boolean[] member, int x, int y, int radius,
+                                Role[] out, boolean[] found) {
+        long limit = (long) radius * radius;
+        int expected = 0;
+        long nearest = Long.MAX_VALUE;
+        for (int id = 0; id < roles.length; id++) {
+            if (!member[id]) continue;
+            long d = distanceSquared(roles[id], x, y);
+            if (d <= limit) {
+                expected++;
+                nearest = Math.min(nearest, d);
+            }
+        }
+
+        int count = grid.collectWithin(x, y, radius, out);
+        if (count != expected) {
+            return "collectWithin 找到 " + count + " 個，應該是 " + expected + " 個";
+        }
+        Arrays.fill(found, false);
+        for (int i = 0; i < Math.min(count, out.length); i++) {
+            Role role = out[i];
+            if (!member[role.getId()] || distanceSquared(role, x, y) > limit) {
+                return "collectWithin 回傳了範圍外或不在格網中的 " + role.getName();
+            }
+            if (found[role.getId()]) {
+                return "collectWithin 重複回傳 " + role.getName();
+            }
+            found[role.getId()] = true;
+        }
+
+        Role closest = grid.nearest(x, y, radius);
+        if (closest == null) {
+            return expected == 0 ? null : "nearest 沒有找到角色，範圍內有 " + expected + " 個";
+        }
+        if (!member[closest.getId()] || distanceSquared(closest, x, y) != nearest) {
+            return "nearest 回傳 " + closest.getName() + "（距離平方 " + distanceSquared(closest, x, y)
+                    + "），最近的距離平方是 " + (expected == 0 ? "（範圍內沒有角色）" : String.valueOf(nearest));
+        }
+        return null;
+    }
+
+    private static long distanceSquared(Role role, int x, int y) {
+        long dx = (long) role.getX() - x;
+        long dy = (long) role.getY() - y;
+        return dx * dx + dy * dy;
+    }
+}